@@ -1,6 +1,7 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
-import { DashboardService, DashboardStats, RecentActivity } from '../services/dashboard.service';
+import { Subscription } from 'rxjs';
+import { DashboardDelta, DashboardService, DashboardStats, RecentActivity } from '../services/dashboard.service';
 import { OrderStatus } from '../services/order.service';
 import { environment } from '../../environments/environment';
 
@@ -11,16 +12,28 @@ import { environment } from '../../environments/environment';
   templateUrl: './dashboard.component.html',
   styleUrls: ['./dashboard.component.css']
 })
-export class DashboardComponent implements OnInit {
+export class DashboardComponent implements OnInit, OnDestroy {
   stats: DashboardStats | null = null;
   recentActivity: RecentActivity | null = null;
   loading = true;
   error: string | null = null;
+  private streamSubscription: Subscription | null = null;
 
   constructor(private dashboardService: DashboardService) {}
 
   ngOnInit(): void {
     this.loadDashboardData();
+    this.streamSubscription = this.dashboardService.stream().subscribe(message => {
+      if (message.type === 'reconnected') {
+        this.loadDashboardData();
+      } else {
+        this.applyDelta(message.delta);
+      }
+    });
+  }
+
+  ngOnDestroy(): void {
+    this.streamSubscription?.unsubscribe();
   }
 
   loadDashboardData(): void {
@@ -54,6 +67,38 @@ export class DashboardComponent implements OnInit {
     });
   }
 
+  // Delta auf den geladenen Stand anwenden, ohne Stats und Aktivitäten neu abzufragen
+  private applyDelta(delta: DashboardDelta): void {
+    if (this.stats) {
+      this.stats.totalOrders += delta.totalOrders;
+      for (const [status, count] of Object.entries(delta.ordersByStatus)) {
+        this.stats.ordersByStatus[status] = (this.stats.ordersByStatus[status] || 0) + count;
+      }
+      this.stats.totalRevenue += delta.totalRevenue;
+      this.stats.pendingRevenue += delta.pendingRevenue;
+      this.stats.todayRevenue += delta.todayRevenue;
+      this.stats.monthRevenue += delta.monthRevenue;
+      this.stats.lowStockProductsCount += delta.lowStockEntered.length - delta.lowStockLeft.length;
+    }
+
+    if (this.recentActivity) {
+      const activity = this.recentActivity;
+      activity.recentOrders = [...delta.newOrders, ...activity.recentOrders].slice(0, 10);
+      // Neueste Übergänge stehen vorne - ältere nicht darüber schreiben
+      for (const transition of [...delta.statusTransitions].reverse()) {
+        const order = activity.recentOrders.find(o => o.id === transition.orderId);
+        if (order) {
+          order.status = transition.status;
+        }
+      }
+      const left = new Set<number | string>(delta.lowStockLeft);
+      activity.lowStockProducts = [
+        ...activity.lowStockProducts.filter(p => !left.has(p.id)),
+        ...delta.lowStockEntered
+      ];
+    }
+  }
+
   private checkLoadingComplete(): void {
     if (this.stats && this.recentActivity) {
       this.loading = false;
@@ -1,7 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
-import { OrderService, Order } from '../services/order.service';
+import { OrderService, Order, OrderSearchCriteria, OrderStatus, OrderSummary } from '../services/order.service';
 import { CustomerService, Customer } from '../services/customer.service';
 import { ProductService } from '../services/product.service';
 import { Product } from '../types/index';
@@ -41,7 +41,7 @@ interface OrderForm {
             class="form-control">
         </div>
         <div class="filter-group">
-          <select [(ngModel)]="statusFilter" (change)="filterOrders()" class="form-control">
+          <select [(ngModel)]="statusFilter" (change)="loadOrders()" class="form-control">
             <option value="">Alle Status</option>
             <option value="PENDING">Ausstehend</option>
             <option value="PROCESSING">In Bearbeitung</option>
@@ -182,8 +182,8 @@ interface OrderForm {
             <div class="col-id">#{{ order.id }}</div>
             <div class="col-customer">
               <div class="customer-info">
-                <span class="name">{{ order.customer?.firstName }} {{ order.customer?.lastName }}</span>
-                <span class="email">{{ order.customer?.email }}</span>
+                <span class="name">{{ order.customerName }}</span>
+                <span class="email">{{ order.itemCount }} Positionen</span>
               </div>
             </div>
             <div class="col-date">{{ order.orderDate | date:'dd.MM.yyyy HH:mm' }}</div>
@@ -210,6 +210,10 @@ interface OrderForm {
         <div class="no-orders" *ngIf="displayedOrders.length === 0">
           <p>Keine Bestellungen gefunden.</p>
         </div>
+
+        <div class="load-more" *ngIf="nextCursor">
+          <button (click)="loadMoreOrders()" class="btn btn-outline-primary">Weitere Bestellungen laden</button>
+        </div>
       </div>
 
       <!-- Order Details Modal -->
@@ -472,6 +476,11 @@ interface OrderForm {
       color: #6c757d;
     }
 
+    .load-more {
+      text-align: center;
+      padding: 20px;
+    }
+
     /* Modal Styles */
     .modal {
       position: fixed;
@@ -683,8 +692,9 @@ interface OrderForm {
   `]
 })
 export class OrdersComponent implements OnInit {
-  orders: Order[] = [];
-  displayedOrders: Order[] = [];
+  orders: OrderSummary[] = [];
+  nextCursor?: string;
+  displayedOrders: OrderSummary[] = [];
   customers: Customer[] = [];
   products: Product[] = [];
   showAddForm = false;
@@ -712,10 +722,32 @@ export class OrdersComponent implements OnInit {
     this.loadProducts();
   }
 
+  // Statusfilter wird serverseitig ausgewertet, damit "Mehr laden" nur passende Bestellungen nachlädt
+  private searchCriteria(): OrderSearchCriteria {
+    return this.statusFilter ? { status: [this.statusFilter as OrderStatus] } : {};
+  }
+
   loadOrders() {
-    this.orderService.getOrders().subscribe({
-      next: (orders) => {
-        this.orders = orders;
+    this.orderService.searchOrders(this.searchCriteria()).subscribe({
+      next: (page) => {
+        this.orders = page.items;
+        this.nextCursor = page.nextCursor;
+        this.filterOrders();
+      },
+      error: (error) => {
+        console.error('Fehler beim Laden der Bestellungen:', error);
+      }
+    });
+  }
+
+  loadMoreOrders() {
+    if (!this.nextCursor) {
+      return;
+    }
+    this.orderService.searchOrders(this.searchCriteria(), 'orderDate,desc', this.nextCursor).subscribe({
+      next: (page) => {
+        this.orders = [...this.orders, ...page.items];
+        this.nextCursor = page.nextCursor;
         this.filterOrders();
       },
       error: (error) => {
@@ -754,7 +786,7 @@ export class OrdersComponent implements OnInit {
     this.displayedOrders = this.orders.filter(order => {
       const matchesSearch = !this.searchTerm || 
         order.id?.toString().includes(this.searchTerm) ||
-        `${order.customer?.firstName} ${order.customer?.lastName}`.toLowerCase().includes(this.searchTerm.toLowerCase());
+        order.customerName?.toLowerCase().includes(this.searchTerm.toLowerCase());
       
       const matchesStatus = !this.statusFilter || order.status === this.statusFilter;
       
@@ -836,11 +868,11 @@ export class OrdersComponent implements OnInit {
     };
 
     if (this.editingOrder) {
-      this.orderService.updateOrder(this.editingOrder.id!, orderData).subscribe({
+      this.orderService.updateOrder(this.editingOrder.id!, orderData, this.editingOrder.version).subscribe({
         next: (order) => {
           const index = this.orders.findIndex(o => o.id === order.id);
           if (index > -1) {
-            this.orders[index] = order;
+            this.orders[index] = this.toSummary(order);
           }
           this.filterOrders();
           this.resetForm();
@@ -852,7 +884,7 @@ export class OrdersComponent implements OnInit {
     } else {
       this.orderService.createOrder(orderData).subscribe({
         next: (order) => {
-          this.orders.push(order);
+          this.orders.unshift(this.toSummary(order));
           this.filterOrders();
           this.resetForm();
         },
@@ -863,7 +895,17 @@ export class OrdersComponent implements OnInit {
     }
   }
 
-  editOrder(order: Order) {
+  // Listeneinträge sind Projektionen - Positionen erst beim Bearbeiten laden
+  editOrder(summary: OrderSummary) {
+    this.orderService.getOrder(summary.id).subscribe({
+      next: (order) => this.startEdit(order),
+      error: (error) => {
+        console.error('Fehler beim Laden der Bestellung:', error);
+      }
+    });
+  }
+
+  private startEdit(order: Order) {
     this.editingOrder = order;
     this.currentOrder = {
       customerId: order.customer?.id || '',
@@ -892,8 +934,15 @@ export class OrdersComponent implements OnInit {
     }
   }
 
-  viewOrderDetails(order: Order) {
-    this.selectedOrder = order;
+  viewOrderDetails(summary: OrderSummary) {
+    this.orderService.getOrder(summary.id).subscribe({
+      next: (order) => {
+        this.selectedOrder = order;
+      },
+      error: (error) => {
+        console.error('Fehler beim Laden der Bestellung:', error);
+      }
+    });
   }
 
   closeOrderDetails() {
@@ -904,6 +953,19 @@ export class OrdersComponent implements OnInit {
     this.resetForm();
   }
 
+  private toSummary(order: Order): OrderSummary {
+    return {
+      id: order.id!,
+      orderNumber: order.orderNumber || '',
+      customerId: order.customer?.id!,
+      customerName: `${order.customer?.firstName} ${order.customer?.lastName}`,
+      status: order.status,
+      totalAmount: order.totalAmount || 0,
+      orderDate: order.orderDate || '',
+      itemCount: order.orderItems?.length || 0
+    };
+  }
+
   private resetForm() {
     this.currentOrder = {
       customerId: '',
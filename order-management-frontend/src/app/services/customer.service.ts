@@ -46,7 +46,7 @@ export class CustomerService {
   }
 
   searchCustomers(query: string): Observable<Customer[]> {
-    return this.http.get<Customer[]>(`${this.apiUrl}/search?query=${query}`);
+    return this.http.get<Customer[]>(`${this.apiUrl}/search?query=${encodeURIComponent(query)}`);
   }
 
   getCustomerByEmail(email: string): Observable<Customer> {
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Order } from './order.service';
+import { OrderStatus, OrderSummary } from './order.service';
 import { Product } from '../types/index';
 import { environment } from '../../environments/environment';
 
@@ -18,10 +18,38 @@ export interface DashboardStats {
 }
 
 export interface RecentActivity {
-  recentOrders: Order[];
+  recentOrders: OrderSummary[];
   lowStockProducts: Product[];
 }
 
+export interface OrderStatusTransition {
+  orderId: number;
+  orderNumber: string;
+  previousStatus: OrderStatus;
+  status: OrderStatus;
+  totalAmount: number;
+  changedAt: string;
+}
+
+// Änderungen seit dem letzten Delta - Zähler und Umsätze sind Differenzen, keine Absolutwerte
+export interface DashboardDelta {
+  timestamp: string;
+  totalOrders: number;
+  ordersByStatus: { [key: string]: number };
+  totalRevenue: number;
+  pendingRevenue: number;
+  todayRevenue: number;
+  monthRevenue: number;
+  newOrders: OrderSummary[];
+  statusTransitions: OrderStatusTransition[];
+  lowStockEntered: Product[];
+  lowStockLeft: number[];
+}
+
+export type DashboardStreamMessage =
+  | { type: 'delta'; delta: DashboardDelta }
+  | { type: 'reconnected' };
+
 @Injectable({
   providedIn: 'root'
 })
@@ -37,4 +65,23 @@ export class DashboardService {
   getRecentActivity(): Observable<RecentActivity> {
     return this.http.get<RecentActivity>(`${this.apiUrl}/recent-activity`);
   }
+
+  // Live-Deltas per Server-Sent Events; EventSource verbindet sich selbst neu,
+  // danach muss der Stand neu geladen werden (Deltas dazwischen fehlen)
+  stream(): Observable<DashboardStreamMessage> {
+    return new Observable<DashboardStreamMessage>(subscriber => {
+      const source = new EventSource(`${this.apiUrl}/stream`);
+      let opened = false;
+      source.onopen = () => {
+        if (opened) {
+          subscriber.next({ type: 'reconnected' });
+        }
+        opened = true;
+      };
+      source.addEventListener('delta', event => {
+        subscriber.next({ type: 'delta', delta: JSON.parse((event as MessageEvent).data) });
+      });
+      return () => source.close();
+    });
+  }
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Customer } from './customer.service';
 import { Product } from '../types';
@@ -34,6 +34,35 @@ export interface Order {
   orderItems?: OrderItem[];
   createdAt?: string;
   updatedAt?: string;
+  version?: number;
+}
+
+export interface OrderSummary {
+  id: number;
+  orderNumber: string;
+  customerId: number;
+  customerName: string;
+  status: OrderStatus;
+  totalAmount: number;
+  orderDate: string;
+  itemCount: number;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor?: string;
+  hasMore: boolean;
+  size: number;
+}
+
+export interface OrderSearchCriteria {
+  status?: OrderStatus[];
+  from?: string;
+  to?: string;
+  customerId?: number;
+  minTotal?: number;
+  maxTotal?: number;
+  orderNumber?: string;
 }
 
 @Injectable({
@@ -44,8 +73,25 @@ export class OrderService {
 
   constructor(private http: HttpClient) {}
 
-  getOrders(): Observable<Order[]> {
-    return this.http.get<Order[]>(this.apiUrl);
+  getOrders(cursor?: string): Observable<CursorPage<OrderSummary>> {
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    return this.http.get<CursorPage<OrderSummary>>(`${this.apiUrl}${query}`);
+  }
+
+  // Suche wird komplett in der Datenbank ausgewertet, sort z.B. 'totalAmount,asc'
+  searchOrders(criteria: OrderSearchCriteria, sort = 'orderDate,desc', cursor?: string): Observable<CursorPage<OrderSummary>> {
+    let params = new HttpParams().set('sort', sort);
+    for (const [key, value] of Object.entries(criteria)) {
+      if (Array.isArray(value)) {
+        value.forEach(v => params = params.append(key, v));
+      } else if (value !== undefined && value !== null && value !== '') {
+        params = params.set(key, String(value));
+      }
+    }
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    return this.http.get<CursorPage<OrderSummary>>(`${this.apiUrl}/search`, { params });
   }
 
   getOrder(id: number): Observable<Order> {
@@ -60,28 +106,34 @@ export class OrderService {
     return this.http.post<Order>(this.apiUrl, order);
   }
 
-  updateOrder(id: number, order: Order): Observable<Order> {
-    return this.http.put<Order>(`${this.apiUrl}/${id}`, order);
+  // Mit version wird nur gespeichert, wenn niemand zwischenzeitlich geändert hat (sonst 412)
+  updateOrder(id: number, order: Order, version?: number): Observable<Order> {
+    return this.http.put<Order>(`${this.apiUrl}/${id}`, order, { headers: this.ifMatch(version) });
+  }
+
+  updateOrderStatus(id: number, status: OrderStatus, version?: number): Observable<Order> {
+    return this.http.patch<Order>(`${this.apiUrl}/${id}/status?status=${status}`, {}, { headers: this.ifMatch(version) });
   }
 
-  updateOrderStatus(id: number, status: OrderStatus): Observable<Order> {
-    return this.http.patch<Order>(`${this.apiUrl}/${id}/status?status=${status}`, {});
+  private ifMatch(version?: number): HttpHeaders {
+    return version != null ? new HttpHeaders({ 'If-Match': `"${version}"` }) : new HttpHeaders();
   }
 
   deleteOrder(id: number): Observable<void> {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
 
-  getOrdersByCustomer(customerId: number): Observable<Order[]> {
-    return this.http.get<Order[]>(`${this.apiUrl}/customer/${customerId}`);
+  getOrdersByCustomer(customerId: number, cursor?: string): Observable<CursorPage<OrderSummary>> {
+    const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+    return this.http.get<CursorPage<OrderSummary>>(`${this.apiUrl}/customer/${customerId}${query}`);
   }
 
-  getOrdersByStatus(status: OrderStatus): Observable<Order[]> {
-    return this.http.get<Order[]>(`${this.apiUrl}/status/${status}`);
+  getOrdersByStatus(status: OrderStatus): Observable<OrderSummary[]> {
+    return this.http.get<OrderSummary[]>(`${this.apiUrl}/status/${status}`);
   }
 
-  getOrdersInPeriod(startDate: string, endDate: string): Observable<Order[]> {
-    return this.http.get<Order[]>(`${this.apiUrl}/period?startDate=${startDate}&endDate=${endDate}`);
+  getOrdersInPeriod(startDate: string, endDate: string): Observable<OrderSummary[]> {
+    return this.http.get<OrderSummary[]>(`${this.apiUrl}/period?startDate=${startDate}&endDate=${endDate}`);
   }
 
   getRevenueByStatus(status: OrderStatus): Observable<number> {
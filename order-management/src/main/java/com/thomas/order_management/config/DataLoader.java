@@ -175,9 +175,11 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private BigDecimal calculateOrderTotal(List<OrderItem> items) {
-        return items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0L;
+        for (OrderItem item : items) {
+            total = Money.add(total, item.getTotalCents());
+        }
+        return Money.toBigDecimal(total);
     }
 
     private void createSampleUsers() {
@@ -39,7 +39,7 @@ public class HerokuDataSourceConfig {
 
         return DataSourceBuilder
                 .create()
-                .url(dbUrl + "?sslmode=require")  // Heroku requires SSL
+                .url(dbUrl + "?sslmode=require&reWriteBatchedInserts=true")  // Heroku requires SSL
                 .username(username)
                 .password(password)
                 .driverClassName("org.postgresql.Driver")
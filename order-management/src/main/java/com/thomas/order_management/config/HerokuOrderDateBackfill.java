@@ -0,0 +1,61 @@
+package com.thomas.order_management.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zieht order_items.order_date im Heroku-Profil nach, bevor Hibernate das Schema aktualisiert
+ *
+ * Dort läuft V3_9__Partition_Orders_By_Month.sql nicht, ddl-auto=update würde die Spalte als NOT NULL ergänzen
+ * und scheitert an einer Tabelle mit vorhandenen Positionen. Wie in V3_9 wird die Spalte daher zuerst nullbar
+ * angelegt, aus orders befüllt und dann auf NOT NULL gesetzt. Die Schritte sind idempotent; auf einer leeren
+ * Datenbank legt Hibernate die Tabelle selbst an. Die Partitionierung selbst bleibt den Migrationsskripten
+ * vorbehalten.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.profiles.active", havingValue = "heroku")
+public class HerokuOrderDateBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(HerokuOrderDateBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HerokuOrderDateBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void backfillOrderDate() {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass('order_items') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_date TIMESTAMP(6)");
+        int updated = jdbcTemplate.update("""
+                UPDATE order_items oi SET order_date = o.order_date
+                FROM orders o
+                WHERE o.id = oi.order_id AND oi.order_date IS NULL
+                """);
+        jdbcTemplate.execute("ALTER TABLE order_items ALTER COLUMN order_date SET NOT NULL");
+        if (updated > 0) {
+            logger.warn("Backfilled order_date for {} order items before schema update", updated);
+        }
+    }
+
+    /**
+     * Lässt die EntityManagerFactory (und damit ddl-auto=update) auf den Backfill warten
+     */
+    @Component
+    @ConditionalOnProperty(name = "spring.profiles.active", havingValue = "heroku")
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(HerokuOrderDateBackfill.class);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.thomas.order_management.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Schützt das Heroku-Profil vor doppelten Primärschlüsseln
+ *
+ * Dort legt ddl-auto=update fehlende ID-Sequences an, ohne dass die Skripte unter db/migration laufen: eine neue
+ * Sequence beginnt bei 1, obwohl die Tabelle schon Zeilen enthält, und die ersten Inserts kollidieren. Vor dem
+ * ersten Request wird jede Sequence hinter die höchste vorhandene ID gesetzt (wie V3_2__Pooled_Id_Sequences.sql).
+ * Die EntityManagerFactory als Abhängigkeit stellt sicher, dass Hibernate die Sequences bereits angelegt hat.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.profiles.active", havingValue = "heroku")
+public class HerokuSequenceGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(HerokuSequenceGuard.class);
+
+    // Sequence -> Tabelle, entsprechend den @SequenceGenerator-Angaben der Entities
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items",
+            "customers_seq", "customers",
+            "products_seq", "products",
+            "product_stock_stripes_seq", "product_stock_stripes",
+            "order_outbox_seq", "order_outbox");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HerokuSequenceGuard(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+            if (lastValue <= maxId) {
+                jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?)", Long.class, sequence, maxId + 1);
+                logger.warn("Sequence {} was behind max id {} of {}, moved past it", sequence, maxId, table);
+            }
+        });
+    }
+}
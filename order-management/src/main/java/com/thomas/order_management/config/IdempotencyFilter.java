@@ -0,0 +1,192 @@
+package com.thomas.order_management.config;
+
+import com.thomas.order_management.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Idempotency-Key für POST /api/orders und POST /api/customers
+ *
+ * Mit Header wird die erste Anfrage ausgeführt und ihre Antwort gespeichert; Wiederholungen mit gleichem
+ * Key und gleichem Body erhalten diese Antwort erneut (Header Idempotent-Replayed), ohne den Controller
+ * aufzurufen. Ein anderer Body unter demselben Key ergibt 422, ein noch laufendes Duplikat nach Ablauf
+ * der Wartezeit 409. Ohne Header bleibt das Verhalten unverändert.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> PATHS = Set.of("/api/orders", "/api/customers");
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()))
+                || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER).trim();
+        if (header.isEmpty() || header.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), HEADER + " muss 1 bis " + MAX_KEY_LENGTH + " Zeichen lang sein");
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key = path + ":" + header;
+        byte[] body = request.getInputStream().readAllBytes();
+        // Query-Parameter (z.B. async=true) gehören zur Anfrage und damit in den Fingerprint
+        String target = request.getQueryString() != null ? path + "?" + request.getQueryString() : path;
+        String requestHash = fingerprint(request.getMethod(), target, body);
+
+        IdempotencyService.Claim claim = idempotencyService.begin(key, requestHash);
+        switch (claim.getOutcome()) {
+            case REPLAY -> replay(claim.getResponse(), response);
+            case MISMATCH -> response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    HEADER + " wurde bereits für eine andere Anfrage verwendet");
+            case BUSY -> {
+                response.setHeader("Retry-After", "1");
+                response.sendError(HttpStatus.CONFLICT.value(), "Anfrage mit diesem " + HEADER + " läuft noch");
+            }
+            case PROCEED -> execute(new CachedBodyRequest(request, body), response, chain, key, requestHash);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                         String key, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, captured);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyService.release(key, requestHash);
+            throw e;
+        }
+
+        // Serverfehler nicht festschreiben - der Client soll es erneut versuchen können
+        if (captured.getStatus() >= 500) {
+            idempotencyService.release(key, requestHash);
+        } else {
+            idempotencyService.complete(key, requestHash, captured.getStatus(),
+                    captured.getContentType(), captured.getContentAsByteArray());
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private static void replay(IdempotencyService.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getBody() != null) {
+            byte[] bytes = stored.getBody().getBytes(StandardCharsets.UTF_8);
+            response.setContentLength(bytes.length);
+            response.getOutputStream().write(bytes);
+        }
+    }
+
+    private static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    // Der Body wurde für den Fingerprint bereits gelesen und wird dem Controller erneut bereitgestellt
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Der Body liegt vollständig im Speicher: sofort lesbar und danach zu Ende
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.thomas.order_management.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Hintergrundjobs (Outbox-Dispatcher, Stripe-Ausgleich, Bereinigung)
+ * Abschaltbar mit app.scheduling.enabled=false, z.B. für Tests, die SQL-Statements zählen
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
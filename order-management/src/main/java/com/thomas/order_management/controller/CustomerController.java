@@ -1,10 +1,28 @@
 package com.thomas.order_management.controller;
 
+import com.thomas.order_management.dto.CustomerImportResult;
+import com.thomas.order_management.dto.CustomerOverview;
+import com.thomas.order_management.dto.CustomerStatistics;
+import com.thomas.order_management.dto.CustomerStatsRebuildResult;
+import com.thomas.order_management.dto.CustomerStatsSort;
+import com.thomas.order_management.dto.OrderCursor;
 import com.thomas.order_management.model.Customer;
 import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.service.CustomerImportService;
+import com.thomas.order_management.service.CustomerOverviewService;
+import com.thomas.order_management.service.CustomerSearch;
+import com.thomas.order_management.service.CustomerStatsService;
+import com.thomas.order_management.service.NearCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +31,42 @@ import java.util.Optional;
 public class CustomerController {
 
     private final CustomerRepository customerRepository;
+    private final CustomerSearch customerSearch;
+    private final NearCache nearCache;
+    private final CustomerStatsService customerStatsService;
+    private final CustomerImportService customerImportService;
+    private final CustomerOverviewService customerOverviewService;
+    private final int defaultSearchSize;
+    private final int maxSearchSize;
+    private final int defaultTopSize;
+    private final int maxTopSize;
+    private final int defaultOverviewSize;
+    private final int maxOverviewSize;
 
-    public CustomerController(CustomerRepository customerRepository) {
+    public CustomerController(CustomerRepository customerRepository,
+                              CustomerSearch customerSearch,
+                              NearCache nearCache,
+                              CustomerStatsService customerStatsService,
+                              CustomerImportService customerImportService,
+                              CustomerOverviewService customerOverviewService,
+                              @Value("${app.customers.search.default-size:20}") int defaultSearchSize,
+                              @Value("${app.customers.search.max-size:100}") int maxSearchSize,
+                              @Value("${app.customers.top.default-size:20}") int defaultTopSize,
+                              @Value("${app.customers.top.max-size:100}") int maxTopSize,
+                              @Value("${app.customers.overview.default-size:10}") int defaultOverviewSize,
+                              @Value("${app.customers.overview.max-size:50}") int maxOverviewSize) {
         this.customerRepository = customerRepository;
+        this.customerSearch = customerSearch;
+        this.nearCache = nearCache;
+        this.customerStatsService = customerStatsService;
+        this.customerImportService = customerImportService;
+        this.customerOverviewService = customerOverviewService;
+        this.defaultSearchSize = defaultSearchSize;
+        this.maxSearchSize = maxSearchSize;
+        this.defaultTopSize = defaultTopSize;
+        this.maxTopSize = maxTopSize;
+        this.defaultOverviewSize = defaultOverviewSize;
+        this.maxOverviewSize = maxOverviewSize;
     }
 
     // Alle Kunden abrufen
@@ -24,10 +75,10 @@ public class CustomerController {
         return customerRepository.findAll();
     }
 
-    // Kunde nach ID abrufen
+    // Kunde nach ID abrufen (Near Cache)
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
-        Optional<Customer> customer = customerRepository.findById(id);
+        Optional<Customer> customer = nearCache.customer(id);
         return customer.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
@@ -38,6 +89,22 @@ public class CustomerController {
         return customerRepository.save(customer);
     }
 
+    // Kunden importieren (CSV mit Kopfzeile oder NDJSON), der Body wird gestreamt gelesen, Upsert über die E-Mail
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CustomerImportResult> importCustomers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        CustomerImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)
+                ? CustomerImportService.Format.NDJSON
+                : CustomerImportService.Format.CSV;
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        try {
+            return ResponseEntity.ok(customerImportService.importCustomers(format, body, charset));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Kunde aktualisieren
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @RequestBody Customer customerDetails) {
@@ -54,7 +121,9 @@ public class CustomerController {
             customer.setZipCode(customerDetails.getZipCode());
             customer.setCountry(customerDetails.getCountry());
             
-            return ResponseEntity.ok(customerRepository.save(customer));
+            Customer saved = customerRepository.save(customer);
+            nearCache.evictCustomer(id);
+            return ResponseEntity.ok(saved);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -65,24 +134,77 @@ public class CustomerController {
     public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
         if (customerRepository.existsById(id)) {
             customerRepository.deleteById(id);
+            nearCache.evictCustomer(id);
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Kunde nach Email suchen
+    // Kunde nach Email suchen (Near Cache)
     @GetMapping("/search/email")
     public ResponseEntity<Customer> getCustomerByEmail(@RequestParam String email) {
-        Optional<Customer> customer = customerRepository.findByEmail(email);
+        Optional<Customer> customer = nearCache.customerByEmail(email);
         return customer.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
     }
 
-    // Kunden nach Name suchen
+    // Kunden nach Name suchen (Teilstring, nach Relevanz sortiert, seitenweise)
     @GetMapping("/search")
-    public List<Customer> searchCustomers(@RequestParam String query) {
-        return customerRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(query, query);
+    public ResponseEntity<List<Customer>> searchCustomers(@RequestParam String query,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultSearchSize;
+        if (query.isBlank() || page < 0 || pageSize < 1 || pageSize > maxSearchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(customerSearch.search(query, (int) Math.min((long) page * pageSize, Integer.MAX_VALUE), pageSize));
+    }
+
+    // Kennzahlen eines Kunden: Recency, Frequency, Monetary, Lifetime Value (aus customer_stats)
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<CustomerStatistics> getCustomerStatistics(@PathVariable Long id) {
+        return ResponseEntity.of(customerStatsService.statistics(id));
+    }
+
+    // Kundenübersicht: Profil, letzte Bestellungen (Keyset-Seite), Anzahl pro Status und Kennzahlen, parallel gelesen
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<CustomerOverview> getCustomerOverview(@PathVariable Long id,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultOverviewSize;
+        if (pageSize < 1 || pageSize > maxOverviewSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            OrderCursor position = cursor != null ? OrderCursor.decode(cursor) : null;
+            return ResponseEntity.of(customerOverviewService.overview(id, position, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Beste Kunden (seitenweise, sort=lifetimeValue|orderCount|lastOrderDate[,asc|desc])
+    @GetMapping("/top")
+    public ResponseEntity<List<CustomerStatistics>> getTopCustomers(@RequestParam(defaultValue = "lifetimeValue,desc") String sort,
+                                                                    @RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultTopSize;
+        if (page < 0 || pageSize < 1 || pageSize > maxTopSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            CustomerStatsSort order = CustomerStatsSort.parse(sort);
+            return ResponseEntity.ok(customerStatsService.top(order, (int) Math.min((long) page * pageSize, Integer.MAX_VALUE), pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Kundenkennzahlen komplett neu aufbauen (parallel in Chunks)
+    @PostMapping("/stats/rebuild")
+    public CustomerStatsRebuildResult rebuildCustomerStatistics() {
+        return customerStatsService.rebuild();
     }
 
     // Anzahl der Kunden
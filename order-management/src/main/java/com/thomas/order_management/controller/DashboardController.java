@@ -4,12 +4,20 @@ import com.thomas.order_management.model.OrderStatus;
 import com.thomas.order_management.repository.CustomerRepository;
 import com.thomas.order_management.repository.OrderRepository;
 import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.DashboardStreamService;
+import com.thomas.order_management.service.RevenueRollupService;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,13 +28,19 @@ public class DashboardController {
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final DashboardStreamService dashboardStreamService;
+    private final RevenueRollupService revenueRollupService;
 
     public DashboardController(CustomerRepository customerRepository, 
                              ProductRepository productRepository, 
-                             OrderRepository orderRepository) {
+                             OrderRepository orderRepository,
+                             DashboardStreamService dashboardStreamService,
+                             RevenueRollupService revenueRollupService) {
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
+        this.dashboardStreamService = dashboardStreamService;
+        this.revenueRollupService = revenueRollupService;
     }
 
     @GetMapping("/stats")
@@ -36,33 +50,25 @@ public class DashboardController {
         // Grundlegende Statistiken
         stats.put("totalCustomers", customerRepository.count());
         stats.put("totalProducts", productRepository.countActiveProducts());
-        stats.put("totalOrders", orderRepository.count());
         
-        // Bestellungsstatistiken nach Status
+        // Bestellungsstatistiken nach Status - aus den Revenue-Rollups, O(Tage) statt O(Bestellungen)
+        Map<OrderStatus, Long> counts = revenueRollupService.countsByStatus();
         Map<String, Long> ordersByStatus = new HashMap<>();
-        for (OrderStatus status : OrderStatus.values()) {
-            ordersByStatus.put(status.name(), orderRepository.countByStatus(status));
-        }
+        counts.forEach((status, count) -> ordersByStatus.put(status.name(), count));
         stats.put("ordersByStatus", ordersByStatus);
+        stats.put("totalOrders", counts.values().stream().mapToLong(Long::longValue).sum());
         
         // Umsatzstatistiken
-        BigDecimal totalRevenue = orderRepository.getTotalAmountByStatus(OrderStatus.DELIVERED);
-        stats.put("totalRevenue", totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
-        
-        BigDecimal pendingRevenue = orderRepository.getTotalAmountByStatus(OrderStatus.PENDING);
-        stats.put("pendingRevenue", pendingRevenue != null ? pendingRevenue : BigDecimal.ZERO);
+        Map<OrderStatus, BigDecimal> revenueByStatus = revenueRollupService.revenueByStatus();
+        stats.put("totalRevenue", revenueByStatus.get(OrderStatus.DELIVERED));
+        stats.put("pendingRevenue", revenueByStatus.get(OrderStatus.PENDING));
         
         // Heutiger Umsatz
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime endOfDay = LocalDateTime.now().withHour(23).withMinute(59).withSecond(59);
-        BigDecimal todayRevenue = orderRepository.getTotalRevenueInPeriod(startOfDay, endOfDay);
-        stats.put("todayRevenue", todayRevenue != null ? todayRevenue : BigDecimal.ZERO);
+        LocalDate today = LocalDate.now();
+        stats.put("todayRevenue", revenueRollupService.revenueForDays(today, today));
         
         // Monatsstatistiken
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        LocalDateTime now = LocalDateTime.now();
-        BigDecimal monthRevenue = orderRepository.getTotalRevenueInPeriod(startOfMonth, now);
-        stats.put("monthRevenue", monthRevenue != null ? monthRevenue : BigDecimal.ZERO);
+        stats.put("monthRevenue", revenueRollupService.revenueForDays(today.withDayOfMonth(1), today));
         
         // Produkte mit niedrigem Lagerbestand
         stats.put("lowStockProductsCount", productRepository.findLowStockProducts().size());
@@ -75,11 +81,23 @@ public class DashboardController {
         Map<String, Object> activity = new HashMap<>();
         
         // Letzte 10 Bestellungen
-        activity.put("recentOrders", orderRepository.findAllOrderByOrderDateDesc().stream().limit(10).toList());
+        activity.put("recentOrders", orderRepository.findFirstPage(Limit.of(10)));
         
         // Produkte mit niedrigem Lagerbestand
         activity.put("lowStockProducts", productRepository.findLowStockProducts());
         
         return activity;
     }
-}
\ No newline at end of file
+
+    // Live-Änderungen zu /stats und /recent-activity als Server-Sent Events (Event "delta")
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            return ResponseEntity.ok(dashboardStreamService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.thomas.order_management.controller;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ETag aus der @Version einer Entität und Auswertung von If-Match
+ * Starke ETags der Form "3"; If-Match * oder ohne Header bedeutet bedingungslos
+ */
+final class ETags {
+
+    private static final Pattern STRONG_VERSION = Pattern.compile("\\s*\"(\\d+)\"\\s*");
+
+    // Passt auf keine gespeicherte Version, ein unbekanntes If-Match schlägt also mit 412 fehl
+    private static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Erwartete Version aus If-Match; null wenn der Client keine Bedingung stellt
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = STRONG_VERSION.matcher(ifMatch);
+        if (!matcher.matches()) {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+}
@@ -1,136 +1,340 @@
 package com.thomas.order_management.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.CursorPage;
+import com.thomas.order_management.dto.OrderBatchResult;
+import com.thomas.order_management.dto.OrderCursor;
+import com.thomas.order_management.dto.OrderIntakeTicket;
+import com.thomas.order_management.dto.OrderPurgeRequest;
+import com.thomas.order_management.dto.OrderPurgeResult;
+import com.thomas.order_management.dto.OrderSearchCriteria;
+import com.thomas.order_management.dto.OrderSearchCursor;
+import com.thomas.order_management.dto.OrderSearchSort;
+import com.thomas.order_management.dto.OrderStatusBulkRequest;
+import com.thomas.order_management.dto.OrderStatusBulkResult;
+import com.thomas.order_management.dto.OrderSummary;
 import com.thomas.order_management.model.Order;
 import com.thomas.order_management.model.OrderStatus;
 import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.service.OrderBatchService;
+import com.thomas.order_management.service.IntakeOverloadedException;
+import com.thomas.order_management.service.OrderExportService;
+import com.thomas.order_management.service.OrderIntakeService;
+import com.thomas.order_management.service.OrderPurgeService;
+import com.thomas.order_management.service.OrderService;
+import com.thomas.order_management.service.OrderStatusBulkService;
+import com.thomas.order_management.service.RevenueRollupService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    // Offene Grenzen für den Export, passend zum Wertebereich von TIMESTAMP
+    private static final LocalDateTime EXPORT_EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime EXPORT_LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final OrderExportService orderExportService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderStatusBulkService orderStatusBulkService;
+    private final OrderPurgeService orderPurgeService;
+    private final RevenueRollupService revenueRollupService;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Duration exportTimeout;
 
-    public OrderController(OrderRepository orderRepository) {
+    public OrderController(OrderRepository orderRepository,
+                           OrderService orderService,
+                           OrderBatchService orderBatchService,
+                           OrderExportService orderExportService,
+                           OrderIntakeService orderIntakeService,
+                           OrderStatusBulkService orderStatusBulkService,
+                           OrderPurgeService orderPurgeService,
+                           RevenueRollupService revenueRollupService,
+                           ObjectMapper objectMapper,
+                           @Value("${app.orders.page.default-size:50}") int defaultPageSize,
+                           @Value("${app.orders.page.max-size:200}") int maxPageSize,
+                           @Value("${app.orders.export.timeout:1h}") Duration exportTimeout) {
         this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.orderBatchService = orderBatchService;
+        this.orderExportService = orderExportService;
+        this.orderIntakeService = orderIntakeService;
+        this.orderStatusBulkService = orderStatusBulkService;
+        this.orderPurgeService = orderPurgeService;
+        this.revenueRollupService = revenueRollupService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.exportTimeout = exportTimeout;
     }
 
-    // Alle Bestellungen abrufen (neueste zuerst)
+    // Bestellungen seitenweise abrufen (neueste zuerst, Keyset-Pagination)
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllOrderByOrderDateDesc();
+    public ResponseEntity<CursorPage<OrderSummary>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        try {
+            List<OrderSummary> rows;
+            if (cursor == null) {
+                rows = orderRepository.findFirstPage(limit);
+            } else {
+                OrderCursor position = OrderCursor.decode(cursor);
+                rows = orderRepository.findPageAfter(position.getOrderDate(), position.getId(), limit);
+            }
+            return ResponseEntity.ok(toPage(rows, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-    // Bestellung nach ID abrufen
+    // Bestellung nach ID abrufen, die Version steht im ETag (für If-Match bei PUT/PATCH)
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        Optional<Order> order = orderRepository.findById(id);
-        return order.map(ResponseEntity::ok)
-                   .orElse(ResponseEntity.notFound().build());
+        Optional<Order> order = orderRepository.findWithDetailsById(id);
+        return withETag(order);
     }
 
-    // Bestellung nach Bestellnummer abrufen
+    // Bestellung nach Bestellnummer abrufen, mit demselben ETag wie über die ID
     @GetMapping("/order-number/{orderNumber}")
     public ResponseEntity<Order> getOrderByOrderNumber(@PathVariable String orderNumber) {
-        Optional<Order> order = orderRepository.findByOrderNumber(orderNumber);
-        return order.map(ResponseEntity::ok)
-                   .orElse(ResponseEntity.notFound().build());
+        Optional<Order> order = orderRepository.findWithDetailsByOrderNumber(orderNumber);
+        return withETag(order);
     }
 
     // Bestellung erstellen
     @PostMapping
-    public Order createOrder(@RequestBody Order order) {
-        // Bestellnummer generieren falls nicht vorhanden
-        if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
-            order.setOrderNumber(generateOrderNumber());
+    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
+        // Lagerbestand wird im Service reserviert, Unterdeckung führt zu 409 (InsufficientStockException)
+        try {
+            return ResponseEntity.ok(orderService.createOrder(order));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        // Gesamtbetrag berechnen falls nicht gesetzt
-        if (order.getTotalAmount() == null) {
-            order.setTotalAmount(order.calculateTotalAmount());
+    }
+
+    // Bestellung asynchron annehmen: 202 mit Status-URL, bei voller Queue 429
+    @PostMapping(params = "async=true")
+    public ResponseEntity<OrderIntakeTicket> createOrderAsync(@RequestBody Order order) {
+        try {
+            OrderIntakeTicket ticket = orderIntakeService.submit(order);
+            return ResponseEntity.accepted()
+                    .location(URI.create(ticket.getStatusUrl()))
+                    .body(ticket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IntakeOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+    }
+
+    // Status einer asynchron angenommenen Bestellung
+    @GetMapping("/intake/{ticketId}")
+    public ResponseEntity<OrderIntakeTicket> getIntakeTicket(@PathVariable String ticketId) {
+        return ResponseEntity.of(orderIntakeService.findTicket(ticketId));
+    }
+
+    // Bestellungen im Bulk anlegen (JSON-Array oder NDJSON), der Body wird gestreamt gelesen
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public OrderBatchResult createOrdersBatch(InputStream body) throws IOException {
+        try (MappingIterator<Order> orders = objectMapper.readerFor(Order.class).readValues(body)) {
+            return orderBatchService.ingest(orders);
         }
-        
-        return orderRepository.save(order);
     }
 
-    // Bestellung aktualisieren
+    // Bestellung aktualisieren; mit If-Match nur auf dem Stand des ETags, sonst 412
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order orderDetails) {
-        Optional<Order> optionalOrder = orderRepository.findById(id);
-        
-        if (optionalOrder.isPresent()) {
-            Order order = optionalOrder.get();
-            order.setStatus(orderDetails.getStatus());
-            order.setNotes(orderDetails.getNotes());
-            order.setShippingAddress(orderDetails.getShippingAddress());
-            order.setBillingAddress(orderDetails.getBillingAddress());
-            
-            // Gesamtbetrag neu berechnen
-            order.setTotalAmount(order.calculateTotalAmount());
-            
-            return ResponseEntity.ok(orderRepository.save(order));
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order orderDetails,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        try {
+            return withETag(orderService.updateOrder(id, orderDetails, expectedVersion));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(expectedVersion);
         }
     }
 
-    // Bestellstatus aktualisieren
+    // Bestellstatus aktualisieren; bei gleichzeitiger Änderung wiederholt der Service den Wechsel selbst
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
-        Optional<Order> optionalOrder = orderRepository.findById(id);
-        
-        if (optionalOrder.isPresent()) {
-            Order order = optionalOrder.get();
-            order.setStatus(status);
-            return ResponseEntity.ok(orderRepository.save(order));
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam OrderStatus status,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        try {
+            return withETag(orderService.updateStatusWithRetry(id, status, expectedVersion));
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(expectedVersion);
+        }
+    }
+
+    // Status vieler Bestellungen auf einmal setzen (IDs und/oder Bestellnummern), Ergebnis pro Bestellung
+    @PatchMapping("/status")
+    public ResponseEntity<OrderStatusBulkResult> updateOrderStatuses(@RequestBody OrderStatusBulkRequest request) {
+        try {
+            return ResponseEntity.ok(orderStatusBulkService.transition(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
-    // Bestellung löschen
+    // Bestellung löschen (zwei DELETE-Statements statt Laden und Kaskade über alle Positionen)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
+        if (orderPurgeService.deleteOrder(id)) {
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Bestellungen eines Kunden
+    // Bestellungen nach Status und Alter löschen, ohne dryRun=false nur zählen
+    @PostMapping("/purge")
+    public ResponseEntity<OrderPurgeResult> purgeOrders(@RequestBody OrderPurgeRequest request) {
+        try {
+            return ResponseEntity.ok(orderPurgeService.purge(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Bestellungen eines Kunden (seitenweise, neueste zuerst)
     @GetMapping("/customer/{customerId}")
-    public List<Order> getOrdersByCustomer(@PathVariable Long customerId) {
-        return orderRepository.findByCustomerIdOrderByOrderDateDesc(customerId);
+    public ResponseEntity<CursorPage<OrderSummary>> getOrdersByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        try {
+            List<OrderSummary> rows;
+            if (cursor == null) {
+                rows = orderRepository.findFirstPageByCustomer(customerId, limit);
+            } else {
+                OrderCursor position = OrderCursor.decode(cursor);
+                rows = orderRepository.findPageByCustomerAfter(
+                        customerId, position.getOrderDate(), position.getId(), limit);
+            }
+            return ResponseEntity.ok(toPage(rows, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Bestellungen nach beliebiger Kombination von Status, Zeitraum, Kunde, Betrag und Bestellnummer-Präfix
+    // (seitenweise per Keyset, sort=orderDate|totalAmount[,asc|desc])
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<OrderSummary>> searchOrders(
+            OrderSearchCriteria criteria,
+            @RequestParam(defaultValue = "orderDate,desc") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = resolvePageSize(size);
+        try {
+            OrderSearchSort order = OrderSearchSort.parse(sort);
+            OrderSearchCursor after = cursor != null ? OrderSearchCursor.decode(cursor, order) : null;
+            List<OrderSummary> rows = orderRepository.search(criteria, order, after, pageSize + 1);
+            return ResponseEntity.ok(toPage(rows, pageSize, last -> OrderSearchCursor.of(order, last).encode()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Bestellungen nach Status
     @GetMapping("/status/{status}")
-    public List<Order> getOrdersByStatus(@PathVariable OrderStatus status) {
-        return orderRepository.findByStatus(status);
+    public List<OrderSummary> getOrdersByStatus(@PathVariable OrderStatus status) {
+        return orderRepository.findSummariesByStatus(status);
     }
 
     // Bestellungen in Zeitraum
     @GetMapping("/period")
-    public List<Order> getOrdersInPeriod(
+    public List<OrderSummary> getOrdersInPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return orderRepository.findByOrderDateBetween(startDate, endDate);
+        return orderRepository.findSummariesByOrderDateBetween(startDate, endDate);
+    }
+
+    // Bestellungen exportieren (NDJSON oder CSV), gestreamt ohne die Ergebnismenge im Speicher zu halten
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat;
+        try {
+            exportFormat = OrderExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        LocalDateTime start = from != null ? from : EXPORT_EARLIEST;
+        LocalDateTime end = to != null ? to : EXPORT_LATEST;
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                orderExportService.export(exportFormat, start, end, compressed);
+                compressed.finish();
+            } else {
+                orderExportService.export(exportFormat, start, end, out);
+            }
+        };
+
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.getFileExtension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        // Wie StreamingResponseBody, aber mit eigenem Timeout (app.orders.export.timeout) - andere asynchrone
+        // Antworten behalten den Standard-Timeout
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            OutputStream out = response.getOutputStream();
+            body.writeTo(out);
+            out.flush();
+            return null;
+        });
     }
 
     // Umsatz nach Status
     @GetMapping("/revenue/status/{status}")
     public BigDecimal getRevenueByStatus(@PathVariable OrderStatus status) {
-        BigDecimal revenue = orderRepository.getTotalAmountByStatus(status);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return revenueRollupService.revenueByStatus(status);
     }
 
     // Umsatz in Zeitraum
@@ -138,18 +342,43 @@ public class OrderController {
     public BigDecimal getRevenueInPeriod(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        BigDecimal revenue = orderRepository.getTotalRevenueInPeriod(startDate, endDate);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return revenueRollupService.revenueInPeriod(startDate, endDate);
     }
 
     // Anzahl Bestellungen nach Status
     @GetMapping("/count/status/{status}")
     public long getOrderCountByStatus(@PathVariable OrderStatus status) {
-        return orderRepository.countByStatus(status);
+        return revenueRollupService.countByStatus(status);
     }
 
-    // Hilfsmethode zur Generierung einer Bestellnummer
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis();
+    private static ResponseEntity<Order> withETag(Optional<Order> order) {
+        return order.map(o -> ResponseEntity.ok().eTag(ETags.of(o.getVersion())).body(o))
+                   .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Mit If-Match war die Vorbedingung verletzt (412), ohne hat ein paralleler Schreiber gewonnen (409)
+    private static ResponseEntity<Order> conflict(Long expectedVersion) {
+        return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    private CursorPage<OrderSummary> toPage(List<OrderSummary> rows, int pageSize) {
+        return toPage(rows, pageSize, last -> new OrderCursor(last.getOrderDate(), last.getId()).encode());
+    }
+
+    // Es wird eine Zeile mehr geladen als angefordert, um das Seitenende ohne COUNT zu erkennen
+    private CursorPage<OrderSummary> toPage(List<OrderSummary> rows, int pageSize,
+                                            Function<OrderSummary, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, pageSize);
+        }
+        List<OrderSummary> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, cursorOf.apply(items.get(items.size() - 1)), pageSize);
     }
 }
\ No newline at end of file
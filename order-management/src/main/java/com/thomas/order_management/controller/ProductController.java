@@ -1,7 +1,14 @@
 package com.thomas.order_management.controller;
 
+import com.thomas.order_management.dto.StockChangedEvent;
 import com.thomas.order_management.model.Product;
 import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.InventoryService;
+import com.thomas.order_management.service.NearCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +21,16 @@ import java.util.Optional;
 public class ProductController {
 
     private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NearCache nearCache;
 
-    public ProductController(ProductRepository productRepository) {
+    public ProductController(ProductRepository productRepository, InventoryService inventoryService,
+                             ApplicationEventPublisher eventPublisher, NearCache nearCache) {
         this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.eventPublisher = eventPublisher;
+        this.nearCache = nearCache;
     }
 
     // Alle Produkte abrufen
@@ -37,39 +51,39 @@ public class ProductController {
         return productRepository.findAvailableProducts();
     }
 
-    // Product nach ID abrufen
+    // Product nach ID abrufen (Near Cache), die Version steht im ETag
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Optional<Product> product = productRepository.findById(id);
-        return product.map(ResponseEntity::ok)
+        Optional<Product> product = nearCache.product(id);
+        return product.map(p -> ResponseEntity.ok().eTag(ETags.of(p.getVersion())).body(p))
                      .orElse(ResponseEntity.notFound().build());
     }
 
     // Produkt erstellen
     @PostMapping
     public Product createProduct(@RequestBody Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new StockChangedEvent(saved.getId()));
+        nearCache.evictProduct(saved.getId(), true);
+        return saved;
     }
 
-    // Produkt aktualisieren
+    // Produkt aktualisieren; mit If-Match nur auf dem Stand des ETags (412), sonst 409 bei parallelem Schreiber
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
-        Optional<Product> optionalProduct = productRepository.findById(id);
-        
-        if (optionalProduct.isPresent()) {
-            Product product = optionalProduct.get();
-            product.setName(productDetails.getName());
-            product.setDescription(productDetails.getDescription());
-            product.setPrice(productDetails.getPrice());
-            product.setStockQuantity(productDetails.getStockQuantity());
-            product.setCategory(productDetails.getCategory());
-            product.setImageUrl(productDetails.getImageUrl());
-            product.setActive(productDetails.getActive());
-            
-            return ResponseEntity.ok(productRepository.save(product));
-        } else {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        try {
+            if (!inventoryService.updateProduct(id, productDetails, expectedVersion)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         }
+        nearCache.evictProduct(id, true);
+        // Neu laden: Version und Stripe-Anteil des Bestands stehen erst nach dem Commit fest
+        Product updated = productRepository.findById(id).orElseThrow();
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     // Produkt löschen (soft delete - als inaktiv markieren)
@@ -81,12 +95,38 @@ public class ProductController {
             Product product = optionalProduct.get();
             product.setActive(false);
             productRepository.save(product);
+            eventPublisher.publishEvent(new StockChangedEvent(id));
+            nearCache.evictProduct(id, true);
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Striped-Stock-Modus für ein stark nachgefragtes Produkt einschalten
+    @PostMapping("/{id}/stock-stripes")
+    public ResponseEntity<Product> enableStockStripes(@PathVariable Long id, @RequestParam int stripes) {
+        if (!productRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            inventoryService.enableStriping(id, stripes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(productRepository.findById(id));
+    }
+
+    // Striped-Stock-Modus ausschalten, Bestand wird wieder in einer Zeile geführt
+    @DeleteMapping("/{id}/stock-stripes")
+    public ResponseEntity<Product> disableStockStripes(@PathVariable Long id) {
+        if (!productRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        inventoryService.disableStriping(id);
+        return ResponseEntity.of(productRepository.findById(id));
+    }
+
     // Produkte nach Kategorie
     @GetMapping("/category/{category}")
     public List<Product> getProductsByCategory(@PathVariable String category) {
@@ -111,10 +151,10 @@ public class ProductController {
         return productRepository.findLowStockProducts();
     }
 
-    // Alle Kategorien
+    // Alle Kategorien (Near Cache)
     @GetMapping("/categories")
     public List<String> getAllCategories() {
-        return productRepository.findAllCategories();
+        return nearCache.categories();
     }
 
     // Anzahl aktiver Produkte
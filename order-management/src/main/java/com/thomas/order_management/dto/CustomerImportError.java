@@ -0,0 +1,28 @@
+package com.thomas.order_management.dto;
+
+/**
+ * Abgelehnte Zeile aus einem Kunden-Import
+ * line ist die Zeilennummer im Request (1-basiert, bei CSV inklusive Kopfzeile)
+ */
+public class CustomerImportError {
+    private long line;
+    private String email;
+    private String error;
+
+    public CustomerImportError() {}
+
+    public CustomerImportError(long line, String email, String error) {
+        this.line = line;
+        this.email = email;
+        this.error = error;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
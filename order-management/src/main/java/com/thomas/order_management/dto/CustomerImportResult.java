@@ -0,0 +1,52 @@
+package com.thomas.order_management.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Antwort von POST /api/customers/import
+ * duplicates zählt Zeilen, deren E-Mail weiter unten im selben Chunk erneut vorkommt (die letzte Zeile gewinnt).
+ * errors enthält höchstens max-errors Einträge, rejected zählt alle abgelehnten Zeilen.
+ */
+public class CustomerImportResult {
+    private long received;
+    private long created;
+    private long updated;
+    private long duplicates;
+    private long rejected;
+    private long durationMs;
+    private List<CustomerImportError> errors = new ArrayList<>();
+
+    public void reject(CustomerImportError error, int maxErrors) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        }
+    }
+
+    public void received() { received++; }
+    public void created(long count) { created += count; }
+    public void updated(long count) { updated += count; }
+    public void duplicate() { duplicates++; }
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getCreated() { return created; }
+    public void setCreated(long created) { this.created = created; }
+
+    public long getUpdated() { return updated; }
+    public void setUpdated(long updated) { this.updated = updated; }
+
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<CustomerImportError> getErrors() { return errors; }
+    public void setErrors(List<CustomerImportError> errors) { this.errors = errors; }
+}
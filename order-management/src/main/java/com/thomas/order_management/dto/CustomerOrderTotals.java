@@ -0,0 +1,51 @@
+package com.thomas.order_management.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Anzahl, Umsatz sowie erstes und letztes Bestelldatum der Bestellungen eines Kunden
+ * Grundlage für den Neuaufbau von customer_stats aus Quellen außerhalb von orders (Archiv-Segmente)
+ */
+public class CustomerOrderTotals {
+    private long customerId;
+    private long orderCount;
+    private BigDecimal amount;
+    private LocalDateTime firstOrderDate;
+    private LocalDateTime lastOrderDate;
+
+    public CustomerOrderTotals() {}
+
+    public CustomerOrderTotals(long customerId, long orderCount, BigDecimal amount,
+                               LocalDateTime firstOrderDate, LocalDateTime lastOrderDate) {
+        this.customerId = customerId;
+        this.orderCount = orderCount;
+        this.amount = amount;
+        this.firstOrderDate = firstOrderDate;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    /**
+     * Fasst die Werte desselben Kunden aus zwei Quellen zusammen
+     */
+    public CustomerOrderTotals merge(CustomerOrderTotals other) {
+        return new CustomerOrderTotals(customerId, orderCount + other.orderCount, amount.add(other.amount),
+                firstOrderDate.isBefore(other.firstOrderDate) ? firstOrderDate : other.firstOrderDate,
+                lastOrderDate.isAfter(other.lastOrderDate) ? lastOrderDate : other.lastOrderDate);
+    }
+
+    public long getCustomerId() { return customerId; }
+    public void setCustomerId(long customerId) { this.customerId = customerId; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getFirstOrderDate() { return firstOrderDate; }
+    public void setFirstOrderDate(LocalDateTime firstOrderDate) { this.firstOrderDate = firstOrderDate; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+}
@@ -0,0 +1,54 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Antwort von GET /api/customers/{id}/overview: Profil, letzte Bestellungen (Keyset-Seite), Anzahl pro Status und
+ * Kennzahlen (Lifetime Value) in einem Request
+ * Konnte ein Abschnitt nicht rechtzeitig gelesen werden, ist er null und steht in unavailable.
+ */
+public class CustomerOverview {
+    private Customer customer;
+    private CursorPage<OrderSummary> recentOrders;
+    private Map<OrderStatus, Long> ordersByStatus;
+    private CustomerStatistics statistics;
+    private List<String> unavailable = new ArrayList<>();
+
+    public CustomerOverview() {}
+
+    public CustomerOverview(Customer customer) {
+        this.customer = customer;
+    }
+
+    public static Map<OrderStatus, Long> ordersByStatus(List<OrderStatusCount> counts) {
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (OrderStatusCount count : counts) {
+            byStatus.put(count.getStatus(), count.getOrderCount());
+        }
+        return byStatus;
+    }
+
+    public Customer getCustomer() { return customer; }
+    public void setCustomer(Customer customer) { this.customer = customer; }
+
+    public CursorPage<OrderSummary> getRecentOrders() { return recentOrders; }
+    public void setRecentOrders(CursorPage<OrderSummary> recentOrders) { this.recentOrders = recentOrders; }
+
+    public Map<OrderStatus, Long> getOrdersByStatus() { return ordersByStatus; }
+    public void setOrdersByStatus(Map<OrderStatus, Long> ordersByStatus) { this.ordersByStatus = ordersByStatus; }
+
+    public CustomerStatistics getStatistics() { return statistics; }
+    public void setStatistics(CustomerStatistics statistics) { this.statistics = statistics; }
+
+    public List<String> getUnavailable() { return unavailable; }
+    public void setUnavailable(List<String> unavailable) { this.unavailable = unavailable; }
+}
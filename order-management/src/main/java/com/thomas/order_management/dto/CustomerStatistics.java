@@ -0,0 +1,71 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * RFM-Kennzahlen und Lifetime Value eines Kunden über alle nicht stornierten Bestellungen
+ * Recency = recencyDays (Tage seit der letzten Bestellung), Frequency = orderCount,
+ * Monetary = lifetimeValue (Gesamtumsatz) bzw. averageOrderValue. Ohne Bestellung sind Datumswerte null.
+ */
+public class CustomerStatistics {
+    private Long customerId;
+    private String firstName;
+    private String lastName;
+    private long orderCount;
+    private BigDecimal lifetimeValue;
+    private BigDecimal averageOrderValue;
+    private LocalDateTime firstOrderDate;
+    private LocalDateTime lastOrderDate;
+    private Long recencyDays;
+
+    public CustomerStatistics() {}
+
+    public CustomerStatistics(Long customerId, String firstName, String lastName, long orderCount,
+                              BigDecimal lifetimeValue, LocalDateTime firstOrderDate, LocalDateTime lastOrderDate,
+                              LocalDate today) {
+        this.customerId = customerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.orderCount = orderCount;
+        this.lifetimeValue = lifetimeValue != null ? lifetimeValue : Money.toBigDecimal(0);
+        this.averageOrderValue = orderCount > 0
+                ? this.lifetimeValue.divide(BigDecimal.valueOf(orderCount), Money.SCALE, RoundingMode.HALF_UP)
+                : Money.toBigDecimal(0);
+        this.firstOrderDate = firstOrderDate;
+        this.lastOrderDate = lastOrderDate;
+        this.recencyDays = lastOrderDate != null ? ChronoUnit.DAYS.between(lastOrderDate.toLocalDate(), today) : null;
+    }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getLifetimeValue() { return lifetimeValue; }
+    public void setLifetimeValue(BigDecimal lifetimeValue) { this.lifetimeValue = lifetimeValue; }
+
+    public BigDecimal getAverageOrderValue() { return averageOrderValue; }
+    public void setAverageOrderValue(BigDecimal averageOrderValue) { this.averageOrderValue = averageOrderValue; }
+
+    public LocalDateTime getFirstOrderDate() { return firstOrderDate; }
+    public void setFirstOrderDate(LocalDateTime firstOrderDate) { this.firstOrderDate = firstOrderDate; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+
+    public Long getRecencyDays() { return recencyDays; }
+    public void setRecencyDays(Long recencyDays) { this.recencyDays = recencyDays; }
+}
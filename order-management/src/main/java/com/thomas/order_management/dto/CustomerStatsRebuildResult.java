@@ -0,0 +1,27 @@
+package com.thomas.order_management.dto;
+
+/**
+ * Antwort von POST /api/customers/stats/rebuild: neu aufgebaute Kunden, Chunks und Laufzeit
+ */
+public class CustomerStatsRebuildResult {
+    private long customers;
+    private int chunks;
+    private long durationMs;
+
+    public CustomerStatsRebuildResult() {}
+
+    public CustomerStatsRebuildResult(long customers, int chunks, long durationMs) {
+        this.customers = customers;
+        this.chunks = chunks;
+        this.durationMs = durationMs;
+    }
+
+    public long getCustomers() { return customers; }
+    public void setCustomers(long customers) { this.customers = customers; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+}
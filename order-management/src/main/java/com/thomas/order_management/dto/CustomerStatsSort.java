@@ -0,0 +1,50 @@
+package com.thomas.order_management.dto;
+
+import java.util.Locale;
+
+/**
+ * Erlaubte Sortierungen von GET /api/customers/top
+ * Jede Sortierung hat die Kunden-ID als eindeutigen Tie-Breaker in derselben Richtung, damit der Index
+ * (spalte, customer_id) auch rückwärts gelesen werden kann. Nur Spalten mit Index auf customer_stats.
+ */
+public enum CustomerStatsSort {
+    LIFETIME_VALUE_DESC("lifetimeValue", "total_amount", true),
+    LIFETIME_VALUE_ASC("lifetimeValue", "total_amount", false),
+    ORDER_COUNT_DESC("orderCount", "order_count", true),
+    ORDER_COUNT_ASC("orderCount", "order_count", false),
+    LAST_ORDER_DATE_DESC("lastOrderDate", "last_order_date", true),
+    LAST_ORDER_DATE_ASC("lastOrderDate", "last_order_date", false);
+
+    private final String property;
+    private final String column;
+    private final boolean descending;
+
+    CustomerStatsSort(String property, String column, boolean descending) {
+        this.property = property;
+        this.column = column;
+        this.descending = descending;
+    }
+
+    public String getProperty() { return property; }
+    public String getColumn() { return column; }
+    public boolean isDescending() { return descending; }
+
+    /**
+     * Parst "property[,asc|desc]" (Spring-Data-Schreibweise), Standardrichtung ist absteigend
+     *
+     * @throws IllegalArgumentException bei unbekannter Property oder Richtung
+     */
+    public static CustomerStatsSort parse(String sort) {
+        String[] parts = sort.split(",", 2);
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase(Locale.ROOT) : "desc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new IllegalArgumentException("Ungültige Sortierrichtung: " + parts[1]);
+        }
+        for (CustomerStatsSort candidate : values()) {
+            if (candidate.property.equals(parts[0].trim()) && candidate.descending == direction.equals("desc")) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Nicht sortierbar: " + parts[0]);
+    }
+}
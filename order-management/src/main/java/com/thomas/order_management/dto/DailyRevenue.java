@@ -0,0 +1,39 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Anzahl und Umsatz der Bestellungen eines Tages mit einem Status
+ * Projektion sowohl der Rollup-Tabelle (Summe aller Slots) als auch der Rohdaten (Konsistenzprüfung)
+ */
+public class DailyRevenue {
+    private LocalDate revenueDate;
+    private OrderStatus status;
+    private long orderCount;
+    private BigDecimal amount;
+
+    public DailyRevenue() {}
+
+    // Constructor für JPQL
+    public DailyRevenue(LocalDate revenueDate, OrderStatus status, Long orderCount, BigDecimal amount) {
+        this.revenueDate = revenueDate;
+        this.status = status;
+        this.orderCount = orderCount != null ? orderCount : 0L;
+        this.amount = amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    public LocalDate getRevenueDate() { return revenueDate; }
+    public void setRevenueDate(LocalDate revenueDate) { this.revenueDate = revenueDate; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+}
@@ -0,0 +1,57 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zusammengefasste Änderungen für GET /api/dashboard/stream (höchstens eine pro Sekunde)
+ * Zähler und Umsätze sind Differenzen zu /api/dashboard/stats, Listen enthalten die neuesten Einträge
+ */
+public class DashboardDelta {
+
+    private final LocalDateTime timestamp;
+    private final long totalOrders;
+    private final Map<String, Long> ordersByStatus;
+    private final BigDecimal totalRevenue;
+    private final BigDecimal pendingRevenue;
+    private final BigDecimal todayRevenue;
+    private final BigDecimal monthRevenue;
+    private final List<OrderSummary> newOrders;
+    private final List<OrderStatusChangedEvent> statusTransitions;
+    private final List<Product> lowStockEntered;
+    private final List<Long> lowStockLeft;
+
+    public DashboardDelta(LocalDateTime timestamp, long totalOrders, Map<String, Long> ordersByStatus,
+                          BigDecimal totalRevenue, BigDecimal pendingRevenue, BigDecimal todayRevenue,
+                          BigDecimal monthRevenue, List<OrderSummary> newOrders,
+                          List<OrderStatusChangedEvent> statusTransitions,
+                          List<Product> lowStockEntered, List<Long> lowStockLeft) {
+        this.timestamp = timestamp;
+        this.totalOrders = totalOrders;
+        this.ordersByStatus = ordersByStatus;
+        this.totalRevenue = totalRevenue;
+        this.pendingRevenue = pendingRevenue;
+        this.todayRevenue = todayRevenue;
+        this.monthRevenue = monthRevenue;
+        this.newOrders = newOrders;
+        this.statusTransitions = statusTransitions;
+        this.lowStockEntered = lowStockEntered;
+        this.lowStockLeft = lowStockLeft;
+    }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public long getTotalOrders() { return totalOrders; }
+    public Map<String, Long> getOrdersByStatus() { return ordersByStatus; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public BigDecimal getPendingRevenue() { return pendingRevenue; }
+    public BigDecimal getTodayRevenue() { return todayRevenue; }
+    public BigDecimal getMonthRevenue() { return monthRevenue; }
+    public List<OrderSummary> getNewOrders() { return newOrders; }
+    public List<OrderStatusChangedEvent> getStatusTransitions() { return statusTransitions; }
+    public List<Product> getLowStockEntered() { return lowStockEntered; }
+    public List<Long> getLowStockLeft() { return lowStockLeft; }
+}
@@ -0,0 +1,49 @@
+package com.thomas.order_management.dto;
+
+/**
+ * Ergebnis einer einzelnen Bestellung aus einem Bulk-Import
+ * index entspricht der Position im Request (Array-Element bzw. NDJSON-Zeile, 0-basiert)
+ */
+public class OrderBatchItemResult {
+
+    public enum Status { CREATED, REJECTED }
+
+    private int index;
+    private Status status;
+    private Long orderId;
+    private String orderNumber;
+    private String error;
+
+    public OrderBatchItemResult() {}
+
+    public OrderBatchItemResult(int index, Status status, Long orderId, String orderNumber, String error) {
+        this.index = index;
+        this.status = status;
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.error = error;
+    }
+
+    public static OrderBatchItemResult created(int index, Long orderId, String orderNumber) {
+        return new OrderBatchItemResult(index, Status.CREATED, orderId, orderNumber, null);
+    }
+
+    public static OrderBatchItemResult rejected(int index, String orderNumber, String error) {
+        return new OrderBatchItemResult(index, Status.REJECTED, null, orderNumber, error);
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
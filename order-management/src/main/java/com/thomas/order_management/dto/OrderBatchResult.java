@@ -0,0 +1,36 @@
+package com.thomas.order_management.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Antwort von POST /api/orders/batch mit Zählern und einem Ergebnis pro Bestellung
+ */
+public class OrderBatchResult {
+    private int received;
+    private int created;
+    private int rejected;
+    private List<OrderBatchItemResult> results = new ArrayList<>();
+
+    public void add(OrderBatchItemResult result) {
+        results.add(result);
+        received++;
+        if (result.getStatus() == OrderBatchItemResult.Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public List<OrderBatchItemResult> getResults() { return results; }
+    public void setResults(List<OrderBatchItemResult> results) { this.results = results; }
+}
@@ -0,0 +1,29 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * In-Process-Ereignis: eine Bestellung wurde angelegt (nach Commit zugestellt)
+ */
+public class OrderCreatedEvent {
+
+    private final Long orderId;
+    private final OrderStatus status;
+    private final BigDecimal totalAmount;
+    private final LocalDateTime orderDate;
+
+    public OrderCreatedEvent(Long orderId, OrderStatus status, BigDecimal totalAmount, LocalDateTime orderDate) {
+        this.orderId = orderId;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.orderDate = orderDate;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public OrderStatus getStatus() { return status; }
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+}
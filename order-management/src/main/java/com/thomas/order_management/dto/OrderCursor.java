@@ -0,0 +1,47 @@
+package com.thomas.order_management.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset-Position (orderDate, id) der letzten ausgelieferten Bestellung.
+ * Wird als Base64-URL-Token an den Client gegeben, damit dieser keine Annahmen über den Inhalt trifft.
+ */
+public class OrderCursor {
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime orderDate;
+    private final Long id;
+
+    public OrderCursor(LocalDateTime orderDate, Long id) {
+        this.orderDate = orderDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = orderDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException wenn das Token nicht von {@link #encode()} stammt
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ungültiger Cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                   Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.thomas.order_management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status einer asynchron angenommenen Bestellung (POST /api/orders?async=true)
+ * Wird von den Intake-Workern fortgeschrieben und über statusUrl abgefragt
+ */
+public class OrderIntakeTicket {
+
+    public enum Status { QUEUED, PROCESSING, CREATED, REJECTED }
+
+    private final String ticketId;
+    private final String orderNumber;
+    private final LocalDateTime acceptedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Long orderId;
+    private volatile String error;
+    private volatile LocalDateTime completedAt;
+
+    public OrderIntakeTicket(String ticketId, String orderNumber) {
+        this.ticketId = ticketId;
+        this.orderNumber = orderNumber;
+        this.acceptedAt = LocalDateTime.now();
+    }
+
+    public void markProcessing() {
+        this.status = Status.PROCESSING;
+    }
+
+    public void markCreated(Long orderId) {
+        this.orderId = orderId;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.CREATED;
+    }
+
+    public void markRejected(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.REJECTED;
+    }
+
+    public boolean isCompleted() {
+        return status == Status.CREATED || status == Status.REJECTED;
+    }
+
+    public String getStatusUrl() { return "/api/orders/intake/" + ticketId; }
+
+    public String getTicketId() { return ticketId; }
+    public String getOrderNumber() { return orderNumber; }
+    public LocalDateTime getAcceptedAt() { return acceptedAt; }
+    public Status getStatus() { return status; }
+    public Long getOrderId() { return orderId; }
+    public String getError() { return error; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,34 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request von POST /api/orders/purge: löscht Bestellungen der Status mit Bestelldatum vor before
+ * Ohne dryRun=false wird nur gezählt.
+ */
+public class OrderPurgeRequest {
+    private List<OrderStatus> statuses = new ArrayList<>();
+    private LocalDateTime before;
+    private boolean dryRun = true;
+
+    public OrderPurgeRequest() {}
+
+    public OrderPurgeRequest(List<OrderStatus> statuses, LocalDateTime before, boolean dryRun) {
+        this.statuses = statuses;
+        this.before = before;
+        this.dryRun = dryRun;
+    }
+
+    public List<OrderStatus> getStatuses() { return statuses; }
+    public void setStatuses(List<OrderStatus> statuses) { this.statuses = statuses; }
+
+    public LocalDateTime getBefore() { return before; }
+    public void setBefore(LocalDateTime before) { this.before = before; }
+
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+}
@@ -0,0 +1,63 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Antwort von POST /api/orders/purge: gelöschte (bzw. im Probelauf betroffene) Bestellungen und Positionen
+ */
+public class OrderPurgeResult {
+    private boolean dryRun;
+    private List<OrderStatus> statuses;
+    private LocalDateTime before;
+    private long orders;
+    private long items;
+    private int chunks;
+    private Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+
+    public OrderPurgeResult() {}
+
+    public OrderPurgeResult(boolean dryRun, List<OrderStatus> statuses, LocalDateTime before) {
+        this.dryRun = dryRun;
+        this.statuses = statuses;
+        this.before = before;
+    }
+
+    public void add(OrderStatus status, long orders) {
+        this.orders += orders;
+        ordersByStatus.merge(status, orders, Long::sum);
+    }
+
+    public void addItems(long items) {
+        this.items += items;
+    }
+
+    public void addChunk() {
+        chunks++;
+    }
+
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+
+    public List<OrderStatus> getStatuses() { return statuses; }
+    public void setStatuses(List<OrderStatus> statuses) { this.statuses = statuses; }
+
+    public LocalDateTime getBefore() { return before; }
+    public void setBefore(LocalDateTime before) { this.before = before; }
+
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+
+    public long getItems() { return items; }
+    public void setItems(long items) { this.items = items; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public Map<OrderStatus, Long> getOrdersByStatus() { return ordersByStatus; }
+    public void setOrdersByStatus(Map<OrderStatus, Long> ordersByStatus) { this.ordersByStatus = ordersByStatus; }
+}
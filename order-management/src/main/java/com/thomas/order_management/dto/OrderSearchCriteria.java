@@ -0,0 +1,53 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filter für GET /api/orders/search
+ * Alle Kriterien sind optional und werden per UND verknüpft; Grenzen sind inklusive.
+ * Wird direkt aus den Query-Parametern gebunden (status=PENDING&status=SHIPPED&minTotal=10...).
+ */
+public class OrderSearchCriteria {
+    private List<OrderStatus> status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private Long customerId;
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+
+    // Präfix der Bestellnummer, z. B. "ORD-2024-"
+    private String orderNumber;
+
+    public OrderSearchCriteria() {}
+
+    public List<OrderStatus> getStatus() { return status; }
+    public void setStatus(List<OrderStatus> status) { this.status = status; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public BigDecimal getMinTotal() { return minTotal; }
+    public void setMinTotal(BigDecimal minTotal) { this.minTotal = minTotal; }
+
+    public BigDecimal getMaxTotal() { return maxTotal; }
+    public void setMaxTotal(BigDecimal maxTotal) { this.maxTotal = maxTotal; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+}
@@ -0,0 +1,52 @@
+package com.thomas.order_management.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset-Position (Sortwert, id) der letzten ausgelieferten Bestellung einer Suche
+ * Enthält die Sortierung, damit ein Cursor nicht mit einer anderen Sortierung weiterverwendet wird.
+ */
+public class OrderSearchCursor {
+    private static final char SEPARATOR = '|';
+
+    private final OrderSearchSort sort;
+    private final Comparable<?> value;
+    private final Long id;
+
+    public OrderSearchCursor(OrderSearchSort sort, Comparable<?> value, Long id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static OrderSearchCursor of(OrderSearchSort sort, OrderSummary last) {
+        return new OrderSearchCursor(sort, sort.valueOf(last), last.getId());
+    }
+
+    public OrderSearchSort getSort() { return sort; }
+    public Comparable<?> getValue() { return value; }
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException wenn das Token nicht von {@link #encode()} stammt
+     *                                  oder zu einer anderen Sortierung gehört
+     */
+    public static OrderSearchCursor decode(String token, OrderSearchSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 || !parts[0].equals(expectedSort.name())) {
+                throw new IllegalArgumentException("Ungültiger Cursor");
+            }
+            return new OrderSearchCursor(expectedSort, expectedSort.parseValue(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Cursor", e);
+        }
+    }
+}
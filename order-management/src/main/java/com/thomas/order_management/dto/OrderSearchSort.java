@@ -0,0 +1,63 @@
+package com.thomas.order_management.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Erlaubte Sortierungen der Bestellsuche
+ * Jede Sortierung hat die ID als eindeutigen Tie-Breaker, damit Keyset-Pagination stabil blättert.
+ * Nur Sortierungen, die ein Index auf orders direkt liefert - beliebige Spalten würden große Sorts erzwingen.
+ */
+public enum OrderSearchSort {
+    ORDER_DATE_DESC("orderDate", true),
+    ORDER_DATE_ASC("orderDate", false),
+    TOTAL_AMOUNT_DESC("totalAmount", true),
+    TOTAL_AMOUNT_ASC("totalAmount", false);
+
+    private final String property;
+    private final boolean descending;
+
+    OrderSearchSort(String property, boolean descending) {
+        this.property = property;
+        this.descending = descending;
+    }
+
+    public String getProperty() { return property; }
+    public boolean isDescending() { return descending; }
+
+    /**
+     * Sortwert einer Zeile, Grundlage des Cursors
+     */
+    public Comparable<?> valueOf(OrderSummary order) {
+        return property.equals("orderDate") ? order.getOrderDate() : order.getTotalAmount();
+    }
+
+    public Comparable<?> parseValue(String value) {
+        try {
+            return property.equals("orderDate") ? LocalDateTime.parse(value) : new BigDecimal(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Ungültiger Sortwert: " + value, e);
+        }
+    }
+
+    /**
+     * Parst "property[,asc|desc]" (Spring-Data-Schreibweise), Standardrichtung ist absteigend
+     *
+     * @throws IllegalArgumentException bei unbekannter Property oder Richtung
+     */
+    public static OrderSearchSort parse(String sort) {
+        String[] parts = sort.split(",", 2);
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase(Locale.ROOT) : "desc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new IllegalArgumentException("Ungültige Sortierrichtung: " + parts[1]);
+        }
+        for (OrderSearchSort candidate : values()) {
+            if (candidate.property.equals(parts[0].trim()) && candidate.descending == direction.equals("desc")) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Nicht sortierbar: " + parts[0]);
+    }
+}
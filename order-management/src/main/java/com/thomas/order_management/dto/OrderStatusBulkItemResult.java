@@ -0,0 +1,44 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+/**
+ * Ergebnis eines Massen-Statuswechsels für eine angefragte ID bzw. Bestellnummer
+ * previousStatus ist der Status vor dem Wechsel (null, wenn die Bestellung nicht gefunden wurde)
+ */
+public class OrderStatusBulkItemResult {
+
+    public enum Outcome { CHANGED, UNCHANGED, REJECTED, NOT_FOUND }
+
+    private Long orderId;
+    private String orderNumber;
+    private Outcome outcome;
+    private OrderStatus previousStatus;
+    private String error;
+
+    public OrderStatusBulkItemResult() {}
+
+    public OrderStatusBulkItemResult(Long orderId, String orderNumber, Outcome outcome,
+                                     OrderStatus previousStatus, String error) {
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.outcome = outcome;
+        this.previousStatus = previousStatus;
+        this.error = error;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public Outcome getOutcome() { return outcome; }
+    public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
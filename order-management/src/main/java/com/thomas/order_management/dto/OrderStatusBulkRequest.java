@@ -0,0 +1,32 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request von PATCH /api/orders/status: Zielstatus für Bestellungen per ID und/oder Bestellnummer
+ */
+public class OrderStatusBulkRequest {
+    private OrderStatus status;
+    private List<Long> ids = new ArrayList<>();
+    private List<String> orderNumbers = new ArrayList<>();
+
+    public OrderStatusBulkRequest() {}
+
+    public OrderStatusBulkRequest(OrderStatus status, List<Long> ids, List<String> orderNumbers) {
+        this.status = status;
+        this.ids = ids;
+        this.orderNumbers = orderNumbers;
+    }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public List<String> getOrderNumbers() { return orderNumbers; }
+    public void setOrderNumbers(List<String> orderNumbers) { this.orderNumbers = orderNumbers; }
+}
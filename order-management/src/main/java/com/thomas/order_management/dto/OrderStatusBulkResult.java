@@ -0,0 +1,57 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Antwort von PATCH /api/orders/status mit Zählern und einem Ergebnis pro angefragter Bestellung
+ */
+public class OrderStatusBulkResult {
+    private OrderStatus status;
+    private int requested;
+    private int changed;
+    private int unchanged;
+    private int rejected;
+    private int notFound;
+    private List<OrderStatusBulkItemResult> results = new ArrayList<>();
+
+    public OrderStatusBulkResult() {}
+
+    public OrderStatusBulkResult(OrderStatus status) {
+        this.status = status;
+    }
+
+    public void add(OrderStatusBulkItemResult result) {
+        results.add(result);
+        requested++;
+        switch (result.getOutcome()) {
+            case CHANGED -> changed++;
+            case UNCHANGED -> unchanged++;
+            case REJECTED -> rejected++;
+            case NOT_FOUND -> notFound++;
+        }
+    }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public int getRequested() { return requested; }
+    public void setRequested(int requested) { this.requested = requested; }
+
+    public int getChanged() { return changed; }
+    public void setChanged(int changed) { this.changed = changed; }
+
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+
+    public List<OrderStatusBulkItemResult> getResults() { return results; }
+    public void setResults(List<OrderStatusBulkItemResult> results) { this.results = results; }
+}
@@ -0,0 +1,56 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload des Outbox-Ereignisses ORDER_STATUS_CHANGED
+ */
+public class OrderStatusChangedEvent {
+
+    public static final String TYPE = "ORDER_STATUS_CHANGED";
+
+    private Long orderId;
+    private String orderNumber;
+    private Long customerId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime changedAt;
+
+    public OrderStatusChangedEvent() {}
+
+    public OrderStatusChangedEvent(Long orderId, String orderNumber, Long customerId, OrderStatus previousStatus,
+                                   OrderStatus status, BigDecimal totalAmount, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.customerId = customerId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.changedAt = changedAt;
+    }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
@@ -0,0 +1,25 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+/**
+ * Anzahl der Bestellungen mit einem Status
+ */
+public class OrderStatusCount {
+    private OrderStatus status;
+    private long orderCount;
+
+    public OrderStatusCount() {}
+
+    // Constructor für JPQL
+    public OrderStatusCount(OrderStatus status, Long orderCount) {
+        this.status = status;
+        this.orderCount = orderCount != null ? orderCount : 0L;
+    }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+}
@@ -0,0 +1,61 @@
+package com.thomas.order_management.dto;
+
+import com.thomas.order_management.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Schlanke Listen-Projektion einer Bestellung
+ * Wird per JPQL-Constructor-Expression in einem einzigen Statement geladen (keine Positionen/Produkte)
+ */
+public class OrderSummary {
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private String customerName;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderDate;
+    private Integer itemCount;
+
+    public OrderSummary() {}
+
+    // Constructor für JPQL
+    public OrderSummary(Long id, String orderNumber, Long customerId, String customerFirstName,
+                        String customerLastName, OrderStatus status, BigDecimal totalAmount,
+                        LocalDateTime orderDate, Integer itemCount) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.customerId = customerId;
+        this.customerName = customerFirstName + " " + customerLastName;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.orderDate = orderDate;
+        this.itemCount = itemCount;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getOrderNumber() { return orderNumber; }
+    public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    public Integer getItemCount() { return itemCount; }
+    public void setItemCount(Integer itemCount) { this.itemCount = itemCount; }
+}
@@ -0,0 +1,16 @@
+package com.thomas.order_management.dto;
+
+/**
+ * In-Process-Ereignis: der Bestand eines Produkts hat sich geändert (nach Commit zugestellt)
+ * Enthält bewusst keinen Bestand - Empfänger lesen ihn gebündelt nach, wenn sie ihn brauchen
+ */
+public class StockChangedEvent {
+
+    private final Long productId;
+
+    public StockChangedEvent(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getProductId() { return productId; }
+}
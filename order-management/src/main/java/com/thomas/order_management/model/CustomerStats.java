@@ -0,0 +1,64 @@
+package com.thomas.order_management.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Vorverdichtete Kennzahlen eines Kunden über alle nicht stornierten Bestellungen
+ * Wird bei jedem Anlegen, Statuswechsel, Neuberechnen und Löschen einer Bestellung inkrementell
+ * fortgeschrieben (CustomerStatsListener). Kunden ohne Bestellung haben keine Zeile.
+ */
+@Entity
+@Table(name = "customer_stats", indexes = {
+    @Index(name = "idx_customer_stats_total_amount", columnList = "total_amount, customer_id"),
+    @Index(name = "idx_customer_stats_order_count", columnList = "order_count, customer_id"),
+    @Index(name = "idx_customer_stats_last_order_date", columnList = "last_order_date, customer_id")
+})
+public class CustomerStats {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "first_order_date")
+    private LocalDateTime firstOrderDate;
+
+    @Column(name = "last_order_date")
+    private LocalDateTime lastOrderDate;
+
+    // Konstruktoren
+    public CustomerStats() {}
+
+    public CustomerStats(Long customerId, Long orderCount, BigDecimal totalAmount,
+                         LocalDateTime firstOrderDate, LocalDateTime lastOrderDate) {
+        this.customerId = customerId;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.firstOrderDate = firstOrderDate;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    // Getter & Setter
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getFirstOrderDate() { return firstOrderDate; }
+    public void setFirstOrderDate(LocalDateTime firstOrderDate) { this.firstOrderDate = firstOrderDate; }
+
+    public LocalDateTime getLastOrderDate() { return lastOrderDate; }
+    public void setLastOrderDate(LocalDateTime lastOrderDate) { this.lastOrderDate = lastOrderDate; }
+}
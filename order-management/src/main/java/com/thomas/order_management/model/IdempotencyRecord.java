@@ -0,0 +1,79 @@
+package com.thomas.order_management.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gespeicherte Antwort zu einem Idempotency-Key
+ * Solange die erste Anfrage läuft, ist der Datensatz IN_PROGRESS und durch locked_until befristet reserviert.
+ * Danach enthält er Status, Content-Type und Body der Antwort bis zum Ablauf (expires_at).
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    public enum State { IN_PROGRESS, COMPLETED }
+
+    // Pfad + Key, damit derselbe Key für verschiedene Endpunkte unabhängig bleibt
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    // SHA-256 über Methode, Pfad und Body der ersten Anfrage
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type", length = 255)
+    private String responseContentType;
+
+    @Column(name = "response_body", length = 1_048_576)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Konstruktoren
+    public IdempotencyRecord() {}
+
+    // Getter & Setter
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public String getRequestHash() { return requestHash; }
+    public void setRequestHash(String requestHash) { this.requestHash = requestHash; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public Integer getResponseStatus() { return responseStatus; }
+    public void setResponseStatus(Integer responseStatus) { this.responseStatus = responseStatus; }
+
+    public String getResponseContentType() { return responseContentType; }
+    public void setResponseContentType(String responseContentType) { this.responseContentType = responseContentType; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,60 @@
+package com.thomas.order_management.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Geldbeträge als long in Cent (feste Skala 2, wie die Spalten numeric(10,2))
+ *
+ * Für Rechnungen im Speicher (Positionssummen, Bestellsummen, Aggregationen): Multiplikation und Addition auf
+ * long legen keine Objekte an, BigDecimal dagegen bei jeder Operation ein neues. Bewusst keine Wrapper-Klasse -
+ * auch die wäre pro Ergebnis eine Allokation. An den Grenzen (JPA, JSON, JDBC) bleibt es bei BigDecimal,
+ * die Umrechnung ist für jeden Wert mit höchstens zwei Nachkommastellen verlustfrei.
+ * Überläufe werfen wie bei longValueExact eine ArithmeticException statt still zu falsch zu rechnen.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * Exakte Umrechnung in Cent
+     *
+     * @throws ArithmeticException bei mehr als zwei Nachkommastellen oder außerhalb des long-Bereichs
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Umrechnung in Cent mit kaufmännischer Rundung auf zwei Stellen, wie PostgreSQL beim Schreiben in numeric(10,2)
+     * Für Beträge von außen (z.B. Einzelpreise im Request), die ohnehin gerundet gespeichert würden.
+     *
+     * @throws ArithmeticException außerhalb des long-Bereichs
+     */
+    public static long roundToMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long multiply(long minorUnits, long quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+
+    public static long negate(long minorUnits) {
+        return Math.negateExact(minorUnits);
+    }
+}
@@ -2,22 +2,30 @@ package com.thomas.order_management.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_order_date_id", columnList = "order_date DESC, id DESC"),
+    @Index(name = "idx_orders_customer_order_date_id", columnList = "customer_id, order_date DESC, id DESC"),
+    @Index(name = "idx_orders_status_order_date_id", columnList = "status, order_date DESC, id DESC"),
+    @Index(name = "idx_orders_total_amount_id", columnList = "total_amount, id")
+})
 public class Order {
 
+    // Pooled Sequence statt IDENTITY, damit Hibernate Inserts als JDBC-Batch senden kann
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
     private String orderNumber;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
@@ -28,7 +36,7 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status;
 
-    @Column(nullable = false, precision = 10, scale = 2)
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount;
 
     @Column
@@ -40,7 +48,7 @@ public class Order {
     @Column(name = "billing_address")
     private String billingAddress;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<OrderItem> orderItems;
 
@@ -50,6 +58,11 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic Locking: jedes UPDATE prüft und erhöht die Version, dient der API als ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     // Konstruktoren
     public Order() {
         this.createdAt = LocalDateTime.now();
@@ -101,14 +114,26 @@ public class Order {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     // Hilfsmethoden
     public BigDecimal calculateTotalAmount() {
-        if (orderItems == null || orderItems.isEmpty()) {
-            return BigDecimal.ZERO;
+        return Money.toBigDecimal(calculateTotalCents());
+    }
+
+    /**
+     * Summe aller Positionen in Cent - eine Schleife über long, BigDecimal erst an der Grenze zur Entity
+     */
+    public long calculateTotalCents() {
+        if (orderItems == null) {
+            return 0L;
+        }
+        long total = 0L;
+        for (OrderItem item : orderItems) {
+            total = Money.add(total, item.getTotalCents());
         }
-        return orderItems.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return total;
     }
 
     @PreUpdate
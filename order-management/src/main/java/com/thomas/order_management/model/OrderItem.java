@@ -2,14 +2,20 @@ package com.thomas.order_management.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_items_order_id", columnList = "order_id"),
+    @Index(name = "idx_order_items_product_id", columnList = "product_id")
+})
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +23,7 @@ public class OrderItem {
     @JsonBackReference
     private Order order;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
@@ -27,6 +33,18 @@ public class OrderItem {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal unitPrice;
 
+    // Partitionsschlüssel: Kopie von orders.order_date, order_items ist wie orders monatlich partitioniert
+    @Column(name = "order_date", nullable = false)
+    @JsonIgnore
+    private LocalDateTime orderDate;
+
+    // Einzelpreis in Cent, einmal pro unitPrice umgerechnet (Hibernate setzt das Feld direkt, daher Vergleich per Referenz)
+    @Transient
+    private BigDecimal convertedUnitPrice;
+
+    @Transient
+    private long unitPriceCents;
+
     // Konstruktoren
     public OrderItem() {}
 
@@ -53,8 +71,30 @@ public class OrderItem {
     public BigDecimal getUnitPrice() { return unitPrice; }
     public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
 
+    public LocalDateTime getOrderDate() { return orderDate; }
+
+    @PrePersist
+    @PreUpdate
+    public void syncOrderDate() {
+        if (order != null) {
+            this.orderDate = order.getOrderDate();
+        }
+    }
+
     // Hilfsmethoden
     public BigDecimal getTotalPrice() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        return Money.toBigDecimal(getTotalCents());
+    }
+
+    /**
+     * Positionssumme in Cent, ohne BigDecimal-Zwischenergebnisse (siehe {@link Money})
+     */
+    @JsonIgnore
+    public long getTotalCents() {
+        if (unitPrice != convertedUnitPrice) {
+            unitPriceCents = Money.roundToMinorUnits(unitPrice);
+            convertedUnitPrice = unitPrice;
+        }
+        return Money.multiply(unitPriceCents, quantity);
     }
 }
\ No newline at end of file
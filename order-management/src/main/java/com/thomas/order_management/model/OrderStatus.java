@@ -17,4 +17,18 @@ public enum OrderStatus {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * Erlaubte Übergänge für Massen-Statuswechsel: vorwärts im Ablauf (Stufen dürfen übersprungen werden),
+     * Stornierung nur vor dem Versand. Geliefert und Storniert sind Endzustände.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        if (this == DELIVERED || this == CANCELLED) {
+            return false;
+        }
+        if (target == CANCELLED) {
+            return this != SHIPPED;
+        }
+        return target.ordinal() > ordinal();
+    }
 }
\ No newline at end of file
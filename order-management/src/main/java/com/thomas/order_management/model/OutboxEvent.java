@@ -0,0 +1,101 @@
+package com.thomas.order_management.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Ausgehendes Ereignis (Transactional Outbox)
+ * Wird in derselben Transaktion wie die fachliche Änderung geschrieben und vom OutboxDispatcher
+ * an die konfigurierten Sinks zugestellt; published_at ist bis zur erfolgreichen Zustellung leer.
+ */
+@Entity
+@Table(name = "order_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Sinks, die das Ereignis bereits erhalten haben (kommagetrennt) - ein Fehler wiederholt nur die übrigen
+    @Column(name = "delivered_sinks", length = 500)
+    private String deliveredSinks;
+
+    // Konstruktoren
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long aggregateId, String eventType, String payload) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    // Getter & Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getDeliveredSinks() { return deliveredSinks; }
+    public void setDeliveredSinks(String deliveredSinks) { this.deliveredSinks = deliveredSinks; }
+
+    public boolean isDeliveredTo(String sink) {
+        return deliveredSinks != null && Arrays.asList(deliveredSinks.split(",")).contains(sink);
+    }
+
+    public void markDeliveredTo(String sink) {
+        if (!isDeliveredTo(sink)) {
+            deliveredSinks = deliveredSinks == null ? sink : deliveredSinks + "," + sink;
+        }
+    }
+}
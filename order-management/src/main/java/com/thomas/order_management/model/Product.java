@@ -2,11 +2,15 @@ package com.thomas.order_management.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.Formula;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "products")
 @NamedQueries({
     @NamedQuery(
@@ -25,7 +29,8 @@ import java.util.List;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -40,6 +45,17 @@ public class Product {
     @Column(nullable = false)
     private Integer stockQuantity;
 
+    // Anzahl Stock-Stripes; 0 = Bestand liegt vollständig in stockQuantity
+    @Column(name = "stock_stripes")
+    private Integer stockStripes = 0;
+
+    // Summe der Stripes, wird beim Laden mitgelesen und in getStockQuantity() addiert
+    @Formula("(CASE WHEN stock_stripes > 0 THEN "
+            + "(SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_stripes s WHERE s.product_id = id) "
+            + "ELSE 0 END)")
+    @JsonIgnore
+    private Integer stripedStockQuantity;
+
     @Column
     private String category;
 
@@ -55,6 +71,11 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic Locking für Stammdaten-Änderungen; Lagerreservierungen erhöhen die Version ebenfalls
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<OrderItem> orderItems;
@@ -86,9 +107,18 @@ public class Product {
     public BigDecimal getPrice() { return price; }
     public void setPrice(BigDecimal price) { this.price = price; }
 
-    public Integer getStockQuantity() { return stockQuantity; }
+    // Gesamtbestand inkl. Stock-Stripes
+    public Integer getStockQuantity() {
+        if (stripedStockQuantity == null || stripedStockQuantity == 0) {
+            return stockQuantity;
+        }
+        return (stockQuantity != null ? stockQuantity : 0) + stripedStockQuantity;
+    }
     public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
 
+    public Integer getStockStripes() { return stockStripes; }
+    public void setStockStripes(Integer stockStripes) { this.stockStripes = stockStripes; }
+
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
 
@@ -104,16 +134,23 @@ public class Product {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public List<OrderItem> getOrderItems() { return orderItems; }
     public void setOrderItems(List<OrderItem> orderItems) { this.orderItems = orderItems; }
 
     // Hilfsmethoden
     public boolean isInStock() {
-        return stockQuantity > 0;
+        return getStockQuantity() > 0;
     }
 
     public boolean isInStock(int quantity) {
-        return stockQuantity >= quantity;
+        return getStockQuantity() >= quantity;
+    }
+
+    public boolean hasStripedStock() {
+        return stockStripes != null && stockStripes > 0;
     }
 
     @PreUpdate
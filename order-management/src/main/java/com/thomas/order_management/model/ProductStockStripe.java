@@ -0,0 +1,51 @@
+package com.thomas.order_management.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Teilbestand eines Produkts im Striped-Stock-Modus
+ * Reservierungen verteilen sich auf mehrere Zeilen statt auf products.stock_quantity,
+ * der Gesamtbestand ist die Summe aller Stripes eines Produkts
+ */
+@Entity
+@Table(name = "product_stock_stripes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_product_stock_stripes_product_stripe", columnNames = {"product_id", "stripe_index"})
+})
+public class ProductStockStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_stock_stripes_seq")
+    @SequenceGenerator(name = "product_stock_stripes_seq", sequenceName = "product_stock_stripes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "stripe_index", nullable = false)
+    private Integer stripeIndex;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Konstruktoren
+    public ProductStockStripe() {}
+
+    public ProductStockStripe(Long productId, Integer stripeIndex, Integer quantity) {
+        this.productId = productId;
+        this.stripeIndex = stripeIndex;
+        this.quantity = quantity;
+    }
+
+    // Getter & Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getStripeIndex() { return stripeIndex; }
+    public void setStripeIndex(Integer stripeIndex) { this.stripeIndex = stripeIndex; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,98 @@
+package com.thomas.order_management.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Vorverdichtete Umsätze pro Bestelltag und Status
+ * Wird bei jedem Anlegen, Statuswechsel, Neuberechnen und Löschen einer Bestellung inkrementell
+ * fortgeschrieben (RevenueRollupListener). Pro (Tag, Status) gibt es mehrere Slots, damit parallele
+ * Transaktionen nicht alle auf dieselbe Zeile warten - die Werte eines Tages sind die Summe aller Slots.
+ */
+@Entity
+@Table(name = "revenue_rollup")
+@IdClass(RevenueRollup.Key.class)
+public class RevenueRollup {
+
+    @Id
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Id
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    // Konstruktoren
+    public RevenueRollup() {}
+
+    public RevenueRollup(LocalDate revenueDate, OrderStatus status, Integer slot, Long orderCount, BigDecimal amount) {
+        this.revenueDate = revenueDate;
+        this.status = status;
+        this.slot = slot;
+        this.orderCount = orderCount;
+        this.amount = amount;
+    }
+
+    // Getter & Setter
+    public LocalDate getRevenueDate() { return revenueDate; }
+    public void setRevenueDate(LocalDate revenueDate) { this.revenueDate = revenueDate; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public Integer getSlot() { return slot; }
+    public void setSlot(Integer slot) { this.slot = slot; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    /**
+     * Zusammengesetzter Primärschlüssel (revenue_date, status, slot)
+     */
+    public static class Key implements Serializable {
+
+        private LocalDate revenueDate;
+        private OrderStatus status;
+        private Integer slot;
+
+        public Key() {}
+
+        public Key(LocalDate revenueDate, OrderStatus status, Integer slot) {
+            this.revenueDate = revenueDate;
+            this.status = status;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(revenueDate, key.revenueDate)
+                    && status == key.status
+                    && Objects.equals(slot, key.slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(revenueDate, status, slot);
+        }
+    }
+}
@@ -13,9 +13,6 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     Optional<Customer> findByEmail(String email);
     
-    List<Customer> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-            String firstName, String lastName);
-    
     @Query("SELECT c FROM Customer c WHERE c.city = :city")
     List<Customer> findByCity(String city);
     
@@ -0,0 +1,12 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.model.CustomerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lesezugriff auf customer_stats; geschrieben wird nur über CustomerStatsListener und den Neuaufbau
+ */
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, Long> {
+}
@@ -0,0 +1,76 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Key reservieren - schlägt mit einer Unique-Verletzung fehl, wenn ein anderer Request (auch auf
+     * einem anderen Knoten) den Key bereits hält
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (idempotency_key, request_hash, state, created_at, locked_until, expires_at)
+        VALUES (:key, :requestHash, 'IN_PROGRESS', :now, :lockedUntil, :expiresAt)
+        """, nativeQuery = true)
+    int insertClaim(@Param("key") String key,
+                    @Param("requestHash") String requestHash,
+                    @Param("now") LocalDateTime now,
+                    @Param("lockedUntil") LocalDateTime lockedUntil,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Übernimmt einen Key, dessen Reservierung verwaist (Knoten abgestürzt) oder dessen Antwort abgelaufen ist
+     */
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.requestHash = :requestHash, r.state = :inProgress, r.createdAt = :now,
+            r.lockedUntil = :lockedUntil, r.expiresAt = :expiresAt,
+            r.responseStatus = NULL, r.responseContentType = NULL, r.responseBody = NULL
+        WHERE r.key = :key
+          AND ((r.state = :inProgress AND r.lockedUntil < :now) OR r.expiresAt < :now)
+        """)
+    int takeOver(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("inProgress") IdempotencyRecord.State inProgress,
+                 @Param("now") LocalDateTime now,
+                 @Param("lockedUntil") LocalDateTime lockedUntil,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.state = :completed, r.responseStatus = :status, r.responseContentType = :contentType,
+            r.responseBody = :body, r.lockedUntil = NULL, r.expiresAt = :expiresAt
+        WHERE r.key = :key AND r.requestHash = :requestHash
+        """)
+    int complete(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("completed") IdempotencyRecord.State completed,
+                 @Param("status") Integer status,
+                 @Param("contentType") String contentType,
+                 @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Gibt eine Reservierung frei (Serverfehler), damit ein Retry die Anfrage erneut ausführen kann
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.state = :inProgress AND r.requestHash = :requestHash")
+    int release(@Param("key") String key,
+                @Param("requestHash") String requestHash,
+                @Param("inProgress") IdempotencyRecord.State inProgress);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,16 +2,21 @@ package com.thomas.order_management.repository;
 
 import com.thomas.order_management.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
+    // Explizit über die Fremdschlüsselspalten, damit idx_order_items_order_id bzw. idx_order_items_product_id greifen
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId")
     List<OrderItem> findByOrderId(Long orderId);
     
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.product.id = :productId")
     List<OrderItem> findByProductId(Long productId);
     
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId")
@@ -19,4 +24,8 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     @Query("SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.product.id = :productId")
     Long getTotalQuantitySoldForProduct(Long productId);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(Collection<Long> orderIds);
 }
\ No newline at end of file
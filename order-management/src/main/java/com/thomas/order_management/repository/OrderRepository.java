@@ -1,21 +1,34 @@
 package com.thomas.order_management.repository;
 
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.dto.OrderStatusCount;
+import com.thomas.order_management.dto.OrderSummary;
 import com.thomas.order_management.model.Order;
 import com.thomas.order_management.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
     
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    // Explizit über die Fremdschlüsselspalte, damit idx_orders_customer_order_date_id greift
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId")
     List<Order> findByCustomerId(Long customerId);
     
     List<Order> findByStatus(OrderStatus status);
@@ -36,4 +49,147 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.orderDate >= :startDate AND o.orderDate <= :endDate")
     BigDecimal getTotalRevenueInPeriod(LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    // Halboffenes Intervall [from, until) - angebrochene Randtage neben den Revenue-Rollups
+    @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :until")
+    BigDecimal getTotalRevenueFromUntil(LocalDateTime from, LocalDateTime until);
+
+    /**
+     * Anzahl und Umsatz pro Tag und Status aus den Rohdaten (Konsistenzprüfung der Revenue-Rollups)
+     */
+    @Query("""
+        SELECT new com.thomas.order_management.dto.DailyRevenue(
+            CAST(o.orderDate AS LocalDate), o.status, COUNT(o), SUM(o.totalAmount))
+        FROM Order o
+        GROUP BY CAST(o.orderDate AS LocalDate), o.status
+        """)
+    List<DailyRevenue> computeDailyRevenue();
+
+    // ================ DETAIL FETCH PLANS ================
+
+    /**
+     * Bestellung inkl. Kunde, Positionen und Produkten in einem Statement
+     */
+    @EntityGraph(attributePaths = {"customer", "orderItems", "orderItems.product"})
+    Optional<Order> findWithDetailsById(Long id);
+
+    @EntityGraph(attributePaths = {"customer", "orderItems", "orderItems.product"})
+    Optional<Order> findWithDetailsByOrderNumber(String orderNumber);
+
+    // ================ ARCHIV ================
+
+    /**
+     * Älteste Bestellungen eines Status vor :before - nutzt idx_orders_status_order_date_id
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.orderDate < :before ORDER BY o.orderDate, o.id")
+    List<Long> findIdsByStatusAndOrderDateBefore(OrderStatus status, LocalDateTime before, Limit limit);
+
+    @EntityGraph(attributePaths = {"orderItems"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Löscht ohne Entity-Lifecycle: die Revenue-Rollups behalten den Umsatz archivierter Bestellungen
+     */
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    // ================ SUMMARY PROJECTIONS ================
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE o.status = :status
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findSummariesByStatus(OrderStatus status);
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE o.id IN :ids
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE o.orderDate BETWEEN :startDate AND :endDate
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findSummariesByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+
+    // ================ KEYSET PAGINATION ================
+
+    /**
+     * Erste Seite, sortiert nach (orderDate, id) absteigend - nutzt idx_orders_order_date_id
+     */
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findFirstPage(Limit limit);
+
+    /**
+     * Folgeseite ab einer Keyset-Position, Kosten unabhängig von der Seitentiefe
+     */
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE (o.orderDate, o.id) < (:orderDate, :id)
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findPageAfter(LocalDateTime orderDate, Long id, Limit limit);
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE c.id = :customerId
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findFirstPageByCustomer(Long customerId, Limit limit);
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE c.id = :customerId
+        AND (o.orderDate, o.id) < (:orderDate, :id)
+        ORDER BY o.orderDate DESC, o.id DESC
+        """)
+    List<OrderSummary> findPageByCustomerAfter(Long customerId, LocalDateTime orderDate, Long id, Limit limit);
+
+    // Anzahl pro Status für die Kundenübersicht, über idx_orders_customer_order_date_id
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderStatusCount(o.status, COUNT(o))
+        FROM Order o
+        WHERE o.customer.id = :customerId
+        GROUP BY o.status
+        """)
+    List<OrderStatusCount> countByStatusForCustomer(Long customerId);
+
+    // ================ EXPORT ================
+
+    /**
+     * Export-Stream aufsteigend nach (orderDate, id)
+     * Die Fetch-Size lässt PostgreSQL einen serverseitigen Cursor verwenden, statt das Ergebnis
+     * komplett in den Treiber zu laden. Muss innerhalb einer Transaktion konsumiert und geschlossen werden.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new com.thomas.order_management.dto.OrderSummary(
+            o.id, o.orderNumber, c.id, c.firstName, c.lastName, o.status, o.totalAmount, o.orderDate, SIZE(o.orderItems))
+        FROM Order o JOIN o.customer c
+        WHERE o.orderDate >= :from AND o.orderDate < :to
+        ORDER BY o.orderDate, o.id
+        """)
+    Stream<OrderSummary> streamSummariesByOrderDateBetween(LocalDateTime from, LocalDateTime to);
+}
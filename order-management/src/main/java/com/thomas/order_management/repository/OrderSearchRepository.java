@@ -0,0 +1,22 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.dto.OrderSearchCriteria;
+import com.thomas.order_management.dto.OrderSearchCursor;
+import com.thomas.order_management.dto.OrderSearchSort;
+import com.thomas.order_management.dto.OrderSummary;
+
+import java.util.List;
+
+/**
+ * Dynamische Bestellsuche (Repository-Fragment von OrderRepository)
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * Sucht Bestellungen nach beliebiger Kombination der Kriterien, sortiert und ab einer Keyset-Position
+     *
+     * @param after Position der letzten Zeile der Vorseite, null für die erste Seite
+     * @param limit maximale Anzahl Zeilen
+     */
+    List<OrderSummary> search(OrderSearchCriteria criteria, OrderSearchSort sort, OrderSearchCursor after, int limit);
+}
@@ -0,0 +1,109 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.dto.OrderSearchCriteria;
+import com.thomas.order_management.dto.OrderSearchCursor;
+import com.thomas.order_management.dto.OrderSearchSort;
+import com.thomas.order_management.dto.OrderSummary;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baut die Suche per Criteria API als ein einziges Statement
+ * Nur gesetzte Kriterien werden zu Prädikaten, damit der Planer für jede Kombination den passenden Index
+ * (V3_7__Order_Search_Indexes.sql) wählen kann. Geblättert wird per Keyset statt OFFSET.
+ */
+class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummary> search(OrderSearchCriteria criteria, OrderSearchSort sort, OrderSearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummary> query = cb.createQuery(OrderSummary.class);
+        Root<Order> o = query.from(Order.class);
+        Join<Order, Customer> c = o.join("customer");
+
+        query.select(cb.construct(OrderSummary.class,
+                o.get("id"), o.get("orderNumber"), c.get("id"), c.get("firstName"), c.get("lastName"),
+                o.get("status"), o.get("totalAmount"), o.get("orderDate"),
+                cb.size(o.<List<OrderItem>>get("orderItems"))));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStatus() != null && !criteria.getStatus().isEmpty()) {
+            predicates.add(o.get("status").in(criteria.getStatus()));
+        }
+        if (criteria.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(o.<LocalDateTime>get("orderDate"), criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(o.<LocalDateTime>get("orderDate"), criteria.getTo()));
+        }
+        if (criteria.getCustomerId() != null) {
+            predicates.add(cb.equal(o.get("customer").get("id"), criteria.getCustomerId()));
+        }
+        if (criteria.getMinTotal() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(o.<BigDecimal>get("totalAmount"), criteria.getMinTotal()));
+        }
+        if (criteria.getMaxTotal() != null) {
+            predicates.add(cb.lessThanOrEqualTo(o.<BigDecimal>get("totalAmount"), criteria.getMaxTotal()));
+        }
+        if (criteria.getOrderNumber() != null && !criteria.getOrderNumber().isBlank()) {
+            predicates.add(cb.like(o.<String>get("orderNumber"), escapeLike(criteria.getOrderNumber().trim()) + "%", LIKE_ESCAPE));
+        }
+        if (after != null) {
+            predicates.add(sort.getProperty().equals("orderDate")
+                    ? after(cb, o.<LocalDateTime>get("orderDate"), (LocalDateTime) after.getValue(),
+                            o.<Long>get("id"), after.getId(), sort.isDescending())
+                    : after(cb, o.<BigDecimal>get("totalAmount"), (BigDecimal) after.getValue(),
+                            o.<Long>get("id"), after.getId(), sort.isDescending()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        Path<Object> key = o.get(sort.getProperty());
+        query.orderBy(sort.isDescending()
+                ? List.of(cb.desc(key), cb.desc(o.get("id")))
+                : List.of(cb.asc(key), cb.asc(o.get("id"))));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Keyset-Bedingung "hinter (value, id)"
+     * Die redundante Bedingung key <= value (bzw. >=) gibt dem Planer eine Bereichsgrenze für den Index,
+     * die ODER-Verknüpfung allein würde er nicht als Index-Range erkennen.
+     */
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Path<Y> key, Y value,
+                                                                    Path<Long> id, Long lastId, boolean descending) {
+        if (descending) {
+            return cb.and(
+                    cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, lastId)));
+        }
+        return cb.and(
+                cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), cb.greaterThan(id, lastId)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
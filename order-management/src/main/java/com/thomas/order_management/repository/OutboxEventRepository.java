@@ -0,0 +1,41 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Fällige Ereignisse in Schreibreihenfolge sperren (FOR UPDATE SKIP LOCKED)
+     * Zeilen, die ein anderer Dispatcher gerade hält, werden übersprungen statt abgewartet - mehrere Instanzen
+     * teilen sich die Ereignisse so ohne Doppelzustellung. Lock-Timeout -2 entspricht LockOptions.SKIP_LOCKED.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM OutboxEvent e
+        WHERE e.publishedAt IS NULL AND e.nextAttemptAt <= :now
+        ORDER BY e.id
+        """)
+    List<OutboxEvent> claimDue(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    long countPending();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,11 @@
 package com.thomas.order_management.repository;
 
 import com.thomas.order_management.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,7 +13,9 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -24,11 +28,16 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
     
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity > 0 AND p.active = true")
+    // Bestandsabfragen rechnen mit dem Gesamtbestand inkl. Stock-Stripes
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity + p.stripedStockQuantity > 0 AND p.active = true")
     List<Product> findAvailableProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= 5 AND p.active = true")
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity + p.stripedStockQuantity <= 5 AND p.active = true")
     List<Product> findLowStockProducts();
+
+    // Gleiche Schwelle wie findLowStockProducts, beschränkt auf die angegebenen Produkte
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.stockQuantity + p.stripedStockQuantity <= 5 AND p.active = true")
+    List<Product> findLowStockProductsByIdIn(Collection<Long> ids);
     
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.category IS NOT NULL")
     List<String> findAllCategories();
@@ -153,7 +162,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         SELECT p FROM Product p 
         WHERE p.category = :category 
         AND p.price BETWEEN :minPrice AND :maxPrice 
-        AND p.stockQuantity > 0 
+        AND p.stockQuantity + p.stripedStockQuantity > 0 
         AND p.active = true
         ORDER BY p.price
         """)
@@ -165,11 +174,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
      * Batch Update für Stock-Anpassungen
+     * VERSIONED erhöht die Version, damit ein PUT mit veraltetem Bestand scheitert statt ihn zu überschreiben
      */
     @Modifying
-    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :productId")
+    @Query("UPDATE VERSIONED Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :productId")
     int reduceStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
 
+    /**
+     * Bedingte Lagerreservierung: zieht nur ab, wenn genug Bestand vorhanden ist
+     * Liefert 0 bei Unterdeckung oder inaktivem Produkt. Das UPDATE sperrt die Produktzeile bis Transaktionsende.
+     */
+    @Modifying
+    @Query("""
+        UPDATE VERSIONED Product p SET p.stockQuantity = p.stockQuantity - :quantity
+        WHERE p.id = :productId AND p.stockQuantity >= :quantity AND p.active = true
+        """)
+    int reserveStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * Anzahl Stock-Stripes eines aktiven Produkts (null wenn inaktiv oder nicht vorhanden)
+     */
+    @Query("SELECT p.stockStripes FROM Product p WHERE p.id = :productId AND p.active = true")
+    Integer findStockStripes(@Param("productId") Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :productId")
+    Optional<Product> lockById(@Param("productId") Long productId);
+
+    // products.stock_quantity ohne Stripe-Anteil, direkt aus der Datenbank statt aus dem geladenen Product
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :productId")
+    int findUnstripedStock(@Param("productId") Long productId);
+
     /**
      * Inventory Value Analysis
      */
@@ -0,0 +1,42 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.model.ProductStockStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockStripeRepository extends JpaRepository<ProductStockStripe, Long> {
+
+    /**
+     * Bedingte Reservierung auf genau einem Stripe - sperrt nur diese Zeile
+     */
+    @Modifying
+    @Query("""
+        UPDATE ProductStockStripe s SET s.quantity = s.quantity - :quantity
+        WHERE s.productId = :productId AND s.stripeIndex = :stripeIndex AND s.quantity >= :quantity
+        """)
+    int reserveFromStripe(@Param("productId") Long productId,
+                          @Param("stripeIndex") Integer stripeIndex,
+                          @Param("quantity") Integer quantity);
+
+    /**
+     * Alle Stripes eines Produkts in Index-Reihenfolge sperren (Umverteilen, Zusammenlegen)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ProductStockStripe s WHERE s.productId = :productId ORDER BY s.stripeIndex")
+    List<ProductStockStripe> lockByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM ProductStockStripe s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT DISTINCT s.productId FROM ProductStockStripe s")
+    List<Long> findStripedProductIds();
+}
@@ -0,0 +1,69 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, RevenueRollup.Key> {
+
+    /**
+     * Abgeschlossene Tage (vor :day) - werden im RevenueRollupService zwischengespeichert
+     */
+    @Query("""
+        SELECT new com.thomas.order_management.dto.DailyRevenue(r.revenueDate, r.status, SUM(r.orderCount), SUM(r.amount))
+        FROM RevenueRollup r
+        WHERE r.revenueDate < :day
+        GROUP BY r.revenueDate, r.status
+        """)
+    List<DailyRevenue> findDailyTotalsBefore(@Param("day") LocalDate day);
+
+    /**
+     * Laufender Tag (und ggf. vordatierte Bestellungen) - nutzt den Primärschlüssel als Bereichsindex
+     */
+    @Query("""
+        SELECT new com.thomas.order_management.dto.DailyRevenue(r.revenueDate, r.status, SUM(r.orderCount), SUM(r.amount))
+        FROM RevenueRollup r
+        WHERE r.revenueDate >= :day
+        GROUP BY r.revenueDate, r.status
+        """)
+    List<DailyRevenue> findDailyTotalsFrom(@Param("day") LocalDate day);
+
+    @Query("""
+        SELECT new com.thomas.order_management.dto.DailyRevenue(r.revenueDate, r.status, SUM(r.orderCount), SUM(r.amount))
+        FROM RevenueRollup r
+        GROUP BY r.revenueDate, r.status
+        """)
+    List<DailyRevenue> findDailyTotals();
+
+    @Query("SELECT SUM(r.amount) FROM RevenueRollup r WHERE r.revenueDate >= :from AND r.revenueDate <= :to")
+    BigDecimal sumAmountBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r WHERE r.revenueDate = :day")
+    int deleteByRevenueDate(@Param("day") LocalDate day);
+
+    /**
+     * Baut die Rollups eines Tages aus den Bestellungen neu auf (Slot 0)
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO revenue_rollup (revenue_date, status, slot, order_count, amount)
+        SELECT CAST(:day AS DATE), o.status, 0, COUNT(*), SUM(o.total_amount)
+        FROM orders o
+        WHERE o.order_date >= :from AND o.order_date < :until
+        GROUP BY o.status
+        """, nativeQuery = true)
+    int insertFromOrders(@Param("day") LocalDate day,
+                         @Param("from") LocalDateTime from,
+                         @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,84 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Kunden-Import für PostgreSQL: COPY in eine temporäre Staging-Tabelle, dann ein einziges
+ * INSERT ... SELECT ... ON CONFLICT (email) DO UPDATE für den ganzen Chunk
+ *
+ * COPY überträgt den Chunk als einen Datenstrom statt als Statement pro Zeile, das Upsert läuft vollständig
+ * in der Datenbank. Die Staging-Tabelle lebt pro Verbindung und wird bei jedem Commit geleert. Legt ein anderer
+ * Request eine E-Mail parallel an, wird sie aktualisiert statt den Chunk scheitern zu lassen.
+ */
+@Component
+@ConditionalOnProperty(name = "app.customers.import.engine", havingValue = "copy")
+public class CopyCustomerImportWriter implements CustomerImportWriter {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, phone, address, city, zip_code, country, created_at";
+
+    private static final String CREATE_STAGE_SQL = """
+        CREATE TEMP TABLE IF NOT EXISTS customer_import_stage (
+            id BIGINT, first_name VARCHAR(255), last_name VARCHAR(255), email VARCHAR(255), phone VARCHAR(255),
+            address VARCHAR(255), city VARCHAR(255), zip_code VARCHAR(255), country VARCHAR(255), created_at TIMESTAMP
+        ) ON COMMIT DELETE ROWS
+        """;
+    private static final String COPY_SQL = "COPY customer_import_stage (" + COLUMNS + ") FROM STDIN (FORMAT csv)";
+    private static final String UPSERT_SQL = """
+        INSERT INTO customers (id, first_name, last_name, email, phone, address, city, zip_code, country, created_at)
+        SELECT id, first_name, last_name, email, phone, address, city, zip_code, country, created_at
+        FROM customer_import_stage
+        ON CONFLICT (email) DO UPDATE SET first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name,
+            phone = COALESCE(EXCLUDED.phone, customers.phone), address = COALESCE(EXCLUDED.address, customers.address),
+            city = COALESCE(EXCLUDED.city, customers.city), zip_code = COALESCE(EXCLUDED.zip_code, customers.zip_code),
+            country = COALESCE(EXCLUDED.country, customers.country)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CopyCustomerImportWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<Customer> inserts, List<Customer> updates) {
+        StringBuilder data = new StringBuilder(256 * (inserts.size() + updates.size()));
+        inserts.forEach(customer -> append(data, customer));
+        updates.forEach(customer -> append(data, customer));
+
+        jdbcTemplate.execute(CREATE_STAGE_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(data.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        jdbcTemplate.update(UPSERT_SQL);
+    }
+
+    /**
+     * Eine CSV-Zeile für COPY: Werte in Anführungszeichen, NULL als leeres Feld ohne Anführungszeichen
+     */
+    private static void append(StringBuilder data, Customer customer) {
+        data.append(customer.getId());
+        for (String value : new String[] {customer.getFirstName(), customer.getLastName(), customer.getEmail(),
+                customer.getPhone(), customer.getAddress(), customer.getCity(), customer.getZipCode(),
+                customer.getCountry(), customer.getCreatedAt().toString()}) {
+            data.append(',');
+            if (value != null) {
+                data.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+        data.append('\n');
+    }
+}
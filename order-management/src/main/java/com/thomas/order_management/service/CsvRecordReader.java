@@ -0,0 +1,115 @@
+package com.thomas.order_management.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest CSV (RFC 4180, Trennzeichen Komma) datensatzweise aus einem Reader
+ * Felder in Anführungszeichen dürfen Kommas, Zeilenumbrüche und verdoppelte Anführungszeichen enthalten.
+ * Im Speicher liegt nur der aktuelle Datensatz; ein fehlerhafter Datensatz wird mit Fehlermeldung geliefert,
+ * der nächste beginnt nach dessen Zeilenende.
+ */
+final class CsvRecordReader {
+
+    /**
+     * Ein Datensatz; line ist die (1-basierte) Zeile, in der er beginnt, error null bei korrektem CSV
+     */
+    record CsvRecord(long line, List<String> fields, String error) {
+
+        boolean isBlank() {
+            return fields.size() == 1 && fields.get(0).isBlank();
+        }
+    }
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private long line = 1;
+    private int peeked = NONE;
+    private boolean started;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return der nächste Datensatz oder null am Ende der Eingabe
+     */
+    CsvRecord next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                // Byte Order Mark aus Excel-Exporten
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        long start = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        String error = null;
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    fields.add(field.toString());
+                    return new CsvRecord(start, fields, "Anführungszeichen nicht geschlossen");
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n != ',' && n != '\n' && n != '\r' && n != -1 && error == null) {
+                            error = "Zeichen nach schließendem Anführungszeichen in Spalte " + (fields.size() + 1);
+                        }
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') {
+                        peeked = n;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return new CsvRecord(start, fields, error);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != NONE) {
+            int c = peeked;
+            peeked = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
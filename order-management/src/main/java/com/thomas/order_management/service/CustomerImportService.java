@@ -0,0 +1,324 @@
+package com.thomas.order_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.thomas.order_management.dto.CustomerImportError;
+import com.thomas.order_management.dto.CustomerImportResult;
+import com.thomas.order_management.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk-Import von Kunden (POST /api/customers/import) aus CSV mit Kopfzeile oder NDJSON
+ *
+ * Der Body wird zeilenweise gelesen und in Chunks von chunk-size Kunden geschrieben, der Speicherbedarf hängt
+ * nicht von der Größe des Imports ab. Pro Chunk eine Transaktion: die E-Mails des Chunks werden mit einer Abfrage
+ * gegen customers abgeglichen, neue Kunden bekommen IDs aus dem Pool von customers_seq, dann schreibt der
+ * {@link CustomerImportWriter} alle Zeilen als Upsert über die E-Mail. Kommt eine E-Mail im selben Chunk mehrfach
+ * vor, gewinnt die letzte Zeile. Ungültige Zeilen werden einzeln mit Zeilennummer abgelehnt.
+ *
+ * Da der Writer an Hibernate vorbei schreibt, werden danach der {@link NearCache} und der Namensindex der
+ * Kundensuche ({@link NGramCustomerSearch#reindex}) aktualisiert.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportService.class);
+
+    private static final int MAX_LENGTH = 255;
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * CSV-Spalten, Schreibweise egal (firstName, first_name, FIRSTNAME)
+     */
+    private static final Map<String, BiConsumer<Customer, String>> COLUMNS = Map.of(
+            "firstname", Customer::setFirstName,
+            "lastname", Customer::setLastName,
+            "email", Customer::setEmail,
+            "phone", Customer::setPhone,
+            "address", Customer::setAddress,
+            "city", Customer::setCity,
+            "zipcode", Customer::setZipCode,
+            "country", Customer::setCountry);
+
+    private record ImportLine(long line, Customer customer) {}
+
+    private final CustomerImportWriter writer;
+    private final NearCache nearCache;
+    private final ObjectProvider<NGramCustomerSearch> nameIndex;
+    private final EntityManager entityManager;
+    private final IdentifierGenerator idGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader customerReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public CustomerImportService(CustomerImportWriter writer,
+                                 NearCache nearCache,
+                                 ObjectProvider<NGramCustomerSearch> nameIndex,
+                                 EntityManager entityManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.customers.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.customers.import.max-errors:1000}") int maxErrors) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("app.customers.import.chunk-size muss mindestens 1 sein");
+        }
+        this.writer = writer;
+        this.nearCache = nearCache;
+        this.nameIndex = nameIndex;
+        this.entityManager = entityManager;
+        // Derselbe Generator wie bei persist(): IDs kommen blockweise aus demselben Pool
+        this.idGenerator = (IdentifierGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Customer.class)
+                .getGenerator();
+        this.jdbcTemplate = jdbcTemplate;
+        this.customerReader = objectMapper.readerFor(Customer.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Importiert alle Zeilen des Bodys; bereits geschriebene Chunks bleiben auch bei einem späteren Fehler gespeichert
+     *
+     * @throws IllegalArgumentException wenn die CSV-Kopfzeile fehlt, unbekannte Spalten enthält oder Pflichtspalten fehlen
+     */
+    public CustomerImportResult importCustomers(Format format, InputStream body, Charset charset) throws IOException {
+        long started = System.nanoTime();
+        CustomerImportResult result = new CustomerImportResult();
+        Map<String, ImportLine> chunk = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset), 64 * 1024);
+
+        BiConsumer<Long, Customer> accept = (line, customer) -> {
+            result.received();
+            String error = validate(customer);
+            if (error != null) {
+                result.reject(new CustomerImportError(line, customer.getEmail(), error), maxErrors);
+                return;
+            }
+            if (chunk.put(customer.getEmail(), new ImportLine(line, customer)) != null) {
+                result.duplicate();
+            }
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, result);
+                chunk.clear();
+            }
+        };
+
+        try {
+            switch (format) {
+                case CSV -> readCsv(reader, accept, result);
+                case NDJSON -> readNdjson(reader, accept, result);
+            }
+            writeChunk(chunk, result);
+        } finally {
+            if (result.getCreated() + result.getUpdated() > 0) {
+                nameIndex.ifAvailable(NGramCustomerSearch::reindex);
+            }
+        }
+
+        result.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        logger.info("Customer import finished: {} received, {} created, {} updated, {} duplicates, {} rejected in {} ms",
+                result.getReceived(), result.getCreated(), result.getUpdated(), result.getDuplicates(),
+                result.getRejected(), result.getDurationMs());
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, BiConsumer<Long, Customer> accept, CustomerImportResult result) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        CsvRecordReader.CsvRecord header = csv.next();
+        if (header == null || header.error() != null) {
+            throw new IllegalArgumentException("CSV-Kopfzeile fehlt oder ist ungültig");
+        }
+        List<BiConsumer<Customer, String>> setters = columns(header.fields());
+
+        CsvRecordReader.CsvRecord record;
+        while ((record = csv.next()) != null) {
+            if (record.isBlank()) {
+                continue;
+            }
+            if (record.error() != null || record.fields().size() != setters.size()) {
+                result.received();
+                String error = record.error() != null ? record.error()
+                        : "Erwartet " + setters.size() + " Spalten, gefunden " + record.fields().size();
+                result.reject(new CustomerImportError(record.line(), null, error), maxErrors);
+                continue;
+            }
+            Customer customer = new Customer();
+            for (int i = 0; i < setters.size(); i++) {
+                setters.get(i).accept(customer, record.fields().get(i));
+            }
+            accept.accept(record.line(), customer);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, BiConsumer<Long, Customer> accept, CustomerImportResult result) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            Customer customer;
+            try {
+                customer = customerReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                result.received();
+                result.reject(new CustomerImportError(line, null, "Ungültiges JSON: " + e.getOriginalMessage()), maxErrors);
+                continue;
+            }
+            if (customer == null) {
+                result.received();
+                result.reject(new CustomerImportError(line, null, "Kein JSON-Objekt"), maxErrors);
+                continue;
+            }
+            accept.accept(line, customer);
+        }
+    }
+
+    private static List<BiConsumer<Customer, String>> columns(List<String> header) {
+        List<BiConsumer<Customer, String>> setters = new ArrayList<>(header.size());
+        for (String name : header) {
+            BiConsumer<Customer, String> setter = COLUMNS.get(name.strip().replace("_", "").toLowerCase(Locale.ROOT));
+            if (setter == null) {
+                throw new IllegalArgumentException("Unbekannte CSV-Spalte: " + name);
+            }
+            setters.add(setter);
+        }
+        for (String required : List.of("firstname", "lastname", "email")) {
+            if (!setters.contains(COLUMNS.get(required))) {
+                throw new IllegalArgumentException("CSV-Spalte fehlt: " + required);
+            }
+        }
+        return setters;
+    }
+
+    /**
+     * Normalisiert die Felder (getrimmt, leer = null) und liefert eine Fehlermeldung oder null
+     */
+    private static String validate(Customer customer) {
+        customer.setFirstName(normalize(customer.getFirstName()));
+        customer.setLastName(normalize(customer.getLastName()));
+        customer.setEmail(normalize(customer.getEmail()));
+        customer.setPhone(normalize(customer.getPhone()));
+        customer.setAddress(normalize(customer.getAddress()));
+        customer.setCity(normalize(customer.getCity()));
+        customer.setZipCode(normalize(customer.getZipCode()));
+        customer.setCountry(normalize(customer.getCountry()));
+
+        if (customer.getEmail() == null) {
+            return "E-Mail fehlt";
+        }
+        if (customer.getEmail().indexOf('@') < 1) {
+            return "Ungültige E-Mail";
+        }
+        if (customer.getFirstName() == null || customer.getLastName() == null) {
+            return "Vor- und Nachname sind Pflichtfelder";
+        }
+        for (String value : new String[] {customer.getFirstName(), customer.getLastName(), customer.getEmail(),
+                customer.getPhone(), customer.getAddress(), customer.getCity(), customer.getZipCode(), customer.getCountry()}) {
+            if (value != null && value.length() > MAX_LENGTH) {
+                return "Feld länger als " + MAX_LENGTH + " Zeichen";
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = value.strip();
+        return stripped.isEmpty() ? null : stripped;
+    }
+
+    private void writeChunk(Map<String, ImportLine> chunk, CustomerImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportLine> lines = new ArrayList<>(chunk.values());
+        try {
+            int[] counts = transactionTemplate.execute(status -> {
+                Map<String, Long> existing = existingIds(lines);
+                SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+                LocalDateTime now = LocalDateTime.now();
+                List<Customer> inserts = new ArrayList<>();
+                List<Customer> updates = new ArrayList<>();
+                for (ImportLine line : lines) {
+                    Customer customer = line.customer();
+                    customer.setCreatedAt(now);
+                    Long id = existing.get(customer.getEmail());
+                    if (id != null) {
+                        customer.setId(id);
+                        updates.add(customer);
+                    } else {
+                        customer.setId((Long) idGenerator.generate(session, customer));
+                        inserts.add(customer);
+                    }
+                }
+                writer.write(inserts, updates);
+                return new int[] {inserts.size(), updates.size()};
+            });
+            result.created(counts[0]);
+            result.updated(counts[1]);
+            if (counts[1] > 0) {
+                nearCache.evictCustomers();
+            }
+        } catch (RuntimeException e) {
+            // Die Transaktion wurde zurückgerollt - keine Zeile des Chunks ist gespeichert
+            logger.warn("Customer import chunk starting at line {} rolled back: {}", lines.get(0).line(), e.getMessage());
+            for (ImportLine line : lines) {
+                result.reject(new CustomerImportError(line.line(), line.customer().getEmail(),
+                        "Chunk zurückgerollt: " + e.getMessage()), maxErrors);
+            }
+        }
+    }
+
+    /**
+     * IDs der bereits vorhandenen Kunden zu den E-Mails des Chunks, mit einer Abfrage
+     */
+    private Map<String, Long> existingIds(List<ImportLine> lines) {
+        String placeholders = String.join(", ", Collections.nCopies(lines.size(), "?"));
+        Map<String, Long> ids = new HashMap<>(lines.size() * 2);
+        jdbcTemplate.query("SELECT id, email FROM customers WHERE email IN (" + placeholders + ")",
+                rs -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                },
+                lines.stream().map(line -> line.customer().getEmail()).toArray());
+        return ids;
+    }
+}
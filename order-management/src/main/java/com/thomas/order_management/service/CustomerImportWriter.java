@@ -0,0 +1,17 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+
+import java.util.List;
+
+/**
+ * Schreibt einen Chunk des Kunden-Imports per SQL an Hibernate vorbei, in der Transaktion des Aufrufers
+ *
+ * inserts tragen bereits neue IDs aus customers_seq, updates die ID des bestehenden Kunden mit derselben E-Mail.
+ * Vorname und Nachname werden überschrieben, leere optionale Felder lassen den bestehenden Wert stehen.
+ * Welche Implementierung aktiv ist, legt app.customers.import.engine fest.
+ */
+public interface CustomerImportWriter {
+
+    void write(List<Customer> inserts, List<Customer> updates);
+}
@@ -0,0 +1,286 @@
+package com.thomas.order_management.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Invertierter N-Gramm-Index über Kundennamen im Speicher (Teilstring-Suche ohne pg_trgm)
+ *
+ * Jeder Name "vorname nachname" (klein geschrieben) wird in Trigramme zerlegt; pro Trigramm hält der Index eine
+ * sortierte ID-Liste. Eine Suche ab drei Zeichen schneidet die Listen aller Trigramme des Suchbegriffs, beginnend
+ * mit der kürzesten, und prüft die Kandidaten per contains nach (Trigramme in falscher Reihenfolge).
+ * Kürzere Suchbegriffe sind Präfixsuchen auf Vor- oder Nachname: dafür werden zusätzlich die ersten ein bzw. zwei
+ * Zeichen beider Namen mit Randmarkierung indiziert - wie die Auffüllung bei pg_trgm.
+ *
+ * Sortiert wird wie bei {@link TrigramCustomerSearch} nach {@link #rank}, dann kürzerer Name, dann ID.
+ */
+public final class CustomerNameIndex {
+
+    /**
+     * Kürzere Suchbegriffe werden als Präfix von Vor- oder Nachname gesucht
+     */
+    public static final int MIN_INFIX_LENGTH = 3;
+
+    private static final char MARKER = '\u0001';
+
+    private final Map<Long, Names> names = new HashMap<>();
+    private final Map<Long, IdList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Fügt den Kunden ein oder ersetzt seinen bisherigen Namen
+     */
+    public void put(long id, String firstName, String lastName) {
+        Names entry = Names.of(firstName, lastName);
+        lock.writeLock().lock();
+        try {
+            Names previous = names.put(id, entry);
+            if (previous != null) {
+                if (previous.equals(entry)) {
+                    return;
+                }
+                for (long key : previous.keys()) {
+                    removePosting(key, id);
+                }
+            }
+            for (long key : entry.keys()) {
+                postings.computeIfAbsent(key, k -> new IdList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Names previous = names.remove(id);
+            if (previous != null) {
+                for (long key : previous.keys()) {
+                    removePosting(key, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IDs der Treffer, nach Relevanz sortiert
+     *
+     * @param query Suchbegriff, wird klein geschrieben; Leerzeichen trennt Vor- und Nachname
+     */
+    public List<Long> search(String query, int offset, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (q.length() < MIN_INFIX_LENGTH) {
+                IdList candidates = postings.get(prefixKey(q));
+                if (candidates != null) {
+                    for (int i = 0; i < candidates.size; i++) {
+                        collect(candidates.ids[i], q, matches);
+                    }
+                }
+            } else {
+                IdList[] lists = infixLists(q);
+                if (lists != null) {
+                    IdList smallest = lists[0];
+                    for (int i = 0; i < smallest.size; i++) {
+                        long id = smallest.ids[i];
+                        if (containedInAll(lists, id)) {
+                            collect(id, q, matches);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(Match::length)
+                .thenComparingLong(Match::id));
+        int from = Math.min(offset, matches.size());
+        int to = (int) Math.min((long) from + limit, matches.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (Match match : matches.subList(from, to)) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Relevanzstufe eines Treffers: 0 = Vor-, Nach- oder ganzer Name stimmt überein,
+     * 1 = Vor- oder Nachname beginnt mit dem Suchbegriff, 2 = Teilstring
+     */
+    static int rank(String firstName, String lastName, String fullName, String query) {
+        if (firstName.equals(query) || lastName.equals(query) || fullName.equals(query)) {
+            return 0;
+        }
+        if (firstName.startsWith(query) || lastName.startsWith(query)) {
+            return 1;
+        }
+        return 2;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private void collect(long id, String q, List<Match> matches) {
+        Names entry = names.get(id);
+        if (entry == null) {
+            return;
+        }
+        boolean hit = q.length() < MIN_INFIX_LENGTH
+                ? entry.first().startsWith(q) || entry.last().startsWith(q)
+                : entry.full().contains(q);
+        if (hit) {
+            matches.add(new Match(id, rank(entry.first(), entry.last(), entry.full(), q), entry.full().length()));
+        }
+    }
+
+    /**
+     * ID-Listen aller Trigramme des Suchbegriffs, kürzeste zuerst; null, wenn ein Trigramm nirgends vorkommt
+     */
+    private IdList[] infixLists(String q) {
+        long[] keys = trigramKeys(q);
+        IdList[] lists = new IdList[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private static boolean containedInAll(IdList[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removePosting(long key, long id) {
+        IdList list = postings.get(key);
+        if (list != null && list.remove(id) && list.size == 0) {
+            postings.remove(key);
+        }
+    }
+
+    private static long[] trigramKeys(String value) {
+        long[] keys = new long[Math.max(0, value.length() - 2)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(value.charAt(i), value.charAt(i + 1), value.charAt(i + 2));
+        }
+        return Arrays.stream(keys).distinct().toArray();
+    }
+
+    private static long prefixKey(String prefix) {
+        return prefix.length() == 1
+                ? key(MARKER, MARKER, prefix.charAt(0))
+                : key(MARKER, prefix.charAt(0), prefix.charAt(1));
+    }
+
+    private static long key(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private record Names(String first, String last, String full) {
+
+        static Names of(String firstName, String lastName) {
+            String first = normalize(firstName);
+            String last = normalize(lastName);
+            return new Names(first, last, first + " " + last);
+        }
+
+        long[] keys() {
+            long[] trigrams = trigramKeys(full);
+            long[] keys = Arrays.copyOf(trigrams, trigrams.length + 4);
+            int size = trigrams.length;
+            for (String name : new String[]{first, last}) {
+                if (!name.isEmpty()) {
+                    keys[size++] = prefixKey(name.substring(0, 1));
+                }
+                if (name.length() >= 2) {
+                    keys[size++] = prefixKey(name.substring(0, 2));
+                }
+            }
+            return Arrays.stream(keys, 0, size).distinct().toArray();
+        }
+    }
+
+    private record Match(long id, int rank, int length) {
+    }
+
+    /**
+     * Sortierte, wachsende Liste von IDs (primitive longs statt Set<Long>)
+     */
+    private static final class IdList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insert = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CursorPage;
+import com.thomas.order_management.dto.CustomerOverview;
+import com.thomas.order_management.dto.CustomerStatistics;
+import com.thomas.order_management.dto.OrderCursor;
+import com.thomas.order_management.dto.OrderSummary;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Kundenübersicht (GET /api/customers/{id}/overview) aus vier parallel gelesenen Abschnitten
+ *
+ * Profil, letzte Bestellungen, Anzahl pro Status und Kennzahlen laufen je in einem eigenen virtuellen Thread und
+ * einer eigenen Read-only-Transaktion; die Antwortzeit entspricht damit etwa dem langsamsten Abschnitt statt der
+ * Summe. Die Threads gehören zu einem Scope pro Request (ExecutorService im try-with-resources): kein Abschnitt
+ * überlebt den Request, beim Verlassen wird auf alle gewartet.
+ *
+ * Jeder Abschnitt hat ein eigenes Timeout ab Start. Läuft es ab, wird der Thread unterbrochen, die
+ * Transaktions-Timeout (auf ganze Sekunden aufgerundet) bricht auch eine laufende Abfrage ab. Ein fehlgeschlagener
+ * oder zu langsamer Abschnitt bleibt leer und wird in unavailable gemeldet - nur ohne Profil gibt es keine Antwort.
+ * StructuredTaskScope ist in Java 21 noch Preview; der Scope bildet dessen Semantik mit stabilen APIs nach.
+ */
+@Service
+public class CustomerOverviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerOverviewService.class);
+
+    public static final String RECENT_ORDERS = "recentOrders";
+    public static final String ORDERS_BY_STATUS = "ordersByStatus";
+    public static final String STATISTICS = "statistics";
+
+    private record Branch(Duration timeout, TransactionTemplate transactionTemplate) {}
+
+    private final NearCache nearCache;
+    private final OrderRepository orderRepository;
+    private final CustomerStatsService customerStatsService;
+    private final Branch profileBranch;
+    private final Branch ordersBranch;
+    private final Branch statusBranch;
+    private final Branch statisticsBranch;
+
+    public CustomerOverviewService(NearCache nearCache,
+                                   OrderRepository orderRepository,
+                                   CustomerStatsService customerStatsService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.customers.overview.timeout.profile:1s}") Duration profileTimeout,
+                                   @Value("${app.customers.overview.timeout.orders:2s}") Duration ordersTimeout,
+                                   @Value("${app.customers.overview.timeout.status-counts:2s}") Duration statusTimeout,
+                                   @Value("${app.customers.overview.timeout.statistics:2s}") Duration statisticsTimeout) {
+        this.nearCache = nearCache;
+        this.orderRepository = orderRepository;
+        this.customerStatsService = customerStatsService;
+        this.profileBranch = branch(transactionManager, profileTimeout);
+        this.ordersBranch = branch(transactionManager, ordersTimeout);
+        this.statusBranch = branch(transactionManager, statusTimeout);
+        this.statisticsBranch = branch(transactionManager, statisticsTimeout);
+    }
+
+    /**
+     * @param cursor Position der letzten Bestellung der vorigen Seite oder null für die erste Seite
+     * @return leer, wenn es den Kunden nicht gibt
+     * @throws CustomerOverviewUnavailableException wenn das Profil fehlschlägt oder nicht rechtzeitig kommt
+     */
+    public Optional<CustomerOverview> overview(Long customerId, OrderCursor cursor, int pageSize) {
+        long started = System.nanoTime();
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("customer-overview-", 0).factory())) {
+            Future<Optional<Customer>> profile = fork(scope, profileBranch, () -> nearCache.customer(customerId));
+            Future<CursorPage<OrderSummary>> orders = fork(scope, ordersBranch, () -> recentOrders(customerId, cursor, pageSize));
+            Future<Map<OrderStatus, Long>> byStatus = fork(scope, statusBranch,
+                    () -> CustomerOverview.ordersByStatus(orderRepository.countByStatusForCustomer(customerId)));
+            Future<Optional<CustomerStatistics>> statistics = fork(scope, statisticsBranch,
+                    () -> customerStatsService.statistics(customerId));
+
+            Optional<Customer> customer;
+            try {
+                customer = profile.get(remaining(started, profileBranch), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                scope.shutdownNow();
+                throw new CustomerOverviewUnavailableException(customerId, e);
+            } catch (ExecutionException | TimeoutException e) {
+                scope.shutdownNow();
+                throw new CustomerOverviewUnavailableException(customerId, e instanceof ExecutionException ? e.getCause() : e);
+            }
+            if (customer.isEmpty()) {
+                scope.shutdownNow();
+                return Optional.empty();
+            }
+
+            CustomerOverview overview = new CustomerOverview(customer.get());
+            overview.setRecentOrders(join(RECENT_ORDERS, orders, started, ordersBranch, overview.getUnavailable()));
+            overview.setOrdersByStatus(join(ORDERS_BY_STATUS, byStatus, started, statusBranch, overview.getUnavailable()));
+            Optional<CustomerStatistics> stats = join(STATISTICS, statistics, started, statisticsBranch, overview.getUnavailable());
+            overview.setStatistics(stats != null ? stats.orElse(null) : null);
+            return Optional.of(overview);
+        }
+    }
+
+    private CursorPage<OrderSummary> recentOrders(Long customerId, OrderCursor cursor, int pageSize) {
+        // Eine Zeile mehr als angefordert, um das Seitenende ohne COUNT zu erkennen
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummary> rows = cursor == null
+                ? orderRepository.findFirstPageByCustomer(customerId, limit)
+                : orderRepository.findPageByCustomerAfter(customerId, cursor.getOrderDate(), cursor.getId(), limit);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, pageSize);
+        }
+        List<OrderSummary> items = rows.subList(0, pageSize);
+        OrderSummary last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new OrderCursor(last.getOrderDate(), last.getId()).encode(), pageSize);
+    }
+
+    private static <T> Future<T> fork(ExecutorService scope, Branch branch, Supplier<T> work) {
+        return scope.submit(() -> branch.transactionTemplate().execute(status -> work.get()));
+    }
+
+    /**
+     * Ergebnis eines optionalen Abschnitts oder null, wenn er fehlschlägt bzw. sein Timeout abläuft
+     */
+    private static <T> T join(String section, Future<T> future, long started, Branch branch, List<String> unavailable) {
+        try {
+            return future.get(remaining(started, branch), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Customer overview section {} timed out after {}", section, branch.timeout());
+        } catch (ExecutionException e) {
+            logger.warn("Customer overview section {} failed: {}", section, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        unavailable.add(section);
+        return null;
+    }
+
+    private static long remaining(long started, Branch branch) {
+        return Math.max(0, started + branch.timeout().toNanos() - System.nanoTime());
+    }
+
+    private static Branch branch(PlatformTransactionManager transactionManager, Duration timeout) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        return new Branch(timeout, template);
+    }
+}
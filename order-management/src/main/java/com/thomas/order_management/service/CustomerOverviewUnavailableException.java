@@ -0,0 +1,15 @@
+package com.thomas.order_management.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Das Kundenprofil war nicht rechtzeitig lesbar - ohne Profil gibt es keine Übersicht (503 Service Unavailable)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CustomerOverviewUnavailableException extends RuntimeException {
+
+    public CustomerOverviewUnavailableException(Long customerId, Throwable cause) {
+        super("Kundenprofil " + customerId + " nicht verfügbar", cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+
+import java.util.List;
+
+/**
+ * Teilstring-Suche über Vor- und Nachname (GET /api/customers/search)
+ *
+ * Ab {@link CustomerNameIndex#MIN_INFIX_LENGTH} Zeichen wird der Suchbegriff irgendwo in "vorname nachname"
+ * gesucht, kürzere Begriffe als Präfix von Vor- oder Nachname. Sortiert nach Relevanz (exakter Name, Namensanfang,
+ * Teilstring), dann kürzerer Name, dann ID. Welche Implementierung aktiv ist, legt app.customers.search.engine fest.
+ */
+public interface CustomerSearch {
+
+    List<Customer> search(String query, int offset, int limit);
+}
@@ -0,0 +1,383 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Money;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schreibt customer_stats fort, sobald Hibernate eine Bestellung einfügt, ändert oder löscht
+ *
+ * Aufgebaut wie {@link RevenueRollupListener}: Änderungen werden pro Transaktion je Kunde zusammengefasst und
+ * unmittelbar vor dem Commit auf derselben Verbindung geschrieben, ein UPDATE pro betroffenem Kunden. Stornierte
+ * Bestellungen zählen nicht; ein Wechsel nach CANCELLED zieht die Bestellung ab. Anzahl und Umsatz sind Summen,
+ * das letzte Bestelldatum ein Maximum - fällt eine Bestellung weg, wird der Zeitraum des Kunden aus orders neu
+ * bestimmt (über den Index (customer_id, order_date)). Beim Löschen eines Kunden entfällt seine Zeile.
+ * SQL an Hibernate vorbei muss {@link #recordBulkChange} aufrufen.
+ */
+@Component
+public class CustomerStatsListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStatsListener.class);
+
+    private static final String UPDATE_SQL = """
+        UPDATE customer_stats SET order_count = order_count + ?, total_amount = total_amount + ?,
+            first_order_date = CASE WHEN first_order_date IS NULL OR first_order_date > ? THEN ? ELSE first_order_date END,
+            last_order_date = CASE WHEN last_order_date IS NULL OR last_order_date < ? THEN ? ELSE last_order_date END
+        WHERE customer_id = ?
+        """;
+    private static final String INSERT_SQL = """
+        INSERT INTO customer_stats (customer_id, order_count, total_amount, first_order_date, last_order_date)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+    // Archivierte Bestellungen fehlen in orders - ohne Treffer bleibt der bisherige Wert stehen
+    private static final String RECOMPUTE_DATES_SQL = """
+        UPDATE customer_stats SET
+            first_order_date = CASE WHEN order_count = 0 THEN NULL ELSE COALESCE((SELECT MIN(o.order_date) FROM orders o
+                WHERE o.customer_id = ? AND o.status <> 'CANCELLED'), first_order_date) END,
+            last_order_date = CASE WHEN order_count = 0 THEN NULL ELSE COALESCE((SELECT MAX(o.order_date) FROM orders o
+                WHERE o.customer_id = ? AND o.status <> 'CANCELLED'), last_order_date) END
+        WHERE customer_id = ?
+        """;
+    private static final String DELETE_SQL = "DELETE FROM customer_stats WHERE customer_id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private TimeZone jdbcTimeZone;
+
+    // Offene Änderungen je Session; Sessions sind single-threaded, die Map nur über Sessions hinweg nebenläufig
+    private final Map<SharedSessionContractImplementor, PendingStats> pending = new ConcurrentHashMap<>();
+
+    public CustomerStatsListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        jdbcTimeZone = sessionFactory.getSessionFactoryOptions().getJdbcTimeZone();
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order order && order.getCustomer() != null) {
+            pendingFor(event.getSession()).add(order.getCustomer().getId(), order.getOrderDate(), order.getStatus(),
+                    1, order.getTotalAmount());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Update ohne geladenen Vorzustand - ein Neuaufbau gleicht den Kunden wieder ab
+            logger.warn("Order {} updated without previous state, customer stats not adjusted", event.getId());
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        int customerIndex = propertyIndex(persister, "customer");
+        int dateIndex = propertyIndex(persister, "orderDate");
+        int statusIndex = propertyIndex(persister, "status");
+        int amountIndex = propertyIndex(persister, "totalAmount");
+
+        Long oldCustomer = customerId(oldState[customerIndex]);
+        LocalDateTime oldDate = (LocalDateTime) oldState[dateIndex];
+        OrderStatus oldStatus = (OrderStatus) oldState[statusIndex];
+        BigDecimal oldAmount = (BigDecimal) oldState[amountIndex];
+        Long newCustomer = customerId(state[customerIndex]);
+        LocalDateTime newDate = (LocalDateTime) state[dateIndex];
+        OrderStatus newStatus = (OrderStatus) state[statusIndex];
+        BigDecimal newAmount = (BigDecimal) state[amountIndex];
+
+        boolean counted = oldStatus != OrderStatus.CANCELLED;
+        boolean nowCounted = newStatus != OrderStatus.CANCELLED;
+        if (counted == nowCounted && oldCustomer.equals(newCustomer) && oldDate.equals(newDate)
+                && oldAmount.compareTo(newAmount) == 0) {
+            return;
+        }
+        PendingStats stats = pendingFor(event.getSession());
+        if (counted && nowCounted && oldCustomer.equals(newCustomer) && oldDate.equals(newDate)) {
+            // Nur der Betrag wurde neu berechnet - Anzahl und Zeitraum bleiben
+            stats.adjustAmount(newCustomer, newAmount.subtract(oldAmount));
+            return;
+        }
+        stats.add(oldCustomer, oldDate, oldStatus, -1, oldAmount);
+        stats.add(newCustomer, newDate, newStatus, 1, newAmount);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Customer customer) {
+            pendingFor(event.getSession()).deleteCustomer(customer.getId());
+            return;
+        }
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+        pendingFor(event.getSession()).add(
+                customerId(state[propertyIndex(persister, "customer")]),
+                (LocalDateTime) state[propertyIndex(persister, "orderDate")],
+                (OrderStatus) state[propertyIndex(persister, "status")],
+                -1,
+                (BigDecimal) state[propertyIndex(persister, "totalAmount")]);
+    }
+
+    /**
+     * Nimmt eine Änderung auf, die per SQL an Hibernate vorbei geschrieben wurde (Massenupdate, Löschlauf)
+     * sign ist +1 für eine hinzukommende und -1 für eine wegfallende Bestellung mit diesem Status.
+     */
+    public void recordBulkChange(EntityManager entityManager, long customerId, LocalDateTime orderDate,
+                                 OrderStatus status, int sign, BigDecimal amount) {
+        pendingFor(entityManager.unwrap(EventSource.class)).add(customerId, orderDate, status, sign, amount);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingStats pendingFor(EventSource session) {
+        PendingStats stats = pending.get(session);
+        if (stats == null) {
+            stats = new PendingStats(session);
+            pending.put(session, stats);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) stats);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) stats);
+        }
+        return stats;
+    }
+
+    // Im Zustand steht der Kunde als Entity bzw. Proxy; getId initialisiert den Proxy nicht
+    private static Long customerId(Object customer) {
+        return ((Customer) customer).getId();
+    }
+
+    /**
+     * Bindet wie Hibernate selbst: mit hibernate.jdbc.time_zone wird der Zeitpunkt in dieser Zone geschrieben,
+     * sonst in der Zone der JVM - so passen die Werte zu order_date und zum Lesen über CustomerStats
+     */
+    private void setTimestamp(PreparedStatement statement, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else if (jdbcTimeZone != null) {
+            statement.setTimestamp(index, Timestamp.valueOf(value), Calendar.getInstance(jdbcTimeZone));
+        } else {
+            statement.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Property " + property + " fehlt in " + persister.getEntityName());
+    }
+
+    /**
+     * Aufgelaufene Änderungen einer Transaktion
+     * Wird vor dem Commit (nach dem letzten Flush) geschrieben und nach Commit oder Rollback verworfen.
+     */
+    private final class PendingStats implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final SharedSessionContractImplementor session;
+        // Sortiert nach Kunde: alle Transaktionen sperren customer_stats-Zeilen in derselben Reihenfolge
+        private final NavigableMap<Long, Delta> deltas = new TreeMap<>();
+        private final Set<Long> deletedCustomers = new HashSet<>();
+
+        private PendingStats(SharedSessionContractImplementor session) {
+            this.session = session;
+        }
+
+        void add(long customerId, LocalDateTime orderDate, OrderStatus status, int sign, BigDecimal amount) {
+            if (status == OrderStatus.CANCELLED) {
+                return;
+            }
+            deltas.computeIfAbsent(customerId, id -> new Delta())
+                  .add(orderDate, sign, amount != null ? amount : BigDecimal.ZERO);
+        }
+
+        void adjustAmount(long customerId, BigDecimal difference) {
+            deltas.computeIfAbsent(customerId, id -> new Delta()).adjustAmount(difference);
+        }
+
+        void deleteCustomer(long customerId) {
+            deletedCustomers.add(customerId);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            session.doWork(connection -> {
+                for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+                    if (!deletedCustomers.contains(entry.getKey())) {
+                        apply(connection, entry.getKey(), entry.getValue());
+                    }
+                }
+                for (Long customerId : deletedCustomers) {
+                    try (PreparedStatement delete = connection.prepareStatement(DELETE_SQL)) {
+                        delete.setLong(1, customerId);
+                        delete.executeUpdate();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(this.session);
+        }
+
+        /**
+         * UPDATE auf die vorhandene Zeile; fehlt sie, wird sie eingefügt. Verliert das INSERT das Rennen gegen
+         * eine parallele Transaktion, wird nur bis zum Savepoint zurückgerollt und erneut aktualisiert.
+         */
+        private void apply(Connection connection, long customerId, Delta delta) throws SQLException {
+            if (delta.isZero()) {
+                return;
+            }
+            if (update(connection, customerId, delta) == 1) {
+                if (delta.removed) {
+                    recomputeDates(connection, customerId);
+                }
+                return;
+            }
+            if (delta.count <= 0) {
+                // Ohne Zeile gibt es nichts abzuziehen - der Neuaufbau legt den Kunden vollständig an
+                logger.warn("Customer stats for customer {} missing, removal not recorded", customerId);
+                return;
+            }
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                insert.setLong(1, customerId);
+                insert.setLong(2, delta.count);
+                insert.setBigDecimal(3, delta.amount());
+                setTimestamp(insert, 4, delta.firstOrderDate);
+                setTimestamp(insert, 5, delta.lastOrderDate);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (update(connection, customerId, delta) != 1) {
+                    throw new HibernateException("Customer stats " + customerId + " konnten nicht geschrieben werden", e);
+                }
+            }
+            if (delta.removed) {
+                recomputeDates(connection, customerId);
+            }
+        }
+
+        private int update(Connection connection, long customerId, Delta delta) throws SQLException {
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                update.setLong(1, delta.count);
+                update.setBigDecimal(2, delta.amount());
+                // Ohne hinzukommende Bestellung sind die Datumswerte null, die CASE-Ausdrücke lassen die Spalten dann stehen
+                setTimestamp(update, 3, delta.firstOrderDate);
+                setTimestamp(update, 4, delta.firstOrderDate);
+                setTimestamp(update, 5, delta.lastOrderDate);
+                setTimestamp(update, 6, delta.lastOrderDate);
+                update.setLong(7, customerId);
+                return update.executeUpdate();
+            }
+        }
+
+        private void recomputeDates(Connection connection, long customerId) throws SQLException {
+            try (PreparedStatement recompute = connection.prepareStatement(RECOMPUTE_DATES_SQL)) {
+                recompute.setLong(1, customerId);
+                recompute.setLong(2, customerId);
+                recompute.setLong(3, customerId);
+                recompute.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Änderung je Kunde: Anzahl und Umsatz in Cent, Zeitraum der hinzukommenden Bestellungen
+     */
+    private static final class Delta {
+
+        private long count;
+        private long amountCents;
+        private LocalDateTime firstOrderDate;
+        private LocalDateTime lastOrderDate;
+        // Eine Bestellung ist weggefallen - der Zeitraum lässt sich nicht inkrementell verkleinern
+        private boolean removed;
+
+        void add(LocalDateTime orderDate, int sign, BigDecimal amount) {
+            count += sign;
+            long cents = Money.roundToMinorUnits(amount);
+            amountCents = Money.add(amountCents, sign < 0 ? Money.negate(cents) : cents);
+            if (sign < 0) {
+                removed = true;
+            } else {
+                if (firstOrderDate == null || orderDate.isBefore(firstOrderDate)) {
+                    firstOrderDate = orderDate;
+                }
+                if (lastOrderDate == null || orderDate.isAfter(lastOrderDate)) {
+                    lastOrderDate = orderDate;
+                }
+            }
+        }
+
+        void adjustAmount(BigDecimal difference) {
+            amountCents = Money.add(amountCents, Money.roundToMinorUnits(difference));
+        }
+
+        BigDecimal amount() {
+            return Money.toBigDecimal(amountCents);
+        }
+
+        boolean isZero() {
+            return count == 0 && amountCents == 0 && !removed && firstOrderDate == null;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CustomerOrderTotals;
+import com.thomas.order_management.dto.CustomerStatistics;
+import com.thomas.order_management.dto.CustomerStatsRebuildResult;
+import com.thomas.order_management.dto.CustomerStatsSort;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.CustomerStats;
+import com.thomas.order_management.repository.CustomerStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Kundenkennzahlen (RFM, Lifetime Value) aus customer_stats statt aus allen Bestellungen eines Kunden
+ *
+ * customer_stats wird von {@link CustomerStatsListener} fortgeschrieben. Der Neuaufbau teilt die Kunden-IDs in
+ * Bereiche von chunk-size IDs und rechnet bis zu parallelism Bereiche gleichzeitig neu, jeden in einer eigenen
+ * Transaktion: Zeilen des Bereichs löschen, per INSERT ... SELECT aus orders neu anlegen (Index
+ * (customer_id, order_date)) und die archivierten Bestellungen hinzurechnen - aus den Archiv-Segmenten und, mit
+ * Partitionierung, aus den ins Schema archive abgehängten Monaten. Parallele Bestellungen warten auf die
+ * Zeilensperren des Bereichs bzw. der Bereich auf sie - ein Inkrement geht dabei nicht verloren.
+ */
+@Service
+public class CustomerStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStatsService.class);
+
+    private static final String TOP_SQL = """
+        SELECT s.customer_id, c.first_name, c.last_name, s.order_count, s.total_amount,
+               s.first_order_date, s.last_order_date
+        FROM customer_stats s JOIN customers c ON c.id = s.customer_id
+        WHERE s.order_count > 0
+        ORDER BY s.%1$s %2$s, s.customer_id %2$s
+        LIMIT ? OFFSET ?
+        """;
+
+    private static final String DELETE_RANGE_SQL = "DELETE FROM customer_stats WHERE customer_id BETWEEN ? AND ?";
+    private static final String INSERT_RANGE_SQL = """
+        INSERT INTO customer_stats (customer_id, order_count, total_amount, first_order_date, last_order_date)
+        SELECT o.customer_id, COUNT(*), SUM(o.total_amount), MIN(o.order_date), MAX(o.order_date)
+        FROM orders o
+        WHERE o.customer_id BETWEEN ? AND ? AND o.status <> 'CANCELLED'
+        GROUP BY o.customer_id
+        """;
+    private static final String ADD_ARCHIVED_SQL = """
+        UPDATE customer_stats SET order_count = order_count + ?, total_amount = total_amount + ?,
+            first_order_date = CASE WHEN first_order_date IS NULL OR first_order_date > ? THEN ? ELSE first_order_date END,
+            last_order_date = CASE WHEN last_order_date IS NULL OR last_order_date < ? THEN ? ELSE last_order_date END
+        WHERE customer_id = ?
+        """;
+    private static final String INSERT_ARCHIVED_SQL = """
+        INSERT INTO customer_stats (customer_id, order_count, total_amount, first_order_date, last_order_date)
+        SELECT c.id, ?, ?, ?, ? FROM customers c WHERE c.id = ?
+        """;
+
+    private final CustomerStatsRepository statsRepository;
+    private final NearCache nearCache;
+    private final OrderArchiveService orderArchiveService;
+    private final ObjectProvider<OrderPartitionService> orderPartitionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean scheduledRebuild;
+
+    public CustomerStatsService(CustomerStatsRepository statsRepository,
+                                NearCache nearCache,
+                                OrderArchiveService orderArchiveService,
+                                ObjectProvider<OrderPartitionService> orderPartitionService,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.customers.stats.rebuild.chunk-size:10000}") int chunkSize,
+                                @Value("${app.customers.stats.rebuild.parallelism:4}") int parallelism,
+                                @Value("${app.customers.stats.rebuild.enabled:false}") boolean scheduledRebuild) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("app.customers.stats.rebuild.chunk-size und parallelism müssen mindestens 1 sein");
+        }
+        this.statsRepository = statsRepository;
+        this.nearCache = nearCache;
+        this.orderArchiveService = orderArchiveService;
+        this.orderPartitionService = orderPartitionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.scheduledRebuild = scheduledRebuild;
+    }
+
+    /**
+     * Kennzahlen eines Kunden; ohne Bestellung mit Anzahl und Umsatz 0
+     *
+     * @return leer, wenn es den Kunden nicht gibt
+     */
+    public Optional<CustomerStatistics> statistics(Long customerId) {
+        Optional<Customer> customer = nearCache.customer(customerId);
+        if (customer.isEmpty()) {
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now();
+        Customer c = customer.get();
+        return Optional.of(statsRepository.findById(customerId)
+                .map(stats -> toStatistics(c, stats, today))
+                .orElseGet(() -> new CustomerStatistics(c.getId(), c.getFirstName(), c.getLastName(), 0, null,
+                        null, null, today)));
+    }
+
+    /**
+     * Kunden mit mindestens einer (nicht stornierten) Bestellung, sortiert über einen Index auf customer_stats
+     */
+    public List<CustomerStatistics> top(CustomerStatsSort sort, int offset, int limit) {
+        LocalDate today = LocalDate.now();
+        String sql = String.format(TOP_SQL, sort.getColumn(), sort.isDescending() ? "DESC" : "ASC");
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new CustomerStatistics(
+                rs.getLong("customer_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getLong("order_count"),
+                rs.getBigDecimal("total_amount"),
+                rs.getObject("first_order_date", LocalDateTime.class),
+                rs.getObject("last_order_date", LocalDateTime.class),
+                today), limit, offset);
+    }
+
+    @Scheduled(initialDelayString = "${app.customers.stats.rebuild.initial-delay-ms:300000}",
+               fixedDelayString = "${app.customers.stats.rebuild.interval-ms:604800000}")
+    public void scheduledRebuild() {
+        if (scheduledRebuild) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Baut customer_stats für alle Kunden neu auf, in parallelen Chunks über Bereiche von Kunden-IDs
+     * Jeder Chunk ist eine eigene Transaktion; schlägt einer fehl, bleiben die übrigen neu aufgebaut.
+     *
+     * @throws IllegalStateException wenn ein Chunk fehlschlägt
+     */
+    public synchronized CustomerStatsRebuildResult rebuild() {
+        long started = System.nanoTime();
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM customers");
+        if (bounds.get("min_id") == null) {
+            return new CustomerStatsRebuildResult(0, 0, 0);
+        }
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+
+        NavigableMap<Long, CustomerOrderTotals> archived = new TreeMap<>(orderArchiveService.customerTotals());
+        orderPartitionService.ifAvailable(partitions -> partitions.detachedCustomerTotals()
+                .forEach((customerId, totals) -> archived.merge(customerId, totals, CustomerOrderTotals::merge)));
+        List<Callable<Long>> chunks = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long to = Math.min(maxId, from + chunkSize - 1);
+            long chunkFrom = from;
+            chunks.add(() -> rebuildRange(chunkFrom, to, archived.subMap(chunkFrom, true, to, true)));
+        }
+
+        long customers = 0;
+        List<Future<Long>> results;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("customer-stats-rebuild-", 0).factory())) {
+            results = executor.invokeAll(chunks);
+            for (Future<Long> result : results) {
+                customers += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Neuaufbau der Kundenkennzahlen unterbrochen", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Neuaufbau der Kundenkennzahlen fehlgeschlagen", e.getCause());
+        }
+
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Rebuilt customer stats for {} customers in {} chunks ({} ms)", customers, chunks.size(), durationMs);
+        return new CustomerStatsRebuildResult(customers, chunks.size(), durationMs);
+    }
+
+    /**
+     * Neuaufbau eines ID-Bereichs in einer Transaktion
+     *
+     * @return Anzahl Kunden mit Kennzahlen im Bereich
+     */
+    private long rebuildRange(long from, long to, Map<Long, CustomerOrderTotals> archived) {
+        Long customers = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_RANGE_SQL, from, to);
+            long rows = jdbcTemplate.update(INSERT_RANGE_SQL, from, to);
+            for (CustomerOrderTotals totals : archived.values()) {
+                int updated = jdbcTemplate.update(ADD_ARCHIVED_SQL, totals.getOrderCount(), totals.getAmount(),
+                        totals.getFirstOrderDate(), totals.getFirstOrderDate(),
+                        totals.getLastOrderDate(), totals.getLastOrderDate(),
+                        totals.getCustomerId());
+                if (updated == 0) {
+                    // Nur archivierte Bestellungen; gelöschte Kunden werden übersprungen
+                    rows += jdbcTemplate.update(INSERT_ARCHIVED_SQL, totals.getOrderCount(), totals.getAmount(),
+                            totals.getFirstOrderDate(), totals.getLastOrderDate(), totals.getCustomerId());
+                }
+            }
+            return rows;
+        });
+        return customers != null ? customers : 0L;
+    }
+
+    private static CustomerStatistics toStatistics(Customer customer, CustomerStats stats, LocalDate today) {
+        return new CustomerStatistics(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                stats.getOrderCount(), stats.getTotalAmount(), stats.getFirstOrderDate(), stats.getLastOrderDate(),
+                today);
+    }
+}
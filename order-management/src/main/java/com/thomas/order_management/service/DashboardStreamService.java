@@ -0,0 +1,364 @@
+package com.thomas.order_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.DashboardDelta;
+import com.thomas.order_management.dto.OrderCreatedEvent;
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.dto.OrderSummary;
+import com.thomas.order_management.dto.StockChangedEvent;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live-Änderungen für das Dashboard per Server-Sent Events
+ *
+ * Die Schreibpfade veröffentlichen nach dem Commit OrderCreated-, OrderStatusChanged- und StockChanged-Ereignisse.
+ * Diese werden nur im Speicher aufsummiert; einmal pro Intervall entsteht daraus ein DashboardDelta, das einmal
+ * serialisiert und an alle Clients verteilt wird. Die Datenbank wird dabei höchstens zweimal gelesen
+ * (Zusammenfassungen neuer Bestellungen, Bestand geänderter Produkte) - unabhängig von Ereignis- und Client-Zahl.
+ *
+ * Offene Verbindungen belegen keinen Thread (asynchrone Servlet-Requests). Gesendet wird auf virtuellen Threads,
+ * höchstens einer pro Client gleichzeitig; Clients, die zu weit zurückliegen, werden getrennt und laden beim
+ * Wiederverbinden den aktuellen Stand neu.
+ */
+@Service
+public class DashboardStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private static final int MAX_NEW_ORDERS = 10;
+    private static final int MAX_STATUS_TRANSITIONS = 50;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int maxClients;
+    private final int maxPendingEvents;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object lock = new Object();
+    private PendingChanges pending = new PendingChanges();
+
+    // Produkte unter der Bestandsschwelle; nur vom Flush-Thread benutzt, null = beim nächsten Flush neu laden
+    private Set<Long> lowStockIds;
+
+    public DashboardStreamService(OrderRepository orderRepository,
+                                  ProductRepository productRepository,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dashboard.stream.timeout:30m}") Duration timeout,
+                                  @Value("${app.dashboard.stream.max-clients:10000}") int maxClients,
+                                  @Value("${app.dashboard.stream.max-pending-events:30}") int maxPendingEvents) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.maxClients = maxClients;
+        this.maxPendingEvents = maxPendingEvents;
+        Gauge.builder("dashboard.stream.clients", clients, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Meldet einen neuen Client an
+     *
+     * @throws IllegalStateException wenn bereits max-clients Verbindungen offen sind
+     */
+    public SseEmitter subscribe() {
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Zu viele Dashboard-Streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Client client = new Client(emitter);
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> client.close());
+        clients.add(client);
+        // Sofortige erste Nachricht, damit Header gesendet werden und der Client die Verbindung als offen sieht
+        client.enqueue(SseEmitter.event().reconnectTime(3000).comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.orderCreated(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.statusChanged(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.stockChanged.add(event.getProductId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.interval-ms:1000}")
+    public void flush() {
+        PendingChanges changes;
+        synchronized (lock) {
+            changes = pending;
+            pending = new PendingChanges();
+        }
+        if (clients.isEmpty()) {
+            lowStockIds = null;
+            return;
+        }
+        if (lowStockIds == null) {
+            // Ausgangszustand für Schwellenüberschreitungen, einmal pro Phase mit verbundenen Clients
+            lowStockIds = new HashSet<>();
+            productRepository.findLowStockProducts().forEach(product -> lowStockIds.add(product.getId()));
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<OrderSummary> newOrders = changes.newOrderIds.isEmpty()
+                ? List.of()
+                : orderRepository.findSummariesByIdIn(changes.newOrderIds);
+
+        List<Product> lowStockEntered = new ArrayList<>();
+        List<Long> lowStockLeft = new ArrayList<>();
+        if (!changes.stockChanged.isEmpty()) {
+            detectLowStockCrossings(changes.stockChanged, lowStockEntered, lowStockLeft);
+        }
+
+        if (!changes.hasOrderChanges() && lowStockEntered.isEmpty() && lowStockLeft.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        changes.ordersByStatus.forEach((status, count) -> {
+            if (count != 0) {
+                ordersByStatus.put(status.name(), count);
+            }
+        });
+        DashboardDelta delta = new DashboardDelta(LocalDateTime.now(), changes.totalOrders, ordersByStatus,
+                changes.totalRevenue, changes.pendingRevenue, changes.todayRevenue, changes.monthRevenue,
+                newOrders, new ArrayList<>(changes.statusTransitions), lowStockEntered, lowStockLeft);
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            logger.error("Dashboard delta could not be serialized", e);
+            return;
+        }
+        // Einmal serialisiert und gebaut, an alle Clients dasselbe Event
+        Set<DataWithMediaType> event = SseEmitter.event().name("delta").data(json, MediaType.APPLICATION_JSON).build();
+        clients.forEach(client -> client.enqueue(event));
+    }
+
+    /**
+     * Kommentarzeile an alle Clients: hält Proxies offen und erkennt getrennte Verbindungen
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+        clients.forEach(client -> client.enqueue(event));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        clients.forEach(client -> client.emitter.complete());
+        senders.shutdown();
+    }
+
+    private void detectLowStockCrossings(Set<Long> changed, List<Product> entered, List<Long> left) {
+        List<Product> lowNow = productRepository.findLowStockProductsByIdIn(changed);
+        Set<Long> lowNowIds = new HashSet<>();
+        for (Product product : lowNow) {
+            lowNowIds.add(product.getId());
+            if (lowStockIds.add(product.getId())) {
+                entered.add(product);
+            }
+        }
+        for (Long productId : changed) {
+            if (!lowNowIds.contains(productId) && lowStockIds.remove(productId)) {
+                left.add(productId);
+            }
+        }
+    }
+
+    /**
+     * Seit dem letzten Flush aufgelaufene Änderungen
+     */
+    private static final class PendingChanges {
+
+        private long totalOrders;
+        private final Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        private BigDecimal totalRevenue = BigDecimal.ZERO;
+        private BigDecimal pendingRevenue = BigDecimal.ZERO;
+        private BigDecimal todayRevenue = BigDecimal.ZERO;
+        private BigDecimal monthRevenue = BigDecimal.ZERO;
+        private final Deque<Long> newOrderIds = new ArrayDeque<>();
+        private final Deque<OrderStatusChangedEvent> statusTransitions = new ArrayDeque<>();
+        private final Set<Long> stockChanged = new HashSet<>();
+
+        void orderCreated(OrderCreatedEvent event) {
+            BigDecimal amount = event.getTotalAmount() != null ? event.getTotalAmount() : BigDecimal.ZERO;
+            totalOrders++;
+            ordersByStatus.merge(event.getStatus(), 1L, Long::sum);
+            addToStatusRevenue(event.getStatus(), amount);
+
+            // Gleiche Zeiträume wie DashboardController.getDashboardStats()
+            LocalDate today = LocalDate.now();
+            LocalDate orderDay = event.getOrderDate().toLocalDate();
+            if (orderDay.equals(today)) {
+                todayRevenue = todayRevenue.add(amount);
+            }
+            if (!orderDay.isAfter(today) && orderDay.withDayOfMonth(1).equals(today.withDayOfMonth(1))) {
+                monthRevenue = monthRevenue.add(amount);
+            }
+
+            newOrderIds.addFirst(event.getOrderId());
+            if (newOrderIds.size() > MAX_NEW_ORDERS) {
+                newOrderIds.removeLast();
+            }
+        }
+
+        void statusChanged(OrderStatusChangedEvent event) {
+            BigDecimal amount = event.getTotalAmount() != null ? event.getTotalAmount() : BigDecimal.ZERO;
+            ordersByStatus.merge(event.getPreviousStatus(), -1L, Long::sum);
+            ordersByStatus.merge(event.getStatus(), 1L, Long::sum);
+            addToStatusRevenue(event.getPreviousStatus(), amount.negate());
+            addToStatusRevenue(event.getStatus(), amount);
+
+            statusTransitions.addFirst(event);
+            if (statusTransitions.size() > MAX_STATUS_TRANSITIONS) {
+                statusTransitions.removeLast();
+            }
+        }
+
+        // totalRevenue zählt gelieferte, pendingRevenue ausstehende Bestellungen
+        private void addToStatusRevenue(OrderStatus status, BigDecimal amount) {
+            if (status == OrderStatus.DELIVERED) {
+                totalRevenue = totalRevenue.add(amount);
+            } else if (status == OrderStatus.PENDING) {
+                pendingRevenue = pendingRevenue.add(amount);
+            }
+        }
+
+        boolean hasOrderChanges() {
+            return totalOrders > 0 || !statusTransitions.isEmpty();
+        }
+
+        boolean isEmpty() {
+            return !hasOrderChanges() && stockChanged.isEmpty();
+        }
+    }
+
+    /**
+     * Eine offene SSE-Verbindung mit eigener Sende-Queue
+     */
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxPendingEvents) {
+                // Client liest nicht schnell genug - trennen statt Deltas zu verwerfen
+                logger.debug("Dashboard stream client too slow, disconnecting");
+                emitter.complete();
+                close();
+                return;
+            }
+            queue.add(event);
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (!closed && !queue.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                sending.set(false);
+            }
+            // Während des Sendens eingetroffene Events nicht liegen lassen
+            scheduleSend();
+        }
+
+        void close() {
+            closed = true;
+            clients.remove(this);
+            queue.clear();
+        }
+    }
+}
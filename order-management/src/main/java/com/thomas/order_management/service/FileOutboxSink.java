@@ -0,0 +1,52 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Hängt Outbox-Ereignisse als NDJSON an eine lokale Datei an (app.outbox.sink.file.path)
+ * Eine Zeile pro Ereignis: {"id":..,"type":..,"aggregateId":..,"payload":{..}}
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+
+    public FileOutboxSink(@Value("${app.outbox.sink.file.path}") Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                // Der Payload ist bereits JSON und wird unverändert eingebettet
+                writer.write("{\"id\":" + event.getId()
+                        + ",\"type\":\"" + event.getEventType() + "\""
+                        + ",\"aggregateId\":" + event.getAggregateId()
+                        + ",\"payload\":" + event.getPayload() + "}");
+                writer.newLine();
+            }
+        }
+    }
+}
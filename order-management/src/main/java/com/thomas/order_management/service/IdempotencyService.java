@@ -0,0 +1,319 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.IdempotencyRecord;
+import com.thomas.order_management.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Keys für POST-Endpunkte
+ *
+ * Zwei Ebenen: ein begrenzter In-Memory-Cache abgeschlossener Antworten (Treffer ohne Datenbankzugriff)
+ * und die Tabelle idempotency_keys, über die sich alle Knoten einen Key teilen. Gleichzeitige Duplikate
+ * warten auf dem eigenen Knoten auf das Future der ersten Anfrage, auf anderen Knoten durch Polling der Tabelle.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    // Passt in die Spalte response_body; größere Antworten werden ohne Body gespeichert
+    private static final int MAX_STORED_BODY_LENGTH = 1_048_576;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration waitTimeout;
+    private final long pollIntervalMillis;
+    private final int maxCachedEntries;
+
+    // Abgeschlossene Antworten; alle Einträge haben dieselbe TTL, die Einfügereihenfolge ist daher auch die Ablaufreihenfolge
+    private final Map<String, StoredResponse> cache = new ConcurrentHashMap<>();
+    private final Queue<String> cacheOrder = new ConcurrentLinkedQueue<>();
+
+    // Laufende Anfragen dieses Knotens; Duplikate warten auf das Ergebnis statt die Datenbank zu pollen
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.lock-timeout:30s}") Duration lockTimeout,
+                              @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                              @Value("${app.idempotency.poll-interval-ms:50}") long pollIntervalMillis,
+                              @Value("${app.idempotency.cache.max-entries:10000}") int maxCachedEntries) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.waitTimeout = waitTimeout;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxCachedEntries = maxCachedEntries;
+    }
+
+    /**
+     * Prüft einen Key vor Ausführung der Anfrage
+     * Bei PROCEED hält der Aufrufer den Key und muss anschließend complete() oder release() aufrufen
+     */
+    public Claim begin(String key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            StoredResponse cached = getCached(key);
+            if (cached != null) {
+                return cached.getRequestHash().equals(requestHash) ? Claim.replay(cached) : Claim.MISMATCH;
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                if (!await(running, deadline)) {
+                    return Claim.BUSY;
+                }
+                continue;
+            }
+
+            Claim claim;
+            try {
+                claim = claimInDatabase(key, requestHash);
+            } catch (RuntimeException e) {
+                finishInFlight(key, mine, null);
+                throw e;
+            }
+            if (claim.getOutcome() == Outcome.PROCEED) {
+                return claim;
+            }
+
+            finishInFlight(key, mine, null);
+            if (claim.getOutcome() != Outcome.BUSY) {
+                if (claim.getOutcome() == Outcome.REPLAY) {
+                    putCached(key, claim.getResponse());
+                }
+                return claim;
+            }
+
+            // Ein anderer Knoten bearbeitet den Key gerade
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis) > deadline) {
+                return Claim.BUSY;
+            }
+            sleep(pollIntervalMillis);
+        }
+    }
+
+    /**
+     * Speichert die Antwort der ersten Anfrage und weckt wartende Duplikate
+     */
+    public void complete(String key, String requestHash, int status, String contentType, byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (text.length() > MAX_STORED_BODY_LENGTH) {
+            logger.warn("Response for idempotency key {} too large to store ({} chars), replay will have no body",
+                       key, text.length());
+            text = null;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        StoredResponse response = new StoredResponse(requestHash, status, contentType, text, expiresAt);
+
+        String storedBody = text;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> repository.complete(key, requestHash,
+                    IdempotencyRecord.State.COMPLETED, status, contentType, storedBody, expiresAt));
+            putCached(key, response);
+        } finally {
+            finishInFlight(key, response);
+        }
+    }
+
+    /**
+     * Gibt den Key nach einem Serverfehler frei, damit ein Retry die Anfrage erneut ausführen darf
+     */
+    public void release(String key, String requestHash) {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    repository.release(key, requestHash, IdempotencyRecord.State.IN_PROGRESS));
+        } finally {
+            finishInFlight(key, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer deleted = transactionTemplate.execute(tx -> repository.deleteExpired(now));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+        evictCached(now);
+    }
+
+    private Claim claimInDatabase(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(lockTimeout);
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    repository.insertClaim(key, requestHash, now, lockedUntil, expiresAt));
+            return Claim.PROCEED;
+        } catch (DataIntegrityViolationException e) {
+            // Key existiert bereits - abgeschlossen, in Arbeit oder verwaist
+        }
+
+        Integer takenOver = transactionTemplate.execute(tx -> repository.takeOver(key, requestHash,
+                IdempotencyRecord.State.IN_PROGRESS, now, lockedUntil, expiresAt));
+        if (takenOver != null && takenOver == 1) {
+            return Claim.PROCEED;
+        }
+
+        Optional<IdempotencyRecord> existing = repository.findById(key);
+        if (existing.isEmpty()) {
+            // Zwischenzeitlich freigegeben - beim nächsten Durchlauf neu reservieren
+            return Claim.BUSY;
+        }
+        IdempotencyRecord record = existing.get();
+        if (!record.getRequestHash().equals(requestHash)) {
+            return Claim.MISMATCH;
+        }
+        if (record.getState() == IdempotencyRecord.State.COMPLETED) {
+            return Claim.replay(new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                    record.getResponseContentType(), record.getResponseBody(), record.getExpiresAt()));
+        }
+        return Claim.BUSY;
+    }
+
+    private StoredResponse getCached(String key) {
+        StoredResponse cached = cache.get(key);
+        if (cached != null && cached.getExpiresAt().isBefore(LocalDateTime.now())) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    private void putCached(String key, StoredResponse response) {
+        if (cache.put(key, response) == null) {
+            cacheOrder.add(key);
+        }
+        evictCached(LocalDateTime.now());
+    }
+
+    // Entfernt vom ältesten Eintrag her, solange der Cache zu groß ist oder der Eintrag abgelaufen ist
+    private void evictCached(LocalDateTime now) {
+        String oldest;
+        while ((oldest = cacheOrder.peek()) != null) {
+            StoredResponse response = cache.get(oldest);
+            boolean expired = response == null || response.getExpiresAt().isBefore(now);
+            if (!expired && cache.size() <= maxCachedEntries) {
+                break;
+            }
+            if (cacheOrder.remove(oldest) && response != null) {
+                cache.remove(oldest, response);
+            }
+        }
+    }
+
+    private void finishInFlight(String key, StoredResponse response) {
+        CompletableFuture<StoredResponse> future = inFlight.remove(key);
+        if (future != null) {
+            future.complete(response);
+        }
+    }
+
+    private void finishInFlight(String key, CompletableFuture<StoredResponse> future, StoredResponse response) {
+        inFlight.remove(key, future);
+        future.complete(response);
+    }
+
+    private static boolean await(CompletableFuture<StoredResponse> future, long deadline) {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public enum Outcome { PROCEED, REPLAY, MISMATCH, BUSY }
+
+    /**
+     * Ergebnis der Key-Prüfung
+     */
+    public static final class Claim {
+
+        static final Claim PROCEED = new Claim(Outcome.PROCEED, null);
+        static final Claim MISMATCH = new Claim(Outcome.MISMATCH, null);
+        static final Claim BUSY = new Claim(Outcome.BUSY, null);
+
+        private final Outcome outcome;
+        private final StoredResponse response;
+
+        private Claim(Outcome outcome, StoredResponse response) {
+            this.outcome = outcome;
+            this.response = response;
+        }
+
+        static Claim replay(StoredResponse response) {
+            return new Claim(Outcome.REPLAY, response);
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        public StoredResponse getResponse() { return response; }
+    }
+
+    /**
+     * Abgeschlossene Antwort zu einem Key
+     */
+    public static final class StoredResponse {
+
+        private final String requestHash;
+        private final int status;
+        private final String contentType;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        StoredResponse(String requestHash, int status, String contentType, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getRequestHash() { return requestHash; }
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public String getBody() { return body; }
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+    }
+}
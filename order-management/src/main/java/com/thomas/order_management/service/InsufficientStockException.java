@@ -0,0 +1,24 @@
+package com.thomas.order_management.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Eine Bestellung kann nicht reserviert werden, weil ein Produkt nicht genug Bestand hat
+ * Führt zum Rollback der gesamten Bestellung und wird als 409 Conflict beantwortet
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(Long productId, int requestedQuantity) {
+        super("Nicht genug Bestand für Produkt " + productId + " (angefragt: " + requestedQuantity + ")");
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+    }
+
+    public Long getProductId() { return productId; }
+    public int getRequestedQuantity() { return requestedQuantity; }
+}
@@ -0,0 +1,15 @@
+package com.thomas.order_management.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Die Intake-Queue ist voll - der Client soll es später erneut versuchen (429 Too Many Requests)
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class IntakeOverloadedException extends RuntimeException {
+
+    public IntakeOverloadedException(int capacity) {
+        super("Bestell-Intake ausgelastet (Queue-Kapazität " + capacity + ")");
+    }
+}
@@ -0,0 +1,226 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.StockChangedEvent;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.model.ProductStockStripe;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.repository.ProductStockStripeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lagerbestand und Striped-Stock-Modus
+ *
+ * Normale Produkte werden direkt auf products.stock_quantity reserviert. Für Produkte mit sehr hoher
+ * Verkaufsrate kann der Bestand auf N Stripes (product_stock_stripes) verteilt werden: jede Reservierung
+ * sperrt dann nur einen zufällig gewählten Stripe, parallele Käufer blockieren sich entsprechend seltener.
+ * Der Gesamtbestand ist die Summe aus stock_quantity und allen Stripes.
+ */
+@Service
+@Transactional
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private final ProductRepository productRepository;
+    private final ProductStockStripeRepository stripeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxStripes;
+
+    public InventoryService(ProductRepository productRepository,
+                            ProductStockStripeRepository stripeRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${app.inventory.stripes.max:64}") int maxStripes) {
+        this.productRepository = productRepository;
+        this.stripeRepository = stripeRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxStripes = maxStripes;
+    }
+
+    /**
+     * Reserviert Bestand für ein Produkt innerhalb der laufenden Transaktion
+     * Liefert false bei Unterdeckung, ohne die Transaktion als rollback-only zu markieren
+     */
+    public boolean reserve(Long productId, int quantity) {
+        boolean reserved = tryReserve(productId, quantity);
+        if (reserved) {
+            eventPublisher.publishEvent(new StockChangedEvent(productId));
+        }
+        return reserved;
+    }
+
+    private boolean tryReserve(Long productId, int quantity) {
+        if (productRepository.reserveStock(productId, quantity) == 1) {
+            return true;
+        }
+
+        Integer stripes = productRepository.findStockStripes(productId);
+        if (stripes == null || stripes == 0) {
+            return false;
+        }
+
+        // Zufälliger Start verteilt parallele Käufer über die Stripes
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            if (stripeRepository.reserveFromStripe(productId, (start + i) % stripes, quantity) == 1) {
+                return true;
+            }
+        }
+
+        // Kein einzelner Stripe reicht aus: alle Stripes sperren und über mehrere hinweg abbuchen
+        return reserveAcrossStripes(productId, quantity);
+    }
+
+    /**
+     * Schaltet den Striped-Stock-Modus ein bzw. ändert die Anzahl der Stripes
+     * Der aktuelle Gesamtbestand wird gleichmäßig auf die neuen Stripes verteilt
+     */
+    public void enableStriping(Long productId, int stripes) {
+        if (stripes < 1 || stripes > maxStripes) {
+            throw new IllegalArgumentException("Anzahl Stripes muss zwischen 1 und " + maxStripes + " liegen");
+        }
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Produkt nicht gefunden: " + productId));
+
+        int total = lockedTotal(productId);
+        stripeRepository.deleteByProductId(productId);
+        List<ProductStockStripe> created = new ArrayList<>(stripes);
+        for (int i = 0; i < stripes; i++) {
+            created.add(new ProductStockStripe(productId, i, share(total, stripes, i)));
+        }
+        stripeRepository.saveAll(created);
+
+        product.setStockQuantity(0);
+        product.setStockStripes(stripes);
+        logger.info("Enabled striped stock for product {}: {} units on {} stripes", productId, total, stripes);
+        eventPublisher.publishEvent(new StockChangedEvent(productId));
+    }
+
+    /**
+     * Führt die Stripes wieder in products.stock_quantity zusammen
+     */
+    public void disableStriping(Long productId) {
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Produkt nicht gefunden: " + productId));
+
+        int total = lockedTotal(productId);
+        stripeRepository.deleteByProductId(productId);
+        product.setStockQuantity(total);
+        product.setStockStripes(0);
+        logger.info("Disabled striped stock for product {}: {} units", productId, total);
+        eventPublisher.publishEvent(new StockChangedEvent(productId));
+    }
+
+    /**
+     * Gesamtbestand bei gesperrter Produktzeile: erst die Stripes sperren, dann beide Teile frisch lesen
+     * Reservierungen auf einem einzelnen Stripe berühren die Produktzeile nicht - der beim Laden mitgelesene
+     * Stripe-Anteil von Product wäre veraltet und würde bereits verkauften Bestand wieder herstellen.
+     */
+    private int lockedTotal(Long productId) {
+        int striped = stripeRepository.lockByProductId(productId).stream()
+                .mapToInt(ProductStockStripe::getQuantity)
+                .sum();
+        return productRepository.findUnstripedStock(productId) + striped;
+    }
+
+    /**
+     * Übernimmt Stammdaten und Gesamtbestand eines Produkts in einer Transaktion
+     * Die gesperrte Produktzeile verhindert, dass der Striped-Stock-Modus zwischen Prüfung und Schreiben wechselt;
+     * gestripte Produkte verteilen den Bestand auf ihre Stripes, alle anderen schreiben ihn in stock_quantity.
+     *
+     * @return false, wenn das Produkt nicht existiert
+     * @throws ObjectOptimisticLockingFailureException wenn expectedVersion nicht mehr aktuell ist
+     */
+    public boolean updateProduct(Long productId, Product details, Long expectedVersion) {
+        Product product = productRepository.lockById(productId).orElse(null);
+        if (product == null) {
+            return false;
+        }
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+        }
+        product.setName(details.getName());
+        product.setDescription(details.getDescription());
+        product.setPrice(details.getPrice());
+        product.setCategory(details.getCategory());
+        product.setImageUrl(details.getImageUrl());
+        product.setActive(details.getActive());
+
+        if (product.hasStripedStock()) {
+            setStripedStock(productId, details.getStockQuantity());
+        } else {
+            product.setStockQuantity(details.getStockQuantity());
+            eventPublisher.publishEvent(new StockChangedEvent(productId));
+        }
+        return true;
+    }
+
+    /**
+     * Setzt den Gesamtbestand eines gestripten Produkts (z.B. nach Wareneingang) und verteilt ihn neu
+     */
+    public void setStripedStock(Long productId, int total) {
+        List<ProductStockStripe> stripes = stripeRepository.lockByProductId(productId);
+        distribute(stripes, total);
+        eventPublisher.publishEvent(new StockChangedEvent(productId));
+    }
+
+    /**
+     * Gleicht die Stripes eines Produkts aus, sobald ein Stripe unter die Hälfte des Durchschnitts fällt
+     * Ohne Ausgleich würden leere Stripes Reservierungen auf den langsamen Pfad über alle Stripes zwingen
+     */
+    public boolean rebalance(Long productId) {
+        List<ProductStockStripe> stripes = stripeRepository.lockByProductId(productId);
+        if (stripes.size() < 2) {
+            return false;
+        }
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        for (ProductStockStripe stripe : stripes) {
+            total += stripe.getQuantity();
+            min = Math.min(min, stripe.getQuantity());
+        }
+        if (min >= (total / stripes.size()) / 2) {
+            return false;
+        }
+        distribute(stripes, total);
+        return true;
+    }
+
+    private boolean reserveAcrossStripes(Long productId, int quantity) {
+        List<ProductStockStripe> stripes = stripeRepository.lockByProductId(productId);
+        int available = stripes.stream().mapToInt(ProductStockStripe::getQuantity).sum();
+        if (available < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (ProductStockStripe stripe : stripes) {
+            int taken = Math.min(stripe.getQuantity(), remaining);
+            stripe.setQuantity(stripe.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private void distribute(List<ProductStockStripe> stripes, int total) {
+        for (int i = 0; i < stripes.size(); i++) {
+            stripes.get(i).setQuantity(share(total, stripes.size(), i));
+        }
+    }
+
+    // Anteil von Stripe i: gleichmäßig, der Rest geht an die ersten Stripes
+    private static int share(int total, int stripes, int index) {
+        return total / stripes + (index < total % stripes ? 1 : 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Kunden-Import als JDBC-Batches (INSERT für neue, UPDATE über die ID für bestehende Kunden) - für H2 und als
+ * Rückfallebene; mit reWriteBatchedInserts schreibt der PostgreSQL-Treiber die Inserts als mehrzeilige Statements.
+ * Legt ein anderer Request die E-Mail zwischen Abgleich und Insert an, schlägt der Chunk am Unique-Constraint fehl.
+ */
+@Component
+@ConditionalOnProperty(name = "app.customers.import.engine", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCustomerImportWriter implements CustomerImportWriter {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO customers (id, first_name, last_name, email, phone, address, city, zip_code, country, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String UPDATE_SQL = """
+        UPDATE customers SET first_name = ?, last_name = ?,
+            phone = COALESCE(?, phone), address = COALESCE(?, address), city = COALESCE(?, city),
+            zip_code = COALESCE(?, zip_code), country = COALESCE(?, country)
+        WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcCustomerImportWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<Customer> inserts, List<Customer> updates) {
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, customer) -> {
+                ps.setLong(1, customer.getId());
+                ps.setString(2, customer.getFirstName());
+                ps.setString(3, customer.getLastName());
+                ps.setString(4, customer.getEmail());
+                ps.setString(5, customer.getPhone());
+                ps.setString(6, customer.getAddress());
+                ps.setString(7, customer.getCity());
+                ps.setString(8, customer.getZipCode());
+                ps.setString(9, customer.getCountry());
+                ps.setTimestamp(10, Timestamp.valueOf(customer.getCreatedAt()));
+            });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, customer) -> {
+                ps.setString(1, customer.getFirstName());
+                ps.setString(2, customer.getLastName());
+                ps.setString(3, customer.getPhone());
+                ps.setString(4, customer.getAddress());
+                ps.setString(5, customer.getCity());
+                ps.setString(6, customer.getZipCode());
+                ps.setString(7, customer.getCountry());
+                ps.setLong(8, customer.getId());
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Schreibt Outbox-Ereignisse ins Log - für Entwicklung und Tests
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("Outbox event {} {} for order {}: {}",
+                       event.getId(), event.getEventType(), event.getAggregateId(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.repository.CustomerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kundensuche über den {@link CustomerNameIndex} im Speicher - für H2 (Entwicklung, Tests), wo es kein pg_trgm gibt
+ *
+ * Der Index wird beim Start aus customers aufgebaut und danach über Hibernate-Events fortgeschrieben, erst nach
+ * erfolgreichem Commit (ein Rollback hinterlässt keine Namen). Schreibt Code per SQL an Hibernate vorbei in
+ * customers, muss er {@link #reindex} aufrufen. Jede Instanz hält ihren eigenen Index.
+ */
+@Component
+@ConditionalOnProperty(name = "app.customers.search.engine", havingValue = "ngram", matchIfMissing = true)
+public class NGramCustomerSearch implements CustomerSearch,
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(NGramCustomerSearch.class);
+
+    private final CustomerNameIndex index = new CustomerNameIndex();
+    private final EntityManagerFactory entityManagerFactory;
+    private final CustomerRepository customerRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public NGramCustomerSearch(EntityManagerFactory entityManagerFactory,
+                               CustomerRepository customerRepository,
+                               JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.customerRepository = customerRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Erst die Listener, dann der Bestand: Änderungen während des Ladens gehen so nicht verloren
+     */
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        reindex();
+    }
+
+    /**
+     * Baut den Index aus der Tabelle neu auf
+     */
+    public void reindex() {
+        long started = System.nanoTime();
+        index.clear();
+        jdbcTemplate.query("SELECT id, first_name, last_name FROM customers",
+                rs -> {
+                    index.put(rs.getLong(1), rs.getString(2), rs.getString(3));
+                });
+        logger.info("Indexed {} customer names in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public List<Customer> search(String query, int offset, int limit) {
+        List<Long> ids = index.search(query, offset, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Customer> byId = new HashMap<>(ids.size() * 2);
+        customerRepository.findAllById(ids).forEach(customer -> byId.put(customer.getId(), customer));
+        List<Customer> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Customer customer = byId.get(id);
+            if (customer != null) {
+                result.add(customer);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Customer customer) {
+            String firstName = customer.getFirstName();
+            String lastName = customer.getLastName();
+            afterCommit(event, () -> index.put(customer.getId(), firstName, lastName));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Customer customer) {
+            // Namen zum Zeitpunkt des Statements, die Entity kann sich bis zum Commit weiter ändern
+            String firstName = customer.getFirstName();
+            String lastName = customer.getLastName();
+            afterCommit(event, () -> index.put(customer.getId(), firstName, lastName));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Customer customer) {
+            afterCommit(event, () -> index.remove(customer.getId()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static void afterCommit(AbstractEvent event, Runnable change) {
+        event.getSession().getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, session) -> {
+                    if (success) {
+                        change.run();
+                    }
+                });
+    }
+}
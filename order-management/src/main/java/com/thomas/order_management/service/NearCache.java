@@ -0,0 +1,216 @@
+package com.thomas.order_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thomas.order_management.dto.StockChangedEvent;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Prozesslokaler Cache für Kunden, Produkte und Kategorien vor den lesenden Endpunkten
+ *
+ * Caffeine begrenzt jeden Cache nach geschätzter Größe in Bytes (max-size) und verdrängt per W-TinyLFU: ein
+ * Eintrag bleibt nur, wenn er häufiger gelesen wird als der, den er verdrängen würde - ein einmaliger Scan über
+ * viele Kunden spült die heißen Einträge nicht hinaus. Laden und Invalidieren desselben Schlüssels sind atomar:
+ * ein Invalidate nach dem Commit wartet auf ein laufendes Laden und entfernt dessen (ggf. alten) Wert.
+ *
+ * Invalidiert wird nach dem Commit - durch die Mutatoren der Controller und bei jeder Bestandsänderung
+ * ({@link StockChangedEvent}). Andere Instanzen erfahren davon über {@link NearCacheInvalidationListener}
+ * (PostgreSQL LISTEN/NOTIFY); ttl begrenzt, wie lange ein verpasstes Invalidate nachwirken kann.
+ * Die Werte sind detached Entities und werden nur gelesen (serialisiert), nie verändert.
+ */
+@Service
+public class NearCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCache.class);
+
+    public static final String CUSTOMERS = "customers";
+    public static final String PRODUCTS = "products";
+    public static final String CATEGORIES = "categories";
+
+    private static final String ALL_CATEGORIES = "all";
+
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+
+    private final Cache<Long, Customer> customers;
+    private final Cache<String, Long> customerIdsByEmail;
+    private final Cache<Long, Product> products;
+    private final Cache<String, List<String>> categories;
+
+    // Weitergabe an andere Instanzen (Region, Schlüssel), null = Schlüssel der ganzen Region
+    private final List<BiConsumer<String, String>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    public NearCache(CustomerRepository customerRepository,
+                     ProductRepository productRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${app.cache.customers.max-size:32MB}") DataSize customersMaxSize,
+                     @Value("${app.cache.products.max-size:16MB}") DataSize productsMaxSize,
+                     @Value("${app.cache.ttl:10m}") Duration ttl) {
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+
+        this.customers = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(customersMaxSize.toBytes())
+                .<Long, Customer>weigher((id, customer) -> weigh(customer))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), CUSTOMERS);
+        // Nur die ID: ändert sich die Adresse, prüft der Zugriff die E-Mail des geladenen Kunden nach
+        this.customerIdsByEmail = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(customersMaxSize.toBytes() / 4)
+                .<String, Long>weigher((email, id) -> 48 + 2 * email.length())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), "customer-emails");
+        this.products = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(productsMaxSize.toBytes())
+                .<Long, Product>weigher((id, product) -> weigh(product))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), PRODUCTS);
+        this.categories = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), CATEGORIES);
+    }
+
+    public Optional<Customer> customer(Long id) {
+        return Optional.ofNullable(customers.get(id, key -> customerRepository.findById(key).orElse(null)));
+    }
+
+    public Optional<Customer> customerByEmail(String email) {
+        Long id = customerIdsByEmail.get(email, key -> customerRepository.findByEmail(key).map(Customer::getId).orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<Customer> customer = customer(id);
+        if (customer.isPresent() && email.equals(customer.get().getEmail())) {
+            return customer;
+        }
+        // E-Mail geändert oder Kunde gelöscht: Zuordnung verwerfen und direkt lesen
+        customerIdsByEmail.invalidate(email);
+        return customerRepository.findByEmail(email);
+    }
+
+    public Optional<Product> product(Long id) {
+        return Optional.ofNullable(products.get(id, key -> productRepository.findById(key).orElse(null)));
+    }
+
+    public List<String> categories() {
+        return categories.get(ALL_CATEGORIES, key -> List.copyOf(productRepository.findAllCategories()));
+    }
+
+    /**
+     * Nach dem Commit einer Änderung am Kunden aufrufen (lokal und auf allen anderen Instanzen)
+     */
+    public void evictCustomer(Long id) {
+        customers.invalidate(id);
+        publish(CUSTOMERS, id.toString());
+    }
+
+    /**
+     * Nach dem Commit von Änderungen an vielen Kunden (Import) - ein Invalidate statt eines pro Kunde
+     */
+    public void evictCustomers() {
+        customers.invalidateAll();
+        publish(CUSTOMERS, null);
+    }
+
+    /**
+     * Nach dem Commit einer Änderung am Produkt aufrufen; Name, Kategorie und Aktiv-Flag betreffen auch die Kategorien
+     */
+    public void evictProduct(Long id, boolean categoriesChanged) {
+        products.invalidate(id);
+        publish(PRODUCTS, id.toString());
+        if (categoriesChanged) {
+            categories.invalidateAll();
+            publish(CATEGORIES, null);
+        }
+    }
+
+    /**
+     * Bestandsänderungen (Reservierung, Stripes, Wareneingang) ändern Bestand und Version des Produkts
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        evictProduct(event.getProductId(), false);
+    }
+
+    /**
+     * Invalidate einer anderen Instanz anwenden, ohne es weiterzugeben
+     */
+    public void evictLocal(String region, String key) {
+        switch (region) {
+            case CUSTOMERS -> {
+                if (key != null) {
+                    customers.invalidate(Long.valueOf(key));
+                } else {
+                    customers.invalidateAll();
+                }
+            }
+            case PRODUCTS -> products.invalidate(Long.valueOf(key));
+            case CATEGORIES -> categories.invalidateAll();
+            default -> logger.warn("Unknown near cache region {}", region);
+        }
+    }
+
+    /**
+     * Alles verwerfen, z.B. wenn Invalidierungen verpasst worden sein können (Verbindungsabbruch)
+     */
+    public void evictAllLocal() {
+        customers.invalidateAll();
+        customerIdsByEmail.invalidateAll();
+        products.invalidateAll();
+        categories.invalidateAll();
+    }
+
+    void addInvalidationListener(BiConsumer<String, String> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private void publish(String region, String key) {
+        for (BiConsumer<String, String> listener : invalidationListeners) {
+            listener.accept(region, key);
+        }
+    }
+
+    /**
+     * Grobe Größe im Heap: Objektkopf und Felder plus Zeichen der Strings (UTF-16 als Obergrenze)
+     */
+    private static int weigh(Customer customer) {
+        return 160 + chars(customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getPhone(),
+                customer.getAddress(), customer.getCity(), customer.getZipCode(), customer.getCountry());
+    }
+
+    private static int weigh(Product product) {
+        return 240 + chars(product.getName(), product.getDescription(), product.getCategory(), product.getImageUrl());
+    }
+
+    private static int chars(String... values) {
+        int bytes = 0;
+        for (String value : values) {
+            if (value != null) {
+                bytes += 40 + 2 * value.length();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,172 @@
+package com.thomas.order_management.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Verteilt Invalidierungen des {@link NearCache} über PostgreSQL LISTEN/NOTIFY an alle Instanzen (nur PostgreSQL)
+ *
+ * Jede Instanz hält eine eigene Verbindung mit LISTEN auf channel und wendet fremde Invalidierungen lokal an.
+ * Eigene Invalidierungen werden über eine Queue von einem zweiten Thread mit pg_notify gesendet - nicht im
+ * Request-Thread, dessen Verbindung nach dem Commit noch an die abgeschlossene Transaktion gebunden sein kann
+ * (ein NOTIFY dort würde nie committet). Nach einem Verbindungsabbruch leert die Instanz ihren Cache komplett,
+ * weil sie Invalidierungen verpasst haben kann.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class NearCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheInvalidationListener.class);
+
+    private static final char SEPARATOR = '|';
+
+    private final NearCache nearCache;
+    private final DataSource dataSource;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outgoing;
+
+    private volatile boolean running = true;
+    private Thread listener;
+    private Thread sender;
+
+    public NearCacheInvalidationListener(NearCache nearCache,
+                                         DataSource dataSource,
+                                         @Value("${app.cache.invalidation.channel:near_cache_invalidation}") String channel,
+                                         @Value("${app.cache.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+                                         @Value("${app.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+                                         @Value("${app.cache.invalidation.queue-capacity:10000}") int queueCapacity) {
+        this.nearCache = nearCache;
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.outgoing = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        nearCache.addInvalidationListener(this::enqueue);
+        listener = Thread.ofVirtual().name("near-cache-listen").start(this::listen);
+        sender = Thread.ofVirtual().name("near-cache-notify").start(this::send);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        listener.interrupt();
+        sender.interrupt();
+    }
+
+    private void enqueue(String region, String key) {
+        String payload = nodeId + SEPARATOR + region + SEPARATOR + (key != null ? key : "");
+        if (!outgoing.offer(payload)) {
+            // Andere Instanzen sehen die Änderung dann spätestens nach app.cache.ttl
+            logger.warn("Near cache invalidation queue full, dropping {} {}", region, key);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                // Zwischen Abbruch und erneutem LISTEN kann jede Invalidierung verpasst worden sein
+                nearCache.evictAllLocal();
+                logger.info("Listening for near cache invalidations on channel {}", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Near cache invalidation listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                if (!sleep(reconnectDelay)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        int first = payload.indexOf(SEPARATOR);
+        int second = payload.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second < 0) {
+            logger.warn("Ignoring malformed near cache invalidation '{}'", payload);
+            return;
+        }
+        if (payload.regionMatches(0, nodeId, 0, first) && first == nodeId.length()) {
+            return;
+        }
+        String region = payload.substring(first + 1, second);
+        String key = payload.substring(second + 1);
+        nearCache.evictLocal(region, key.isEmpty() ? null : key);
+    }
+
+    /**
+     * Sendet alle anstehenden Invalidierungen gebündelt über eine Verbindung aus dem Pool
+     */
+    private void send() {
+        List<String> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(outgoing.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            outgoing.drainTo(batch);
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                connection.setAutoCommit(true);
+                for (String payload : batch) {
+                    statement.setString(1, channel);
+                    statement.setString(2, payload);
+                    statement.execute();
+                }
+            } catch (SQLException e) {
+                logger.warn("Failed to send {} near cache invalidations", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CustomerOrderTotals;
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.repository.OrderItemRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Archiviert gelieferte Bestellungen, die älter als min-age sind, in spaltenorientierte Segment-Dateien
+ *
+ * Ein Lauf schreibt je batch-size Bestellungen ein neues Segment (write-once, append-only), macht es per
+ * fsync und atomarem Rename dauerhaft und löscht erst danach die Zeilen aus orders und order_items.
+ * Bricht der Prozess dazwischen ab, löscht der nächste Lauf die Zeilen des jüngsten Segments nach -
+ * vollständige Segmente sind maßgeblich. Gelieferte Bestellungen dieses Alters gelten als unveränderlich.
+ *
+ * Die Revenue-Rollups behalten den Umsatz archivierter Bestellungen (Bulk-Delete ohne Entity-Listener);
+ * wo Umsätze aus orders gelesen werden, werden die Segmente hinzugerechnet.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final String SEGMENT_SUFFIX = ".oseg";
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+
+    private final List<OrderSegment> segments = new CopyOnWriteArrayList<>();
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.archive.directory:archive/orders}") Path directory,
+                               @Value("${app.archive.enabled:false}") boolean enabled,
+                               @Value("${app.archive.min-age:365d}") Duration minAge,
+                               @Value("${app.archive.batch-size:5000}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = directory;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Mappt alle vorhandenen Segmente; Lesen funktioniert auch bei abgeschaltetem Archivjob
+     */
+    @PostConstruct
+    void loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.naturalOrder());
+        for (Path file : files) {
+            segments.add(OrderSegment.open(file));
+        }
+        logger.info("Loaded {} order archive segments from {}", segments.size(), directory);
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay-ms:120000}",
+               fixedDelayString = "${app.archive.interval-ms:86400000}")
+    public void archiveDeliveredOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(minAge);
+        int total = 0;
+        int archived;
+        do {
+            archived = archiveBatch(before);
+            total += archived;
+        } while (archived == batchSize);
+        if (total > 0) {
+            logger.info("Archived {} delivered orders placed before {}", total, before);
+        }
+    }
+
+    /**
+     * Archiviert bis zu batch-size gelieferte Bestellungen vor before in ein neues Segment
+     *
+     * @return Anzahl archivierter Bestellungen
+     */
+    public synchronized int archiveBatch(LocalDateTime before) {
+        completeInterruptedRun();
+
+        List<Long> ids = orderRepository.findIdsByStatusAndOrderDateBefore(OrderStatus.DELIVERED, before, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Kunde und Produkt bleiben Lazy-Proxies, der Writer braucht nur deren ID
+        List<Order> orders = transactionTemplate.execute(status -> orderRepository.findWithItemsByIdIn(ids));
+
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(String.format("orders-%06d%s", nextSegmentNumber(), SEGMENT_SUFFIX));
+            Path temp = directory.resolve(file.getFileName() + ".tmp");
+            Files.deleteIfExists(temp);
+            OrderSegmentWriter.write(temp, orders);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(OrderSegment.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing order archive segment failed", e);
+        }
+
+        delete(ids);
+        return ids.size();
+    }
+
+    /**
+     * Umsatz archivierter Bestellungen mit Bestelldatum in [from, until)
+     */
+    public BigDecimal revenueFromUntil(LocalDateTime from, LocalDateTime until) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderSegment segment : segments) {
+            total = total.add(segment.sumAmount(from, until, false));
+        }
+        return total;
+    }
+
+    /**
+     * Umsatz archivierter Bestellungen mit Bestelldatum in [start, end]
+     */
+    public BigDecimal revenueInPeriod(LocalDateTime start, LocalDateTime end) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderSegment segment : segments) {
+            total = total.add(segment.sumAmount(start, end, true));
+        }
+        return total;
+    }
+
+    /**
+     * Anzahl und Umsatz pro Tag und Status über alle Segmente
+     */
+    public List<DailyRevenue> dailyRevenue() {
+        Map<LocalDate, Map<OrderStatus, DailyRevenue>> days = new TreeMap<>();
+        for (OrderSegment segment : segments) {
+            for (DailyRevenue row : segment.dailyRevenue()) {
+                days.computeIfAbsent(row.getRevenueDate(), day -> new EnumMap<>(OrderStatus.class))
+                        .merge(row.getStatus(), row, (a, b) -> new DailyRevenue(a.getRevenueDate(), a.getStatus(),
+                                a.getOrderCount() + b.getOrderCount(), a.getAmount().add(b.getAmount())));
+            }
+        }
+        List<DailyRevenue> result = new ArrayList<>();
+        days.values().forEach(byStatus -> result.addAll(byStatus.values()));
+        return result;
+    }
+
+    /**
+     * Anzahl, Umsatz und Zeitraum archivierter Bestellungen pro Kunde über alle Segmente
+     */
+    public Map<Long, CustomerOrderTotals> customerTotals() {
+        Map<Long, CustomerOrderTotals> result = new HashMap<>();
+        for (OrderSegment segment : segments) {
+            segment.customerTotals().forEach((customerId, totals) -> result.merge(customerId, totals, CustomerOrderTotals::merge));
+        }
+        return result;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Löscht Zeilen, die noch im jüngsten Segment stehen (Abbruch zwischen Segment und Delete)
+     */
+    private void completeInterruptedRun() {
+        if (segments.isEmpty()) {
+            return;
+        }
+        long[] ids = segments.get(segments.size() - 1).orderIds();
+        int deleted = delete(Arrays.stream(ids).boxed().toList());
+        if (deleted > 0) {
+            logger.warn("Deleted {} orders left over from an interrupted archive run", deleted);
+        }
+    }
+
+    private int delete(List<Long> ids) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            orderItemRepository.deleteByOrderIdIn(ids);
+            return orderRepository.deleteByIdIn(ids);
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private int nextSegmentNumber() {
+        return segments.size() + 1;
+    }
+}
@@ -0,0 +1,252 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderBatchItemResult;
+import com.thomas.order_management.dto.OrderBatchResult;
+import com.thomas.order_management.dto.OrderCreatedEvent;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-Import von Bestellungen
+ * Liest die Bestellungen als Iterator (JSON-Array oder NDJSON-Stream) und schreibt sie in Chunks:
+ * eine Transaktion pro Chunk, IDs aus Pooled Sequences, Inserts als JDBC-Batches.
+ * Der Bestand wird wie bei createOrder reserviert. Ungültige Bestellungen und Bestellungen ohne
+ * ausreichenden Bestand werden einzeln abgelehnt, ohne den restlichen Chunk zu verwerfen.
+ */
+@Service
+public class OrderBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatchService.class);
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OrderBatchService(EntityManager entityManager,
+                             CustomerRepository customerRepository,
+                             ProductRepository productRepository,
+                             InventoryService inventoryService,
+                             OrderNumberGenerator orderNumberGenerator,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.orders.batch.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public OrderBatchResult ingest(Iterator<Order> orders) {
+        OrderBatchResult result = new OrderBatchResult();
+        List<Order> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (true) {
+            Order order;
+            try {
+                if (!orders.hasNext()) {
+                    break;
+                }
+                order = orders.next();
+            } catch (RuntimeException e) {
+                // Nach einem Parse-Fehler ist die Position im Stream unklar - bisherige Chunks bleiben gespeichert
+                writeChunk(chunk, index - chunk.size(), result);
+                result.add(OrderBatchItemResult.rejected(index, null, "Ungültiges JSON: " + e.getMessage()));
+                return result;
+            }
+
+            chunk.add(order);
+            index++;
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, index - chunk.size(), result);
+                chunk.clear();
+            }
+        }
+
+        writeChunk(chunk, index - chunk.size(), result);
+        logger.info("Bulk order import finished: {} received, {} created, {} rejected",
+                   result.getReceived(), result.getCreated(), result.getRejected());
+        return result;
+    }
+
+    private void writeChunk(List<Order> chunk, int firstIndex, OrderBatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<OrderBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    persistChunk(chunk, firstIndex, chunkResults));
+        } catch (RuntimeException e) {
+            // Die Transaktion wurde zurückgerollt - auch bereits angenommene Bestellungen sind nicht gespeichert
+            logger.warn("Bulk order chunk starting at index {} rolled back: {}", firstIndex, e.getMessage());
+            String error = "Chunk zurückgerollt: " + e.getMessage();
+            chunkResults.replaceAll(r -> r.getStatus() == OrderBatchItemResult.Status.CREATED
+                    ? OrderBatchItemResult.rejected(r.getIndex(), r.getOrderNumber(), error)
+                    : r);
+        }
+        chunkResults.forEach(result::add);
+    }
+
+    private void persistChunk(List<Order> chunk, int firstIndex, List<OrderBatchItemResult> chunkResults) {
+        // Referenzen des ganzen Chunks mit je einer IN-Abfrage auflösen
+        Set<Long> customerIds = chunk.stream()
+                .map(Order::getCustomer)
+                .filter(Objects::nonNull)
+                .map(Customer::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> productIds = chunk.stream()
+                .map(Order::getOrderItems)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(OrderItem::getProduct)
+                .filter(Objects::nonNull)
+                .map(Product::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Bestand pro Bestellung reservieren, bevor etwas persistiert wird: ein Rollback auf den Savepoint
+        // trifft so nur die Reservierungen dieser Bestellung. JpaTransactionManager unterstützt keine
+        // Savepoints, daher direkt auf der JDBC-Verbindung der Session.
+        Session session = entityManager.unwrap(Session.class);
+        OrderBatchItemResult[] results = new OrderBatchItemResult[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Order order = chunk.get(i);
+            int index = firstIndex + i;
+            String error = prepare(order, customers, products);
+            if (error == null) {
+                error = reserve(session, order);
+            }
+            if (error != null) {
+                results[i] = OrderBatchItemResult.rejected(index, order.getOrderNumber(), error);
+            }
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Order order = chunk.get(i);
+            // Sequence-IDs stehen sofort nach persist() fest, der Insert folgt gebündelt beim flush()
+            entityManager.persist(order);
+            results[i] = OrderBatchItemResult.created(firstIndex + i, order.getId(), order.getOrderNumber());
+            eventPublisher.publishEvent(new OrderCreatedEvent(
+                    order.getId(), order.getStatus(), order.getTotalAmount(), order.getOrderDate()));
+        }
+        chunkResults.addAll(Arrays.asList(results));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Reserviert alle Positionen aufsteigend nach Produkt-ID (gleiche Sperrreihenfolge wie createOrder)
+     * Bei Unterdeckung wird bis zum Savepoint vor dieser Bestellung zurückgerollt.
+     *
+     * @return Fehlermeldung der InsufficientStockException oder null, wenn alles reserviert ist
+     */
+    private String reserve(Session session, Order order) {
+        // Geänderte Stripes vorheriger Bestellungen schreiben, damit sie vor dem Savepoint liegen
+        entityManager.flush();
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            for (Map.Entry<Long, Integer> entry : OrderService.quantitiesByProduct(order).entrySet()) {
+                if (!inventoryService.reserve(entry.getKey(), entry.getValue())) {
+                    throw new InsufficientStockException(entry.getKey(), entry.getValue());
+                }
+            }
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return null;
+        } catch (InsufficientStockException e) {
+            // clear() verwirft im Kontext geänderte, aber zurückgerollte Stripes; Kunden und Produkte
+            // werden danach nur noch als Referenz per ID gebraucht
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            return e.getMessage();
+        }
+    }
+
+    // Liefert eine Fehlermeldung oder null, wenn die Bestellung gespeichert werden kann
+    private String prepare(Order order, Map<Long, Customer> customers, Map<Long, Product> products) {
+        Customer customer = order.getCustomer() != null ? customers.get(order.getCustomer().getId()) : null;
+        if (customer == null) {
+            return "Kunde nicht gefunden";
+        }
+        if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+            return "Bestellung enthält keine Positionen";
+        }
+
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = item.getProduct() != null ? products.get(item.getProduct().getId()) : null;
+            if (product == null) {
+                return "Produkt nicht gefunden";
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Ungültige Menge für Produkt " + product.getId();
+            }
+            item.setId(null);
+            item.setOrder(order);
+            item.setProduct(product);
+            if (item.getUnitPrice() == null) {
+                item.setUnitPrice(product.getPrice());
+            }
+        }
+
+        order.setId(null);
+        order.setCustomer(customer);
+        if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+        }
+        if (order.getStatus() == null) {
+            order.setStatus(OrderStatus.PENDING);
+        }
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+        if (order.getTotalAmount() == null) {
+            order.setTotalAmount(order.calculateTotalAmount());
+        }
+        return null;
+    }
+}
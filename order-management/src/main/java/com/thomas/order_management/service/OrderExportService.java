@@ -0,0 +1,145 @@
+package com.thomas.order_management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thomas.order_management.dto.OrderSummary;
+import com.thomas.order_management.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export von Bestellungen für die Buchhaltung
+ * Liest die Zeilen über einen Repository-Stream und schreibt sie direkt in den Response,
+ * sodass der Speicherbedarf unabhängig von der Anzahl der exportierten Bestellungen bleibt
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final String CSV_HEADER =
+            "id,orderNumber,customerId,customerName,status,totalAmount,orderDate,itemCount";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String fileExtension;
+
+        Format(MediaType mediaType, String fileExtension) {
+            this.mediaType = mediaType;
+            this.fileExtension = fileExtension;
+        }
+
+        public MediaType getMediaType() { return mediaType; }
+        public String getFileExtension() { return fileExtension; }
+    }
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        // Kein Flush pro Zeile - gepuffert wird im Generator bzw. im gzip-Stream
+        this.rowWriter = objectMapper.writerFor(OrderSummary.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Schreibt alle Bestellungen mit from <= orderDate < to in das Zielformat
+     * Die Transaktion hält den Datenbank-Cursor offen, bis der Stream vollständig geschrieben ist
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        logger.info("Exporting orders as {} between {} and {}", format, from, to);
+
+        long rows;
+        try (Stream<OrderSummary> summaries = orderRepository.streamSummariesByOrderDateBetween(from, to)) {
+            rows = switch (format) {
+                case NDJSON -> writeNdjson(summaries.iterator(), out);
+                case CSV -> writeCsv(summaries.iterator(), out);
+            };
+        }
+
+        logger.info("Exported {} orders as {}", rows, format);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<OrderSummary> rows, OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, rows.next());
+            count++;
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<OrderSummary> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            OrderSummary row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writeCsvField(writer, row.getOrderNumber());
+            writer.write(',');
+            writer.write(String.valueOf(row.getCustomerId()));
+            writer.write(',');
+            writeCsvField(writer, row.getCustomerName());
+            writer.write(',');
+            writer.write(row.getStatus().name());
+            writer.write(',');
+            writer.write(row.getTotalAmount().toPlainString());
+            writer.write(',');
+            writer.write(row.getOrderDate().toString());
+            writer.write(',');
+            writer.write(String.valueOf(row.getItemCount()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: Felder mit Trennzeichen, Anführungszeichen oder Zeilenumbruch werden gequotet
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,396 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderCreatedEvent;
+import com.thomas.order_management.dto.OrderIntakeTicket;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchrone Annahme von Bestellungen
+ *
+ * Der Request-Thread prüft nur die Struktur der Bestellung, vergibt die Bestellnummer und legt sie in eine
+ * begrenzte Queue - ohne Datenbankverbindung. Worker auf virtuellen Threads entnehmen Micro-Batches und
+ * bearbeiten sie in einer Transaktion in drei Stufen: Preise (Kunden und Produkte per IN-Abfrage),
+ * Reservierung (Savepoint pro Bestellung) und Persistenz (JDBC-Batch). Ist die Queue voll, wird die
+ * Annahme mit 429 abgelehnt statt Threads und Verbindungen zu stauen.
+ *
+ * Queue und Tickets liegen im Speicher dieses Knotens: die Status-URL gilt nur auf dem annehmenden Knoten,
+ * und bei einem Absturz gehen noch nicht verarbeitete Bestellungen verloren.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingOrder> queue;
+    private final Map<String, OrderIntakeTicket> tickets = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final int capacity;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration ticketRetention;
+    private final Duration shutdownTimeout;
+    private volatile boolean running = true;
+
+    private final Timer queueWaitTimer;
+    private final Timer pricingTimer;
+    private final Timer reservationTimer;
+    private final Timer persistenceTimer;
+    private final Counter acceptedCounter;
+    private final Counter overloadedCounter;
+    private final Counter createdCounter;
+    private final Counter rejectedCounter;
+
+    public OrderIntakeService(EntityManager entityManager,
+                              CustomerRepository customerRepository,
+                              ProductRepository productRepository,
+                              InventoryService inventoryService,
+                              OrderNumberGenerator orderNumberGenerator,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.orders.intake.queue-capacity:1000}") int capacity,
+                              @Value("${app.orders.intake.workers:4}") int workerCount,
+                              @Value("${app.orders.intake.batch-size:50}") int batchSize,
+                              @Value("${app.orders.intake.ticket-retention:15m}") Duration ticketRetention,
+                              @Value("${app.orders.intake.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.ticketRetention = ticketRetention;
+        this.shutdownTimeout = shutdownTimeout;
+
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size)
+                .description("Bestellungen in der Intake-Queue")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.queue.capacity", () -> capacity)
+                .register(meterRegistry);
+        this.queueWaitTimer = stageTimer(meterRegistry, "queue");
+        this.pricingTimer = stageTimer(meterRegistry, "pricing");
+        this.reservationTimer = stageTimer(meterRegistry, "reservation");
+        this.persistenceTimer = stageTimer(meterRegistry, "persistence");
+        this.acceptedCounter = resultCounter(meterRegistry, "accepted");
+        this.overloadedCounter = resultCounter(meterRegistry, "overloaded");
+        this.createdCounter = resultCounter(meterRegistry, "created");
+        this.rejectedCounter = resultCounter(meterRegistry, "rejected");
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("order-intake-" + i).start(this::runWorker));
+        }
+    }
+
+    /**
+     * Nimmt noch wartende Bestellungen bis zum Timeout ab und beendet dann die Worker
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                worker.interrupt();
+            }
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Order intake stopped with {} unprocessed orders", queue.size());
+        }
+    }
+
+    /**
+     * Prüft die Bestellung und stellt sie in die Queue
+     *
+     * @throws IllegalArgumentException bei ungültiger Bestellung
+     * @throws IntakeOverloadedException wenn die Queue voll ist
+     */
+    public OrderIntakeTicket submit(Order order) {
+        if (order.getCustomer() == null || order.getCustomer().getId() == null) {
+            throw new IllegalArgumentException("Bestellung ohne Kunde");
+        }
+        if (OrderService.quantitiesByProduct(order).isEmpty()) {
+            throw new IllegalArgumentException("Bestellung enthält keine Positionen");
+        }
+        if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+        }
+
+        OrderIntakeTicket ticket = new OrderIntakeTicket(UUID.randomUUID().toString(), order.getOrderNumber());
+        tickets.put(ticket.getTicketId(), ticket);
+        if (!running || !queue.offer(new PendingOrder(ticket, order, System.nanoTime()))) {
+            tickets.remove(ticket.getTicketId());
+            overloadedCounter.increment();
+            throw new IntakeOverloadedException(capacity);
+        }
+        acceptedCounter.increment();
+        return ticket;
+    }
+
+    public Optional<OrderIntakeTicket> findTicket(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.intake.ticket-purge-interval-ms:60000}")
+    public void purgeCompletedTickets() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ticketRetention);
+        tickets.values().removeIf(ticket -> ticket.isCompleted() && ticket.getCompletedAt().isBefore(cutoff));
+    }
+
+    private void runWorker() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order intake worker failed on batch of {}", batch.size(), e);
+                batch.stream()
+                        .filter(pending -> !pending.ticket.isCompleted())
+                        .forEach(pending -> reject(pending, "Interner Fehler"));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingOrder> batch) {
+        long now = System.nanoTime();
+        for (PendingOrder pending : batch) {
+            pending.ticket.markProcessing();
+            queueWaitTimer.record(now - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+
+        BatchOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> processInTransaction(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.warn("Order {} could not be stored: {}", batch.get(0).order.getOrderNumber(), e.getMessage());
+                reject(batch.get(0), "Speichern fehlgeschlagen: " + e.getMessage());
+                return;
+            }
+            // Ein Fehler rollt den ganzen Micro-Batch zurück - einzeln wiederholen, um die Ursache zu isolieren
+            logger.warn("Order intake batch of {} rolled back, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingOrder pending : batch) {
+                pending.resetIds();
+                process(List.of(pending));
+            }
+            return;
+        }
+
+        Objects.requireNonNull(outcome).rejected.forEach(this::reject);
+        for (PendingOrder pending : outcome.created) {
+            pending.ticket.markCreated(pending.order.getId());
+            createdCounter.increment();
+        }
+    }
+
+    private BatchOutcome processInTransaction(List<PendingOrder> batch) {
+        BatchOutcome outcome = new BatchOutcome();
+
+        // Stufe 1: Preise - Kunden und Produkte des Micro-Batches mit je einer IN-Abfrage laden
+        long start = System.nanoTime();
+        Map<Long, Customer> customers = customerRepository.findAllById(batch.stream()
+                        .map(pending -> pending.order.getCustomer().getId())
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(batch.stream()
+                        .flatMap(pending -> pending.order.getOrderItems().stream())
+                        .map(item -> item.getProduct().getId())
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<PendingOrder> priced = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            String error = price(pending.order, customers, products);
+            if (error != null) {
+                outcome.rejected.put(pending, error);
+            } else {
+                priced.add(pending);
+            }
+        }
+        pricingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // Stufe 2: Reservierung - ein Savepoint pro Bestellung, damit Unterdeckung nur diese Bestellung zurücknimmt.
+        // JpaTransactionManager unterstützt keine Savepoints, daher direkt auf der JDBC-Verbindung der Session.
+        start = System.nanoTime();
+        Session session = entityManager.unwrap(Session.class);
+        for (PendingOrder pending : priced) {
+            // Vorherige Reservierungen schreiben, damit sie vor dem Savepoint liegen
+            entityManager.flush();
+            Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+            Long missingProductId = reserve(pending.order);
+            if (missingProductId == null) {
+                session.doWork(connection -> connection.releaseSavepoint(savepoint));
+                outcome.created.add(pending);
+                continue;
+            }
+            // clear() verwirft im Kontext geänderte, aber nicht mehr gültige Stripes dieser Bestellung
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            outcome.rejected.put(pending, "Nicht genug Bestand für Produkt " + missingProductId);
+        }
+        reservationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // Stufe 3: Persistenz - Inserts gebündelt beim flush()
+        start = System.nanoTime();
+        for (PendingOrder pending : outcome.created) {
+            entityManager.persist(pending.order);
+        }
+        entityManager.flush();
+        for (PendingOrder pending : outcome.created) {
+            Order order = pending.order;
+            eventPublisher.publishEvent(new OrderCreatedEvent(
+                    order.getId(), order.getStatus(), order.getTotalAmount(), order.getOrderDate()));
+        }
+        entityManager.clear();
+        persistenceTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return outcome;
+    }
+
+    // Liefert eine Fehlermeldung oder null, wenn die Bestellung reserviert werden kann
+    private String price(Order order, Map<Long, Customer> customers, Map<Long, Product> products) {
+        Customer customer = customers.get(order.getCustomer().getId());
+        if (customer == null) {
+            return "Kunde nicht gefunden";
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = products.get(item.getProduct().getId());
+            if (product == null || !Boolean.TRUE.equals(product.getActive())) {
+                return "Produkt nicht verfügbar: " + item.getProduct().getId();
+            }
+            item.setProduct(product);
+            if (item.getUnitPrice() == null) {
+                item.setUnitPrice(product.getPrice());
+            }
+        }
+
+        order.setCustomer(customer);
+        if (order.getStatus() == null) {
+            order.setStatus(OrderStatus.PENDING);
+        }
+        if (order.getTotalAmount() == null) {
+            order.setTotalAmount(order.calculateTotalAmount());
+        }
+        return null;
+    }
+
+    // Liefert die ID des ersten Produkts ohne ausreichenden Bestand oder null
+    private Long reserve(Order order) {
+        for (Map.Entry<Long, Integer> entry : OrderService.quantitiesByProduct(order).entrySet()) {
+            if (!inventoryService.reserve(entry.getKey(), entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void reject(PendingOrder pending, String error) {
+        pending.ticket.markRejected(error);
+        rejectedCounter.increment();
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("orders.intake.stage")
+                .description("Dauer der Intake-Stufen pro Micro-Batch (queue: Wartezeit pro Bestellung)")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orders.intake.orders")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class PendingOrder {
+
+        private final OrderIntakeTicket ticket;
+        private final Order order;
+        private final long enqueuedAt;
+
+        private PendingOrder(OrderIntakeTicket ticket, Order order, long enqueuedAt) {
+            this.ticket = ticket;
+            this.order = order;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        // Nach einem Rollback tragen die Entities bereits vergebene IDs - für einen neuen persist() zurücksetzen
+        private void resetIds() {
+            order.setId(null);
+            order.getOrderItems().forEach(item -> item.setId(null));
+        }
+    }
+
+    private static final class BatchOutcome {
+        private final List<PendingOrder> created = new ArrayList<>();
+        private final Map<PendingOrder, String> rejected = new LinkedHashMap<>();
+    }
+}
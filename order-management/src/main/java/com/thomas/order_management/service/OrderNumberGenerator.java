@@ -0,0 +1,13 @@
+package com.thomas.order_management.service;
+
+/**
+ * Vergibt eindeutige Bestellnummern
+ * Die Standard-Implementierung ist {@link TimeOrderedOrderNumberGenerator}; eine eigene Bean
+ * mit {@code @Primary} ersetzt sie (z.B. für Nummernkreise eines ERP-Systems)
+ */
+public interface OrderNumberGenerator {
+
+    String PREFIX = "ORD-";
+
+    String nextOrderNumber();
+}
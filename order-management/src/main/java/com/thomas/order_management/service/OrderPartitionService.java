@@ -0,0 +1,188 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CustomerOrderTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pflegt die Monatspartitionen von orders und order_items (PostgreSQL, V3_9__Order_Partitioning.sql)
+ *
+ * Legt die Partitionen der nächsten months-ahead Monate an, damit neue Bestellungen nie in orders_default landen.
+ * Monate älter als detach-after-months werden abgehängt und ins Schema archive verschoben: die Daten bleiben
+ * erhalten, zählen aber nicht mehr zu orders. Die Revenue-Rollups behalten ihre Tage (siehe RevenueRollupService.verify),
+ * der Neuaufbau von customer_stats rechnet die abgehängten Monate über {@link #detachedCustomerTotals} hinzu.
+ */
+@Service
+@ConditionalOnProperty(name = "app.orders.partitioning.enabled", havingValue = "true")
+public class OrderPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    private static final String ARCHIVE_SCHEMA = "archive";
+    private static final Pattern ORDERS_PARTITION = Pattern.compile("orders_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int detachAfterMonths;
+
+    public OrderPartitionService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.orders.partitioning.months-ahead:3}") int monthsAhead,
+                                 @Value("${app.orders.partitioning.detach-after-months:0}") int detachAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.partitioning.initial-delay-ms:30000}",
+               fixedDelayString = "${app.orders.partitioning.interval-ms:86400000}")
+    public void maintain() {
+        try {
+            int created = createFuturePartitions();
+            if (created > 0) {
+                logger.info("Created {} monthly order partitions", created);
+            }
+        } catch (DataAccessException e) {
+            // Meist Zeilen des Monats in orders_default: diese erst in die neue Partition verschieben
+            logger.error("Creating order partitions failed: {}", e.getMessage());
+        }
+        if (detachAfterMonths > 0) {
+            detachExpiredPartitions(YearMonth.now().minusMonths(detachAfterMonths));
+        }
+    }
+
+    /**
+     * Legt fehlende Partitionen vom laufenden bis einschließlich months-ahead Monate voraus an
+     *
+     * @return Anzahl neu angelegter Monate
+     */
+    public int createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        Integer created = jdbcTemplate.queryForObject("SELECT create_order_partitions(?, ?)", Integer.class,
+                current.atDay(1), current.plusMonths(monthsAhead).atDay(1));
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Hängt alle Monate vor before ab, ältester zuerst
+     *
+     * @return abgehängte Monate
+     */
+    public List<YearMonth> detachExpiredPartitions(YearMonth before) {
+        List<YearMonth> detached = new ArrayList<>();
+        for (YearMonth month : attachedMonths()) {
+            if (!month.isBefore(before)) {
+                break;
+            }
+            try {
+                detach(month);
+                detached.add(month);
+                logger.info("Detached order partitions of {} into schema {}", month, ARCHIVE_SCHEMA);
+            } catch (DataAccessException e) {
+                // Sperre nicht bekommen o.ä. - beim nächsten Lauf erneut
+                logger.warn("Detaching order partitions of {} failed: {}", month, e.getMessage());
+                break;
+            }
+        }
+        return detached;
+    }
+
+    /**
+     * Anzahl, Umsatz und Zeitraum der nicht stornierten Bestellungen pro Kunde in den abgehängten Monaten
+     */
+    public Map<Long, CustomerOrderTotals> detachedCustomerTotals() {
+        // Nur Namen nach dem Partitionsmuster - sie werden unverändert ins SQL übernommen
+        List<String> selects = jdbcTemplate.queryForList(
+                        "SELECT tablename FROM pg_tables WHERE schemaname = ? ORDER BY tablename", String.class, ARCHIVE_SCHEMA)
+                .stream()
+                .filter(table -> ORDERS_PARTITION.matcher(table).matches())
+                .map(table -> "SELECT customer_id, total_amount, order_date FROM " + ARCHIVE_SCHEMA + "." + table
+                        + " WHERE status <> 'CANCELLED'")
+                .toList();
+        if (selects.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, CustomerOrderTotals> totals = new HashMap<>();
+        jdbcTemplate.query("""
+            SELECT customer_id, COUNT(*) AS order_count, SUM(total_amount) AS amount,
+                   MIN(order_date) AS first_order_date, MAX(order_date) AS last_order_date
+            FROM (%s) detached
+            GROUP BY customer_id
+            """.formatted(String.join(" UNION ALL ", selects)), rs -> {
+            long customerId = rs.getLong("customer_id");
+            totals.put(customerId, new CustomerOrderTotals(customerId, rs.getLong("order_count"),
+                    rs.getBigDecimal("amount"),
+                    rs.getObject("first_order_date", LocalDateTime.class),
+                    rs.getObject("last_order_date", LocalDateTime.class)));
+        });
+        return totals;
+    }
+
+    /**
+     * Monatspartitionen von orders, aufsteigend
+     */
+    List<YearMonth> attachedMonths() {
+        List<String> partitions = jdbcTemplate.queryForList("""
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'orders'::regclass
+            ORDER BY c.relname
+            """, String.class);
+        List<YearMonth> months = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = ORDERS_PARTITION.matcher(partition);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Hängt einen Monat beider Tabellen in einer Transaktion ab
+     * DETACH ... CONCURRENTLY scheidet aus, weil es Default-Partitionen gibt und es keine Transaktion erlaubt;
+     * das lock_timeout begrenzt stattdessen, wie lange Schreiber hinter der exklusiven Sperre warten.
+     */
+    private void detach(YearMonth month) {
+        String suffix = month.format(SUFFIX);
+        String orders = "orders_p" + suffix;
+        String items = "order_items_p" + suffix;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION " + items);
+            // Der geerbte Fremdschlüssel auf orders bleibt nach DETACH bestehen und würde das Abhängen
+            // der Bestellungen blockieren
+            for (String constraint : jdbcTemplate.queryForList("""
+                    SELECT conname FROM pg_constraint
+                    WHERE conrelid = ?::regclass AND confrelid = 'orders'::regclass AND contype = 'f'
+                    """, String.class, items)) {
+                jdbcTemplate.execute("ALTER TABLE " + items + " DROP CONSTRAINT " + constraint);
+            }
+            jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + orders);
+            jdbcTemplate.execute("ALTER TABLE " + items + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            jdbcTemplate.execute("ALTER TABLE " + orders + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        });
+    }
+}
@@ -0,0 +1,250 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderPurgeRequest;
+import com.thomas.order_management.dto.OrderPurgeResult;
+import com.thomas.order_management.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Löscht Bestellungen samt Positionen mengenbasiert (Aufbewahrungsfristen, DELETE /api/orders/{id})
+ *
+ * Statt jede Bestellung mit allen Positionen zu laden und per CascadeType.ALL zeilenweise zu löschen, sperrt ein
+ * Chunk bis zu chunk-size Bestellungen per SELECT ... FOR UPDATE und löscht sie mit je einem DELETE auf order_items
+ * und orders. Die Bedingung auf order_date begrenzt beide Statements auf die betroffenen Monatspartitionen.
+ * Zwischen den Chunks pausiert der Lauf (pause), damit das Tagesgeschäft nicht auf Sperren und I/O wartet.
+ *
+ * Revenue-Rollups und Kundenkennzahlen werden wie beim Löschen über Hibernate um die gelöschten Bestellungen verringert.
+ * Archivierte Bestellungen (Segment-Dateien) sind unveränderlich und werden nicht berührt.
+ */
+@Service
+public class OrderPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPurgeService.class);
+
+    private static final String SELECT_COLUMNS = "SELECT id, customer_id, status, order_date, total_amount FROM orders ";
+
+    private static final String LOCK_CHUNK_SQL = SELECT_COLUMNS
+            + "WHERE status = ANY(?) AND order_date < ? ORDER BY order_date, id LIMIT ? FOR UPDATE";
+    private static final String LOCK_BY_ID_SQL = SELECT_COLUMNS + "WHERE id = ? FOR UPDATE";
+    private static final String DELETE_ITEMS_SQL =
+            "DELETE FROM order_items WHERE order_id = ANY(?) AND order_date >= ? AND order_date <= ?";
+    private static final String DELETE_ORDERS_SQL =
+            "DELETE FROM orders WHERE id = ANY(?) AND order_date >= ? AND order_date <= ?";
+
+    private static final String COUNT_ORDERS_SQL =
+            "SELECT status, COUNT(*) FROM orders WHERE status = ANY(?) AND order_date < ? GROUP BY status";
+    private static final String COUNT_ITEMS_SQL = "SELECT COUNT(*) FROM order_items i WHERE i.order_date < ? "
+            + "AND EXISTS (SELECT 1 FROM orders o WHERE o.id = i.order_id AND o.order_date = i.order_date "
+            + "AND o.status = ANY(?))";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getLong("id"),
+            rs.getLong("customer_id"),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getObject("order_date", LocalDateTime.class),
+            rs.getBigDecimal("total_amount"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final RevenueRollupListener revenueRollupListener;
+    private final CustomerStatsListener customerStatsListener;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration pause;
+    private final boolean enabled;
+    private final List<OrderStatus> scheduledStatuses;
+    private final Duration minAge;
+
+    public OrderPurgeService(JdbcTemplate jdbcTemplate,
+                             EntityManager entityManager,
+                             RevenueRollupListener revenueRollupListener,
+                             CustomerStatsListener customerStatsListener,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.orders.purge.chunk-size:1000}") int chunkSize,
+                             @Value("${app.orders.purge.pause:200ms}") Duration pause,
+                             @Value("${app.orders.purge.enabled:false}") boolean enabled,
+                             @Value("${app.orders.purge.statuses:CANCELLED}") OrderStatus[] scheduledStatuses,
+                             @Value("${app.orders.purge.min-age:730d}") Duration minAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.revenueRollupListener = revenueRollupListener;
+        this.customerStatsListener = customerStatsListener;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.enabled = enabled;
+        this.scheduledStatuses = List.of(scheduledStatuses);
+        this.minAge = minAge;
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.purge.initial-delay-ms:180000}",
+               fixedDelayString = "${app.orders.purge.interval-ms:86400000}")
+    public void purgeExpiredOrders() {
+        if (!enabled) {
+            return;
+        }
+        purge(new OrderPurgeRequest(scheduledStatuses, LocalDateTime.now().minus(minAge), false));
+    }
+
+    /**
+     * Löscht (bzw. zählt im Probelauf) alle Bestellungen der angefragten Status mit Bestelldatum vor before
+     * Jeder Chunk ist eine eigene Transaktion; bricht ein Chunk ab, bleiben die vorherigen gelöscht.
+     *
+     * @throws IllegalArgumentException ohne Status, ohne before oder mit before in der Zukunft
+     */
+    public synchronized OrderPurgeResult purge(OrderPurgeRequest request) {
+        List<OrderStatus> statuses = request.getStatuses() == null ? List.of()
+                : request.getStatuses().stream().distinct().toList();
+        LocalDateTime before = request.getBefore();
+        if (statuses.isEmpty() || statuses.contains(null)) {
+            throw new IllegalArgumentException("Status fehlen");
+        }
+        if (before == null || before.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("before muss in der Vergangenheit liegen");
+        }
+        String[] statusNames = statuses.stream().map(OrderStatus::name).toArray(String[]::new);
+        OrderPurgeResult result = new OrderPurgeResult(request.isDryRun(), statuses, before);
+
+        if (request.isDryRun()) {
+            count(statusNames, before, result);
+            logger.info("Order purge dry run for {} before {}: {} orders, {} items",
+                    statuses, before, result.getOrders(), result.getItems());
+            return result;
+        }
+
+        long started = System.nanoTime();
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> purgeChunk(statusNames, before));
+            chunk.ordersByStatus().forEach(result::add);
+            result.addItems(chunk.items());
+            if (chunk.orders() > 0) {
+                result.addChunk();
+            }
+        } while (chunk.orders() == chunkSize && pauseBetweenChunks());
+
+        logger.info("Purged {} orders and {} items for {} before {} in {} chunks ({} ms)",
+                result.getOrders(), result.getItems(), statuses, before, result.getChunks(),
+                (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Löscht eine einzelne Bestellung samt Positionen mit zwei Statements
+     *
+     * @return false, wenn es die Bestellung nicht gibt
+     */
+    public boolean deleteOrder(Long id) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            List<Row> rows = jdbcTemplate.query(LOCK_BY_ID_SQL, ROW_MAPPER, id);
+            if (rows.isEmpty()) {
+                return false;
+            }
+            delete(rows);
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    private Chunk purgeChunk(String[] statusNames, LocalDateTime before) {
+        List<Row> rows = jdbcTemplate.query(LOCK_CHUNK_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", statusNames));
+            ps.setObject(2, before);
+            ps.setInt(3, chunkSize);
+        }, ROW_MAPPER);
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        if (rows.isEmpty()) {
+            return new Chunk(0, 0, byStatus);
+        }
+        int items = delete(rows);
+        rows.forEach(row -> byStatus.merge(row.status(), 1L, Long::sum));
+        return new Chunk(rows.size(), items, byStatus);
+    }
+
+    /**
+     * Positionen und Bestellungen der gesperrten Zeilen löschen, Rollups und Kundenkennzahlen in derselben Transaktion verringern
+     *
+     * @return Anzahl gelöschter Positionen
+     */
+    private int delete(List<Row> rows) {
+        Long[] ids = rows.stream().map(Row::id).toArray(Long[]::new);
+        LocalDateTime from = rows.stream().map(Row::orderDate).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = rows.stream().map(Row::orderDate).max(LocalDateTime::compareTo).orElseThrow();
+
+        int items = jdbcTemplate.update(DELETE_ITEMS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+        });
+        int orders = jdbcTemplate.update(DELETE_ORDERS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+        });
+        if (orders != ids.length) {
+            // Die Zeilen sind gesperrt - eine Abweichung heißt, dass sie zwischendurch gelöscht wurden
+            throw new IllegalStateException(orders + " von " + ids.length + " Bestellungen gelöscht");
+        }
+
+        for (Row row : rows) {
+            revenueRollupListener.recordBulkChange(entityManager, row.orderDate(), row.status(), -1,
+                    row.totalAmount().negate());
+            customerStatsListener.recordBulkChange(entityManager, row.customerId(), row.orderDate(), row.status(), -1,
+                    row.totalAmount());
+        }
+        return items;
+    }
+
+    private void count(String[] statusNames, LocalDateTime before, OrderPurgeResult result) {
+        jdbcTemplate.query(COUNT_ORDERS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", statusNames));
+            ps.setObject(2, before);
+        }, rs -> {
+            result.add(OrderStatus.valueOf(rs.getString(1)), rs.getLong(2));
+        });
+        Long items = jdbcTemplate.query(COUNT_ITEMS_SQL, ps -> {
+            ps.setObject(1, before);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", statusNames));
+        }, rs -> rs.next() ? rs.getLong(1) : 0L);
+        result.addItems(items != null ? items : 0L);
+    }
+
+    /**
+     * Drosselung zwischen zwei Chunks; false bei Interrupt (z.B. Shutdown), der Lauf endet dann nach dem Chunk
+     */
+    private boolean pauseBetweenChunks() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Order purge interrupted, remaining orders are left for the next run");
+            return false;
+        }
+    }
+
+    private record Row(long id, long customerId, OrderStatus status, LocalDateTime orderDate, BigDecimal totalAmount) {
+    }
+
+    private record Chunk(int orders, int items, Map<OrderStatus, Long> ordersByStatus) {
+    }
+}
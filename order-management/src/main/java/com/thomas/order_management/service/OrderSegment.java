@@ -0,0 +1,265 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CustomerOrderTotals;
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.model.Money;
+import com.thomas.order_management.model.OrderStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lesezugriff auf ein Archiv-Segment, per Memory-Mapping
+ *
+ * Aufbau: Header (Magic, Version, Anzahl Bestellungen und Positionen, erstes und letztes Bestelldatum,
+ * Start-Offsets aller Spalten), danach die Spalten hintereinander. Bestellungen liegen aufsteigend nach
+ * (order_date, id). Auswertungen dekodieren nur die Spalten, die sie brauchen, und überspringen Segmente,
+ * deren Zeitraum nicht passt. Datumswerte sind auf Millisekunden genau. Instanzen sind unveränderlich
+ * und threadsicher, jede Auswertung arbeitet auf eigenen Puffer-Kopien.
+ */
+final class OrderSegment {
+
+    static final int MAGIC = 0x4F534547; // "OSEG"
+    static final short VERSION = 1;
+    static final int AMOUNT_SCALE = Money.SCALE;
+
+    // Bestellspalten
+    static final int ORDER_ID = 0;
+    static final int ORDER_NUMBER = 1;
+    static final int CUSTOMER_DICT = 2;
+    static final int CUSTOMER = 3;
+    static final int STATUS_DICT = 4;
+    static final int STATUS = 5;
+    static final int ORDER_DATE = 6;
+    static final int TOTAL_AMOUNT = 7;
+    static final int CREATED_AT = 8;
+    static final int UPDATED_AT = 9;
+    static final int NOTES = 10;
+    static final int SHIPPING_ADDRESS = 11;
+    static final int BILLING_ADDRESS = 12;
+    static final int ITEM_COUNT = 13;
+    // Positionsspalten, in Reihenfolge der Bestellungen
+    static final int ITEM_ID = 14;
+    static final int ITEM_PRODUCT = 15;
+    static final int ITEM_QUANTITY = 16;
+    static final int ITEM_UNIT_PRICE = 17;
+    static final int COLUMN_COUNT = 18;
+
+    static final int HEADER_SIZE = 4 + 2 + 4 + 4 + 8 + 8 + (COLUMN_COUNT + 1) * 8;
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final int orderCount;
+    private final int itemCount;
+    private final long minOrderDate;
+    private final long maxOrderDate;
+    private final long[] offsets = new long[COLUMN_COUNT + 1];
+    private final OrderStatus[] statuses;
+
+    private OrderSegment(Path file, MappedByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        ByteBuffer header = data.duplicate();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Kein Archiv-Segment: " + file);
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Nicht unterstützte Segment-Version " + version + ": " + file);
+        }
+        this.orderCount = header.getInt();
+        this.itemCount = header.getInt();
+        this.minOrderDate = header.getLong();
+        this.maxOrderDate = header.getLong();
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = header.getLong();
+        }
+        if (offsets[COLUMN_COUNT] != data.capacity()) {
+            throw new IOException("Unvollständiges Archiv-Segment: " + file);
+        }
+
+        ByteBuffer dictionary = column(STATUS_DICT);
+        this.statuses = new OrderStatus[readInt(dictionary)];
+        for (int i = 0; i < statuses.length; i++) {
+            byte[] name = new byte[readInt(dictionary)];
+            dictionary.get(name);
+            statuses[i] = OrderStatus.valueOf(new String(name, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Mappt die Datei; das Mapping bleibt nach dem Schließen des Kanals gültig
+     */
+    static OrderSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OrderSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getFile() { return file; }
+    int getOrderCount() { return orderCount; }
+    int getItemCount() { return itemCount; }
+    LocalDateTime getMinOrderDate() { return dateTime(minOrderDate); }
+    LocalDateTime getMaxOrderDate() { return dateTime(maxOrderDate); }
+
+    long[] orderIds() {
+        ByteBuffer ids = column(ORDER_ID);
+        long[] result = new long[orderCount];
+        long id = 0;
+        for (int i = 0; i < orderCount; i++) {
+            id += readZigzag(ids);
+            result[i] = id;
+        }
+        return result;
+    }
+
+    /**
+     * Summe der Bestellbeträge mit Bestelldatum in [from, until) bzw. [from, until], unabhängig vom Status
+     * Liest nur Datums- und Betragsspalte und bricht nach dem Zeitraum ab (Sortierung nach Datum).
+     */
+    BigDecimal sumAmount(LocalDateTime from, LocalDateTime until, boolean untilInclusive) {
+        long start = OrderSegmentWriter.millis(from);
+        long end = OrderSegmentWriter.millis(until);
+        if (maxOrderDate < start || minOrderDate > end || (!untilInclusive && minOrderDate == end)) {
+            return BigDecimal.ZERO;
+        }
+        ByteBuffer dates = column(ORDER_DATE);
+        ByteBuffer amounts = column(TOTAL_AMOUNT);
+        long date = minOrderDate;
+        long amount = 0;
+        long sum = 0;
+        for (int i = 0; i < orderCount; i++) {
+            date += readLong(dates);
+            amount += readZigzag(amounts);
+            if (date > end || (!untilInclusive && date == end)) {
+                break;
+            }
+            if (date >= start) {
+                sum += amount;
+            }
+        }
+        return Money.toBigDecimal(sum);
+    }
+
+    /**
+     * Anzahl und Umsatz pro Tag und Status
+     */
+    List<DailyRevenue> dailyRevenue() {
+        ByteBuffer dates = column(ORDER_DATE);
+        ByteBuffer amounts = column(TOTAL_AMOUNT);
+        ByteBuffer codes = column(STATUS);
+        Map<LocalDate, Map<OrderStatus, long[]>> days = new TreeMap<>();
+        long date = minOrderDate;
+        long amount = 0;
+        for (int i = 0; i < orderCount; i++) {
+            date += readLong(dates);
+            amount += readZigzag(amounts);
+            long[] totals = days.computeIfAbsent(dateTime(date).toLocalDate(), day -> new EnumMap<>(OrderStatus.class))
+                    .computeIfAbsent(statuses[codes.get()], status -> new long[2]);
+            totals[0]++;
+            totals[1] += amount;
+        }
+
+        List<DailyRevenue> result = new ArrayList<>();
+        days.forEach((day, byStatus) -> byStatus.forEach((status, totals) ->
+                result.add(new DailyRevenue(day, status, totals[0], Money.toBigDecimal(totals[1])))));
+        return result;
+    }
+
+    /**
+     * Anzahl, Umsatz und Zeitraum pro Kunde, ohne stornierte Bestellungen
+     * Liest nur Kunden-, Status-, Datums- und Betragsspalte; der Kunde ist ein Index ins Kunden-Wörterbuch.
+     */
+    Map<Long, CustomerOrderTotals> customerTotals() {
+        ByteBuffer dictionary = column(CUSTOMER_DICT);
+        long[] customers = new long[readInt(dictionary)];
+        long customer = 0;
+        for (int i = 0; i < customers.length; i++) {
+            customer += readLong(dictionary);
+            customers[i] = customer;
+        }
+
+        ByteBuffer customerCodes = column(CUSTOMER);
+        ByteBuffer codes = column(STATUS);
+        ByteBuffer dates = column(ORDER_DATE);
+        ByteBuffer amounts = column(TOTAL_AMOUNT);
+        // je Kunde: Anzahl, Cent, erstes und letztes Datum in Millisekunden
+        long[][] totals = new long[customers.length][];
+        long date = minOrderDate;
+        long amount = 0;
+        for (int i = 0; i < orderCount; i++) {
+            int code = readInt(customerCodes);
+            OrderStatus status = statuses[codes.get()];
+            date += readLong(dates);
+            amount += readZigzag(amounts);
+            if (status == OrderStatus.CANCELLED) {
+                continue;
+            }
+            long[] t = totals[code];
+            if (t == null) {
+                totals[code] = new long[]{1, amount, date, date};
+            } else {
+                t[0]++;
+                t[1] = Money.add(t[1], amount);
+                // Bestellungen liegen nach Datum sortiert, das erste Datum bleibt das kleinste
+                t[3] = date;
+            }
+        }
+
+        Map<Long, CustomerOrderTotals> result = new HashMap<>(customers.length * 2);
+        for (int i = 0; i < customers.length; i++) {
+            long[] t = totals[i];
+            if (t != null) {
+                result.put(customers[i], new CustomerOrderTotals(customers[i], t[0], Money.toBigDecimal(t[1]),
+                        dateTime(t[2]), dateTime(t[3])));
+            }
+        }
+        return result;
+    }
+
+    private ByteBuffer column(int column) {
+        return data.duplicate()
+                .position((int) offsets[column])
+                .limit((int) offsets[column + 1]);
+    }
+
+    private static LocalDateTime dateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    static int readInt(ByteBuffer buffer) {
+        return (int) readLong(buffer);
+    }
+
+    static long readLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static long readZigzag(ByteBuffer buffer) {
+        long value = readLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,216 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Money;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schreibt Bestellungen als unveränderliches Archiv-Segment (Format siehe {@link OrderSegment})
+ *
+ * Jede Spalte wird getrennt kodiert: Status und Kunde über ein Wörterbuch, Datum, Beträge und IDs als
+ * Differenz zum Vorgänger in variabler Länge, Bestellnummern mit gemeinsamem Präfix. Auf eine allgemeine
+ * Kompression (Deflate) wird bewusst verzichtet, damit die Spalten direkt aus der gemappten Datei lesbar bleiben.
+ */
+final class OrderSegmentWriter {
+
+    private OrderSegmentWriter() {
+    }
+
+    /**
+     * Schreibt die Bestellungen inkl. Positionen nach file und erzwingt das Schreiben auf die Platte
+     * Die Positionen müssen geladen sein, Kunde und Produkt werden nur per ID gelesen.
+     */
+    static void write(Path file, List<Order> orders) throws IOException {
+        List<Order> sorted = orders.stream()
+                .sorted(Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId))
+                .toList();
+        if (sorted.isEmpty()) {
+            throw new IllegalArgumentException("Leeres Segment");
+        }
+
+        Column[] columns = new Column[OrderSegment.COLUMN_COUNT];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column();
+        }
+
+        long[] customers = sorted.stream().mapToLong(order -> order.getCustomer().getId()).distinct().sorted().toArray();
+        columns[OrderSegment.CUSTOMER_DICT].varint(customers.length);
+        long previousCustomer = 0;
+        for (long customer : customers) {
+            columns[OrderSegment.CUSTOMER_DICT].varlong(customer - previousCustomer);
+            previousCustomer = customer;
+        }
+
+        Map<OrderStatus, Integer> statusCodes = new EnumMap<>(OrderStatus.class);
+        for (Order order : sorted) {
+            statusCodes.computeIfAbsent(order.getStatus(), status -> statusCodes.size());
+        }
+        columns[OrderSegment.STATUS_DICT].varint(statusCodes.size());
+        for (OrderStatus status : statusCodes.keySet().stream().sorted(Comparator.comparing(statusCodes::get)).toList()) {
+            columns[OrderSegment.STATUS_DICT].string(status.name());
+        }
+
+        long minDate = millis(sorted.get(0).getOrderDate());
+        long maxDate = millis(sorted.get(sorted.size() - 1).getOrderDate());
+        long previousId = 0;
+        long previousDate = minDate;
+        long previousAmount = 0;
+        long previousItemId = 0;
+        long previousProduct = 0;
+        long previousPrice = 0;
+        byte[] previousNumber = new byte[0];
+        int itemCount = 0;
+
+        for (Order order : sorted) {
+            columns[OrderSegment.ORDER_ID].zigzag(order.getId() - previousId);
+            previousId = order.getId();
+
+            byte[] number = order.getOrderNumber().getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previousNumber, number);
+            if (shared < 0) {
+                shared = number.length;
+            }
+            columns[OrderSegment.ORDER_NUMBER].varint(shared);
+            columns[OrderSegment.ORDER_NUMBER].varint(number.length - shared);
+            columns[OrderSegment.ORDER_NUMBER].bytes(number, shared, number.length - shared);
+            previousNumber = number;
+
+            columns[OrderSegment.CUSTOMER].varint(Arrays.binarySearch(customers, order.getCustomer().getId()));
+            columns[OrderSegment.STATUS].put(statusCodes.get(order.getStatus()));
+
+            long date = millis(order.getOrderDate());
+            columns[OrderSegment.ORDER_DATE].varlong(date - previousDate);
+            previousDate = date;
+
+            long amount = Money.toMinorUnits(order.getTotalAmount());
+            columns[OrderSegment.TOTAL_AMOUNT].zigzag(amount - previousAmount);
+            previousAmount = amount;
+
+            columns[OrderSegment.CREATED_AT].zigzag(order.getCreatedAt() != null ? millis(order.getCreatedAt()) - date : 0);
+            columns[OrderSegment.UPDATED_AT].zigzag(order.getUpdatedAt() != null ? millis(order.getUpdatedAt()) - date : 0);
+            columns[OrderSegment.NOTES].nullableString(order.getNotes());
+            columns[OrderSegment.SHIPPING_ADDRESS].nullableString(order.getShippingAddress());
+            columns[OrderSegment.BILLING_ADDRESS].nullableString(order.getBillingAddress());
+
+            List<OrderItem> items = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+            columns[OrderSegment.ITEM_COUNT].varint(items.size());
+            for (OrderItem item : items) {
+                columns[OrderSegment.ITEM_ID].zigzag(item.getId() - previousItemId);
+                previousItemId = item.getId();
+                columns[OrderSegment.ITEM_PRODUCT].zigzag(item.getProduct().getId() - previousProduct);
+                previousProduct = item.getProduct().getId();
+                columns[OrderSegment.ITEM_QUANTITY].varint(item.getQuantity());
+                long price = Money.toMinorUnits(item.getUnitPrice());
+                columns[OrderSegment.ITEM_UNIT_PRICE].zigzag(price - previousPrice);
+                previousPrice = price;
+            }
+            itemCount += items.size();
+        }
+
+        int headerSize = OrderSegment.HEADER_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(headerSize);
+        header.putInt(OrderSegment.MAGIC);
+        header.putShort(OrderSegment.VERSION);
+        header.putInt(sorted.size());
+        header.putInt(itemCount);
+        header.putLong(minDate);
+        header.putLong(maxDate);
+        long offset = headerSize;
+        for (Column column : columns) {
+            header.putLong(offset);
+            offset += column.size;
+        }
+        header.putLong(offset);
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writeFully(channel, header);
+            for (Column column : columns) {
+                writeFully(channel, ByteBuffer.wrap(column.data, 0, column.size));
+            }
+            channel.force(true);
+        }
+    }
+
+    static long millis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Wachsender Byte-Puffer einer Spalte
+     */
+    private static final class Column {
+        private byte[] data = new byte[256];
+        private int size;
+
+        void put(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = (byte) value;
+        }
+
+        void varint(int value) {
+            varlong(value);
+        }
+
+        // LEB128: 7 Bit pro Byte, höchstes Bit markiert Fortsetzung
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                put((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            put((int) value);
+        }
+
+        // Zigzag bildet kleine negative Differenzen auf kleine positive Zahlen ab
+        void zigzag(long value) {
+            varlong((value << 1) ^ (value >> 63));
+        }
+
+        void bytes(byte[] source, int from, int length) {
+            for (int i = 0; i < length; i++) {
+                put(source[from + i]);
+            }
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            bytes(bytes, 0, bytes.length);
+        }
+
+        // Länge + 1, 0 steht für null
+        void nullableString(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            bytes(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderCreatedEvent;
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Schreibpfade für Bestellungen
+ * Lädt Bestellungen mit explizitem Fetch-Plan und ändert sie innerhalb einer Transaktion,
+ * damit die Antwort ohne Lazy-Loading außerhalb der Session serialisiert werden kann
+ */
+@Service
+@Transactional
+public class OrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    public OrderService(OrderRepository orderRepository,
+                        CustomerRepository customerRepository,
+                        ProductRepository productRepository,
+                        InventoryService inventoryService,
+                        OrderNumberGenerator orderNumberGenerator,
+                        OutboxService outboxService,
+                        ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.orders.update.max-attempts:5}") int maxAttempts,
+                        @Value("${app.orders.update.retry-backoff:10ms}") Duration retryBackoff) {
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.inventoryService = inventoryService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    /**
+     * Legt eine Bestellung an und reserviert den Bestand aller Positionen in derselben Transaktion
+     * Bei Unterdeckung eines Produkts wird sofort abgebrochen und alles zurückgerollt.
+     *
+     * @throws IllegalArgumentException wenn Kunde oder ein Produkt nicht existiert
+     */
+    public Order createOrder(Order order) {
+        Map<Long, Integer> quantities = quantitiesByProduct(order);
+        // Unbekannte Kunden oder Produkte vor der Reservierung ablehnen (400 statt 409, ohne Zeilensperren)
+        attachReferences(order, quantities.keySet());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!inventoryService.reserve(entry.getKey(), entry.getValue())) {
+                throw new InsufficientStockException(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Bestellnummer generieren falls nicht vorhanden
+        if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
+            order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+        }
+
+        // Gesamtbetrag berechnen falls nicht gesetzt
+        if (order.getTotalAmount() == null) {
+            order.setTotalAmount(order.calculateTotalAmount());
+        }
+
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderCreatedEvent(
+                saved.getId(), saved.getStatus(), saved.getTotalAmount(), saved.getOrderDate()));
+        return saved;
+    }
+
+    /**
+     * Ersetzt Kunde und Produkte aus dem Request ({"id": n}, ohne Version) durch verwaltete Entities
+     * Ein detached Product mit version = null würde save() sonst als inkonsistent ablehnen. Ohne Einzelpreis
+     * gilt für die Position der aktuelle Produktpreis (wie im Bulk-Import).
+     */
+    private void attachReferences(Order order, Collection<Long> productIds) {
+        if (order.getCustomer() == null || order.getCustomer().getId() == null) {
+            throw new IllegalArgumentException("Bestellung ohne Kunde");
+        }
+        Long customerId = order.getCustomer().getId();
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Kunde " + customerId + " nicht gefunden"));
+        order.setCustomer(customer);
+
+        if (order.getOrderItems() == null) {
+            return;
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (OrderItem item : order.getOrderItems()) {
+            Product product = products.get(item.getProduct().getId());
+            if (product == null) {
+                throw new IllegalArgumentException("Produkt " + item.getProduct().getId() + " nicht gefunden");
+            }
+            item.setProduct(product);
+            if (item.getUnitPrice() == null) {
+                item.setUnitPrice(product.getPrice());
+            }
+        }
+    }
+
+    /**
+     * Prüft die Positionen und fasst die Mengen pro Produkt zusammen
+     * Die TreeMap liefert die Produkte in aufsteigender ID-Reihenfolge: parallele Bestellungen mit überlappenden
+     * Produkten sperren die Zeilen in derselben Reihenfolge und blockieren sich nicht gegenseitig (Deadlock)
+     */
+    static Map<Long, Integer> quantitiesByProduct(Order order) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        if (order.getOrderItems() == null) {
+            return quantities;
+        }
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
+                throw new IllegalArgumentException("Bestellposition ohne Produkt");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Ungültige Menge für Produkt " + item.getProduct().getId());
+            }
+            item.setOrder(order);
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    public Optional<Order> updateOrder(Long id, Order orderDetails) {
+        return updateOrder(id, orderDetails, null);
+    }
+
+    /**
+     * Überschreibt Status, Notizen und Adressen
+     * Mit expectedVersion (If-Match) nur, wenn seit dem Lesen des Clients niemand geändert hat. Ein paralleler
+     * Schreiber zwischen Laden und Commit fällt beim UPDATE ... WHERE version = ? auf (OptimisticLockingFailureException).
+     */
+    public Optional<Order> updateOrder(Long id, Order orderDetails, Long expectedVersion) {
+        return orderRepository.findWithDetailsById(id).map(order -> {
+            checkVersion(order, expectedVersion);
+            changeStatus(order, orderDetails.getStatus());
+            order.setNotes(orderDetails.getNotes());
+            order.setShippingAddress(orderDetails.getShippingAddress());
+            order.setBillingAddress(orderDetails.getBillingAddress());
+
+            // Gesamtbetrag neu berechnen
+            order.setTotalAmount(order.calculateTotalAmount());
+            return order;
+        });
+    }
+
+    public Optional<Order> updateStatus(Long id, OrderStatus status) {
+        return updateStatus(id, status, null);
+    }
+
+    public Optional<Order> updateStatus(Long id, OrderStatus status, Long expectedVersion) {
+        return orderRepository.findWithDetailsById(id).map(order -> {
+            checkVersion(order, expectedVersion);
+            changeStatus(order, status);
+            return order;
+        });
+    }
+
+    /**
+     * Statuswechsel mit begrenzter Wiederholung bei gleichzeitiger Änderung
+     * Der Wechsel auf einen Zielstatus ist idempotent und wird in einer neuen Transaktion auf dem frischen
+     * Stand wiederholt (max-attempts, Wartezeit zufällig bis retry-backoff * 2^Versuch). Mit expectedVersion
+     * hat der Client eine bestimmte Version verlangt - dann wird nicht wiederholt.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Order> updateStatusWithRetry(Long id, OrderStatus status, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> updateStatus(id, status, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null || attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Concurrent update of order {}, retrying status change (attempt {})", id, attempt);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void checkVersion(Order order, Long expectedVersion) {
+        if (expectedVersion != null && !Objects.equals(expectedVersion, order.getVersion())) {
+            throw new VersionConflictException("Bestellung", order.getId(), expectedVersion, order.getVersion());
+        }
+    }
+
+    // Full Jitter: parallele Verlierer verteilen sich, statt im selben Moment erneut zu kollidieren
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        long maxMillis = retryBackoff.toMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    // Statuswechsel und Outbox-Ereignis in derselben Transaktion, das In-Process-Ereignis folgt nach dem Commit
+    private void changeStatus(Order order, OrderStatus status) {
+        OrderStatus previous = order.getStatus();
+        order.setStatus(status);
+        if (previous != status) {
+            OrderStatusChangedEvent event = new OrderStatusChangedEvent(order.getId(), order.getOrderNumber(),
+                    order.getCustomer().getId(), previous, status, order.getTotalAmount(), LocalDateTime.now());
+            outboxService.recordStatusChange(event);
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderStatusBulkItemResult;
+import com.thomas.order_management.dto.OrderStatusBulkItemResult.Outcome;
+import com.thomas.order_management.dto.OrderStatusBulkRequest;
+import com.thomas.order_management.dto.OrderStatusBulkResult;
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * Massen-Statuswechsel (z.B. Scanner im Lager markiert Hunderte Bestellungen als versandt)
+ *
+ * Pro Chunk eine Transaktion mit zwei Statements statt je Bestellung Laden und Speichern: ein SELECT ... FOR UPDATE
+ * über alle IDs des Chunks (WHERE id = ANY(?), ein Array-Parameter, ein Plan für jede Chunk-Größe) und ein UPDATE
+ * über die erlaubten Übergänge. Das SQL umgeht Hibernate - Version, updated_at, Revenue-Rollups, Kundenkennzahlen und
+ * Outbox-Ereignisse werden hier fortgeschrieben wie beim Einzelwechsel in {@link OrderService}.
+ */
+@Service
+public class OrderStatusBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusBulkService.class);
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, order_number, customer_id, status, order_date, total_amount FROM orders ";
+
+    // Sperrt in ID-Reihenfolge: parallele Massenwechsel mit überlappenden IDs können sich nicht verklemmen,
+    // der spätere wartet aber auf die Sperren des früheren bis zu dessen Commit
+    private static final String LOCK_BY_ID_SQL = SELECT_COLUMNS + "WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+    private static final String LOCK_BY_ORDER_NUMBER_SQL = SELECT_COLUMNS + "WHERE order_number = ANY(?) ORDER BY id FOR UPDATE";
+    private static final String UPDATE_SQL =
+            "UPDATE orders SET status = ?, updated_at = ?, version = version + 1 WHERE id = ANY(?)";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getLong("id"),
+            rs.getString("order_number"),
+            rs.getLong("customer_id"),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getObject("order_date", LocalDateTime.class),
+            rs.getBigDecimal("total_amount"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final RevenueRollupListener revenueRollupListener;
+    private final CustomerStatsListener customerStatsListener;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeZone jdbcTimeZone;
+    private final int chunkSize;
+    private final int maxSize;
+
+    public OrderStatusBulkService(JdbcTemplate jdbcTemplate,
+                                  EntityManager entityManager,
+                                  RevenueRollupListener revenueRollupListener,
+                                  CustomerStatsListener customerStatsListener,
+                                  OutboxService outboxService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.orders.status-bulk.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.orders.status-bulk.max-size:50000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.revenueRollupListener = revenueRollupListener;
+        this.customerStatsListener = customerStatsListener;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTimeZone = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcTimeZone();
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Wechselt alle angefragten Bestellungen auf den Zielstatus, soweit der Übergang erlaubt ist
+     * Doppelte IDs bzw. Bestellnummern werden einmal beantwortet. Die Ergebnisse stehen in Request-Reihenfolge,
+     * erst alle IDs, dann alle Bestellnummern.
+     *
+     * @throws IllegalArgumentException ohne Zielstatus, ohne Bestellungen oder bei mehr als max-size Einträgen
+     */
+    public OrderStatusBulkResult transition(OrderStatusBulkRequest request) {
+        OrderStatus target = request.getStatus();
+        List<Long> ids = distinct(request.getIds());
+        List<String> orderNumbers = distinct(request.getOrderNumbers());
+        if (target == null) {
+            throw new IllegalArgumentException("Zielstatus fehlt");
+        }
+        if (ids.isEmpty() && orderNumbers.isEmpty()) {
+            throw new IllegalArgumentException("Keine Bestellungen angegeben");
+        }
+        if (ids.size() + orderNumbers.size() > maxSize) {
+            throw new IllegalArgumentException("Höchstens " + maxSize + " Bestellungen pro Request");
+        }
+
+        OrderStatusBulkResult result = new OrderStatusBulkResult(target);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            writeChunk(chunk, target, LOCK_BY_ID_SQL, "bigint", Row::id,
+                    (id, row) -> new OrderStatusBulkItemResult(id, row != null ? row.orderNumber() : null, null, null, null),
+                    result);
+        }
+        for (int from = 0; from < orderNumbers.size(); from += chunkSize) {
+            List<String> chunk = orderNumbers.subList(from, Math.min(from + chunkSize, orderNumbers.size()));
+            writeChunk(chunk, target, LOCK_BY_ORDER_NUMBER_SQL, "varchar", Row::orderNumber,
+                    (number, row) -> new OrderStatusBulkItemResult(row != null ? row.id() : null, number, null, null, null),
+                    result);
+        }
+        logger.info("Bulk status change to {}: {} requested, {} changed, {} unchanged, {} rejected, {} not found",
+                target, result.getRequested(), result.getChanged(), result.getUnchanged(),
+                result.getRejected(), result.getNotFound());
+        return result;
+    }
+
+    private <K> void writeChunk(List<K> keys, OrderStatus target, String lockSql, String arrayType,
+                                Function<Row, K> keyOf, ItemFactory<K> itemFactory, OrderStatusBulkResult result) {
+        List<OrderStatusBulkItemResult> chunkResults = new ArrayList<>(keys.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Row> rows = jdbcTemplate.query(lockSql,
+                        ps -> ps.setArray(1, array(ps.getConnection(), arrayType, keys)), ROW_MAPPER);
+                Map<K, Row> byKey = new HashMap<>(rows.size() * 2);
+                rows.forEach(row -> byKey.put(keyOf.apply(row), row));
+
+                List<Row> changed = new ArrayList<>();
+                for (K key : keys) {
+                    Row row = byKey.get(key);
+                    OrderStatusBulkItemResult item = itemFactory.create(key, row);
+                    classify(item, row, target);
+                    if (item.getOutcome() == Outcome.CHANGED) {
+                        changed.add(row);
+                    }
+                    chunkResults.add(item);
+                }
+                if (!changed.isEmpty()) {
+                    apply(changed, target);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Die Transaktion wurde zurückgerollt - kein Wechsel dieses Chunks ist gespeichert
+            logger.warn("Bulk status chunk of {} orders rolled back: {}", keys.size(), e.getMessage());
+            String error = "Chunk zurückgerollt: " + e.getMessage();
+            chunkResults.replaceAll(item -> item.getOutcome() == Outcome.CHANGED
+                    ? new OrderStatusBulkItemResult(item.getOrderId(), item.getOrderNumber(), Outcome.REJECTED,
+                            item.getPreviousStatus(), error)
+                    : item);
+        }
+        chunkResults.forEach(result::add);
+    }
+
+    private static void classify(OrderStatusBulkItemResult item, Row row, OrderStatus target) {
+        if (row == null) {
+            item.setOutcome(Outcome.NOT_FOUND);
+            return;
+        }
+        item.setPreviousStatus(row.status());
+        if (row.status() == target) {
+            item.setOutcome(Outcome.UNCHANGED);
+        } else if (row.status().canTransitionTo(target)) {
+            item.setOutcome(Outcome.CHANGED);
+        } else {
+            item.setOutcome(Outcome.REJECTED);
+            item.setError("Übergang " + row.status() + " -> " + target + " nicht erlaubt");
+        }
+    }
+
+    /**
+     * Ein UPDATE für den Chunk, danach Rollups und Outbox in derselben Transaktion
+     */
+    private void apply(List<Row> changed, OrderStatus target) {
+        Long[] ids = changed.stream().map(Row::id).toArray(Long[]::new);
+        LocalDateTime changedAt = LocalDateTime.now();
+        int updated = jdbcTemplate.update(UPDATE_SQL, ps -> {
+            ps.setString(1, target.name());
+            // updated_at wie über Order.preUpdate: in der Zeitzone von hibernate.jdbc.time_zone, falls gesetzt
+            if (jdbcTimeZone != null) {
+                ps.setTimestamp(2, Timestamp.valueOf(changedAt), Calendar.getInstance(jdbcTimeZone));
+            } else {
+                ps.setTimestamp(2, Timestamp.valueOf(changedAt));
+            }
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+        });
+        if (updated != ids.length) {
+            // Die Zeilen sind gesperrt - eine Abweichung heißt, dass sie zwischendurch gelöscht wurden
+            throw new IllegalStateException(updated + " von " + ids.length + " Bestellungen aktualisiert");
+        }
+
+        for (Row row : changed) {
+            revenueRollupListener.recordBulkChange(entityManager, row.orderDate(), row.status(), -1, row.totalAmount().negate());
+            revenueRollupListener.recordBulkChange(entityManager, row.orderDate(), target, 1, row.totalAmount());
+            if ((row.status() == OrderStatus.CANCELLED) != (target == OrderStatus.CANCELLED)) {
+                // Kundenkennzahlen ändern sich nur, wenn die Bestellung storniert wird
+                customerStatsListener.recordBulkChange(entityManager, row.customerId(), row.orderDate(), row.status(), -1, row.totalAmount());
+                customerStatsListener.recordBulkChange(entityManager, row.customerId(), row.orderDate(), target, 1, row.totalAmount());
+            }
+
+            OrderStatusChangedEvent event = new OrderStatusChangedEvent(row.id(), row.orderNumber(),
+                    row.customerId(), row.status(), target, row.totalAmount(), changedAt);
+            outboxService.recordStatusChange(event);
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private static Array array(Connection connection, String type, List<?> values) throws SQLException {
+        return connection.createArrayOf(type, values.toArray());
+    }
+
+    private static <T> List<T> distinct(List<T> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return new ArrayList<>(values.stream().filter(Objects::nonNull).collect(
+                LinkedHashSet<T>::new, LinkedHashSet::add, LinkedHashSet::addAll));
+    }
+
+    @FunctionalInterface
+    private interface ItemFactory<K> {
+        OrderStatusBulkItemResult create(K key, Row row);
+    }
+
+    private record Row(long id, String orderNumber, long customerId, OrderStatus status,
+                       LocalDateTime orderDate, BigDecimal totalAmount) {
+    }
+}
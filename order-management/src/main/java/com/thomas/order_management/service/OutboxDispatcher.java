@@ -0,0 +1,184 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.OutboxEvent;
+import com.thomas.order_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stellt Outbox-Ereignisse in Batches an alle OutboxSinks zu
+ *
+ * Jeder Batch wird in einer kurzen Transaktion per FOR UPDATE SKIP LOCKED beansprucht und für claim-timeout
+ * reserviert (next_attempt_at), andere Instanzen nehmen die nächsten Zeilen - der Dispatcher skaliert so
+ * horizontal. Die Zustellung an die Sinks läuft danach ohne Transaktion und ohne Zeilensperren; eine zweite
+ * kurze Transaktion vermerkt pro Ereignis, welche Sinks es erhalten haben. Schlägt ein Sink fehl, wird nur an
+ * ihn mit exponentiellem Backoff erneut zugestellt - die übrigen erhalten den Batch nicht doppelt.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration retention;
+    private final Duration claimTimeout;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<OutboxSink> sinks,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.retry-backoff:1s}") Duration retryBackoff,
+                            @Value("${app.outbox.max-retry-backoff:5m}") Duration maxRetryBackoff,
+                            @Value("${app.outbox.retention:7d}") Duration retention,
+                            @Value("${app.outbox.claim-timeout:1m}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+        this.publishedCounter = Counter.builder("outbox.events").tag("result", "published").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events").tag("result", "failed").register(meterRegistry);
+    }
+
+    /**
+     * Arbeitet fällige Ereignisse ab, solange volle Batches zurückkommen
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (sinks.isEmpty()) {
+            return;
+        }
+        // Rückstand abbauen, ohne auf den nächsten Poll zu warten
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    /**
+     * Beansprucht und stellt einen Batch zu
+     *
+     * @return Anzahl vollständig zugestellter Ereignisse (ohne die, an die ein Sink noch nicht zugestellt hat)
+     */
+    public int dispatchBatch() {
+        List<OutboxEvent> events = claim();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Zustellung ohne offene Transaktion: die Zeilen sind über next_attempt_at für claim-timeout reserviert
+        Map<String, Exception> failures = new LinkedHashMap<>();
+        for (OutboxSink sink : sinks) {
+            List<OutboxEvent> pending = events.stream()
+                    .filter(event -> !event.isDeliveredTo(sink.name()))
+                    .toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+            try {
+                sink.publish(pending);
+                pending.forEach(event -> event.markDeliveredTo(sink.name()));
+            } catch (Exception e) {
+                failures.put(sink.name(), e);
+            }
+        }
+
+        Integer published = transactionTemplate.execute(status -> complete(events, failures));
+        return published != null ? published : 0;
+    }
+
+    /**
+     * Sperrt fällige Ereignisse (SKIP LOCKED) und verschiebt next_attempt_at um claim-timeout
+     * Nach dem Commit überspringen andere Instanzen die Zeilen, ohne dass während der Zustellung Sperren gehalten
+     * werden. Stirbt die Instanz, werden die Ereignisse nach Ablauf erneut fällig.
+     */
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.claimDue(now, Limit.of(batchSize));
+            events.forEach(event -> event.setNextAttemptAt(now.plus(claimTimeout)));
+            return events;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    /**
+     * Vermerkt die Zustellung pro Sink; veröffentlicht ist ein Ereignis erst, wenn alle Sinks es erhalten haben
+     */
+    private int complete(List<OutboxEvent> events, Map<String, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        String error = failures.isEmpty() ? null : truncate(failures.entrySet().stream()
+                .map(failure -> failure.getKey() + ": " + failure.getValue())
+                .collect(Collectors.joining("; ")));
+        failures.forEach((sink, e) -> logger.warn("Outbox sink '{}' failed for events starting at id {}: {}",
+                sink, events.get(0).getId(), e.getMessage()));
+
+        int published = 0;
+        int failed = 0;
+        for (OutboxEvent claimed : events) {
+            OutboxEvent event = outboxEventRepository.findById(claimed.getId()).orElse(null);
+            if (event == null) {
+                continue;
+            }
+            event.setDeliveredSinks(claimed.getDeliveredSinks());
+            if (sinks.stream().allMatch(sink -> event.isDeliveredTo(sink.name()))) {
+                event.setPublishedAt(now);
+                published++;
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(error);
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+                failed++;
+            }
+        }
+        publishedCounter.increment(published);
+        failedCounter.increment(failed);
+        return published;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    // retryBackoff * 2^(attempts - 1), begrenzt auf maxRetryBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+}
@@ -0,0 +1,36 @@
+package com.thomas.order_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.OutboxEvent;
+import com.thomas.order_management.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Schreibt Outbox-Ereignisse - nur innerhalb der Transaktion der fachlichen Änderung (MANDATORY),
+ * damit Änderung und Ereignis gemeinsam committen oder gemeinsam zurückrollen
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void recordStatusChange(OrderStatusChangedEvent event) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(event.getOrderId(), OrderStatusChangedEvent.TYPE,
+                    objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox-Ereignis für Bestellung " + event.getOrderId() + " nicht serialisierbar", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Ziel für Outbox-Ereignisse (Versand, Mail, Message-Broker, ...)
+ *
+ * Der OutboxDispatcher übergibt jeden Batch an alle Sinks, die die Ereignisse noch nicht erhalten haben. Schlägt
+ * ein Sink fehl, erhält nur er den Batch später erneut. Bricht der Dispatcher zwischen Zustellung und Vermerk ab,
+ * wird ebenfalls wiederholt - Sinks müssen daher mit Wiederholungen umgehen können (at-least-once,
+ * Deduplizierung über die Ereignis-ID).
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
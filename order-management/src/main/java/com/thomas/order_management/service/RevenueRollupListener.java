@@ -0,0 +1,294 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Money;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Schreibt die Revenue-Rollups fort, sobald Hibernate eine Bestellung einfügt, ändert oder löscht
+ *
+ * Als Hibernate-Event-Listener erfasst er jeden Schreibpfad (Services, Intake, Batch, Seed-Daten, Kaskaden beim
+ * Löschen eines Kunden). Die Änderungen werden pro Transaktion nach (Tag, Status) zusammengefasst und erst nach dem
+ * letzten Flush, unmittelbar vor dem Commit, auf derselben Verbindung geschrieben - ein Batch mit 50 Bestellungen
+ * kostet so ein UPDATE statt 50. Jede Transaktion schreibt in einen zufälligen Slot, damit parallele Bestellungen
+ * nicht an einer Zeile pro Tag anstehen. JPQL-Massenupdates an orders umgehen die Events und müssen die Rollups
+ * selbst pflegen.
+ */
+@Component
+public class RevenueRollupListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupListener.class);
+
+    private static final String UPDATE_SQL = """
+        UPDATE revenue_rollup SET order_count = order_count + ?, amount = amount + ?
+        WHERE revenue_date = ? AND status = ? AND slot = ?
+        """;
+    private static final String INSERT_SQL = """
+        INSERT INTO revenue_rollup (revenue_date, status, slot, order_count, amount) VALUES (?, ?, ?, ?, ?)
+        """;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final RevenueRollupService revenueRollupService;
+    private final int slots;
+
+    // Offene Änderungen je Session; Sessions sind single-threaded, die Map nur über Sessions hinweg nebenläufig
+    private final Map<SharedSessionContractImplementor, PendingRollup> pending = new ConcurrentHashMap<>();
+
+    public RevenueRollupListener(EntityManagerFactory entityManagerFactory,
+                                 RevenueRollupService revenueRollupService,
+                                 @Value("${app.revenue.rollup.slots:8}") int slots) {
+        if (slots < 1) {
+            throw new IllegalArgumentException("app.revenue.rollup.slots muss mindestens 1 sein");
+        }
+        this.entityManagerFactory = entityManagerFactory;
+        this.revenueRollupService = revenueRollupService;
+        this.slots = slots;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            pendingFor(event.getSession()).add(order.getOrderDate(), order.getStatus(), 1, order.getTotalAmount());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Update ohne geladenen Vorzustand - die Konsistenzprüfung gleicht den Tag wieder ab
+            logger.warn("Order {} updated without previous state, revenue rollup not adjusted", event.getId());
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getState();
+        int dateIndex = propertyIndex(persister, "orderDate");
+        int statusIndex = propertyIndex(persister, "status");
+        int amountIndex = propertyIndex(persister, "totalAmount");
+
+        LocalDateTime oldDate = (LocalDateTime) oldState[dateIndex];
+        OrderStatus oldStatus = (OrderStatus) oldState[statusIndex];
+        BigDecimal oldAmount = (BigDecimal) oldState[amountIndex];
+        LocalDateTime newDate = (LocalDateTime) state[dateIndex];
+        OrderStatus newStatus = (OrderStatus) state[statusIndex];
+        BigDecimal newAmount = (BigDecimal) state[amountIndex];
+
+        boolean sameDay = oldDate.toLocalDate().equals(newDate.toLocalDate());
+        if (sameDay && oldStatus == newStatus && oldAmount.compareTo(newAmount) == 0) {
+            return;
+        }
+        PendingRollup rollup = pendingFor(event.getSession());
+        rollup.add(oldDate, oldStatus, -1, oldAmount.negate());
+        rollup.add(newDate, newStatus, 1, newAmount);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] state = event.getDeletedState();
+        pendingFor(event.getSession()).add(
+                (LocalDateTime) state[propertyIndex(persister, "orderDate")],
+                (OrderStatus) state[propertyIndex(persister, "status")],
+                -1,
+                ((BigDecimal) state[propertyIndex(persister, "totalAmount")]).negate());
+    }
+
+    /**
+     * Nimmt eine Änderung auf, die per SQL an Hibernate vorbei geschrieben wurde (Massenupdate)
+     * Wird zusammen mit den übrigen Änderungen der laufenden Transaktion vor dem Commit geschrieben.
+     */
+    public void recordBulkChange(EntityManager entityManager, LocalDateTime orderDate, OrderStatus status,
+                                 long count, BigDecimal amount) {
+        pendingFor(entityManager.unwrap(EventSource.class)).add(orderDate, status, count, amount);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingRollup pendingFor(EventSource session) {
+        PendingRollup rollup = pending.get(session);
+        if (rollup == null) {
+            rollup = new PendingRollup(session);
+            pending.put(session, rollup);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) rollup);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) rollup);
+        }
+        return rollup;
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Property " + property + " fehlt in " + persister.getEntityName());
+    }
+
+    /**
+     * Aufgelaufene Änderungen einer Transaktion
+     * Wird vor dem Commit (nach dem letzten Flush) geschrieben und nach Commit oder Rollback verworfen.
+     */
+    private final class PendingRollup implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final SharedSessionContractImplementor session;
+        // Sortiert nach Tag und Status: alle Transaktionen sperren Rollup-Zeilen in derselben Reihenfolge
+        private final NavigableMap<LocalDate, Map<OrderStatus, Delta>> deltas = new TreeMap<>();
+        private boolean pastDaysChanged;
+
+        private PendingRollup(SharedSessionContractImplementor session) {
+            this.session = session;
+        }
+
+        void add(LocalDateTime orderDate, OrderStatus status, long count, BigDecimal amount) {
+            deltas.computeIfAbsent(orderDate.toLocalDate(), day -> new EnumMap<>(OrderStatus.class))
+                  .computeIfAbsent(status, s -> new Delta())
+                  .add(count, amount != null ? amount : BigDecimal.ZERO);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            LocalDate today = LocalDate.now();
+            int slot = ThreadLocalRandom.current().nextInt(slots);
+            session.doWork(connection -> {
+                for (Map.Entry<LocalDate, Map<OrderStatus, Delta>> day : deltas.entrySet()) {
+                    for (Map.Entry<OrderStatus, Delta> entry : day.getValue().entrySet()) {
+                        Delta delta = entry.getValue();
+                        if (delta.isZero()) {
+                            continue;
+                        }
+                        apply(connection, day.getKey(), entry.getKey(), slot, delta);
+                        if (day.getKey().isBefore(today)) {
+                            pastDaysChanged = true;
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(this.session);
+            if (success && pastDaysChanged) {
+                revenueRollupService.invalidatePastDays();
+            }
+        }
+
+        /**
+         * UPDATE auf die vorhandene Zeile; fehlt sie, wird sie eingefügt. Verliert das INSERT das Rennen gegen
+         * eine parallele Transaktion, wird nur bis zum Savepoint zurückgerollt und erneut aktualisiert.
+         */
+        private void apply(Connection connection, LocalDate day, OrderStatus status, int slot, Delta delta)
+                throws SQLException {
+            if (update(connection, day, status, slot, delta) == 1) {
+                return;
+            }
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                insert.setObject(1, day);
+                insert.setString(2, status.name());
+                insert.setInt(3, slot);
+                insert.setLong(4, delta.count);
+                insert.setBigDecimal(5, delta.amount());
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (update(connection, day, status, slot, delta) != 1) {
+                    throw new HibernateException("Revenue rollup " + day + "/" + status + " konnte nicht geschrieben werden", e);
+                }
+            }
+        }
+
+        private int update(Connection connection, LocalDate day, OrderStatus status, int slot, Delta delta)
+                throws SQLException {
+            try (PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+                update.setLong(1, delta.count);
+                update.setBigDecimal(2, delta.amount());
+                update.setObject(3, day);
+                update.setString(4, status.name());
+                update.setInt(5, slot);
+                return update.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Summe in Cent: viele Änderungen am selben Tag/Status (Massenupdate) legen kein BigDecimal pro Addition an
+     * Gerundet wie die Spalte total_amount, in die der Betrag ohnehin geschrieben wird.
+     */
+    private static final class Delta {
+
+        private long count;
+        private long amountCents;
+
+        void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amountCents = Money.add(amountCents, Money.roundToMinorUnits(amount));
+        }
+
+        BigDecimal amount() {
+            return Money.toBigDecimal(amountCents);
+        }
+
+        boolean isZero() {
+            return count == 0 && amountCents == 0;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.RevenueRollup;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.RevenueRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Umsatz- und Statuskennzahlen aus den Revenue-Rollups statt aus orders
+ *
+ * Abfragen kosten O(Tage) statt O(Bestellungen). Abgeschlossene Tage ändern sich nur noch selten (Statuswechsel
+ * älterer Bestellungen) und werden im Speicher gehalten; gelesen wird nur der laufende Tag. Der Cache wird nach
+ * lokalen Änderungen an vergangenen Tagen verworfen und spätestens nach past-days-ttl neu geladen, damit auch
+ * Änderungen anderer Knoten ankommen. Ein Prüfjob vergleicht die Rollups regelmäßig mit den Rohdaten und baut
+ * abweichende Tage neu auf.
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    // So fragt das Dashboard das Tagesende ab; gilt als ganzer Tag
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
+    // insertFromOrders schreibt Slot 0
+    private static final int ARCHIVE_SLOT = 1;
+
+    private final RevenueRollupRepository rollupRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pastDaysTtl;
+    private final boolean repair;
+    private final Counter mismatchCounter;
+
+    private volatile PastDays pastDays;
+
+    public RevenueRollupService(RevenueRollupRepository rollupRepository,
+                                OrderRepository orderRepository,
+                                OrderArchiveService orderArchiveService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.revenue.rollup.past-days-ttl:5m}") Duration pastDaysTtl,
+                                @Value("${app.revenue.rollup.repair:true}") boolean repair) {
+        this.rollupRepository = rollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pastDaysTtl = pastDaysTtl;
+        this.repair = repair;
+        this.mismatchCounter = Counter.builder("revenue.rollup.mismatches").register(meterRegistry);
+    }
+
+    /**
+     * Anzahl Bestellungen je Status (alle Status, auch 0)
+     */
+    public Map<OrderStatus, Long> countsByStatus() {
+        PastDays past = pastDays();
+        Map<OrderStatus, Long> counts = new EnumMap<>(past.countByStatus);
+        for (DailyRevenue current : rollupRepository.findDailyTotalsFrom(past.today)) {
+            counts.merge(current.getStatus(), current.getOrderCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Umsatz je Status über alle Tage (alle Status, auch 0)
+     */
+    public Map<OrderStatus, BigDecimal> revenueByStatus() {
+        PastDays past = pastDays();
+        Map<OrderStatus, BigDecimal> revenue = new EnumMap<>(past.amountByStatus);
+        for (DailyRevenue current : rollupRepository.findDailyTotalsFrom(past.today)) {
+            revenue.merge(current.getStatus(), current.getAmount(), BigDecimal::add);
+        }
+        return revenue;
+    }
+
+    public long countByStatus(OrderStatus status) {
+        return countsByStatus().get(status);
+    }
+
+    public BigDecimal revenueByStatus(OrderStatus status) {
+        return revenueByStatus().get(status);
+    }
+
+    /**
+     * Umsatz aller Bestellungen (jeder Status) mit Bestelltag in [from, to]
+     */
+    public BigDecimal revenueForDays(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return BigDecimal.ZERO;
+        }
+        PastDays past = pastDays();
+        BigDecimal total = BigDecimal.ZERO;
+        if (from.isBefore(past.today)) {
+            LocalDate pastTo = to.isBefore(past.today) ? to : past.today.minusDays(1);
+            for (BigDecimal amount : past.amountByDay.subMap(from, true, pastTo, true).values()) {
+                total = total.add(amount);
+            }
+        }
+        if (!to.isBefore(past.today)) {
+            LocalDate currentFrom = from.isAfter(past.today) ? from : past.today;
+            total = total.add(nonNull(rollupRepository.sumAmountBetween(currentFrom, to)));
+        }
+        return total;
+    }
+
+    /**
+     * Umsatz im Zeitraum [start, end] wie OrderRepository.getTotalRevenueInPeriod
+     * Volle Tage kommen aus den Rollups, nur angebrochene Randtage werden in orders summiert.
+     */
+    public BigDecimal revenueInPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            return BigDecimal.ZERO;
+        }
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate()
+                : start.toLocalDate().plusDays(1);
+        LocalDate lastFullDay = end.toLocalTime().isBefore(END_OF_DAY)
+                ? end.toLocalDate().minusDays(1)
+                : end.toLocalDate();
+        if (firstFullDay.isAfter(lastFullDay)) {
+            return rawRevenueInPeriod(start, end);
+        }
+
+        BigDecimal total = revenueForDays(firstFullDay, lastFullDay);
+        if (start.isBefore(firstFullDay.atStartOfDay())) {
+            LocalDateTime until = firstFullDay.atStartOfDay();
+            total = total.add(nonNull(orderRepository.getTotalRevenueFromUntil(start, until)))
+                    .add(orderArchiveService.revenueFromUntil(start, until));
+        }
+        LocalDateTime tailStart = lastFullDay.plusDays(1).atStartOfDay();
+        if (!end.isBefore(tailStart)) {
+            total = total.add(rawRevenueInPeriod(tailStart, end));
+        }
+        return total;
+    }
+
+    // Rohdaten inkl. archivierter Bestellungen
+    private BigDecimal rawRevenueInPeriod(LocalDateTime start, LocalDateTime end) {
+        return nonNull(orderRepository.getTotalRevenueInPeriod(start, end))
+                .add(orderArchiveService.revenueInPeriod(start, end));
+    }
+
+    /**
+     * Verwirft den Cache abgeschlossener Tage (nach Änderungen an älteren Bestellungen)
+     */
+    public void invalidatePastDays() {
+        pastDays = null;
+    }
+
+    /**
+     * Vergleicht die Rollups mit den Rohdaten und baut abweichende Tage neu auf
+     *
+     * @return Anzahl abweichender Tage
+     */
+    @Scheduled(initialDelayString = "${app.revenue.rollup.check-initial-delay-ms:60000}",
+               fixedDelayString = "${app.revenue.rollup.check-interval-ms:3600000}")
+    public int verify() {
+        List<DailyRevenue> archived = orderArchiveService.dailyRevenue();
+        List<DailyRevenue> raw = new ArrayList<>(orderRepository.computeDailyRevenue());
+        raw.addAll(archived);
+        Map<LocalDate, Map<OrderStatus, DailyRevenue>> expected = byDay(raw);
+        Map<LocalDate, Map<OrderStatus, DailyRevenue>> archivedByDay = byDay(archived);
+        Map<LocalDate, Map<OrderStatus, DailyRevenue>> actual = byDay(rollupRepository.findDailyTotals());
+
+        Set<LocalDate> days = new TreeSet<>(expected.keySet());
+        days.addAll(actual.keySet());
+        // Tage vor der ältesten Bestellung sind abgehängt (Partitionen im Schema archive), ihre Rollups bleiben stehen
+        LocalDate horizon = expected.isEmpty() ? null : expected.keySet().iterator().next();
+        int mismatches = 0;
+        for (LocalDate day : days) {
+            if (horizon != null && day.isBefore(horizon) || matches(expected.get(day), actual.get(day))) {
+                continue;
+            }
+            mismatches++;
+            if (repair) {
+                logger.warn("Revenue rollup for {} differs from orders, rebuilding", day);
+                // Löschen und Neuaufbau in einer Transaktion; parallele Schreiber legen fehlende Zeilen neu an
+                transactionTemplate.executeWithoutResult(status -> {
+                    rollupRepository.deleteByRevenueDate(day);
+                    rollupRepository.insertFromOrders(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                    // Archivierter Anteil in einem eigenen Slot, Leser summieren ohnehin alle Slots
+                    archivedByDay.getOrDefault(day, Map.of()).values().forEach(row -> rollupRepository.save(
+                            new RevenueRollup(day, row.getStatus(), ARCHIVE_SLOT, row.getOrderCount(), row.getAmount())));
+                });
+            } else {
+                logger.warn("Revenue rollup for {} differs from orders", day);
+            }
+        }
+        if (mismatches > 0) {
+            mismatchCounter.increment(mismatches);
+            invalidatePastDays();
+        }
+        return mismatches;
+    }
+
+    private PastDays pastDays() {
+        PastDays past = pastDays;
+        LocalDate today = LocalDate.now();
+        if (past == null || !past.today.equals(today) || past.loadedAt.plus(pastDaysTtl).isBefore(LocalDateTime.now())) {
+            past = new PastDays(today, rollupRepository.findDailyTotalsBefore(today));
+            pastDays = past;
+        }
+        return past;
+    }
+
+    private static boolean matches(Map<OrderStatus, DailyRevenue> expected, Map<OrderStatus, DailyRevenue> actual) {
+        for (OrderStatus status : OrderStatus.values()) {
+            DailyRevenue e = expected != null ? expected.get(status) : null;
+            DailyRevenue a = actual != null ? actual.get(status) : null;
+            long expectedCount = e != null ? e.getOrderCount() : 0;
+            long actualCount = a != null ? a.getOrderCount() : 0;
+            BigDecimal expectedAmount = e != null ? e.getAmount() : BigDecimal.ZERO;
+            BigDecimal actualAmount = a != null ? a.getAmount() : BigDecimal.ZERO;
+            if (expectedCount != actualCount || expectedAmount.compareTo(actualAmount) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<LocalDate, Map<OrderStatus, DailyRevenue>> byDay(List<DailyRevenue> rows) {
+        Map<LocalDate, Map<OrderStatus, DailyRevenue>> days = new TreeMap<>();
+        for (DailyRevenue row : rows) {
+            // Gleicher Tag und Status kann aus orders und Archiv kommen
+            days.computeIfAbsent(row.getRevenueDate(), day -> new EnumMap<>(OrderStatus.class))
+                    .merge(row.getStatus(), row, (a, b) -> new DailyRevenue(a.getRevenueDate(), a.getStatus(),
+                            a.getOrderCount() + b.getOrderCount(), a.getAmount().add(b.getAmount())));
+        }
+        return days;
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    /**
+     * Unveränderlicher Stand aller Tage vor today
+     */
+    private static final class PastDays {
+
+        private final LocalDate today;
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+        private final NavigableMap<LocalDate, BigDecimal> amountByDay = new TreeMap<>();
+        private final Map<OrderStatus, Long> countByStatus = new EnumMap<>(OrderStatus.class);
+        private final Map<OrderStatus, BigDecimal> amountByStatus = new EnumMap<>(OrderStatus.class);
+
+        private PastDays(LocalDate today, List<DailyRevenue> rows) {
+            this.today = today;
+            for (OrderStatus status : OrderStatus.values()) {
+                countByStatus.put(status, 0L);
+                amountByStatus.put(status, BigDecimal.ZERO);
+            }
+            for (DailyRevenue row : rows) {
+                amountByDay.merge(row.getRevenueDate(), row.getAmount(), BigDecimal::add);
+                countByStatus.merge(row.getStatus(), row.getOrderCount(), Long::sum);
+                amountByStatus.merge(row.getStatus(), row.getAmount(), BigDecimal::add);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.repository.ProductStockStripeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verschiebt periodisch Bestand zwischen den Stripes gestripter Produkte
+ * Jedes Produkt wird in einer eigenen kurzen Transaktion ausgeglichen
+ */
+@Component
+public class StockStripeRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockStripeRebalancer.class);
+
+    private final InventoryService inventoryService;
+    private final ProductStockStripeRepository stripeRepository;
+
+    public StockStripeRebalancer(InventoryService inventoryService, ProductStockStripeRepository stripeRepository) {
+        this.inventoryService = inventoryService;
+        this.stripeRepository = stripeRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.stripes.rebalance-interval-ms:5000}")
+    public void rebalanceAll() {
+        for (Long productId : stripeRepository.findStripedProductIds()) {
+            try {
+                if (inventoryService.rebalance(productId)) {
+                    logger.debug("Rebalanced stock stripes of product {}", productId);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Rebalancing stock stripes of product {} failed: {}", productId, e.getMessage());
+            }
+        }
+    }
+}
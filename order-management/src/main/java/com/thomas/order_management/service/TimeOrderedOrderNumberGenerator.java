@@ -0,0 +1,76 @@
+package com.thomas.order_management.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Zeitlich sortierte, knotenbewusste Bestellnummern ohne Sperren
+ *
+ * Aufbau der 63-Bit-ID: 41 Bit Millisekunden seit 2024-01-01 | 10 Bit Node-ID | 12 Bit Sequenz.
+ * Zeitstempel und Sequenz liegen gepackt in einem AtomicLong und werden per CAS weitergezählt.
+ * Läuft die Sequenz innerhalb einer Millisekunde über oder springt die Uhr zurück, wird in die
+ * nächste Millisekunde "geliehen" - die IDs eines Knotens bleiben dadurch streng monoton.
+ * Verschiedene Knoten (app.orders.number.node-id) können nie dieselbe ID erzeugen.
+ */
+@Service
+public class TimeOrderedOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Base36 von 2^63 - 1 hat 13 Stellen; fest aufgefüllt sortieren die Nummern lexikographisch wie die IDs
+    private static final int NUMBER_WIDTH = 13;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public TimeOrderedOrderNumberGenerator(@Value("${app.orders.number.node-id:0}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node-ID muss zwischen 0 und " + MAX_NODE_ID + " liegen: " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        String digits = Long.toString(nextId(), Character.MAX_RADIX).toUpperCase();
+        StringBuilder number = new StringBuilder(PREFIX.length() + NUMBER_WIDTH).append(PREFIX);
+        for (int i = digits.length(); i < NUMBER_WIDTH; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    /**
+     * Nächste numerische ID dieses Knotens
+     */
+    public long nextId() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            // Neue Millisekunde: Sequenz beginnt bei 0, sonst weiterzählen (Überlauf rückt den Zeitstempel vor)
+            next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,66 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Kundensuche über die Indizes aus V3_11__Customer_Name_Search_Indexes.sql (nur PostgreSQL)
+ *
+ * LIKE '%x%' auf lower(first_name || ' ' || last_name) nutzt den GIN-Index mit gin_trgm_ops: PostgreSQL zerlegt
+ * den Suchbegriff in Trigramme und liest nur Zeilen, die alle enthalten, statt die Tabelle zu scannen. Unter drei
+ * Zeichen gibt es kein Trigramm - dann Präfixsuche über die text_pattern_ops-Indizes auf Vor- und Nachname.
+ * Die Relevanz ist als CASE formuliert (statt similarity()), damit die Reihenfolge der von {@link CustomerNameIndex}
+ * entspricht.
+ */
+@Component
+@ConditionalOnProperty(name = "app.customers.search.engine", havingValue = "trigram")
+public class TrigramCustomerSearch implements CustomerSearch {
+
+    private static final String FULL_NAME = "lower(c.first_name || ' ' || c.last_name)";
+
+    private static final String ORDER_BY = """
+        ORDER BY CASE WHEN lower(c.first_name) = :q OR lower(c.last_name) = :q OR %1$s = :q THEN 0
+                      WHEN lower(c.first_name) LIKE :prefix ESCAPE '\\' OR lower(c.last_name) LIKE :prefix ESCAPE '\\' THEN 1
+                      ELSE 2 END,
+                 length(%1$s), c.id
+        LIMIT :limit OFFSET :offset
+        """.formatted(FULL_NAME);
+
+    private static final String INFIX_SQL = "SELECT c.* FROM customers c WHERE " + FULL_NAME
+            + " LIKE :contains ESCAPE '\\' " + ORDER_BY;
+
+    private static final String PREFIX_SQL = "SELECT c.* FROM customers c "
+            + "WHERE (lower(c.first_name) LIKE :prefix ESCAPE '\\' OR lower(c.last_name) LIKE :prefix ESCAPE '\\') "
+            + ORDER_BY;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Customer> search(String query, int offset, int limit) {
+        String q = CustomerNameIndex.normalize(query);
+        String escaped = escapeLike(q);
+        var nativeQuery = entityManager.createNativeQuery(
+                        q.length() < CustomerNameIndex.MIN_INFIX_LENGTH ? PREFIX_SQL : INFIX_SQL, Customer.class)
+                .setParameter("q", q)
+                .setParameter("prefix", escaped + "%")
+                .setParameter("limit", limit)
+                .setParameter("offset", offset);
+        if (q.length() >= CustomerNameIndex.MIN_INFIX_LENGTH) {
+            nativeQuery.setParameter("contains", "%" + escaped + "%");
+        }
+        return nativeQuery.getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
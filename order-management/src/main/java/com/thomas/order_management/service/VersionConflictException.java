@@ -0,0 +1,25 @@
+package com.thomas.order_management.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Die vom Client erwartete Version (If-Match) entspricht nicht mehr dem gespeicherten Stand
+ * Wird nicht wiederholt, der Client muss neu laden; Antwort 412 Precondition Failed
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class VersionConflictException extends OptimisticLockingFailureException {
+
+    private final Long expectedVersion;
+    private final Long actualVersion;
+
+    public VersionConflictException(String entity, Long id, Long expectedVersion, Long actualVersion) {
+        super(entity + " " + id + " hat Version " + actualVersion + ", erwartet: " + expectedVersion);
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public Long getExpectedVersion() { return expectedVersion; }
+    public Long getActualVersion() { return actualVersion; }
+}
@@ -0,0 +1,15 @@
+-- Versionsspalten für Optimistic Locking (@Version in Order und Product)
+-- Jedes UPDATE über JPA prüft die gelesene Version und erhöht sie; die REST-API liefert sie als ETag
+-- und wertet If-Match bei PUT/PATCH aus.
+--
+-- ADD COLUMN mit konstantem Default schreibt die Tabelle ab PostgreSQL 11 nicht um, der Wert steht nur
+-- im Katalog. Auf der partitionierten Tabelle orders wird die Spalte an alle Partitionen weitergegeben.
+
+-- ================ ORDERS ================
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- ================ PRODUCTS ================
+
+-- Auch Lagerreservierungen (UPDATE VERSIONED) erhöhen die Version
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
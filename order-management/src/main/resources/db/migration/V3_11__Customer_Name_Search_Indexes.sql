@@ -0,0 +1,32 @@
+-- Indizes für die Kundensuche GET /api/customers/search (TrigramCustomerSearch)
+-- LOWER(..) LIKE '%x%' kann keinen B-Tree nutzen und las bei jedem Tastendruck die ganze Tabelle customers.
+-- Der GIN-Index aus pg_trgm zerlegt jeden Namen in Trigramme; eine Infix-Suche ab drei Zeichen liest nur die
+-- Zeilen, die alle Trigramme des Suchbegriffs enthalten. Der Ausdruck muss exakt dem der Abfrage entsprechen.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ================ CUSTOMERS ================
+
+-- Teilstring in "vorname nachname", auch über die Grenze zwischen Vor- und Nachname hinweg
+CREATE INDEX IF NOT EXISTS idx_customers_full_name_trgm
+    ON customers USING gin (lower(first_name || ' ' || last_name) gin_trgm_ops);
+
+-- Suchbegriffe unter drei Zeichen haben kein Trigramm: Präfixsuche auf Vor- bzw. Nachname,
+-- text_pattern_ops erlaubt den Bereichsscan für LIKE 'x%' unabhängig von der Collation
+CREATE INDEX IF NOT EXISTS idx_customers_first_name_pattern
+    ON customers (lower(first_name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_customers_last_name_pattern
+    ON customers (lower(last_name) text_pattern_ops);
+
+-- ================ BEISPIEL-ABFRAGE ================
+/*
+EXPLAIN ANALYZE
+SELECT c.* FROM customers c
+WHERE lower(c.first_name || ' ' || c.last_name) LIKE '%müll%'
+ORDER BY CASE WHEN lower(c.first_name) = 'müll' OR lower(c.last_name) = 'müll' THEN 0
+              WHEN lower(c.first_name) LIKE 'müll%' OR lower(c.last_name) LIKE 'müll%' THEN 1
+              ELSE 2 END,
+         length(lower(c.first_name || ' ' || c.last_name)), c.id
+LIMIT 20;
+*/
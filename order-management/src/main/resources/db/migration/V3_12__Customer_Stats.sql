@@ -0,0 +1,37 @@
+-- Inkrementell gepflegte Kundenkennzahlen (Recency, Frequency, Monetary, Lifetime Value) pro Kunde
+-- GET /api/customers/{id}/stats und /api/customers/top lesen eine Zeile bzw. einen Indexbereich statt alle
+-- Bestellungen eines Kunden zu aggregieren. Stornierte Bestellungen zählen nicht mit.
+-- Fortgeschrieben von CustomerStatsListener, neu aufgebaut von CustomerStatsService.rebuild.
+
+-- ================ SCHEMA ================
+
+CREATE TABLE IF NOT EXISTS customer_stats (
+    customer_id      BIGINT         NOT NULL PRIMARY KEY,
+    order_count      BIGINT         NOT NULL,
+    total_amount     NUMERIC(14, 2) NOT NULL,
+    first_order_date TIMESTAMP,
+    last_order_date  TIMESTAMP,
+    CONSTRAINT fk_customer_stats_customer FOREIGN KEY (customer_id) REFERENCES customers (id) ON DELETE CASCADE
+);
+
+-- ================ INDIZES ================
+
+-- Sortierungen von GET /api/customers/top; die ID als Tie-Breaker, Kunden ohne Bestellung erscheinen nicht
+CREATE INDEX IF NOT EXISTS idx_customer_stats_total_amount
+    ON customer_stats (total_amount, customer_id) WHERE order_count > 0;
+
+CREATE INDEX IF NOT EXISTS idx_customer_stats_order_count
+    ON customer_stats (order_count, customer_id) WHERE order_count > 0;
+
+CREATE INDEX IF NOT EXISTS idx_customer_stats_last_order_date
+    ON customer_stats (last_order_date, customer_id) WHERE order_count > 0;
+
+-- ================ BACKFILL ================
+
+-- Archivierte Bestellungen (Segment-Dateien) fehlen hier; POST /api/customers/stats/rebuild rechnet sie hinzu
+INSERT INTO customer_stats (customer_id, order_count, total_amount, first_order_date, last_order_date)
+SELECT o.customer_id, COUNT(*), SUM(o.total_amount), MIN(o.order_date), MAX(o.order_date)
+FROM orders o
+WHERE o.status <> 'CANCELLED'
+GROUP BY o.customer_id
+ON CONFLICT (customer_id) DO NOTHING;
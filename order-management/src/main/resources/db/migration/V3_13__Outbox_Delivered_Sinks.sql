@@ -0,0 +1,7 @@
+-- Zustellung pro Sink für die Transactional Outbox
+-- Der OutboxDispatcher vermerkt jeden Sink, der ein Ereignis erhalten hat. Schlägt ein Sink fehl, wird nur an
+-- ihn erneut zugestellt; published_at wird erst gesetzt, wenn alle konfigurierten Sinks das Ereignis haben.
+
+-- ================ SCHEMA ================
+
+ALTER TABLE order_outbox ADD COLUMN IF NOT EXISTS delivered_sinks VARCHAR(500);
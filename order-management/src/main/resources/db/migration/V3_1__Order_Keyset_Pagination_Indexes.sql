@@ -0,0 +1,24 @@
+-- Keyset-Pagination für Bestelllisten
+-- GET /api/orders und GET /api/orders/customer/{id} blättern über (order_date, id) absteigend
+
+-- ================ COVERING INDEXES ================
+
+-- Globale Bestellliste: Sortierung und Keyset-Vergleich direkt aus dem Index,
+-- INCLUDE-Spalten erlauben Index-Only-Scans für Listenansichten
+CREATE INDEX IF NOT EXISTS idx_orders_order_date_id
+    ON orders(order_date DESC, id DESC)
+    INCLUDE (order_number, customer_id, status, total_amount);
+
+-- Bestellhistorie pro Kunde
+CREATE INDEX IF NOT EXISTS idx_orders_customer_order_date_id
+    ON orders(customer_id, order_date DESC, id DESC)
+    INCLUDE (order_number, status, total_amount);
+
+-- ================ BEISPIEL-ABFRAGE ================
+/*
+EXPLAIN ANALYZE
+SELECT * FROM orders
+WHERE (order_date, id) < ('2024-06-01 12:00:00', 4711)
+ORDER BY order_date DESC, id DESC
+LIMIT 51;
+*/
@@ -0,0 +1,21 @@
+-- Pooled Sequences für Primärschlüssel
+-- IDENTITY-Spalten zwingen Hibernate zu einem Insert pro Zeile (ID kommt erst aus dem Insert zurück).
+-- Mit Sequences und allocationSize = 50 reserviert Hibernate IDs blockweise und kann
+-- Bestellungen und Positionen als echte JDBC-Batches schreiben (POST /api/orders/batch).
+
+-- ================ SEQUENCES ================
+
+-- INCREMENT BY muss der allocationSize in den Entities entsprechen
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS customers_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+
+-- Bestehende IDs überspringen, damit der erste Block hinter dem aktuellen Maximum liegt
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM orders));
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items));
+SELECT setval('customers_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM customers));
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM products));
+
+-- Die bisherigen Identity-Spalten bleiben "GENERATED BY DEFAULT" und akzeptieren
+-- daher die von Hibernate vergebenen IDs ohne weitere Änderung.
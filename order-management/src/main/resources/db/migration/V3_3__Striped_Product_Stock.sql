@@ -0,0 +1,20 @@
+-- Striped Stock für stark nachgefragte Produkte
+-- Der Bestand gestripter Produkte liegt in N Teilzeilen, die unabhängig voneinander reserviert werden.
+-- Gesamtbestand = products.stock_quantity + SUM(product_stock_stripes.quantity)
+
+-- ================ SCHEMA ================
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS stock_stripes INTEGER NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE IF NOT EXISTS product_stock_stripes_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS product_stock_stripes (
+    id           BIGINT PRIMARY KEY,
+    product_id   BIGINT  NOT NULL REFERENCES products(id),
+    stripe_index INTEGER NOT NULL,
+    quantity     INTEGER NOT NULL CHECK (quantity >= 0),
+    CONSTRAINT uk_product_stock_stripes_product_stripe UNIQUE (product_id, stripe_index)
+);
+
+-- Der Unique-Index (product_id, stripe_index) bedient sowohl die Reservierung auf einem Stripe
+-- als auch die Summe pro Produkt, ein weiterer Index ist nicht nötig
@@ -0,0 +1,19 @@
+-- Idempotency-Keys für POST /api/orders und POST /api/customers
+-- Eine Zeile pro (Pfad, Key): Fingerprint der ersten Anfrage und deren gespeicherte Antwort
+
+-- ================ SCHEMA ================
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key       VARCHAR(300) PRIMARY KEY,
+    request_hash          VARCHAR(64)  NOT NULL,
+    state                 VARCHAR(20)  NOT NULL,
+    response_status       INTEGER,
+    response_content_type VARCHAR(255),
+    response_body         TEXT,
+    created_at            TIMESTAMP    NOT NULL,
+    locked_until          TIMESTAMP,
+    expires_at            TIMESTAMP    NOT NULL
+);
+
+-- Bereinigung abgelaufener Keys (IdempotencyService.purgeExpired)
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,31 @@
+-- Transactional Outbox für Statuswechsel von Bestellungen
+-- Ereignisse werden in derselben Transaktion wie die Änderung geschrieben und per
+-- SELECT ... FOR UPDATE SKIP LOCKED von beliebig vielen Instanzen abgearbeitet.
+
+-- ================ SCHEMA ================
+
+CREATE SEQUENCE IF NOT EXISTS order_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id              BIGINT PRIMARY KEY,
+    aggregate_id    BIGINT        NOT NULL,
+    event_type      VARCHAR(50)   NOT NULL,
+    payload         VARCHAR(4000) NOT NULL,
+    created_at      TIMESTAMP     NOT NULL,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    published_at    TIMESTAMP,
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1000)
+);
+
+-- ================ INDIZES ================
+
+-- Nur offene Ereignisse: der Index bleibt klein, auch wenn veröffentlichte Zeilen bis zur Bereinigung liegen bleiben
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending
+    ON order_outbox (next_attempt_at, id)
+    WHERE published_at IS NULL;
+
+-- Bereinigung veröffentlichter Ereignisse (OutboxDispatcher.purgePublished)
+CREATE INDEX IF NOT EXISTS idx_order_outbox_published_at
+    ON order_outbox (published_at)
+    WHERE published_at IS NOT NULL;
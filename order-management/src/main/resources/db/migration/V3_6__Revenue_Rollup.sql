@@ -0,0 +1,24 @@
+-- Inkrementell gepflegte Umsatz-Rollups pro Bestelltag und Status
+-- Dashboard und Umsatz-Endpunkte summieren Tage statt Bestellungen. Pro (Tag, Status) verteilen sich
+-- parallele Transaktionen auf mehrere Slots; der Tageswert ist die Summe aller Slots.
+
+-- ================ SCHEMA ================
+
+CREATE TABLE IF NOT EXISTS revenue_rollup (
+    revenue_date DATE           NOT NULL,
+    status       VARCHAR(20)    NOT NULL,
+    slot         INTEGER        NOT NULL,
+    order_count  BIGINT         NOT NULL,
+    amount       NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (revenue_date, status, slot)
+);
+
+-- Der Primärschlüssel (revenue_date, ...) bedient sowohl das Fortschreiben einer Zeile als auch
+-- Bereichsabfragen über Tage, ein weiterer Index ist nicht nötig
+
+-- ================ BACKFILL ================
+
+INSERT INTO revenue_rollup (revenue_date, status, slot, order_count, amount)
+SELECT CAST(o.order_date AS DATE), o.status, 0, COUNT(*), SUM(o.total_amount)
+FROM orders o
+GROUP BY CAST(o.order_date AS DATE), o.status;
@@ -0,0 +1,40 @@
+-- Indizes für die Bestellsuche GET /api/orders/search
+-- Die Suche kombiniert Status, Zeitraum, Kunde, Betragsbereich und Bestellnummer-Präfix beliebig
+-- und blättert per Keyset über (order_date, id) bzw. (total_amount, id).
+-- Zeitraum allein und Kunde (+ Zeitraum) sind bereits durch V3_1 abgedeckt.
+
+-- ================ ORDERS ================
+
+-- Status (+ Zeitraum), Standardsortierung neueste zuerst
+CREATE INDEX IF NOT EXISTS idx_orders_status_order_date_id
+    ON orders(status, order_date DESC, id DESC)
+    INCLUDE (order_number, customer_id, total_amount);
+
+-- Betragsbereich und Sortierung nach Betrag, Keyset über (total_amount, id)
+CREATE INDEX IF NOT EXISTS idx_orders_total_amount_id
+    ON orders(total_amount, id)
+    INCLUDE (order_date, status, customer_id);
+
+-- Bestellnummer-Präfix: LIKE 'ORD-2024-%' kann den Unique-Index unter einer Nicht-C-Collation
+-- nicht nutzen, varchar_pattern_ops vergleicht byteweise und erlaubt den Bereichsscan
+CREATE INDEX IF NOT EXISTS idx_orders_order_number_pattern
+    ON orders(order_number varchar_pattern_ops);
+
+-- ================ ORDER_ITEMS ================
+
+-- Positionsanzahl pro Treffer (SIZE(o.orderItems) wird zur korrelierten Unterabfrage) und Detail-Fetches;
+-- PostgreSQL legt für Fremdschlüssel keinen Index an
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id
+    ON order_items(order_id);
+
+-- ================ BEISPIEL-ABFRAGE ================
+/*
+EXPLAIN ANALYZE
+SELECT o.id, o.order_number, o.status, o.total_amount, o.order_date
+FROM orders o
+WHERE o.status IN ('PENDING', 'CONFIRMED')
+  AND o.order_date >= '2024-01-01' AND o.order_date <= '2024-06-30'
+  AND o.total_amount >= 100
+ORDER BY o.order_date DESC, o.id DESC
+LIMIT 51;
+*/
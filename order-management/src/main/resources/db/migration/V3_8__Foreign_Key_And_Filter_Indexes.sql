@@ -0,0 +1,37 @@
+-- Indizes für die Finder von OrderRepository, OrderItemRepository und CustomerRepository
+-- Abgesichert durch QueryPlanTest: jede Repository-Abfrage muss ohne sequentiellen Scan auskommen.
+--
+-- CREATE INDEX CONCURRENTLY sperrt die Tabelle nicht gegen Schreibzugriffe, darf aber nicht in einer
+-- Transaktion laufen. Die Skripte werden nicht von einem Migrationstool, sondern per psql eingespielt:
+-- im Autocommit-Modus ausführen (psql -f, ohne -1/--single-transaction und ohne BEGIN), damit jedes
+-- Statement für sich läuft - deshalb gehören hier keine weiteren DDL- oder DML-Statements hinein.
+-- Bricht ein Build ab, bleibt ein INVALID-Index zurück, den IF NOT EXISTS überspringt:
+--   SELECT indexrelid::regclass FROM pg_index WHERE NOT indisvalid;
+-- betroffenen Index mit DROP INDEX CONCURRENTLY entfernen und das Skript erneut ausführen.
+
+-- ================ BEREITS ABGEDECKT ================
+-- orders.order_date   -> idx_orders_order_date_id           (V3_1)
+-- orders.customer_id  -> idx_orders_customer_order_date_id  (V3_1)
+-- orders.status       -> idx_orders_status_order_date_id    (V3_7)
+-- order_items.order_id -> idx_order_items_order_id          (V3_7)
+-- Die führende Spalte eines zusammengesetzten Index bedient auch Gleichheits- und Bereichsfilter allein,
+-- zusätzliche Einzelspalten-Indizes würden nur Schreibkosten verursachen.
+
+-- ================ ORDER_ITEMS ================
+
+-- findByProductId und Absatzmenge pro Produkt; INCLUDE erlaubt SUM(quantity) als Index-Only-Scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_items_product_id
+    ON order_items(product_id)
+    INCLUDE (quantity);
+
+-- ================ CUSTOMERS ================
+
+-- Kunden nach Stadt
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_city
+    ON customers(city);
+
+-- ================ BEISPIEL-ABFRAGE ================
+/*
+EXPLAIN ANALYZE
+SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.product_id = 42;
+*/
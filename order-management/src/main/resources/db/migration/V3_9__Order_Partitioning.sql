@@ -0,0 +1,154 @@
+-- Monatliche Range-Partitionierung von orders und order_items nach order_date
+-- Zeitraum-Abfragen (getTotalRevenueInPeriod, findByOrderDateBetween, Export) lesen nur noch die
+-- betroffenen Monate (Partition Pruning). Alte Monate werden von OrderPartitionService abgehängt
+-- und ins Schema archive verschoben, künftige Monate im Voraus angelegt.
+--
+-- order_items trägt order_date als Kopie (OrderItem.orderDate), damit beide Tabellen gleich
+-- geschnitten sind und der Fremdschlüssel (order_id, order_date) partitionsweise prüfbar bleibt.
+--
+-- Achtung: kopiert den kompletten Bestand. Im Wartungsfenster ausführen, die Anwendung darf währenddessen
+-- nicht schreiben.
+
+-- ================ PARTITIONSVERWALTUNG ================
+
+-- Legt die Monatspartitionen von orders und order_items für [p_from, p_to] an, sofern sie fehlen
+-- Liegen in orders_default bereits Zeilen des Monats, bricht CREATE ab - diese Zeilen zuerst verschieben.
+CREATE OR REPLACE FUNCTION create_order_partitions(p_from DATE, p_to DATE) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', p_from)::date;
+    month_end DATE;
+    suffix TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= p_to LOOP
+        month_end := (month_start + INTERVAL '1 month')::date;
+        suffix := to_char(month_start, 'YYYYMM');
+        IF to_regclass('orders_p' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                           'orders_p' || suffix, month_start, month_end);
+            created := created + 1;
+        END IF;
+        IF to_regclass('order_items_p' || suffix) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                           'order_items_p' || suffix, month_start, month_end);
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ================ UMBAU ================
+
+-- Partitionsschlüssel in order_items nachziehen
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_date TIMESTAMP(6);
+UPDATE order_items oi SET order_date = o.order_date FROM orders o WHERE o.id = oi.order_id;
+ALTER TABLE order_items ALTER COLUMN order_date SET NOT NULL;
+
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+
+-- Spalten, NOT NULL und Defaults übernehmen; Schlüssel und Indizes werden unten neu angelegt
+CREATE TABLE orders (LIKE orders_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (order_date);
+CREATE TABLE order_items (LIKE order_items_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (order_date);
+
+-- Auffangpartitionen für Zeilen außerhalb der angelegten Monate (z.B. weit vordatierte Bestellungen)
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+SELECT create_order_partitions(
+    COALESCE((SELECT MIN(order_date) FROM orders_unpartitioned)::date, CURRENT_DATE),
+    (CURRENT_DATE + INTERVAL '3 months')::date);
+
+INSERT INTO orders SELECT * FROM orders_unpartitioned;
+INSERT INTO order_items SELECT * FROM order_items_unpartitioned;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+-- ================ SCHLÜSSEL ================
+
+-- Eindeutige Schlüssel partitionierter Tabellen müssen den Partitionsschlüssel enthalten.
+-- id bleibt über die Sequenz eindeutig, Hibernate sieht weiterhin nur id.
+ALTER TABLE orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id, order_date);
+ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (id, order_date);
+
+ALTER TABLE orders ADD CONSTRAINT fk_orders_customer
+    FOREIGN KEY (customer_id) REFERENCES customers (id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_product
+    FOREIGN KEY (product_id) REFERENCES products (id);
+-- Ändert sich order_date, wandert die Bestellung in einen anderen Monat und ihre Positionen mit
+-- (ON UPDATE bei partitionsübergreifendem UPDATE erst ab PostgreSQL 15)
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order
+    FOREIGN KEY (order_id, order_date) REFERENCES orders (id, order_date) ON UPDATE CASCADE;
+
+-- Bestellnummern sind global eindeutig, ein partitionierter Unique-Index kann das ohne order_date
+-- nicht mehr garantieren. order_numbers übernimmt die Prüfung, gepflegt per Trigger.
+CREATE TABLE order_numbers (
+    order_number VARCHAR(255) PRIMARY KEY,
+    order_id BIGINT NOT NULL
+);
+INSERT INTO order_numbers (order_number, order_id) SELECT order_number, id FROM orders;
+
+CREATE OR REPLACE FUNCTION sync_order_numbers() RETURNS TRIGGER AS $$
+BEGIN
+    -- Verschiebung in eine andere Partition feuert DELETE und INSERT, kein UPDATE
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO order_numbers (order_number, order_id) VALUES (NEW.order_number, NEW.id);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE order_numbers SET order_number = NEW.order_number WHERE order_number = OLD.order_number;
+    ELSE
+        DELETE FROM order_numbers WHERE order_number = OLD.order_number;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_order_numbers
+    AFTER INSERT OR UPDATE OF order_number OR DELETE ON orders
+    FOR EACH ROW EXECUTE FUNCTION sync_order_numbers();
+
+-- ================ INDIZES ================
+-- Auf der Elterntabelle angelegt, gelten sie für alle bestehenden und künftigen Partitionen (V3_1, V3_7, V3_8)
+
+CREATE INDEX idx_orders_order_number ON orders(order_number);
+CREATE INDEX idx_orders_order_number_pattern ON orders(order_number varchar_pattern_ops);
+
+CREATE INDEX idx_orders_order_date_id
+    ON orders(order_date DESC, id DESC)
+    INCLUDE (order_number, customer_id, status, total_amount);
+
+CREATE INDEX idx_orders_customer_order_date_id
+    ON orders(customer_id, order_date DESC, id DESC)
+    INCLUDE (order_number, status, total_amount);
+
+CREATE INDEX idx_orders_status_order_date_id
+    ON orders(status, order_date DESC, id DESC)
+    INCLUDE (order_number, customer_id, total_amount);
+
+CREATE INDEX idx_orders_total_amount_id
+    ON orders(total_amount, id)
+    INCLUDE (order_date, status, customer_id);
+
+CREATE INDEX idx_order_items_order_id ON order_items(order_id);
+
+CREATE INDEX idx_order_items_product_id
+    ON order_items(product_id)
+    INCLUDE (quantity);
+
+ANALYZE orders;
+ANALYZE order_items;
+
+-- ================ ARCHIV ================
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+-- ================ BEISPIEL-ABFRAGE ================
+/*
+-- Nur orders_p202406 erscheint im Plan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT SUM(total_amount) FROM orders
+WHERE order_date >= '2024-06-01' AND order_date < '2024-07-01';
+*/
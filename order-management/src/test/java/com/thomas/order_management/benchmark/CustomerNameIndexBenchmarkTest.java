@@ -0,0 +1,85 @@
+package com.thomas.order_management.benchmark;
+
+import com.thomas.order_management.service.CustomerNameIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmark für die Kundensuche im N-Gramm-Index (H2/Entwicklung): Latenz pro Suche, Ziel unter 20 ms
+ * Die PostgreSQL-Variante (pg_trgm) lässt sich nur gegen eine echte Datenbank messen, siehe Beispiel in V3_11.
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=CustomerNameIndexBenchmarkTest
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerNameIndexBenchmarkTest {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Bernd", "Clara", "Dieter", "Elena", "Frank", "Greta",
+            "Hans", "Ines", "Jonas", "Katrin", "Lukas", "Maria", "Niklas", "Olga", "Paul", "Rita", "Stefan"};
+    private static final String[] LAST_NAME_PARTS = {"müll", "schmid", "schneid", "fisch", "web", "mey", "wagn",
+            "beck", "schulz", "hoff", "koch", "richt", "klein", "wolf", "neum", "schwarz", "zimmer", "braun"};
+    private static final String[] LAST_NAME_SUFFIXES = {"er", "mann", "ert", "inger", "hausen", "berg", "feld"};
+
+    @Param({"1000000"})
+    public int customers;
+
+    private final CustomerNameIndex index = new CustomerNameIndex();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int id = 1; id <= customers; id++) {
+            String lastName = LAST_NAME_PARTS[random.nextInt(LAST_NAME_PARTS.length)]
+                    + LAST_NAME_SUFFIXES[random.nextInt(LAST_NAME_SUFFIXES.length)]
+                    + Integer.toString(random.nextInt(100_000), 36);
+            index.put(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], lastName);
+        }
+    }
+
+    // Seltener Teilstring: wenige Treffer, die Schnittmenge der Trigramm-Listen ist klein
+    @Benchmark
+    public List<Long> selectiveInfix() {
+        return index.search("schmidhausen1a", 0, 20);
+    }
+
+    // Häufiger Teilstring: viele Treffer müssen nach Relevanz sortiert werden
+    @Benchmark
+    public List<Long> commonInfix() {
+        return index.search("weber", 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> shortPrefix() {
+        return index.search("kl", 0, 20);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(getClass().getSimpleName())
+                .forks(1)
+                .jvmArgsAppend("-Xmx4g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build())
+                .run();
+    }
+}
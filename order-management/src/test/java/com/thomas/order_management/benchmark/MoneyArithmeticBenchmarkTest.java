@@ -0,0 +1,109 @@
+package com.thomas.order_management.benchmark;
+
+import com.thomas.order_management.model.Money;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmark: Bestellsummen über BigDecimal (bisheriger Weg) gegen long-Cent ({@link Money})
+ * Der GC-Profiler meldet die Allokation pro Aufruf (gc.alloc.rate.norm) neben dem Durchsatz.
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=MoneyArithmeticBenchmarkTest
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MoneyArithmeticBenchmarkTest {
+
+    private static final int ORDERS = 1_000;
+
+    @Param({"5", "50"})
+    public int itemsPerOrder;
+
+    private List<Order> orders;
+
+    @Setup
+    public void setUp() {
+        orders = new ArrayList<>(ORDERS);
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = new Order();
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            for (int i = 0; i < itemsPerOrder; i++) {
+                items.add(new OrderItem(order, null, 1 + (o + i) % 5, BigDecimal.valueOf(199 + o * 31L + i * 7L, 2)));
+            }
+            order.setOrderItems(items);
+            orders.add(order);
+        }
+        // Einzelpreise einmal umrechnen, wie nach dem ersten Zugriff auf eine geladene Bestellung
+        orders.forEach(Order::calculateTotalCents);
+    }
+
+    /**
+     * Bisheriger Weg: multiply und add legen je ein BigDecimal an
+     */
+    @Benchmark
+    public BigDecimal bigDecimalTotals() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Order order : orders) {
+            BigDecimal total = order.getOrderItems().stream()
+                    .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            sum = sum.add(total);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long moneyTotals() {
+        long sum = 0L;
+        for (Order order : orders) {
+            sum = Money.add(sum, order.calculateTotalCents());
+        }
+        return sum;
+    }
+
+    /**
+     * Wie OrderService: Summe je Bestellung als BigDecimal an die Entity - eine Allokation pro Bestellung
+     */
+    @Benchmark
+    public BigDecimal moneyTotalsToEntity() {
+        BigDecimal last = null;
+        for (Order order : orders) {
+            last = order.calculateTotalAmount();
+        }
+        return last;
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(getClass().getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.thomas.order_management.benchmark;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vergleicht den Durchsatz (Zeilen pro Sekunde) von POST /api/orders mit POST /api/orders/batch
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=OrderBatchIngestionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderBatchIngestionBenchmarkTest {
+
+    private static final int ORDERS = 5_000;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void compareSingleAndBatchIngestion() throws Exception {
+        List<Long> customerIds = customerRepository.findAll().stream().map(Customer::getId).toList();
+        // Eigene Produkte mit ausreichend Bestand, da POST /api/orders Lagerbestand reserviert
+        List<Long> productIds = IntStream.range(0, ITEMS_PER_ORDER)
+                .mapToObj(i -> productRepository.save(
+                        new Product("Benchmark " + i, "Bulk-Import Benchmark", new BigDecimal("9.99"), 1_000_000)))
+                .map(Product::getId)
+                .toList();
+
+        // Aufwärmen, damit JIT und Connection-Pool beide Pfade gleich behandeln
+        runSingle("warmup-single", 200, customerIds, productIds);
+        runBatch("warmup-batch", 200, customerIds, productIds);
+
+        long singleNanos = runSingle("single", ORDERS, customerIds, productIds);
+        long batchNanos = runBatch("batch", ORDERS, customerIds, productIds);
+
+        long rows = (long) ORDERS * (1 + ITEMS_PER_ORDER);
+        System.out.printf("POST /api/orders       : %,.0f rows/s%n", rows / (singleNanos / 1e9));
+        System.out.printf("POST /api/orders/batch : %,.0f rows/s%n", rows / (batchNanos / 1e9));
+    }
+
+    private long runSingle(String run, int count, List<Long> customerIds, List<Long> productIds) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(orderJson(run, i, customerIds, productIds)))
+                    .andExpect(status().isOk());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runBatch(String run, int count, List<Long> customerIds, List<Long> productIds) throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append(orderJson(run, i, customerIds, productIds)).append('\n');
+        }
+        long start = System.nanoTime();
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(count));
+        return System.nanoTime() - start;
+    }
+
+    private String orderJson(String run, int i, List<Long> customerIds, List<Long> productIds) {
+        StringJoiner items = new StringJoiner(",");
+        for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+            long productId = productIds.get((i + j) % productIds.size());
+            items.add("{\"product\":{\"id\":" + productId + "},\"quantity\":1,\"unitPrice\":9.99}");
+        }
+        return "{\"orderNumber\":\"BENCH-" + run + "-" + i + "\","
+                + "\"customer\":{\"id\":" + customerIds.get(i % customerIds.size()) + "},"
+                + "\"totalAmount\":29.97,"
+                + "\"orderItems\":[" + items + "]}";
+    }
+}
@@ -0,0 +1,167 @@
+package com.thomas.order_management.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Vergleicht Zeitraum-Abfragen auf orders unpartitioniert gegen monatlich partitioniert (V3_9)
+ * Braucht eine echte PostgreSQL-Datenbank, H2 kennt keine Partitionierung. Legt zwei Schemas mit je
+ * benchmark.rows Bestellungen (Standard 50 Mio., gleichmäßig über 5 Jahre) an und misst mit EXPLAIN ANALYZE.
+ *
+ * Ausführen mit:
+ * ./mvnw test -Pbenchmark -Dtest=OrderPartitionPruningBenchmarkTest \
+ *     -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/bench?user=postgres&password=postgres
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderPartitionPruningBenchmarkTest {
+
+    private static final long ROWS = Long.getLong("benchmark.rows", 50_000_000L);
+    private static final int RUNS = 5;
+
+    private static final Pattern EXECUTION_TIME = Pattern.compile("Execution Time: ([\\d.]+) ms");
+    private static final Pattern SHARED_BUFFERS = Pattern.compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?");
+
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.postgres.url");
+        assumeTrue(url != null, "benchmark.postgres.url nicht gesetzt");
+        connection = DriverManager.getConnection(url);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS bench_plain CASCADE");
+            statement.execute("DROP SCHEMA IF EXISTS bench_part CASCADE");
+            statement.execute("CREATE SCHEMA bench_plain");
+            statement.execute("CREATE SCHEMA bench_part");
+
+            String columns = """
+                (id BIGINT NOT NULL, customer_id BIGINT NOT NULL, order_date TIMESTAMP(6) NOT NULL,
+                 status VARCHAR(255) NOT NULL, total_amount NUMERIC(10, 2) NOT NULL)
+                """;
+            statement.execute("CREATE TABLE bench_plain.orders " + columns);
+            statement.execute("CREATE TABLE bench_part.orders " + columns + " PARTITION BY RANGE (order_date)");
+            statement.execute("""
+                DO $$
+                DECLARE month_start DATE := DATE '2020-01-01';
+                BEGIN
+                    WHILE month_start < DATE '2025-01-01' LOOP
+                        EXECUTE format('CREATE TABLE bench_part.%I PARTITION OF bench_part.orders FOR VALUES FROM (%L) TO (%L)',
+                                       'orders_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+                        month_start := month_start + INTERVAL '1 month';
+                    END LOOP;
+                END $$
+                """);
+
+            // 5 Jahre gleichmäßig verteilt, Reihenfolge wie im Betrieb (aufsteigend nach Datum)
+            String rows = """
+                SELECT g, 1 + g %% 100000,
+                       TIMESTAMP '2020-01-01' + (g * (INTERVAL '5 years' / %d)),
+                       (ARRAY['PENDING','CONFIRMED','PROCESSING','SHIPPED','DELIVERED','CANCELLED'])[1 + g %% 6],
+                       (g * 37 %% 100000) / 100.0
+                FROM generate_series(0, %d) g
+                """.formatted(ROWS, ROWS - 1);
+            long start = System.nanoTime();
+            statement.execute("INSERT INTO bench_plain.orders " + rows);
+            statement.execute("INSERT INTO bench_part.orders " + rows);
+            System.out.printf("Seeded 2 x %,d orders in %,d s%n", ROWS, (System.nanoTime() - start) / 1_000_000_000L);
+
+            for (String schema : new String[]{"bench_plain", "bench_part"}) {
+                statement.execute("CREATE INDEX ON " + schema + ".orders (order_date DESC, id DESC) "
+                        + "INCLUDE (customer_id, status, total_amount)");
+                statement.execute("VACUUM ANALYZE " + schema + ".orders");
+            }
+        }
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS bench_plain CASCADE");
+                statement.execute("DROP SCHEMA IF EXISTS bench_part CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void revenueInPeriodPrunesPartitions() throws SQLException {
+        // getTotalRevenueInPeriod über den letzten Monat
+        String query = "SELECT SUM(total_amount) FROM %s.orders "
+                + "WHERE order_date >= TIMESTAMP '2024-12-01' AND order_date <= TIMESTAMP '2024-12-31 23:59:59'";
+        compare("getTotalRevenueInPeriod (1 Monat)", query);
+    }
+
+    @Test
+    void ordersInPeriodPrunesPartitions() throws SQLException {
+        // findByOrderDateBetween über einen Tag
+        String query = "SELECT * FROM %s.orders "
+                + "WHERE order_date BETWEEN TIMESTAMP '2024-12-15' AND TIMESTAMP '2024-12-16'";
+        compare("findByOrderDateBetween (1 Tag)", query);
+    }
+
+    private void compare(String name, String query) throws SQLException {
+        String partitionedPlan = explain(query.formatted("bench_part"));
+        // Nur die Dezember-Partition darf im Plan auftauchen
+        assertThat(partitionedPlan).contains("orders_p202412").doesNotContain("orders_p202411");
+
+        Result plain = measure(query.formatted("bench_plain"));
+        Result partitioned = measure(query.formatted("bench_part"));
+        System.out.printf("%s%n  unpartitioniert : %8.1f ms, %,d Buffer%n  partitioniert   : %8.1f ms, %,d Buffer%n",
+                name, plain.millis, plain.buffers, partitioned.millis, partitioned.buffers);
+    }
+
+    /**
+     * Median der Ausführungszeit aus RUNS warmen Läufen
+     */
+    private Result measure(String query) throws SQLException {
+        explain(query);
+        double[] millis = new double[RUNS];
+        long buffers = 0;
+        for (int i = 0; i < RUNS; i++) {
+            String plan = explain(query);
+            Matcher time = EXECUTION_TIME.matcher(plan);
+            millis[i] = time.find() ? Double.parseDouble(time.group(1)) : Double.NaN;
+            Matcher shared = SHARED_BUFFERS.matcher(plan);
+            // Erste Buffers-Zeile gehört zum obersten Knoten und enthält die Summe
+            buffers = shared.find() ? parse(shared.group(1)) + parse(shared.group(2)) : 0;
+        }
+        Arrays.sort(millis);
+        return new Result(millis[RUNS / 2], buffers);
+    }
+
+    private String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + query)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static long parse(String value) {
+        return value != null ? Long.parseLong(value) : 0;
+    }
+
+    private record Result(double millis, long buffers) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.thomas.order_management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.OrderBatchItemResult;
+import com.thomas.order_management.dto.OrderStatusBulkRequest;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderBatchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vergleicht einzelne PATCH /api/orders/{id}/status mit einem PATCH /api/orders/status über 10.000 Bestellungen
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=OrderStatusBulkBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class OrderStatusBulkBenchmarkTest {
+
+    private static final int ORDERS = 10_000;
+    private static final int SINGLE_SAMPLE = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void compareSingleAndBulkTransition() throws Exception {
+        List<Long> single = seed("single", SINGLE_SAMPLE);
+        List<Long> bulk = seed("bulk", ORDERS);
+        // Aufwärmen beider Pfade
+        List<Long> warmup = seed("warmup", 200);
+        for (Long id : warmup.subList(0, 100)) {
+            mockMvc.perform(patch("/api/orders/{id}/status", id).param("status", "SHIPPED")).andExpect(status().isOk());
+        }
+        transition(warmup.subList(100, 200));
+
+        long start = System.nanoTime();
+        for (Long id : single) {
+            mockMvc.perform(patch("/api/orders/{id}/status", id).param("status", "SHIPPED")).andExpect(status().isOk());
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        transition(bulk);
+        long bulkNanos = System.nanoTime() - start;
+
+        System.out.printf("PATCH /api/orders/{id}/status : %,d ms für %,d Bestellungen (hochgerechnet %,d ms für %,d)%n",
+                singleNanos / 1_000_000, SINGLE_SAMPLE, singleNanos / 1_000_000 * ORDERS / SINGLE_SAMPLE, ORDERS);
+        System.out.printf("PATCH /api/orders/status      : %,d ms für %,d Bestellungen%n", bulkNanos / 1_000_000, ORDERS);
+    }
+
+    private void transition(List<Long> ids) throws Exception {
+        OrderStatusBulkRequest request = new OrderStatusBulkRequest(OrderStatus.SHIPPED, ids, List.of());
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(ids.size()));
+    }
+
+    private List<Long> seed(String run, int count) {
+        Customer customer = customerRepository.findAll().get(0);
+        Product product = productRepository.save(new Product("Benchmark " + run, "Bulk status", new BigDecimal("9.99"), 1_000_000));
+        List<Order> orders = IntStream.range(0, count).mapToObj(i -> {
+            Order order = new Order(customer, "STATUS-" + run + "-" + System.nanoTime() + "-" + i);
+            order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, 1, product.getPrice()))));
+            return order;
+        }).toList();
+        return orderBatchService.ingest(orders.iterator()).getResults().stream()
+                .map(OrderBatchItemResult::getOrderId)
+                .toList();
+    }
+}
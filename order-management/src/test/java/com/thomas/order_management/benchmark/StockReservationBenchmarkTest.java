@@ -0,0 +1,107 @@
+package com.thomas.order_management.benchmark;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.InsufficientStockException;
+import com.thomas.order_management.service.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash-Sale-Szenario: viele gleichzeitige Käufer auf dasselbe Produkt
+ * Prüft, dass nie mehr verkauft wird als am Lager ist, und misst den Durchsatz der Reservierung.
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=StockReservationBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class StockReservationBenchmarkTest {
+
+    private static final int BUYERS = 400;
+    private static final int ATTEMPTS_PER_BUYER = 5;
+    private static final int STOCK = 1_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void hotProductIsNeverOversold() throws Exception {
+        Product hot = productRepository.save(new Product("Flash Sale", "Hot product", new BigDecimal("19.99"), STOCK));
+        Product side = productRepository.save(new Product("Zubehör", "Second product", new BigDecimal("4.99"), STOCK * 10));
+        Customer customer = customerRepository.findAll().get(0);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        long elapsed;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int b = 0; b < BUYERS; b++) {
+                boolean hotFirst = b % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_BUYER; i++) {
+                        // Abwechselnde Positionsreihenfolge: ohne sortierte Sperren würde das Deadlocks provozieren
+                        Order order = hotFirst ? order(customer, hot, side) : order(customer, side, hot);
+                        try {
+                            orderService.createOrder(order);
+                            sold.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int attempts = BUYERS * ATTEMPTS_PER_BUYER;
+        System.out.printf("%d Kaufversuche in %.1f ms (%,.0f Versuche/s), %d verkauft, %d abgelehnt%n",
+                attempts, elapsed / 1e6, attempts / (elapsed / 1e9), sold.get(), rejected.get());
+
+        assertThat(sold.get()).isEqualTo(STOCK);
+        assertThat(sold.get() + rejected.get()).isEqualTo(attempts);
+        assertThat(productRepository.findById(hot.getId()).orElseThrow().getStockQuantity()).isZero();
+        assertThat(productRepository.findById(side.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(STOCK * 10 - STOCK);
+    }
+
+    private Order order(Customer customer, Product first, Product second) {
+        Order order = new Order(customer, null);
+        order.setOrderItems(new ArrayList<>(List.of(
+                new OrderItem(order, first, 1, first.getPrice()),
+                new OrderItem(order, second, 1, second.getPrice()))));
+        return order;
+    }
+}
@@ -0,0 +1,101 @@
+package com.thomas.order_management.benchmark;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.InventoryService;
+import com.thomas.order_management.service.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Durchsatz von Bestellungen auf ein einzelnes Hot-Product mit 0 (aus), 4 und 16 Stock-Stripes
+ * Ausführen mit: ./mvnw test -Pbenchmark -Dtest=StripedStockBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=32")
+class StripedStockBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 200;
+    private static final int STOCK = 1_000_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void throughputScalesWithStripeCount() throws Exception {
+        Customer customer = customerRepository.findAll().get(0);
+
+        // Aufwärmen
+        run(customer, 0);
+
+        for (int stripes : new int[] {0, 4, 16}) {
+            run(customer, stripes);
+        }
+    }
+
+    private void run(Customer customer, int stripes) throws Exception {
+        Product product = productRepository.save(
+                new Product("Hot " + stripes, "Striped stock benchmark", new BigDecimal("1.00"), STOCK));
+        if (stripes > 0) {
+            inventoryService.enableStriping(product.getId(), stripes);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long elapsed;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        Order order = new Order(customer, null);
+                        order.setOrderItems(new ArrayList<>(List.of(
+                                new OrderItem(order, product, 1, product.getPrice()))));
+                        orderService.createOrder(order);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int orders = THREADS * ORDERS_PER_THREAD;
+        System.out.printf("stripes=%2d: %,.0f orders/s%n", stripes, orders / (elapsed / 1e9));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity())
+                .isEqualTo(STOCK - orders);
+    }
+}
@@ -0,0 +1,119 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.service.CustomerSearch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.scheduling.enabled=false", "app.customers.import.chunk-size=2"})
+@AutoConfigureMockMvc
+class CustomerImportTest {
+
+    private static final MediaType CSV = new MediaType("text", "csv");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerSearch customerSearch;
+
+    private String tag;
+
+    @BeforeEach
+    void setUp() {
+        tag = "imp" + Long.toString(System.nanoTime(), 36);
+    }
+
+    @Test
+    void csvImportCreatesUpsertsAndReportsLines() throws Exception {
+        Customer existing = customerRepository.save(new Customer("Alt", tag, tag + "-a@example.com"));
+        existing.setCity("Berlin");
+        customerRepository.save(existing);
+        // Cache füllen - der Import muss ihn invalidieren
+        mockMvc.perform(get("/api/customers/{id}", existing.getId())).andExpect(jsonPath("$.firstName").value("Alt"));
+
+        String csv = "first_name,last_name,email,city\r\n"
+                + "Neu," + tag + "," + tag + "-a@example.com,\r\n"
+                + "\"Anna, Maria\"," + tag + "," + tag + "-b@example.com,\"Frankfurt\n am Main\"\r\n"
+                + "Ohne," + tag + ",,Hamburg\r\n"
+                + "\r\n"
+                + "Erst," + tag + "," + tag + "-c@example.com,Köln\r\n"
+                + "Dann," + tag + "," + tag + "-c@example.com,Bonn\r\n"
+                + "Zu,viele,Spalten,x,y\r\n";
+
+        mockMvc.perform(post("/api/customers/import").contentType(CSV).content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.duplicates").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].line").value(5))
+                .andExpect(jsonPath("$.errors[0].error").value("E-Mail fehlt"))
+                .andExpect(jsonPath("$.errors[1].line").value(9));
+
+        // Vorname überschrieben, leere Stadt lässt den bestehenden Wert stehen
+        mockMvc.perform(get("/api/customers/{id}", existing.getId()))
+                .andExpect(jsonPath("$.firstName").value("Neu"))
+                .andExpect(jsonPath("$.city").value("Berlin"));
+
+        Customer quoted = customerRepository.findByEmail(tag + "-b@example.com").orElseThrow();
+        assertThat(quoted.getFirstName()).isEqualTo("Anna, Maria");
+        assertThat(quoted.getCity()).isEqualTo("Frankfurt\n am Main");
+        assertThat(customerRepository.findByEmail(tag + "-c@example.com").orElseThrow().getFirstName()).isEqualTo("Dann");
+
+        // Namensindex der Suche kennt die importierten Kunden
+        assertThat(customerSearch.search(tag, 0, 10)).extracting(Customer::getEmail)
+                .containsExactlyInAnyOrder(tag + "-a@example.com", tag + "-b@example.com", tag + "-c@example.com");
+    }
+
+    @Test
+    void ndjsonImportSkipsInvalidLines() throws Exception {
+        String ndjson = "{\"firstName\":\"Eins\",\"lastName\":\"" + tag + "\",\"email\":\"" + tag + "-1@example.com\"}\n"
+                + "{\"firstName\":\"Kaputt\",\n"
+                + "{\"firstName\":\"Zwei\",\"lastName\":\"" + tag + "\",\"email\":\"" + tag + "-2@example.com\",\"phone\":\"0301234\"}\n"
+                + "{\"firstName\":\"Drei\",\"lastName\":\"" + tag + "\",\"email\":\"keine-mail\"}\n";
+
+        mockMvc.perform(post("/api/customers/import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[1].line").value(4))
+                .andExpect(jsonPath("$.errors[1].error").value("Ungültige E-Mail"));
+
+        Customer second = customerRepository.findByEmail(tag + "-2@example.com").orElseThrow();
+        assertThat(second.getPhone()).isEqualTo("0301234");
+        assertThat(second.getCreatedAt()).isNotNull();
+
+        // IDs aus demselben Pool wie persist(): ein danach gespeicherter Kunde kollidiert nicht
+        Customer saved = customerRepository.save(new Customer("Danach", tag, tag + "-3@example.com"));
+        assertThat(saved.getId()).isNotEqualTo(second.getId());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnIsRejected() throws Exception {
+        mockMvc.perform(post("/api/customers/import").contentType(CSV).content("firstName,email\nA,a@example.com\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/customers/import").contentType(CSV).content("firstName,lastName,email,shoeSize\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,199 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.CustomerOverview;
+import com.thomas.order_management.dto.CustomerStatistics;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.CustomerStatsRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.CustomerOverviewService;
+import com.thomas.order_management.service.CustomerStatsService;
+import com.thomas.order_management.service.NearCache;
+import com.thomas.order_management.service.OrderArchiveService;
+import com.thomas.order_management.service.OrderPartitionService;
+import com.thomas.order_management.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class CustomerOverviewTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerStatsRepository statsRepository;
+
+    @Autowired
+    private NearCache nearCache;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ObjectProvider<OrderPartitionService> orderPartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        String tag = Long.toString(System.nanoTime(), 36);
+        customer = customerRepository.save(new Customer("Übersicht", tag, tag + "@example.com"));
+        product = productRepository.save(new Product("Overview", "Customer overview", new BigDecimal("10.00"), 1000));
+    }
+
+    @Test
+    void overviewCombinesAllSections() throws Exception {
+        Order oldest = orderService.createOrder(newOrder(1, LocalDateTime.now().minusDays(3)));
+        orderService.createOrder(newOrder(2, LocalDateTime.now().minusDays(2)));
+        Order newest = orderService.createOrder(newOrder(3, LocalDateTime.now().minusDays(1)));
+        orderService.updateStatus(oldest.getId(), OrderStatus.CANCELLED);
+
+        String body = mockMvc.perform(get("/api/customers/{id}/overview", customer.getId()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customer.email").value(customer.getEmail()))
+                .andExpect(jsonPath("$.recentOrders.items", hasSize(2)))
+                .andExpect(jsonPath("$.recentOrders.items[0].id").value(newest.getId()))
+                .andExpect(jsonPath("$.recentOrders.hasMore").value(true))
+                .andExpect(jsonPath("$.ordersByStatus.PENDING").value(2))
+                .andExpect(jsonPath("$.ordersByStatus.CANCELLED").value(1))
+                .andExpect(jsonPath("$.ordersByStatus.DELIVERED").value(0))
+                .andExpect(jsonPath("$.statistics.orderCount").value(2))
+                .andExpect(jsonPath("$.statistics.lifetimeValue").value(50.00))
+                .andExpect(jsonPath("$.unavailable", hasSize(0)))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode page = objectMapper.readTree(body).get("recentOrders");
+        mockMvc.perform(get("/api/customers/{id}/overview", customer.getId())
+                        .param("size", "2")
+                        .param("cursor", page.get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recentOrders.items", hasSize(1)))
+                .andExpect(jsonPath("$.recentOrders.items[0].id").value(oldest.getId()))
+                .andExpect(jsonPath("$.recentOrders.hasMore").value(false));
+    }
+
+    @Test
+    void unknownCustomerAndInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/customers/{id}/overview", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/customers/{id}/overview", customer.getId()).param("cursor", "kaputt"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers/{id}/overview", customer.getId()).param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void slowSectionTimesOutWithoutDelayingTheOthers() {
+        orderService.createOrder(newOrder(1, LocalDateTime.now()));
+        CustomerOverviewService service = overviewService(id -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        }, Duration.ofMillis(300));
+
+        long started = System.nanoTime();
+        CustomerOverview overview = service.overview(customer.getId(), null, 10).orElseThrow();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // Timeout des langsamen Abschnitts, nicht dessen volle Dauer
+        assertThat(elapsedMs).isLessThan(5_000);
+        assertThat(overview.getUnavailable()).containsExactly(CustomerOverviewService.STATISTICS);
+        assertThat(overview.getStatistics()).isNull();
+        assertThat(overview.getCustomer().getId()).isEqualTo(customer.getId());
+        assertThat(overview.getRecentOrders().getItems()).hasSize(1);
+        assertThat(overview.getOrdersByStatus()).containsEntry(OrderStatus.PENDING, 1L);
+    }
+
+    @Test
+    void failingSectionYieldsPartialResult() {
+        CustomerOverviewService service = overviewService(id -> {
+            throw new IllegalStateException("Kennzahlen nicht lesbar");
+        }, Duration.ofSeconds(2));
+
+        CustomerOverview overview = service.overview(customer.getId(), null, 10).orElseThrow();
+
+        assertThat(overview.getUnavailable()).containsExactly(CustomerOverviewService.STATISTICS);
+        assertThat(overview.getCustomer().getId()).isEqualTo(customer.getId());
+        assertThat(overview.getRecentOrders().getItems()).isEmpty();
+    }
+
+    private interface StatisticsBranch {
+        Optional<CustomerStatistics> statistics(Long customerId);
+    }
+
+    /**
+     * Übersicht mit ersetztem Kennzahlen-Abschnitt, alle anderen Abschnitte lesen die Datenbank
+     */
+    private CustomerOverviewService overviewService(StatisticsBranch branch, Duration statisticsTimeout) {
+        CustomerStatsService statistics = new CustomerStatsService(statsRepository, nearCache, orderArchiveService,
+                orderPartitionService, jdbcTemplate, transactionManager, 10000, 1, false) {
+            @Override
+            public Optional<CustomerStatistics> statistics(Long customerId) {
+                return branch.statistics(customerId);
+            }
+        };
+        return new CustomerOverviewService(nearCache, orderRepository, statistics, transactionManager,
+                Duration.ofSeconds(2), Duration.ofSeconds(2), Duration.ofSeconds(2), statisticsTimeout);
+    }
+
+    private Order newOrder(int quantity, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setOrderDate(orderDate);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, quantity, product.getPrice()))));
+        return order;
+    }
+}
@@ -0,0 +1,131 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class CustomerSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Eindeutiger Namensbestandteil pro Testlauf, damit Seed-Daten und andere Tests nicht stören
+    private String tag;
+
+    @BeforeEach
+    void setUp() {
+        tag = "q" + Long.toString(System.nanoTime(), 36);
+    }
+
+    @Test
+    void substringSearchIsRankedAndPaged() throws Exception {
+        Customer exact = save("Anna", tag);
+        Customer prefix = save("Bernd", tag + "mann");
+        Customer infix = save("Carla", "von" + tag);
+        Customer longer = save("Dietrich-Maximilian", "von" + tag + "berg");
+        save("Emil", "Unbeteiligt");
+
+        assertThat(search(tag.toUpperCase(), 0, 10)).containsExactly(exact.getId(), prefix.getId(), infix.getId(), longer.getId());
+        // Teilstring über Vor- und Nachname hinweg
+        assertThat(search("carla von" + tag.substring(0, 3), 0, 10)).containsExactly(infix.getId());
+
+        assertThat(search(tag, 0, 2)).containsExactly(exact.getId(), prefix.getId());
+        assertThat(search(tag, 1, 2)).containsExactly(infix.getId(), longer.getId());
+        assertThat(search(tag, 2, 2)).isEmpty();
+    }
+
+    @Test
+    void shortQueryMatchesNamePrefix() throws Exception {
+        Customer first = save("Ö" + tag, "Kurz");
+        Customer last = save("Kurz", "ö" + tag);
+
+        List<Long> ids = search("ö", 0, 100);
+        assertThat(ids).contains(first.getId(), last.getId());
+        assertThat(search("z" + tag.charAt(0), 0, 100)).doesNotContain(first.getId(), last.getId());
+    }
+
+    @Test
+    void indexFollowsCommittedChanges() throws Exception {
+        Customer customer = save("Vor", tag + "alt");
+        assertThat(search(tag + "alt", 0, 10)).containsExactly(customer.getId());
+
+        customer.setLastName(tag + "neu");
+        customerRepository.save(customer);
+        assertThat(search(tag + "alt", 0, 10)).isEmpty();
+        assertThat(search(tag + "neu", 0, 10)).containsExactly(customer.getId());
+
+        // Zurückgerollte Änderungen erscheinen nicht im Index
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Customer loaded = customerRepository.findById(customer.getId()).orElseThrow();
+            loaded.setLastName(tag + "verworfen");
+            customerRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(search(tag + "verworfen", 0, 10)).isEmpty();
+        assertThat(search(tag + "neu", 0, 10)).containsExactly(customer.getId());
+
+        customerRepository.deleteById(customer.getId());
+        assertThat(search(tag, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void likeWildcardsAreLiteral() throws Exception {
+        Customer percent = save("Prozent", tag + "%x");
+        save("Kein", tag + "abx");
+
+        assertThat(search(tag + "%x", 0, 10)).containsExactly(percent.getId());
+        assertThat(search(tag + "_bx", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void invalidRequestIsRejected() throws Exception {
+        mockMvc.perform(get("/api/customers/search").param("query", " ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers/search").param("query", "abc").param("size", "1000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers/search").param("query", "abc").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Customer save(String firstName, String lastName) {
+        return customerRepository.save(new Customer(firstName, lastName, tag + "-" + System.nanoTime() + "@example.com"));
+    }
+
+    private List<Long> search(String query, int page, int size) throws Exception {
+        JsonNode result = objectMapper.readTree(mockMvc.perform(get("/api/customers/search")
+                        .param("query", query)
+                        .param("page", Integer.toString(page))
+                        .param("size", Integer.toString(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        List<Long> ids = new ArrayList<>();
+        result.forEach(customer -> ids.add(customer.get("id").asLong()));
+        return ids;
+    }
+}
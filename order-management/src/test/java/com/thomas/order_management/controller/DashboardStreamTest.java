@@ -0,0 +1,78 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.DashboardStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Flush wird von Hand ausgelöst, damit das Delta genau die Änderungen dieses Tests enthält
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class DashboardStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void createdOrderIsStreamedAsDelta() throws Exception {
+        Product product = productRepository.save(new Product("Stream", "Dashboard stream", new BigDecimal("7.50"), 6));
+
+        MvcResult stream = mockMvc.perform(get("/api/dashboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Ausgangszustand der Bestandsschwelle laden
+        dashboardStreamService.flush();
+
+        Customer customer = customerRepository.findAll().get(0);
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customer\":{\"id\":" + customer.getId() + "},"
+                                + "\"orderItems\":[{\"product\":{\"id\":" + product.getId() + "},\"quantity\":2,\"unitPrice\":7.50}]}"))
+                .andExpect(status().isOk());
+        dashboardStreamService.flush();
+
+        String events = awaitContent(stream.getResponse(), "event:delta");
+        assertThat(events)
+                .contains("\"totalOrders\":1")
+                .contains("\"PENDING\":1")
+                .contains("\"pendingRevenue\":15.00")
+                .contains("\"lowStockEntered\":[{\"id\":" + product.getId());
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            String content = response.getContentAsString();
+            if (content.contains(expected) || System.currentTimeMillis() > deadline) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
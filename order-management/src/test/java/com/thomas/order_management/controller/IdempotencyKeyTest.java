@@ -0,0 +1,117 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.config.IdempotencyFilter;
+import com.thomas.order_management.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyKeyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void replayReturnsStoredResponseWithoutCreatingAgain() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = customerJson(key);
+        long before = customerRepository.count();
+
+        MvcResult first = mockMvc.perform(createCustomer(key, body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult replay = mockMvc.perform(createCustomer(key, body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+
+        assertThat(id(replay)).isEqualTo(id(first));
+        assertThat(customerRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(createCustomer(key, customerJson(key))).andExpect(status().isOk());
+
+        mockMvc.perform(createCustomer(key, customerJson(key + "-other")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = customerJson(key);
+        long before = customerRepository.count();
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Long> ids = new ArrayList<>();
+        try {
+            List<Future<MvcResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(createCustomer(key, body)).andReturn();
+                }));
+            }
+            start.countDown();
+            for (Future<MvcResult> future : futures) {
+                MvcResult result = future.get();
+                assertThat(result.getResponse().getStatus()).isEqualTo(200);
+                ids.add(id(result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(customerRepository.count()).isEqualTo(before + 1);
+    }
+
+    private static RequestBuilder createCustomer(String key, String body) {
+        return post("/api/customers")
+                .header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private static String customerJson(String suffix) {
+        return "{\"firstName\":\"Ida\",\"lastName\":\"Potent\",\"email\":\"ida-" + suffix + "@example.com\"}";
+    }
+
+    private long id(MvcResult result) throws Exception {
+        JsonNode json = objectMapper.readTree(result.getResponse().getContentAsString());
+        return json.get("id").asLong();
+    }
+}
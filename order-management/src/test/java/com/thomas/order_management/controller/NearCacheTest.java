@@ -0,0 +1,131 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.InventoryService;
+import com.thomas.order_management.service.NearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class NearCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String tag;
+
+    @BeforeEach
+    void setUp() {
+        tag = "nc" + Long.toString(System.nanoTime(), 36);
+    }
+
+    @Test
+    void repeatedCustomerReadIsServedFromCache() throws Exception {
+        Customer customer = customerRepository.save(new Customer("Nah", tag, tag + "@example.com"));
+        double hits = gets(NearCache.CUSTOMERS, "hit");
+        double misses = gets(NearCache.CUSTOMERS, "miss");
+
+        mockMvc.perform(get("/api/customers/{id}", customer.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/customers/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value(tag));
+
+        assertThat(gets(NearCache.CUSTOMERS, "miss") - misses).isEqualTo(1);
+        assertThat(gets(NearCache.CUSTOMERS, "hit") - hits).isEqualTo(1);
+    }
+
+    @Test
+    void customerUpdateAndDeleteEvictEntry() throws Exception {
+        Customer customer = customerRepository.save(new Customer("Alt", tag, tag + "@example.com"));
+        mockMvc.perform(get("/api/customers/{id}", customer.getId())).andExpect(jsonPath("$.firstName").value("Alt"));
+        mockMvc.perform(get("/api/customers/search/email").param("email", tag + "@example.com"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/customers/{id}", customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Neu\",\"lastName\":\"" + tag + "\",\"email\":\"" + tag + "-neu@example.com\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/customers/{id}", customer.getId())).andExpect(jsonPath("$.firstName").value("Neu"));
+        // Die alte Adresse zeigt im Cache noch auf den Kunden, der Zugriff prüft sie nach
+        mockMvc.perform(get("/api/customers/search/email").param("email", tag + "@example.com"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/customers/search/email").param("email", tag + "-neu@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(customer.getId()));
+
+        mockMvc.perform(delete("/api/customers/{id}", customer.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/customers/{id}", customer.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void stockChangeEvictsProduct() throws Exception {
+        Product product = productRepository.save(new Product(tag, "Near Cache", new BigDecimal("9.99"), 10));
+        mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(jsonPath("$.stockQuantity").value(10))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> assertThat(inventoryService.reserve(product.getId(), 3)).isTrue());
+
+        mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(jsonPath("$.stockQuantity").value(7))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    void productMutationsRefreshCategories() throws Exception {
+        mockMvc.perform(get("/api/products/categories")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + tag + "\",\"price\":1.00,\"stockQuantity\":1,\"category\":\"" + tag + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/categories")).andExpect(jsonPath("$", hasItem(tag)));
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
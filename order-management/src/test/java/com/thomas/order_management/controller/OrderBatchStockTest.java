@@ -0,0 +1,77 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class OrderBatchStockTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Customer customer;
+    private Product scarce;
+    private Product plenty;
+
+    @BeforeEach
+    void setUp() {
+        String tag = Long.toString(System.nanoTime(), 36);
+        customer = customerRepository.save(new Customer("Batch", tag, tag + "@example.com"));
+        scarce = productRepository.save(new Product("Scarce", "Batch stock", new BigDecimal("5.00"), 5));
+        plenty = productRepository.save(new Product("Plenty", "Batch stock", new BigDecimal("1.00"), 100));
+    }
+
+    @Test
+    void insufficientStockRejectsOnlyThatOrder() throws Exception {
+        String ndjson = orderJson(item(scarce, 3)) + "\n"
+                // Zweite Position reicht nicht: auch die Reservierung von plenty wird zurückgenommen
+                + orderJson(item(plenty, 10) + "," + item(scarce, 3)) + "\n"
+                + orderJson(item(scarce, 2)) + "\n";
+
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[1].error", startsWith("Nicht genug Bestand für Produkt " + scarce.getId())))
+                .andExpect(jsonPath("$.results[2].status").value("CREATED"));
+
+        assertThat(productRepository.findById(scarce.getId()).orElseThrow().getStockQuantity()).isZero();
+        assertThat(productRepository.findById(plenty.getId()).orElseThrow().getStockQuantity()).isEqualTo(100);
+    }
+
+    private String orderJson(String items) {
+        return "{\"customer\":{\"id\":" + customer.getId() + "},\"orderItems\":[" + items + "]}";
+    }
+
+    private static String item(Product product, int quantity) {
+        return "{\"product\":{\"id\":" + product.getId() + "},\"quantity\":" + quantity + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class OrderCreateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        String tag = Long.toString(System.nanoTime(), 36);
+        customer = customerRepository.save(new Customer("Create", tag, tag + "@example.com"));
+        product = productRepository.save(new Product("Create", "Create order", new BigDecimal("7.50"), 10));
+    }
+
+    @Test
+    void createOrderWithReferencesById() throws Exception {
+        // Produkt nur mit ID, ohne Version - wie es Clients schicken
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(customer.getId(), product.getId(), 2, "7.50")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.totalAmount").value(15.00));
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void missingUnitPriceIsTakenFromProduct() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(customer.getId(), product.getId(), 3, null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderItems[0].unitPrice").value(7.50))
+                .andExpect(jsonPath("$.totalAmount").value(22.50));
+    }
+
+    @Test
+    void unknownCustomerIsRejectedAndStockKept() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(orderJson(Long.MAX_VALUE, product.getId(), 2, "7.50")))
+                .andExpect(status().isBadRequest());
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void unknownProductIsRejectedAndStockKept() throws Exception {
+        String items = "{\"product\":{\"id\":" + product.getId() + "},\"quantity\":2,\"unitPrice\":7.50},"
+                + "{\"product\":{\"id\":" + Long.MAX_VALUE + "},\"quantity\":1,\"unitPrice\":1.00}";
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customer\":{\"id\":" + customer.getId() + "},\"orderItems\":[" + items + "]}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    private static String orderJson(Long customerId, Long productId, int quantity, String unitPrice) {
+        return "{\"customer\":{\"id\":" + customerId + "},"
+                + "\"orderItems\":[{\"product\":{\"id\":" + productId + "},\"quantity\":" + quantity
+                + (unitPrice != null ? ",\"unitPrice\":" + unitPrice : "") + "}]}";
+    }
+}
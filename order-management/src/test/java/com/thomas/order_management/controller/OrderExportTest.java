@@ -0,0 +1,209 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderExportService;
+import com.thomas.order_management.service.OrderService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "app.orders.export.timeout=90s"
+})
+@AutoConfigureMockMvc
+class OrderExportTest {
+
+    // Eigener Monat pro Test, dazwischen ein freier Monat für die Bestellungen knapp außerhalb der Grenzen -
+    // weit vor allen übrigen Testdaten, der Export sieht nur die hier angelegten Bestellungen
+    private static final AtomicInteger MONTH = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private final List<Order> inside = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDateTime.of(2005, 1, 1, 0, 0).plusMonths(2L * MONTH.getAndIncrement());
+        to = from.plusMonths(1);
+        String tag = Long.toString(System.nanoTime(), 36);
+        // Trennzeichen und Anführungszeichen im Namen, damit der CSV-Export quoten muss
+        Customer customer = customerRepository.save(new Customer("Anna \"Nina\"", "Meier, Berlin", tag + "@example.com"));
+        Product product = productRepository.save(new Product("Export", "Order export", new BigDecimal("2.50"), 100));
+
+        create(customer, product, from.minusSeconds(1));
+        inside.add(create(customer, product, from));
+        inside.add(create(customer, product, from.plusDays(14)));
+        // to ist exklusiv
+        create(customer, product, to);
+    }
+
+    @Test
+    void ndjsonContainsOnlyOrdersWithinBounds() throws Exception {
+        MvcResult result = export(get("/api/orders/export")
+                .param("from", from.toString())
+                .param("to", to.toString()));
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"orders.ndjson\"");
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertThat(rows).extracting(row -> row.get("id").asLong())
+                .containsExactly(inside.get(0).getId(), inside.get(1).getId());
+        assertThat(rows.get(0).get("customerName").asText()).isEqualTo("Anna \"Nina\" Meier, Berlin");
+        assertThat(rows.get(0).get("itemCount").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparatorsAndQuotes() throws Exception {
+        MvcResult result = export(get("/api/orders/export")
+                .param("format", "csv")
+                .param("from", from.toString())
+                .param("to", to.toString()));
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        List<String> lines = List.of(result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("id,orderNumber,customerId,customerName,status,totalAmount,orderDate,itemCount");
+        Order first = inside.get(0);
+        assertThat(lines.get(1)).isEqualTo(first.getId() + "," + first.getOrderNumber() + ","
+                + first.getCustomer().getId() + ",\"Anna \"\"Nina\"\" Meier, Berlin\",PENDING,2.50," + from + ",1");
+        assertThat(lines.get(2)).startsWith(inside.get(1).getId() + ",");
+    }
+
+    @Test
+    void gzipIsNegotiatedViaAcceptEncoding() throws Exception {
+        String plain = export(get("/api/orders/export")
+                .param("from", from.toString())
+                .param("to", to.toString()))
+                .getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        MvcResult result = export(get("/api/orders/export")
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(result.getResponse().getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain);
+        }
+    }
+
+    @Test
+    void exportUsesItsOwnAsyncTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(90_000);
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/orders/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void abortedClientClosesCursorAndReleasesConnection() throws Exception {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        int activeBefore = pool.getHikariPoolMXBean().getActiveConnections();
+        OutputStream brokenClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> orderExportService.export(OrderExportService.Format.CSV, from, to, brokenClient))
+                .isInstanceOf(IOException.class);
+
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isEqualTo(activeBefore);
+        // Nach dem Abbruch exportiert der nächste Request normal
+        String csv = export(get("/api/orders/export")
+                .param("format", "csv")
+                .param("from", from.toString())
+                .param("to", to.toString()))
+                .getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(csv.split("\n")).hasSize(3);
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+    }
+
+    private Order create(Customer customer, Product product, LocalDateTime orderDate) {
+        Order order = new Order(customer, "EXPORT-" + System.nanoTime());
+        order.setOrderDate(orderDate);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, 1, product.getPrice()))));
+        return orderService.createOrder(order);
+    }
+}
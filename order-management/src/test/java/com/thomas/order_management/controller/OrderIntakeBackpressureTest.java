@@ -0,0 +1,40 @@
+package com.thomas.order_management.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Ohne Worker läuft die Queue voll - weitere Bestellungen werden mit 429 abgelehnt
+ */
+@SpringBootTest(properties = {"app.orders.intake.workers=0", "app.orders.intake.queue-capacity=2"})
+@AutoConfigureMockMvc
+class OrderIntakeBackpressureTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void fullQueueAnswersTooManyRequests() throws Exception {
+        mockMvc.perform(asyncOrder()).andExpect(status().isAccepted());
+        mockMvc.perform(asyncOrder()).andExpect(status().isAccepted());
+
+        mockMvc.perform(asyncOrder())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    private static RequestBuilder asyncOrder() {
+        return post("/api/orders").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customer\":{\"id\":1},\"orderItems\":[{\"product\":{\"id\":1},\"quantity\":1}]}");
+    }
+}
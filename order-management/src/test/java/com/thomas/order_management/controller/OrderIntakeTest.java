@@ -0,0 +1,105 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderIntakeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void acceptedOrderIsCreatedByWorker() throws Exception {
+        Product product = productRepository.save(new Product("Intake", "Async intake", new BigDecimal("5.00"), 10));
+
+        JsonNode ticket = submit(product, 3);
+        JsonNode done = awaitCompletion(ticket.get("statusUrl").asText());
+
+        assertThat(done.get("status").asText()).isEqualTo("CREATED");
+        assertThat(orderRepository.findWithDetailsById(done.get("orderId").asLong()))
+                .hasValueSatisfying(order -> {
+                    assertThat(order.getOrderNumber()).isEqualTo(ticket.get("orderNumber").asText());
+                    assertThat(order.getTotalAmount()).isEqualByComparingTo("15.00");
+                });
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void insufficientStockRejectsOnlyThatOrder() throws Exception {
+        Product product = productRepository.save(new Product("Intake knapp", "Async intake", new BigDecimal("5.00"), 4));
+
+        JsonNode first = awaitCompletion(submit(product, 3).get("statusUrl").asText());
+        JsonNode second = awaitCompletion(submit(product, 3).get("statusUrl").asText());
+
+        assertThat(first.get("status").asText()).isEqualTo("CREATED");
+        assertThat(second.get("status").asText()).isEqualTo("REJECTED");
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidOrderIsRejectedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/api/orders").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customer\":{\"id\":1},\"orderItems\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode submit(Product product, int quantity) throws Exception {
+        Customer customer = customerRepository.findAll().get(0);
+        String body = "{\"customer\":{\"id\":" + customer.getId() + "},"
+                + "\"orderItems\":[{\"product\":{\"id\":" + product.getId() + "},\"quantity\":" + quantity + "}]}";
+        MvcResult result = mockMvc.perform(post("/api/orders").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private JsonNode awaitCompletion(String statusUrl) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            MvcResult result = mockMvc.perform(get(statusUrl)).andExpect(status().isOk()).andReturn();
+            JsonNode ticket = objectMapper.readTree(result.getResponse().getContentAsString());
+            if (ticket.get("completed").asBoolean() || System.currentTimeMillis() > deadline) {
+                return ticket;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.OutboxEventRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        // Unter Last sollen alle Statuswechsel durchkommen
+        "app.orders.update.max-attempts=100",
+        "app.orders.update.retry-backoff=1ms"
+})
+@AutoConfigureMockMvc
+class OrderOptimisticLockingTest {
+
+    private static final int THREADS = 16;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(new Customer("Version", "Test", "version-" + System.nanoTime() + "@example.com"));
+        Product product = productRepository.save(new Product("Version", "Optimistic locking", new BigDecimal("10.00"), 100));
+        Order newOrder = new Order(customer, "VER-" + System.nanoTime());
+        newOrder.setNotes("0");
+        newOrder.setOrderItems(new ArrayList<>(List.of(new OrderItem(newOrder, product, 1, product.getPrice()))));
+        order = orderService.createOrder(newOrder);
+    }
+
+    @Test
+    void ifMatchWithStaleVersionIsRejected() throws Exception {
+        String etag = mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/orders/order-number/{orderNumber}", order.getOrderNumber()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(patch("/api/orders/{id}/status", order.getId())
+                        .param("status", "CONFIRMED")
+                        .header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // Zweiter Client mit dem alten ETag
+        mockMvc.perform(put("/api/orders/{id}", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PENDING\",\"notes\":\"veraltet\"}")
+                        .header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/orders/{id}", order.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CONFIRMED\",\"notes\":\"aktuell\",\"version\":0}")
+                        .header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getNotes()).isEqualTo("aktuell");
+    }
+
+    @Test
+    void concurrentReadModifyWriteLosesNoUpdate() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                // Lesen, lokal ändern, mit gelesener Version zurückschreiben - bei Konflikt neu lesen
+                while (true) {
+                    Order current = orderRepository.findWithDetailsById(order.getId()).orElseThrow();
+                    Order details = new Order();
+                    details.setStatus(current.getStatus());
+                    details.setNotes(Integer.toString(Integer.parseInt(current.getNotes()) + 1));
+                    try {
+                        orderService.updateOrder(order.getId(), details, current.getVersion());
+                        break;
+                    } catch (OptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }
+            return null;
+        });
+
+        Order result = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(result.getNotes()).isEqualTo(Integer.toString(THREADS * UPDATES_PER_THREAD));
+        assertThat(result.getVersion()).isEqualTo((long) THREADS * UPDATES_PER_THREAD);
+        assertThat(conflicts.get()).isPositive();
+    }
+
+    @Test
+    void concurrentStatusChangesAreRetried() throws Exception {
+        long eventsBefore = statusEvents();
+        OrderStatus[] targets = {OrderStatus.CONFIRMED, OrderStatus.PROCESSING};
+
+        List<Order> results = runConcurrently(() -> {
+            List<Order> updated = new ArrayList<>();
+            for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                OrderStatus target = targets[(i + (int) Thread.currentThread().threadId()) % targets.length];
+                updated.add(orderService.updateStatusWithRetry(order.getId(), target, null).orElseThrow());
+            }
+            return updated;
+        });
+
+        // Jeder Aufruf kam durch, jede Versionserhöhung ist genau ein Statuswechsel mit Outbox-Ereignis
+        assertThat(results).hasSize(THREADS * UPDATES_PER_THREAD);
+        Order result = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(statusEvents() - eventsBefore).isEqualTo(result.getVersion());
+        assertThat(result.getStatus()).isIn((Object[]) targets);
+    }
+
+    private <T> List<T> runConcurrently(Callable<List<T>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<List<T>> future : futures) {
+                List<T> partial = future.get();
+                if (partial != null) {
+                    results.addAll(partial);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long statusEvents() {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(order.getId()))
+                .filter(event -> OrderStatusChangedEvent.TYPE.equals(event.getEventType()))
+                .count();
+    }
+}
@@ -0,0 +1,164 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.OrderPurgeRequest;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderItemRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderService;
+import com.thomas.order_management.service.RevenueRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        // Kleine Chunks, damit mehrere Transaktionen durchlaufen werden
+        "app.orders.purge.chunk-size=2",
+        "app.orders.purge.pause=0ms"
+})
+@AutoConfigureMockMvc
+class OrderPurgeTest {
+
+    // Weit vor allen übrigen Testdaten, damit nur die hier angelegten Bestellungen betroffen sind
+    private static final LocalDateTime PLACED = LocalDateTime.of(2003, 3, 10, 12, 0);
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2003, 4, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Order> cancelled = new ArrayList<>();
+    private Order delivered;
+    private Order recent;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(new Customer("Purge", "Test", "purge-" + System.nanoTime() + "@example.com"));
+        Product product = productRepository.save(new Product("Purge", "Retention", new BigDecimal("10.00"), 1000));
+        for (int i = 0; i < 5; i++) {
+            cancelled.add(create(customer, product, PLACED.plusHours(i), OrderStatus.CANCELLED));
+        }
+        delivered = create(customer, product, PLACED, OrderStatus.DELIVERED);
+        recent = create(customer, product, LocalDateTime.now(), OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void dryRunCountsAndPurgeDeletesInChunks() throws Exception {
+        Map<OrderStatus, Long> countsBefore = revenueRollupService.countsByStatus();
+        long itemsBefore = orderItemRepository.count();
+
+        JsonNode dryRun = purge(new OrderPurgeRequest(List.of(OrderStatus.CANCELLED), BEFORE, true));
+        assertThat(dryRun.get("orders").asLong()).isEqualTo(5);
+        assertThat(dryRun.get("items").asLong()).isEqualTo(10);
+        assertThat(dryRun.get("chunks").asInt()).isZero();
+        assertThat(orderRepository.existsById(cancelled.get(0).getId())).isTrue();
+
+        JsonNode result = purge(new OrderPurgeRequest(List.of(OrderStatus.CANCELLED), BEFORE, false));
+        assertThat(result.get("orders").asLong()).isEqualTo(5);
+        assertThat(result.get("items").asLong()).isEqualTo(10);
+        assertThat(result.get("chunks").asInt()).isEqualTo(3);
+        assertThat(result.get("ordersByStatus").get("CANCELLED").asLong()).isEqualTo(5);
+
+        assertThat(cancelled).noneMatch(order -> orderRepository.existsById(order.getId()));
+        assertThat(orderRepository.existsById(delivered.getId())).isTrue();
+        assertThat(orderRepository.existsById(recent.getId())).isTrue();
+        assertThat(orderItemRepository.count()).isEqualTo(itemsBefore - 10);
+
+        // Rollups werden wie beim Löschen einzelner Bestellungen verringert
+        Map<OrderStatus, Long> countsAfter = revenueRollupService.countsByStatus();
+        assertThat(countsBefore.get(OrderStatus.CANCELLED) - countsAfter.get(OrderStatus.CANCELLED)).isEqualTo(5);
+        assertThat(countsAfter.get(OrderStatus.DELIVERED)).isEqualTo(countsBefore.get(OrderStatus.DELIVERED));
+
+        // Zweiter Lauf findet nichts mehr
+        assertThat(purge(new OrderPurgeRequest(List.of(OrderStatus.CANCELLED), BEFORE, false)).get("orders").asLong()).isZero();
+    }
+
+    @Test
+    void deleteSingleOrder() throws Exception {
+        Map<OrderStatus, Long> countsBefore = revenueRollupService.countsByStatus();
+
+        mockMvc.perform(delete("/api/orders/{id}", delivered.getId())).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/orders/{id}", delivered.getId())).andExpect(status().isNotFound());
+
+        assertThat(orderRepository.existsById(delivered.getId())).isFalse();
+        assertThat(countsBefore.get(OrderStatus.DELIVERED) - revenueRollupService.countsByStatus().get(OrderStatus.DELIVERED))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void invalidRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/api/orders/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statuses\":[],\"before\":\"2003-04-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/orders/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"statuses\":[\"CANCELLED\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Order create(Customer customer, Product product, LocalDateTime orderDate, OrderStatus status) {
+        Order order = new Order(customer, "PURGE-" + System.nanoTime());
+        order.setOrderDate(orderDate);
+        order.setOrderItems(new ArrayList<>(List.of(
+                new OrderItem(order, product, 1, product.getPrice()),
+                new OrderItem(order, product, 2, product.getPrice()))));
+        Order saved = orderService.createOrder(order);
+        if (status == OrderStatus.DELIVERED) {
+            orderService.updateStatus(saved.getId(), OrderStatus.SHIPPED);
+        }
+        orderService.updateStatus(saved.getId(), status);
+        return saved;
+    }
+
+    private JsonNode purge(OrderPurgeRequest request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/orders/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
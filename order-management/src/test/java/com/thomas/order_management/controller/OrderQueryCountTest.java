@@ -0,0 +1,89 @@
+package com.thomas.order_management.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stellt sicher, dass die Bestell-Endpunkte eine feste Anzahl SQL-Statements absetzen,
+ * unabhängig von der Anzahl der Bestellungen, Positionen und Produkte (keine N+1-Abfragen)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Hintergrundjobs würden mitgezählt
+        "app.scheduling.enabled=false"
+})
+@AutoConfigureMockMvc
+class OrderQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listEndpointsUseSingleStatement() throws Exception {
+        assertStatements(get("/api/orders"), 1);
+        assertStatements(get("/api/orders/customer/1"), 1);
+        assertStatements(get("/api/orders/status/PENDING"), 1);
+        assertStatements(get("/api/orders/search").param("status", "PENDING").param("minTotal", "10"), 1);
+        assertStatements(get("/api/orders/period")
+                .param("startDate", LocalDateTime.now().minusYears(1).toString())
+                .param("endDate", LocalDateTime.now().plusDays(1).toString()), 1);
+    }
+
+    @Test
+    void detailEndpointsUseSingleStatement() throws Exception {
+        assertStatements(get("/api/orders/1"), 1);
+        assertStatements(get("/api/orders/order-number/ORD-2024-001"), 1);
+    }
+
+    @Test
+    void statusUpdateLoadsOnceAndUpdatesOnce() throws Exception {
+        // Erster Wechsel stellt sicher, dass der gemessene Wechsel den Status tatsächlich ändert
+        mockMvc.perform(patch("/api/orders/2/status").param("status", "CONFIRMED")).andExpect(status().isOk());
+
+        statistics.clear();
+        mockMvc.perform(patch("/api/orders/2/status").param("status", "SHIPPED")).andExpect(status().isOk());
+
+        // Laden, Outbox-Insert, Update - dazu ein Sequence-Aufruf für die Outbox-ID (next value for
+        // order_outbox_seq), der je nach Stand des Pooled-Blocks anfällt; er hängt nicht von der Bestellung ab
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isBetween(3L, 4L);
+    }
+
+    @Test
+    void recentActivityDoesNotFanOut() throws Exception {
+        assertStatements(get("/api/dashboard/recent-activity"), 2);
+    }
+
+    private void assertStatements(RequestBuilder request, long expected) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+}
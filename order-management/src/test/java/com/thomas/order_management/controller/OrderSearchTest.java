@@ -0,0 +1,128 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class OrderSearchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Customer customer;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(new Customer("Suche", "Test", "search-" + System.nanoTime() + "@example.com"));
+        prefix = "SRCH-" + System.nanoTime() + "-";
+        Product product = productRepository.save(new Product("Suche", "Order search", new BigDecimal("10.00"), 1000));
+        for (int quantity = 1; quantity <= 5; quantity++) {
+            Order order = new Order(customer, prefix + quantity);
+            order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, quantity, product.getPrice()))));
+            Order saved = orderService.createOrder(order);
+            if (quantity % 2 == 0) {
+                orderService.updateStatus(saved.getId(), OrderStatus.SHIPPED);
+            }
+        }
+    }
+
+    @Test
+    void criteriaAreCombined() throws Exception {
+        JsonNode page = search(get("/api/orders/search")
+                .param("customerId", customer.getId().toString())
+                .param("status", "PENDING")
+                .param("minTotal", "20.00")
+                .param("maxTotal", "50.00"));
+
+        assertThat(orderNumbers(page)).containsExactly(prefix + 5, prefix + 3);
+    }
+
+    @Test
+    void orderNumberPrefixAndMultipleStatuses() throws Exception {
+        JsonNode page = search(get("/api/orders/search")
+                .param("orderNumber", prefix)
+                .param("status", "PENDING", "SHIPPED")
+                .param("sort", "totalAmount,asc"));
+
+        assertThat(orderNumbers(page)).containsExactly(prefix + 1, prefix + 2, prefix + 3, prefix + 4, prefix + 5);
+        // Platzhalter im Präfix werden wörtlich genommen
+        assertThat(orderNumbers(search(get("/api/orders/search").param("orderNumber", "SRCH-%")))).isEmpty();
+    }
+
+    @Test
+    void pagesWithCursorInSortOrder() throws Exception {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/orders/search")
+                    .param("customerId", customer.getId().toString())
+                    .param("sort", "totalAmount,desc")
+                    .param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = search(request);
+            seen.addAll(orderNumbers(page));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(prefix + 5, prefix + 4, prefix + 3, prefix + 2, prefix + 1);
+    }
+
+    @Test
+    void invalidSortOrCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/orders/search").param("sort", "notes,asc")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/search").param("cursor", "kaputt")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/search").param("status", "UNKNOWN")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode search(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> orderNumbers(JsonNode page) {
+        List<String> numbers = new ArrayList<>();
+        page.get("items").forEach(item -> numbers.add(item.get("orderNumber").asText()));
+        return numbers;
+    }
+}
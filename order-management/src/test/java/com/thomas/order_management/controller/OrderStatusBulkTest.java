@@ -0,0 +1,142 @@
+package com.thomas.order_management.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomas.order_management.dto.OrderStatusBulkRequest;
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.OutboxEventRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.OrderService;
+import com.thomas.order_management.service.RevenueRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        // Kleine Chunks, damit mehrere Transaktionen durchlaufen werden
+        "app.orders.status-bulk.chunk-size=2"
+})
+@AutoConfigureMockMvc
+class OrderStatusBulkTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(new Customer("Bulk", "Status", "bulk-" + System.nanoTime() + "@example.com"));
+        Product product = productRepository.save(new Product("Bulk", "Bulk status", new BigDecimal("10.00"), 1000));
+        String prefix = "BULK-" + System.nanoTime() + "-";
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order(customer, prefix + i);
+            order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, i + 1, product.getPrice()))));
+            orders.add(orderService.createOrder(order));
+        }
+        orderService.updateStatus(orders.get(1).getId(), OrderStatus.PROCESSING);
+        orderService.updateStatus(orders.get(2).getId(), OrderStatus.SHIPPED);
+        orderService.updateStatus(orders.get(3).getId(), OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void reportsOutcomePerOrder() throws Exception {
+        Map<OrderStatus, Long> countsBefore = revenueRollupService.countsByStatus();
+        long eventsBefore = statusEvents();
+        LocalDateTime requestedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        OrderStatusBulkRequest request = new OrderStatusBulkRequest(OrderStatus.SHIPPED,
+                List.of(orders.get(0).getId(), orders.get(1).getId(), orders.get(2).getId(), orders.get(0).getId(), -1L),
+                List.of(orders.get(3).getOrderNumber(), orders.get(4).getOrderNumber(), "GIBT-ES-NICHT"));
+        JsonNode result = objectMapper.readTree(mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.get("requested").asInt()).isEqualTo(7);
+        assertThat(result.get("changed").asInt()).isEqualTo(3);
+        assertThat(result.get("unchanged").asInt()).isEqualTo(1);
+        assertThat(result.get("rejected").asInt()).isEqualTo(1);
+        assertThat(result.get("notFound").asInt()).isEqualTo(2);
+        List<String> outcomes = new ArrayList<>();
+        result.get("results").forEach(item -> outcomes.add(item.get("outcome").asText()));
+        assertThat(outcomes).containsExactly("CHANGED", "CHANGED", "UNCHANGED", "NOT_FOUND", "REJECTED", "CHANGED", "NOT_FOUND");
+        assertThat(result.get("results").get(4).get("previousStatus").asText()).isEqualTo("DELIVERED");
+
+        // Status, Version, Änderungszeit, Rollups und Outbox wie beim Einzelwechsel
+        Order first = orderRepository.findById(orders.get(0).getId()).orElseThrow();
+        assertThat(first.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(first.getVersion()).isEqualTo(orders.get(0).getVersion() + 1);
+        assertThat(first.getUpdatedAt()).isAfterOrEqualTo(requestedAt);
+        assertThat(orderRepository.findById(orders.get(3).getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.DELIVERED);
+
+        Map<OrderStatus, Long> countsAfter = revenueRollupService.countsByStatus();
+        assertThat(countsAfter.get(OrderStatus.SHIPPED) - countsBefore.get(OrderStatus.SHIPPED)).isEqualTo(3);
+        assertThat(countsBefore.get(OrderStatus.PENDING) - countsAfter.get(OrderStatus.PENDING)).isEqualTo(2);
+        assertThat(countsBefore.get(OrderStatus.PROCESSING) - countsAfter.get(OrderStatus.PROCESSING)).isEqualTo(1);
+        assertThat(statusEvents()).isEqualTo(eventsBefore + 3);
+    }
+
+    @Test
+    void emptyRequestIsRejected() throws Exception {
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SHIPPED\",\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + orders.get(0).getId() + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long statusEvents() {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> OrderStatusChangedEvent.TYPE.equals(event.getEventType()))
+                .count();
+    }
+}
@@ -0,0 +1,71 @@
+package com.thomas.order_management.controller;
+
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@AutoConfigureMockMvc
+class ProductUpdateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void stripedProductUpdatesMasterDataAndStockTogether() throws Exception {
+        Product product = productRepository.save(new Product("Striped", "Before", new BigDecimal("3.00"), 10));
+        inventoryService.enableStriping(product.getId(), 4);
+        Long version = productRepository.findById(product.getId()).orElseThrow().getVersion();
+
+        mockMvc.perform(put("/api/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_MATCH, ETags.of(version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Striped\",\"description\":\"After\",\"price\":4.00,\"stockQuantity\":40,\"active\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("After"))
+                .andExpect(jsonPath("$.stockQuantity").value(40))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(updated.getStockStripes()).isEqualTo(4);
+        assertThat(updated.getStockQuantity()).isEqualTo(40);
+        assertThat(updated.getPrice()).isEqualByComparingTo("4.00");
+
+        // Veralteter ETag: weder Stammdaten noch Bestand ändern sich
+        mockMvc.perform(put("/api/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_MATCH, ETags.of(version))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Striped\",\"description\":\"Stale\",\"price\":5.00,\"stockQuantity\":1,\"active\":true}"))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStockQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    void unknownProductIsNotFound() throws Exception {
+        mockMvc.perform(put("/api/products/{id}", Long.MAX_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"None\",\"price\":1.00,\"stockQuantity\":1,\"active\":true}"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,55 @@
+package com.thomas.order_management.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void roundTripIsLossless() {
+        for (String value : List.of("0", "0.01", "-0.01", "19.99", "12345678.90", "7", "1.5", "92233720368547758.07")) {
+            BigDecimal amount = new BigDecimal(value);
+            BigDecimal back = Money.toBigDecimal(Money.toMinorUnits(amount));
+            assertThat(back).isEqualByComparingTo(amount);
+            assertThat(back.scale()).isEqualTo(Money.SCALE);
+        }
+    }
+
+    @Test
+    void rejectsLossAndOverflow() {
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("1.005"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.toMinorUnits(new BigDecimal("92233720368547758.08"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.multiply(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+
+        // Wie numeric(10,2) beim Schreiben
+        assertThat(Money.roundToMinorUnits(new BigDecimal("1.005"))).isEqualTo(101);
+        assertThat(Money.roundToMinorUnits(new BigDecimal("-1.005"))).isEqualTo(-101);
+    }
+
+    @Test
+    void orderTotalMatchesBigDecimalArithmetic() {
+        Order order = new Order();
+        List<OrderItem> items = new ArrayList<>();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 1; i <= 50; i++) {
+            BigDecimal price = BigDecimal.valueOf(i * 137 + 9, 2);
+            items.add(new OrderItem(order, null, i, price));
+            expected = expected.add(price.multiply(BigDecimal.valueOf(i)));
+        }
+        order.setOrderItems(items);
+
+        assertThat(order.calculateTotalAmount()).isEqualTo(expected.setScale(Money.SCALE));
+        assertThat(items.get(2).getTotalPrice()).isEqualTo(new BigDecimal("12.60"));
+
+        // Geänderter Einzelpreis wird neu umgerechnet
+        items.get(2).setUnitPrice(new BigDecimal("1.00"));
+        assertThat(items.get(2).getTotalPrice()).isEqualTo(new BigDecimal("3.00"));
+    }
+}
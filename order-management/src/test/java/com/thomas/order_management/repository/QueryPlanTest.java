@@ -0,0 +1,298 @@
+package com.thomas.order_management.repository;
+
+import com.thomas.order_management.dto.OrderSearchCriteria;
+import com.thomas.order_management.dto.OrderSearchSort;
+import com.thomas.order_management.dto.OrderSummary;
+import com.thomas.order_management.model.OrderStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regressionstest für Ausführungspläne der Repository-Abfragen
+ * Jede Abfrage wird einmal ausgeführt, das von Hibernate erzeugte SQL mitgeschnitten und per EXPLAIN gegen
+ * eine große Testdatenmenge geplant. Ein Table-Scan auf einer gefilterten Tabelle lässt den Test fehlschlagen.
+ * H2 steht hier für PostgreSQL: die Indizes der Migrationen sind an den Entities gespiegelt (@Index).
+ */
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        // Eigene Datenbank, damit die Massendaten keine anderen Tests beeinflussen
+        "spring.datasource.url=jdbc:h2:mem:queryplan;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.thomas.order_management.repository.QueryPlanTest$SqlRecorder"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final long ID_OFFSET = 10_000_000L;
+    private static final int CUSTOMERS = 2_000;
+    private static final int PRODUCTS = 200;
+    private static final int ORDERS = 50_000;
+    private static final int ITEMS_PER_ORDER = 2;
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*([\\w.\"]+)\\.tableScan");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, Probe> probes = new LinkedHashMap<>();
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("""
+            INSERT INTO customers (id, first_name, last_name, email, city, created_at)
+            SELECT %1$d + X, 'Plan', 'Kunde ' || X, 'plan-' || X || '@example.com', 'Stadt ' || MOD(X, 100), CURRENT_TIMESTAMP
+            FROM SYSTEM_RANGE(1, %2$d)
+            """.formatted(ID_OFFSET, CUSTOMERS));
+        jdbcTemplate.execute("""
+            INSERT INTO products (id, name, price, stock_quantity, stock_stripes, active, created_at, updated_at, version)
+            SELECT %1$d + X, 'Plan-Produkt ' || X, 10 + MOD(X, 90), 1000, 0, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0
+            FROM SYSTEM_RANGE(1, %2$d)
+            """.formatted(ID_OFFSET, PRODUCTS));
+        jdbcTemplate.execute("""
+            INSERT INTO orders (id, order_number, customer_id, order_date, status, total_amount, created_at, updated_at, version)
+            SELECT %1$d + X, 'PLAN-' || X, %1$d + 1 + MOD(X, %2$d), DATEADD('MINUTE', -X, TIMESTAMP '2024-06-01 00:00:00'),
+                   CASE MOD(X, 6) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CONFIRMED' WHEN 2 THEN 'PROCESSING'
+                                  WHEN 3 THEN 'SHIPPED' WHEN 4 THEN 'DELIVERED' ELSE 'CANCELLED' END,
+                   MOD(X * 37, 100000) / 100.0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0
+            FROM SYSTEM_RANGE(1, %3$d)
+            """.formatted(ID_OFFSET, CUSTOMERS, ORDERS));
+        jdbcTemplate.execute("""
+            INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, order_date)
+            SELECT %1$d + X, %1$d + 1 + MOD(X, %2$d), %1$d + 1 + MOD(X, %3$d), 1 + MOD(X, 5), 10,
+                   DATEADD('MINUTE', -(1 + MOD(X, %2$d)), TIMESTAMP '2024-06-01 00:00:00')
+            FROM SYSTEM_RANGE(1, %4$d)
+            """.formatted(ID_OFFSET, ORDERS, PRODUCTS, ORDERS * ITEMS_PER_ORDER));
+        // Spaltenselektivität für den Kostenschätzer aktualisieren
+        jdbcTemplate.execute("ANALYZE");
+
+        registerProbes();
+    }
+
+    private void registerProbes() {
+        Long orderId = ID_OFFSET + 1;
+        Long customerId = ID_OFFSET + 1;
+        Long productId = ID_OFFSET + 1;
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 2, 0, 0);
+
+        // ================ ORDER REPOSITORY ================
+        probe("findByOrderNumber", () -> orderRepository.findByOrderNumber("PLAN-1"));
+        probe("findByCustomerId", () -> orderRepository.findByCustomerId(customerId));
+        probe("findByStatus", () -> orderRepository.findByStatus(OrderStatus.CANCELLED));
+        probe("findByOrderDateBetween", () -> orderRepository.findByOrderDateBetween(from, to));
+        probe("findByCustomerIdOrderByOrderDateDesc", () -> orderRepository.findByCustomerIdOrderByOrderDateDesc(customerId));
+        fullRead("findAllOrderByOrderDateDesc", "liefert bewusst alle Bestellungen",
+                () -> orderRepository.findAllOrderByOrderDateDesc());
+        probe("getTotalAmountByStatus", () -> orderRepository.getTotalAmountByStatus(OrderStatus.CANCELLED));
+        probe("countByStatus", () -> orderRepository.countByStatus(OrderStatus.CANCELLED));
+        probe("getTotalRevenueInPeriod", () -> orderRepository.getTotalRevenueInPeriod(from, to));
+        probe("getTotalRevenueFromUntil", () -> orderRepository.getTotalRevenueFromUntil(from, to));
+        fullRead("computeDailyRevenue", "Konsistenzprüfung der Revenue-Rollups über alle Bestellungen",
+                () -> orderRepository.computeDailyRevenue());
+        probe("findWithDetailsById", () -> orderRepository.findWithDetailsById(orderId));
+        probe("findWithDetailsByOrderNumber", () -> orderRepository.findWithDetailsByOrderNumber("PLAN-1"));
+        probe("findSummariesByStatus", () -> orderRepository.findSummariesByStatus(OrderStatus.CANCELLED));
+        probe("findSummariesByIdIn", () -> orderRepository.findSummariesByIdIn(List.of(orderId, orderId + 1, orderId + 2)));
+        probe("findSummariesByOrderDateBetween", () -> orderRepository.findSummariesByOrderDateBetween(from, to));
+        fullRead("findFirstPage", "ungefilterte Liste mit LIMIT, PostgreSQL liest idx_orders_order_date_id sortiert",
+                () -> orderRepository.findFirstPage(Limit.of(50)));
+        fullRead("findPageAfter", "H2 nutzt für Zeilenwert-Vergleiche (a, b) < (x, y) keinen Index, PostgreSQL schon",
+                () -> orderRepository.findPageAfter(to, orderId, Limit.of(50)));
+        probe("findFirstPageByCustomer", () -> orderRepository.findFirstPageByCustomer(customerId, Limit.of(50)));
+        probe("findPageByCustomerAfter", () -> orderRepository.findPageByCustomerAfter(customerId, to, orderId, Limit.of(50)));
+        probe("countByStatusForCustomer", () -> orderRepository.countByStatusForCustomer(customerId));
+        probe("streamSummariesByOrderDateBetween", () -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Stream<OrderSummary> stream = orderRepository.streamSummariesByOrderDateBetween(from, to)) {
+                stream.limit(1).count();
+            }
+        }));
+
+        probe("findIdsByStatusAndOrderDateBefore",
+                () -> orderRepository.findIdsByStatusAndOrderDateBefore(OrderStatus.DELIVERED, from, Limit.of(100)));
+        probe("findWithItemsByIdIn", () -> orderRepository.findWithItemsByIdIn(List.of(orderId, orderId + 1)));
+        probe("deleteByIdIn", () -> rolledBack(() -> orderRepository.deleteByIdIn(List.of(-1L))));
+
+        // Bestellsuche (Repository-Fragment) für die Kriterien, die allein einen Index treffen
+        OrderSearchCriteria byStatus = new OrderSearchCriteria();
+        byStatus.setStatus(List.of(OrderStatus.CANCELLED));
+        probe("search", () -> orderRepository.search(byStatus, OrderSearchSort.ORDER_DATE_DESC, null, 51));
+        OrderSearchCriteria byTotal = new OrderSearchCriteria();
+        byTotal.setMinTotal(new BigDecimal("100.00"));
+        byTotal.setMaxTotal(new BigDecimal("110.00"));
+        probe("search(total)", () -> orderRepository.search(byTotal, OrderSearchSort.TOTAL_AMOUNT_ASC, null, 51));
+
+        // ================ ORDER ITEM REPOSITORY ================
+        probe("findByOrderId", () -> orderItemRepository.findByOrderId(orderId));
+        probe("findByProductId", () -> orderItemRepository.findByProductId(productId));
+        probe("findOrderItemsByOrderId", () -> orderItemRepository.findOrderItemsByOrderId(orderId));
+        probe("getTotalQuantitySoldForProduct", () -> orderItemRepository.getTotalQuantitySoldForProduct(productId));
+        probe("deleteByOrderIdIn", () -> rolledBack(() -> orderItemRepository.deleteByOrderIdIn(List.of(-1L))));
+
+        // ================ CUSTOMER REPOSITORY ================
+        probe("findByEmail", () -> customerRepository.findByEmail("plan-1@example.com"));
+        probe("findByCity", () -> customerRepository.findByCity("Stadt 1"));
+        fullRead("countCustomers", "zählt alle Kunden", () -> customerRepository.countCustomers());
+    }
+
+    @Test
+    void everyRepositoryQueryHasAProbe() {
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : List.of(OrderRepository.class, OrderItemRepository.class, CustomerRepository.class)) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(method -> !method.isDefault() && !method.isSynthetic())
+                    .map(Method::getName)
+                    .forEach(declared::add);
+        }
+
+        assertThat(probes.keySet())
+                .as("Neue Repository-Methoden brauchen eine Probe in QueryPlanTest")
+                .containsAll(declared);
+    }
+
+    @Test
+    void filteredQueriesDoNotScanTables() throws SQLException {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Probe> entry : probes.entrySet()) {
+            Probe probe = entry.getValue();
+            List<String> statements = SqlRecorder.record(probe.call());
+            assertThat(statements).as("%s erzeugt kein SQL", entry.getKey()).isNotEmpty();
+
+            for (String sql : statements) {
+                String plan = explain(sql);
+                Set<String> scanned = scannedTables(plan);
+                if (!scanned.isEmpty() && probe.fullReadReason() == null) {
+                    violations.add(entry.getKey() + " scannt " + scanned + ":\n" + plan);
+                }
+            }
+        }
+
+        assertThat(violations).as("Abfragen ohne Index").isEmpty();
+    }
+
+    /**
+     * Plant das Statement, ohne es auszuführen
+     * Die Parameter werden mit NULL belegt - H2 plant bereits beim Prepare, die Werte spielen keine Rolle.
+     */
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    private static Set<String> scannedTables(String plan) {
+        Set<String> tables = new TreeSet<>();
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tables;
+    }
+
+    // Schreibende Abfragen laufen in einer Transaktion, die zurückgerollt wird
+    private void rolledBack(Runnable call) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            call.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    private void probe(String name, Runnable call) {
+        probes.put(name, new Probe(call, null));
+    }
+
+    private void fullRead(String name, String reason, Runnable call) {
+        probes.put(name, new Probe(call, reason));
+    }
+
+    /**
+     * @param fullReadReason Begründung, warum die Abfrage die Tabelle vollständig lesen darf, sonst null
+     */
+    private record Probe(Runnable call, String fullReadReason) {
+    }
+
+    /**
+     * Schneidet das SQL mit, das Hibernate während einer Probe absetzt
+     * Wird von Hibernate per Klassenname instanziiert, daher statischer Zustand.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+        static List<String> record(Runnable call) {
+            List<String> statements = new ArrayList<>();
+            RECORDED.set(statements);
+            try {
+                call.run();
+            } finally {
+                RECORDED.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = RECORDED.get();
+            if (statements != null && !sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("insert")) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
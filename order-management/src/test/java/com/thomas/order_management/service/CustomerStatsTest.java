@@ -0,0 +1,192 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.CustomerStatistics;
+import com.thomas.order_management.dto.CustomerStatsSort;
+import com.thomas.order_management.dto.OrderStatusBulkRequest;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.CustomerStatsRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"app.scheduling.enabled=false", "app.customers.stats.rebuild.chunk-size=2"})
+class CustomerStatsTest {
+
+    @Autowired
+    private CustomerStatsService customerStatsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusBulkService orderStatusBulkService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerStatsRepository statsRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        String tag = Long.toString(System.nanoTime(), 36);
+        customer = customerRepository.save(new Customer("Stats", tag, tag + "@example.com"));
+        product = productRepository.save(new Product("Stats", "Customer stats", new BigDecimal("12.50"), 1000));
+        // Andere Tests archivieren Bestellungen an den Listenern vorbei - konsistenter Ausgangszustand
+        customerStatsService.rebuild();
+    }
+
+    @Test
+    void statsFollowCreateAmountStatusChangeAndDelete() {
+        assertThat(customerStatsService.statistics(customer.getId())).get()
+                .satisfies(stats -> assertThat(stats.getOrderCount()).isZero())
+                .satisfies(stats -> assertThat(stats.getLastOrderDate()).isNull());
+
+        Order first = orderService.createOrder(newOrder(2, LocalDateTime.now().minusDays(10)));
+        Order second = orderService.createOrder(newOrder(1, LocalDateTime.now().minusDays(3)));
+        CustomerStatistics stats = customerStatsService.statistics(customer.getId()).orElseThrow();
+        assertThat(stats.getOrderCount()).isEqualTo(2);
+        assertThat(stats.getLifetimeValue()).isEqualByComparingTo("37.50");
+        assertThat(stats.getAverageOrderValue()).isEqualByComparingTo("18.75");
+        assertThat(stats.getRecencyDays()).isEqualTo(3);
+        assertMatchesOrders();
+
+        // Neu berechneter Betrag ändert nur den Umsatz
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                orderRepository.findById(first.getId()).orElseThrow().setTotalAmount(new BigDecimal("30.00")));
+        assertMatchesOrders();
+
+        // Stornierte Bestellungen zählen nicht, der Zeitraum wird neu bestimmt
+        orderService.updateStatus(second.getId(), OrderStatus.CANCELLED);
+        stats = customerStatsService.statistics(customer.getId()).orElseThrow();
+        assertThat(stats.getOrderCount()).isEqualTo(1);
+        assertThat(stats.getRecencyDays()).isEqualTo(10);
+        assertMatchesOrders();
+
+        orderRepository.deleteById(first.getId());
+        assertThat(customerStatsService.statistics(customer.getId()).orElseThrow().getOrderCount()).isZero();
+        assertMatchesOrders();
+    }
+
+    @Test
+    void bulkCancellationIsRecorded() {
+        Order order = orderService.createOrder(newOrder(4, LocalDateTime.now()));
+        orderService.createOrder(newOrder(1, LocalDateTime.now().minusDays(1)));
+
+        orderStatusBulkService.transition(new OrderStatusBulkRequest(OrderStatus.CANCELLED, List.of(order.getId()), null));
+
+        CustomerStatistics stats = customerStatsService.statistics(customer.getId()).orElseThrow();
+        assertThat(stats.getOrderCount()).isEqualTo(1);
+        assertThat(stats.getLifetimeValue()).isEqualByComparingTo("12.50");
+        assertThat(stats.getRecencyDays()).isEqualTo(1);
+        assertMatchesOrders();
+    }
+
+    @Test
+    void topIsSortedAndPaged() {
+        orderService.createOrder(newOrder(2, LocalDateTime.now()));
+        assertThat(customerStatsService.top(CustomerStatsSort.LAST_ORDER_DATE_DESC, 0, 100))
+                .extracting(CustomerStatistics::getCustomerId)
+                .contains(customer.getId());
+
+        List<CustomerStatistics> top = customerStatsService.top(CustomerStatsSort.LIFETIME_VALUE_DESC, 0, 5);
+        assertThat(top).isNotEmpty();
+        for (int i = 1; i < top.size(); i++) {
+            assertThat(top.get(i - 1).getLifetimeValue()).isGreaterThanOrEqualTo(top.get(i).getLifetimeValue());
+        }
+        assertThat(customerStatsService.top(CustomerStatsSort.LIFETIME_VALUE_DESC, 1, 4))
+                .extracting(CustomerStatistics::getCustomerId)
+                .containsExactlyElementsOf(top.subList(1, top.size()).stream().map(CustomerStatistics::getCustomerId).toList());
+    }
+
+    @Test
+    void rebuildRepairsDriftedStats() {
+        orderService.createOrder(newOrder(3, LocalDateTime.now()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            statsRepository.findById(customer.getId()).orElseThrow().setOrderCount(99L);
+            statsRepository.deleteAll(statsRepository.findAll().stream()
+                    .filter(stats -> !stats.getCustomerId().equals(customer.getId()))
+                    .limit(1)
+                    .toList());
+        });
+
+        assertThat(customerStatsService.rebuild().getChunks()).isGreaterThan(1);
+        assertMatchesOrders();
+    }
+
+    @Test
+    void unknownCustomerHasNoStats() {
+        assertThat(customerStatsService.statistics(Long.MAX_VALUE)).isEmpty();
+    }
+
+    /**
+     * customer_stats entspricht für jeden Kunden der Aggregation über orders
+     */
+    private void assertMatchesOrders() {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList("""
+                SELECT o.customer_id, COUNT(*) AS order_count, SUM(o.total_amount) AS total_amount,
+                       MIN(o.order_date) AS first_order_date, MAX(o.order_date) AS last_order_date
+                FROM orders o WHERE o.status <> 'CANCELLED' GROUP BY o.customer_id ORDER BY o.customer_id
+                """);
+        List<Map<String, Object>> actual = jdbcTemplate.queryForList("""
+                SELECT customer_id, order_count, total_amount, first_order_date, last_order_date
+                FROM customer_stats WHERE order_count > 0 ORDER BY customer_id
+                """);
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            Map<String, Object> e = expected.get(i);
+            Map<String, Object> a = actual.get(i);
+            assertThat(((Number) a.get("customer_id")).longValue()).isEqualTo(((Number) e.get("customer_id")).longValue());
+            assertThat(((Number) a.get("order_count")).longValue())
+                    .as("count %s", e.get("customer_id"))
+                    .isEqualTo(((Number) e.get("order_count")).longValue());
+            assertThat((BigDecimal) a.get("total_amount"))
+                    .as("amount %s", e.get("customer_id"))
+                    .isEqualByComparingTo((BigDecimal) e.get("total_amount"));
+            assertThat(a.get("first_order_date")).isEqualTo(e.get("first_order_date"));
+            assertThat(a.get("last_order_date")).isEqualTo(e.get("last_order_date"));
+        }
+    }
+
+    private Order newOrder(int quantity, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setOrderDate(orderDate);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, quantity, product.getPrice()))));
+        return order;
+    }
+}
@@ -0,0 +1,165 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.DailyRevenue;
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        // Archivierte Bestellungen fehlen in orders - eigene Datenbank, damit andere Tests unberührt bleiben
+        "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class OrderArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.of(2001, 3, 14);
+
+    @TempDir
+    static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void archivesOldDeliveredOrdersAndKeepsRevenue() throws Exception {
+        Order morning = createOrder(DAY.atTime(8, 15), 2, OrderStatus.DELIVERED);
+        Order evening = createOrder(DAY.atTime(19, 40), 3, OrderStatus.DELIVERED);
+        Order nextDay = createOrder(DAY.plusDays(1).atTime(10, 0), 1, OrderStatus.DELIVERED);
+        Order pending = createOrder(DAY.atTime(12, 0), 4, OrderStatus.PENDING);
+
+        Map<OrderStatus, Long> countsBefore = revenueRollupService.countsByStatus();
+        BigDecimal partialDayBefore = revenueRollupService.revenueInPeriod(DAY.atTime(6, 0), DAY.atTime(20, 0));
+        BigDecimal fullDaysBefore = revenueRollupService.revenueInPeriod(DAY.atStartOfDay(), DAY.plusDays(1).atTime(23, 59, 59));
+
+        assertThat(orderArchiveService.archiveBatch(DAY.plusDays(30).atStartOfDay())).isEqualTo(3);
+
+        assertThat(orderRepository.findById(morning.getId())).isEmpty();
+        assertThat(orderRepository.findById(evening.getId())).isEmpty();
+        assertThat(orderRepository.findById(nextDay.getId())).isEmpty();
+        assertThat(orderRepository.findById(pending.getId())).isPresent();
+        try (var files = Files.list(archiveDirectory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".oseg"))).hasSize(1);
+        }
+
+        // Rollups behalten den Umsatz, angebrochene Tage werden aus dem Archiv ergänzt
+        assertThat(revenueRollupService.countsByStatus()).isEqualTo(countsBefore);
+        assertThat(revenueRollupService.revenueInPeriod(DAY.atTime(6, 0), DAY.atTime(20, 0)))
+                .isEqualByComparingTo(partialDayBefore);
+        assertThat(revenueRollupService.revenueInPeriod(DAY.atStartOfDay(), DAY.plusDays(1).atTime(23, 59, 59)))
+                .isEqualByComparingTo(fullDaysBefore);
+        assertThat(revenueRollupService.verify()).isZero();
+
+        assertThat(orderArchiveService.archiveBatch(DAY.plusDays(30).atStartOfDay())).isZero();
+    }
+
+    @Test
+    void segmentRoundTrip(@TempDir Path directory) throws Exception {
+        List<Order> orders = new ArrayList<>();
+        orders.add(order(7L, "ORD-2001-0007", 42L, LocalDateTime.of(2001, 1, 2, 23, 59, 59), OrderStatus.DELIVERED, "19.99", 3));
+        orders.add(order(5L, "ORD-2001-0005", 17L, LocalDateTime.of(2001, 1, 2, 0, 0), OrderStatus.CANCELLED, "0.01", 1));
+        orders.add(order(9L, "ORD-2001-0009", 42L, LocalDateTime.of(2001, 1, 3, 12, 0), OrderStatus.DELIVERED, "1234.50", 0));
+        Path file = directory.resolve("segment.oseg");
+
+        OrderSegmentWriter.write(file, orders);
+        OrderSegment segment = OrderSegment.open(file);
+
+        assertThat(segment.getOrderCount()).isEqualTo(3);
+        assertThat(segment.getItemCount()).isEqualTo(4);
+        assertThat(segment.orderIds()).containsExactly(5L, 7L, 9L);
+        assertThat(segment.getMinOrderDate()).isEqualTo(LocalDateTime.of(2001, 1, 2, 0, 0));
+        assertThat(segment.getMaxOrderDate()).isEqualTo(LocalDateTime.of(2001, 1, 3, 12, 0));
+
+        assertThat(segment.sumAmount(LocalDateTime.of(2001, 1, 2, 0, 0), LocalDateTime.of(2001, 1, 3, 0, 0), false))
+                .isEqualByComparingTo("20.00");
+        assertThat(segment.sumAmount(LocalDateTime.of(2001, 1, 2, 0, 1), LocalDateTime.of(2001, 1, 3, 12, 0), true))
+                .isEqualByComparingTo("1254.49");
+        assertThat(segment.sumAmount(LocalDateTime.of(2001, 1, 2, 0, 1), LocalDateTime.of(2001, 1, 3, 12, 0), false))
+                .isEqualByComparingTo("19.99");
+
+        List<DailyRevenue> days = segment.dailyRevenue();
+        assertThat(days).extracting(DailyRevenue::getRevenueDate, DailyRevenue::getStatus, DailyRevenue::getOrderCount)
+                .containsExactlyInAnyOrder(
+                        tuple(LocalDate.of(2001, 1, 2), OrderStatus.CANCELLED, 1L),
+                        tuple(LocalDate.of(2001, 1, 2), OrderStatus.DELIVERED, 1L),
+                        tuple(LocalDate.of(2001, 1, 3), OrderStatus.DELIVERED, 1L));
+    }
+
+    private Order createOrder(LocalDateTime orderDate, int quantity, OrderStatus status) {
+        Customer customer = customerRepository.findAll().get(0);
+        Product product = productRepository.save(new Product("Archiv", "Order archive", new BigDecimal("10.00"), 100));
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setOrderDate(orderDate);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, quantity, product.getPrice()))));
+        Order saved = orderService.createOrder(order);
+        if (status != OrderStatus.PENDING) {
+            orderService.updateStatus(saved.getId(), status);
+        }
+        return saved;
+    }
+
+    private static Order order(Long id, String number, Long customerId, LocalDateTime orderDate,
+                               OrderStatus status, String total, int items) {
+        Customer customer = new Customer("Archiv", "Test", "archive-" + customerId + "@example.com");
+        customer.setId(customerId);
+        Order order = new Order(customer, number);
+        order.setId(id);
+        order.setOrderDate(orderDate);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal(total));
+        order.setNotes(items > 0 ? "Notiz " + id : null);
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Product product = new Product("P" + i, null, new BigDecimal("1.50"), 1);
+            product.setId(100L + i);
+            OrderItem item = new OrderItem(order, product, i + 1, product.getPrice());
+            item.setId(id * 10 + i);
+            orderItems.add(item);
+        }
+        order.setOrderItems(orderItems);
+        return order;
+    }
+}
@@ -0,0 +1,122 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.dto.OrderStatusChangedEvent;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.OutboxEvent;
+import com.thomas.order_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "app.outbox.sink.file.path=target/outbox-dispatcher-test.ndjson"
+})
+class OutboxDispatcherTest {
+
+    private static final Path FILE = Path.of("target/outbox-dispatcher-test.ndjson");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        outboxEventRepository.deleteAll();
+        Files.deleteIfExists(FILE);
+    }
+
+    @Test
+    void statusChangeIsWrittenToOutboxAndDispatched() throws Exception {
+        orderService.updateStatus(3L, OrderStatus.CONFIRMED);
+        // Gleicher Status erzeugt kein Ereignis
+        orderService.updateStatus(3L, OrderStatus.CONFIRMED);
+
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+        assertThat(pending).singleElement().satisfies(event -> {
+            assertThat(event.getEventType()).isEqualTo(OrderStatusChangedEvent.TYPE);
+            assertThat(event.getAggregateId()).isEqualTo(3L);
+            assertThat(event.getPublishedAt()).isNull();
+        });
+
+        assertThat(outboxDispatcher.dispatchBatch()).isEqualTo(1);
+        assertThat(outboxDispatcher.dispatchBatch()).isZero();
+
+        assertThat(outboxEventRepository.countPending()).isZero();
+        assertThat(Files.readAllLines(FILE)).singleElement().asString()
+                .contains("\"type\":\"" + OrderStatusChangedEvent.TYPE + "\"")
+                .contains("\"status\":\"CONFIRMED\"");
+    }
+
+    @Test
+    void failingSinkIsRetriedWithoutRedeliveringToTheOthers() {
+        outboxEventRepository.save(new OutboxEvent(42L, OrderStatusChangedEvent.TYPE, "{}"));
+        RecordingSink healthy = new RecordingSink("a", 0);
+        RecordingSink flaky = new RecordingSink("b", 1);
+        OutboxDispatcher dispatcher = new OutboxDispatcher(outboxEventRepository, List.of(healthy, flaky),
+                transactionManager, new SimpleMeterRegistry(), 100, Duration.ZERO, Duration.ZERO,
+                Duration.ofDays(7), Duration.ofMinutes(1));
+
+        // b schlägt fehl: das Ereignis bleibt offen, a hat es aber schon erhalten
+        assertThat(dispatcher.dispatchBatch()).isZero();
+        assertThat(healthy.received).hasSize(1);
+        assertThat(flaky.received).isEmpty();
+        assertThat(outboxEventRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getPublishedAt()).isNull();
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getDeliveredSinks()).isEqualTo("a");
+            assertThat(event.getLastError()).startsWith("b: ");
+        });
+
+        // Wiederholung nur an b
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+        assertThat(healthy.received).hasSize(1);
+        assertThat(flaky.received).hasSize(1);
+        assertThat(outboxEventRepository.countPending()).isZero();
+    }
+
+    private static class RecordingSink implements OutboxSink {
+
+        private final String name;
+        private int failuresLeft;
+        private final List<OutboxEvent> received = new ArrayList<>();
+
+        RecordingSink(String name, int failures) {
+            this.name = name;
+            this.failuresLeft = failures;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<OutboxEvent> events) throws Exception {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("sink " + name + " unavailable");
+            }
+            received.addAll(events);
+        }
+    }
+}
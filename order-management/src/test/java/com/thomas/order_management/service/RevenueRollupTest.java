@@ -0,0 +1,141 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Customer;
+import com.thomas.order_management.model.Order;
+import com.thomas.order_management.model.OrderItem;
+import com.thomas.order_management.model.OrderStatus;
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.CustomerRepository;
+import com.thomas.order_management.repository.OrderRepository;
+import com.thomas.order_management.repository.ProductRepository;
+import com.thomas.order_management.repository.RevenueRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+class RevenueRollupTest {
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        // Seed-Daten in einen konsistenten Ausgangszustand bringen
+        revenueRollupService.verify();
+    }
+
+    @Test
+    void rollupsFollowCreateStatusChangeAndDelete() {
+        Order order = orderService.createOrder(newOrder(3));
+        assertMatchesOrders();
+
+        orderService.updateStatus(order.getId(), OrderStatus.DELIVERED);
+        assertMatchesOrders();
+
+        orderRepository.deleteById(order.getId());
+        assertMatchesOrders();
+        assertThat(revenueRollupService.verify()).isZero();
+    }
+
+    @Test
+    void pastDaysAreServedFromCacheAndInvalidatedOnChange() {
+        Order order = orderService.createOrder(newOrder(2));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        // Cache der abgeschlossenen Tage befüllen
+        BigDecimal before = revenueRollupService.revenueForDays(yesterday, yesterday);
+
+        // Bestellung auf gestern zurückdatieren - Verschiebung zwischen Tagen
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                orderRepository.findById(order.getId()).orElseThrow().setOrderDate(yesterday.atTime(10, 0)));
+
+        assertThat(revenueRollupService.revenueForDays(yesterday, yesterday))
+                .isEqualByComparingTo(before.add(new BigDecimal("25.00")))
+                .isEqualByComparingTo(raw(yesterday.atStartOfDay(), yesterday.plusDays(1).atStartOfDay()));
+        assertMatchesOrders();
+    }
+
+    @Test
+    void partialDaysAreTakenFromOrders() {
+        orderService.createOrder(newOrder(1));
+        LocalDateTime start = LocalDate.now().minusDays(3).atTime(12, 0);
+        LocalDateTime end = LocalDateTime.now().plusMinutes(1);
+
+        assertThat(revenueRollupService.revenueInPeriod(start, end))
+                .isEqualByComparingTo(nonNull(orderRepository.getTotalRevenueInPeriod(start, end)));
+    }
+
+    @Test
+    void verifyRebuildsDriftedDay() {
+        orderService.createOrder(newOrder(4));
+        LocalDate today = LocalDate.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                rollupRepository.findAll().stream()
+                        .filter(rollup -> rollup.getRevenueDate().equals(today))
+                        .forEach(rollup -> rollup.setAmount(rollup.getAmount().add(BigDecimal.TEN))));
+
+        assertThat(revenueRollupService.verify()).isEqualTo(1);
+        assertThat(revenueRollupService.verify()).isZero();
+        assertMatchesOrders();
+    }
+
+    private void assertMatchesOrders() {
+        for (OrderStatus status : OrderStatus.values()) {
+            assertThat(revenueRollupService.countByStatus(status))
+                    .as("count %s", status)
+                    .isEqualTo(orderRepository.countByStatus(status));
+            assertThat(revenueRollupService.revenueByStatus(status))
+                    .as("revenue %s", status)
+                    .isEqualByComparingTo(nonNull(orderRepository.getTotalAmountByStatus(status)));
+        }
+        LocalDate today = LocalDate.now();
+        assertThat(revenueRollupService.revenueForDays(today.withDayOfMonth(1), today))
+                .isEqualByComparingTo(raw(today.withDayOfMonth(1).atStartOfDay(), today.plusDays(1).atStartOfDay()));
+    }
+
+    private BigDecimal raw(LocalDateTime from, LocalDateTime until) {
+        return nonNull(orderRepository.getTotalRevenueFromUntil(from, until));
+    }
+
+    private Order newOrder(int quantity) {
+        Customer customer = customerRepository.findAll().get(0);
+        Product product = productRepository.save(new Product("Rollup", "Revenue rollup", new BigDecimal("12.50"), 100));
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setOrderItems(new ArrayList<>(List.of(new OrderItem(order, product, quantity, product.getPrice()))));
+        return order;
+    }
+
+    private static BigDecimal nonNull(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+}
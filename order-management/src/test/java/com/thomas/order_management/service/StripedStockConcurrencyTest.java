@@ -0,0 +1,100 @@
+package com.thomas.order_management.service;
+
+import com.thomas.order_management.model.Product;
+import com.thomas.order_management.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+class StripedStockConcurrencyTest {
+
+    private static final int STOCK = 10_000;
+    private static final int THREADS = 8;
+    private static final int RESERVATIONS_PER_THREAD = 100;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void togglingStripesDoesNotLoseReservations() throws Exception {
+        Product product = productRepository.save(new Product("Toggle", "Striped stock toggle", new BigDecimal("1.00"), STOCK));
+        Long productId = product.getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicBoolean reserving = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Future<?>> reservers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                reservers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                        try {
+                            if (Boolean.TRUE.equals(transaction.execute(status -> inventoryService.reserve(productId, 1)))) {
+                                reserved.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            // Sperr-Timeout o.ä.: die Transaktion ist zurückgerollt, nichts wurde reserviert
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> toggler = executor.submit(() -> {
+                start.await();
+                for (int i = 0; reserving.get(); i++) {
+                    int stripes = i % 3 == 2 ? 0 : 2 + i % 3 * 2;
+                    try {
+                        transaction.executeWithoutResult(status -> {
+                            if (stripes == 0) {
+                                inventoryService.disableStriping(productId);
+                            } else {
+                                inventoryService.enableStriping(productId, stripes);
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        // Umschalten fehlgeschlagen und zurückgerollt - der Bestand bleibt unverändert
+                    }
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> reserver : reservers) {
+                reserver.get();
+            }
+            reserving.set(false);
+            toggler.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Jede bestätigte Reservierung fehlt im Bestand - keine geht verloren, keine wird doppelt gezählt
+        assertThat(reserved.get()).isPositive();
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity())
+                .isEqualTo(STOCK - reserved.get());
+    }
+}
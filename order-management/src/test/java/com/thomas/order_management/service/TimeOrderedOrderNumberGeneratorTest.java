@@ -0,0 +1,98 @@
+package com.thomas.order_management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedOrderNumberGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndMonotonicPerThread() throws Exception {
+        TimeOrderedOrderNumberGenerator generator = new TimeOrderedOrderNumberGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertThat(all[i]).isNotEqualTo(all[i - 1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodeIdSeparatesInstancesWithIdenticalClock() {
+        long now = System.currentTimeMillis();
+        TimeOrderedOrderNumberGenerator first = new TimeOrderedOrderNumberGenerator(1, () -> now);
+        TimeOrderedOrderNumberGenerator second = new TimeOrderedOrderNumberGenerator(2, () -> now);
+
+        assertThat(first.nextOrderNumber()).isNotEqualTo(second.nextOrderNumber());
+    }
+
+    @Test
+    void staysMonotonicWhenClockGoesBackwards() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        TimeOrderedOrderNumberGenerator generator = new TimeOrderedOrderNumberGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void orderNumbersKeepPrefixAndSortLikeIds() {
+        TimeOrderedOrderNumberGenerator generator = new TimeOrderedOrderNumberGenerator(3);
+
+        String first = generator.nextOrderNumber();
+        String second = generator.nextOrderNumber();
+
+        assertThat(first).startsWith(OrderNumberGenerator.PREFIX).hasSize(OrderNumberGenerator.PREFIX.length() + 13);
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new TimeOrderedOrderNumberGenerator(TimeOrderedOrderNumberGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}